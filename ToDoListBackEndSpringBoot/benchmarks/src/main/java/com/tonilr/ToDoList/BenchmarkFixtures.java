@@ -0,0 +1,117 @@
+package com.tonilr.ToDoList;
+
+import com.tonilr.ToDoList.model.Task;
+import com.tonilr.ToDoList.model.TaskList;
+import com.tonilr.ToDoList.model.User;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Datos de prueba deterministas para los benchmarks: misma semilla, mismos datos en cada ejecución.
+ */
+public final class BenchmarkFixtures {
+
+    private static final long SEED = 42L;
+
+    private static final String[] WORDS = {
+        "comprar", "revisar", "informe", "reunión", "llamar", "cliente", "factura", "proyecto",
+        "entrega", "correo", "presupuesto", "diseño", "backend", "frontend", "despliegue", "notas"
+    };
+
+    // Fecha base fija: las fechas límite no dependen del momento en que se generan
+    private static final LocalDateTime BASE_DATE = LocalDateTime.of(2025, 1, 15, 9, 0);
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Asigna un campo inyectado por Spring (@Value/@Autowired) en un objeto creado a mano.
+     */
+    public static void setField(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
+    public static User user() {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("bench-user");
+        user.setEmail("bench-user@example.com");
+        user.setPassword("secret");
+        user.setTimezone("Europe/Madrid");
+        return user;
+    }
+
+    /**
+     * Listas con sus tareas, todas del mismo usuario.
+     * @param lists Número de listas
+     * @param tasksPerList Tareas por lista
+     */
+    public static List<TaskList> taskLists(int lists, int tasksPerList) {
+        Random random = new Random(SEED);
+        User owner = user();
+        List<TaskList> result = new ArrayList<>(lists);
+        long taskId = 1;
+        for (int l = 0; l < lists; l++) {
+            TaskList list = new TaskList();
+            list.setId((long) l + 1);
+            list.setName("Lista " + (l + 1));
+            list.setDescription(sentence(random, 6));
+            list.setOwner(owner);
+            list.setUser(owner);
+            List<Task> tasks = new ArrayList<>(tasksPerList);
+            for (int t = 0; t < tasksPerList; t++) {
+                tasks.add(task(random, taskId++, list, owner));
+            }
+            list.setTasks(tasks);
+            result.add(list);
+        }
+        return result;
+    }
+
+    /**
+     * Tareas sueltas repartidas en listas de 50.
+     * @param count Número de tareas
+     */
+    public static List<Task> tasks(int count) {
+        List<Task> tasks = new ArrayList<>(count);
+        for (TaskList list : taskLists((count + 49) / 50, 50)) {
+            tasks.addAll(list.getTasks());
+        }
+        return tasks.subList(0, count);
+    }
+
+    private static Task task(Random random, long id, TaskList list, User owner) {
+        Task task = new Task();
+        task.setId(id);
+        task.setTitle(sentence(random, 2 + random.nextInt(4)));
+        task.setDescription(random.nextInt(4) == 0 ? null : sentence(random, 5 + random.nextInt(20)));
+        task.setCompleted(random.nextInt(3) == 0);
+        task.setPriority(1 + random.nextInt(3));
+        task.setDueDate(random.nextInt(5) == 0 ? null : BASE_DATE.plusHours(random.nextInt(24 * 60) - 24 * 15));
+        task.setCreatedAt(new Date(1_700_000_000_000L + random.nextInt(1_000_000) * 1000L));
+        task.setTaskList(list);
+        task.setUser(owner);
+        task.setAssignedTo(owner);
+        task.setRank(String.format("%08d", id));
+        return task;
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sentence.append(' ');
+            }
+            sentence.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sentence.toString();
+    }
+}
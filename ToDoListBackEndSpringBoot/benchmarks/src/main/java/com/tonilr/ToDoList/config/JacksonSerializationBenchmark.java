@@ -0,0 +1,66 @@
+package com.tonilr.ToDoList.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tonilr.ToDoList.BenchmarkFixtures;
+import com.tonilr.ToDoList.dto.DTOMapper;
+import com.tonilr.ToDoList.dto.TaskListDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización JSON de listas de tareas con el ObjectMapper de JacksonConfig.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JacksonSerializationBenchmark {
+
+    private static final TypeReference<List<TaskListDTO>> TASK_LISTS = new TypeReference<>() {};
+
+    @Param({"10"})
+    private int lists;
+
+    @Param({"20", "200"})
+    private int tasksPerList;
+
+    private ObjectMapper objectMapper;
+    private List<TaskListDTO> taskLists;
+    private String json;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = new JacksonConfig().objectMapper();
+        DTOMapper dtoMapper = new DTOMapper();
+        taskLists = BenchmarkFixtures.taskLists(lists, tasksPerList).stream()
+            .map(dtoMapper::toTaskListDTO)
+            .toList();
+        json = objectMapper.writeValueAsString(taskLists);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(taskLists);
+    }
+
+    @Benchmark
+    public List<TaskListDTO> deserialize() throws JsonProcessingException {
+        return objectMapper.readValue(json, TASK_LISTS);
+    }
+}
@@ -0,0 +1,62 @@
+package com.tonilr.ToDoList.dto;
+
+import com.tonilr.ToDoList.BenchmarkFixtures;
+import com.tonilr.ToDoList.model.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ida y vuelta TaskDTO -> CacheableTaskDTO -> TaskDTO, como al guardar y leer de la caché.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheableTaskDTOBenchmark {
+
+    private List<TaskDTO> taskDTOs;
+    private List<CacheableTaskDTO> cached;
+
+    @Setup
+    public void setUp() {
+        DTOMapper dtoMapper = new DTOMapper();
+        List<Task> tasks = BenchmarkFixtures.tasks(100);
+        taskDTOs = tasks.stream().map(dtoMapper::toTaskDTO).toList();
+        cached = taskDTOs.stream().map(CacheableTaskDTO::new).toList();
+    }
+
+    @Benchmark
+    public void toCacheable(Blackhole blackhole) {
+        for (TaskDTO dto : taskDTOs) {
+            blackhole.consume(new CacheableTaskDTO(dto));
+        }
+    }
+
+    @Benchmark
+    public void fromCacheable(Blackhole blackhole) {
+        for (CacheableTaskDTO dto : cached) {
+            blackhole.consume(dto.toTaskDTO());
+        }
+    }
+
+    @Benchmark
+    public void roundTrip(Blackhole blackhole) {
+        for (TaskDTO dto : taskDTOs) {
+            blackhole.consume(new CacheableTaskDTO(dto).toTaskDTO());
+        }
+    }
+}
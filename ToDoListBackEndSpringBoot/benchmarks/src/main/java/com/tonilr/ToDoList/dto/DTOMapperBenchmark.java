@@ -0,0 +1,58 @@
+package com.tonilr.ToDoList.dto;
+
+import com.tonilr.ToDoList.BenchmarkFixtures;
+import com.tonilr.ToDoList.model.Task;
+import com.tonilr.ToDoList.model.TaskList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversión de entidades a DTO, la que se hace en cada respuesta de tareas y listas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DTOMapperBenchmark {
+
+    @Param({"10", "200"})
+    private int tasksPerList;
+
+    private DTOMapper dtoMapper;
+    private TaskList taskList;
+    private List<Task> tasks;
+
+    @Setup
+    public void setUp() {
+        dtoMapper = new DTOMapper();
+        taskList = BenchmarkFixtures.taskLists(1, tasksPerList).get(0);
+        tasks = taskList.getTasks();
+    }
+
+    @Benchmark
+    public void toTaskDTO(Blackhole blackhole) {
+        for (Task task : tasks) {
+            blackhole.consume(dtoMapper.toTaskDTO(task));
+        }
+    }
+
+    @Benchmark
+    public TaskListDTO toTaskListDTO() {
+        return dtoMapper.toTaskListDTO(taskList);
+    }
+}
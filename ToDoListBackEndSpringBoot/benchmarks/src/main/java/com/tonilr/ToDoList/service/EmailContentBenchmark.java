@@ -0,0 +1,64 @@
+package com.tonilr.ToDoList.service;
+
+import com.tonilr.ToDoList.BenchmarkFixtures;
+import com.tonilr.ToDoList.model.Task;
+import com.tonilr.ToDoList.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generación del HTML de los correos de recordatorio y resumen.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailContentBenchmark {
+
+    @Param({"5", "50"})
+    private int tasksPerSection;
+
+    private EmailService emailService;
+    private User user;
+    private Map<String, List<Task>> singleSection;
+    private Map<String, List<Task>> summarySections;
+
+    @Setup
+    public void setUp() {
+        emailService = new EmailService();
+        user = BenchmarkFixtures.user();
+        List<Task> tasks = BenchmarkFixtures.tasks(tasksPerSection * 3);
+        singleSection = new LinkedHashMap<>();
+        singleSection.put(null, tasks.subList(0, tasksPerSection));
+        summarySections = new LinkedHashMap<>();
+        summarySections.put("Vencidas", tasks.subList(0, tasksPerSection));
+        summarySections.put("Para hoy", tasks.subList(tasksPerSection, tasksPerSection * 2));
+        summarySections.put("Próximos días", tasks.subList(tasksPerSection * 2, tasksPerSection * 3));
+    }
+
+    @Benchmark
+    public String reminder() {
+        return emailService.buildEmailContent(singleSection, "Recordatorio de tareas", user);
+    }
+
+    @Benchmark
+    public String summary() {
+        return emailService.buildEmailContent(summarySections, "Resumen de tareas", user);
+    }
+}
@@ -0,0 +1,56 @@
+package com.tonilr.ToDoList.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saneado de entradas de usuario, que se aplica a cada título y descripción recibidos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SanitizationBenchmark {
+
+    private static final String PLAIN_TEXT = "Revisar el informe trimestral con el cliente antes del viernes";
+
+    private static final String HTML = "<p>Revisar <strong>informe</strong> con <em>cliente</em></p>"
+        + "<ul><li>Presupuesto</li><li>Entrega <a href='https://example.com' onclick='steal()'>enlace</a></li></ul>"
+        + "<script>alert('xss')</script><div class='nota' style='color: red'>Nota final</div>";
+
+    private static final String EMAIL = "bench.user+tareas@example.com";
+
+    private SanitizationService sanitizationService;
+
+    @Setup
+    public void setUp() {
+        sanitizationService = new SanitizationService();
+    }
+
+    @Benchmark
+    public String sanitizeText() {
+        return sanitizationService.sanitizeText(PLAIN_TEXT);
+    }
+
+    @Benchmark
+    public String sanitizeHtml() {
+        return sanitizationService.sanitizeHtml(HTML);
+    }
+
+    @Benchmark
+    public String sanitizeEmail() {
+        return sanitizationService.sanitizeEmail(EMAIL);
+    }
+}
@@ -0,0 +1,67 @@
+package com.tonilr.ToDoList.service;
+
+import com.tonilr.ToDoList.BenchmarkFixtures;
+import com.tonilr.ToDoList.model.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Predicado de filtrado de getFilteredTasks sobre las tareas de un usuario, sin base de datos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskFilterBenchmark {
+
+    @Param({"1000"})
+    private int taskCount;
+
+    private TaskService taskService;
+    private List<Task> tasks;
+
+    @Setup
+    public void setUp() {
+        taskService = new TaskService();
+        tasks = BenchmarkFixtures.tasks(taskCount);
+    }
+
+    private int count(String search, Boolean completed, String priority, String dateFilter) {
+        int matches = 0;
+        for (Task task : tasks) {
+            if (taskService.matchesFilters(task, search, completed, priority, dateFilter)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int noFilters() {
+        return count(null, null, "all", "all");
+    }
+
+    @Benchmark
+    public int search() {
+        return count("Informe", null, "all", "all");
+    }
+
+    @Benchmark
+    public int allFilters() {
+        return count("cliente", false, "1", "overdue");
+    }
+}
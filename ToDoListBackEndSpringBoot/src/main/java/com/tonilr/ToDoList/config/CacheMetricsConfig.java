@@ -0,0 +1,30 @@
+package com.tonilr.ToDoList.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Envuelve el CacheManager de la aplicación en un {@link MeteredCacheManager}
+ * para publicar aciertos, fallos, desalojos y tiempo de carga de cada caché.
+ */
+@Configuration
+public class CacheMetricsConfig {
+
+    @Bean
+    public static BeanPostProcessor meteredCacheManagerPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof CacheManager cacheManager && !(bean instanceof MeteredCacheManager)) {
+                    // El registro se resuelve en el primer uso de cada caché, no al crear el CacheManager
+                    return new MeteredCacheManager(cacheManager, meterRegistry::getObject);
+                }
+                return bean;
+            }
+        };
+    }
+}
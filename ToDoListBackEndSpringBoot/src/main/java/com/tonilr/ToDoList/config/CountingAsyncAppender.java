@@ -0,0 +1,43 @@
+package com.tonilr.ToDoList.config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AsyncAppender que cuenta los eventos que no llegan a encolarse: los de nivel INFO o inferior
+ * descartados al pasar del discardingThreshold y, con neverBlock, los que encuentran la cola llena.
+ */
+public class CountingAsyncAppender extends AsyncAppender {
+
+    private static final AtomicLong dropped = new AtomicLong();
+
+    @Override
+    protected boolean isDiscardable(ILoggingEvent event) {
+        // Solo se consulta cuando la cola ya está por encima del umbral
+        boolean discardable = super.isDiscardable(event);
+        if (discardable) {
+            dropped.incrementAndGet();
+        }
+        return discardable;
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        // Con la cola llena los INFO o inferiores ya se cuentan en isDiscardable; aquí el resto
+        boolean full = isNeverBlock() && getRemainingCapacity() == 0;
+        if (full && (getDiscardingThreshold() == 0 || event.getLevel().toInt() > Level.INFO_INT)) {
+            dropped.incrementAndGet();
+        }
+        super.append(event);
+    }
+
+    /**
+     * Eventos perdidos por cola llena desde que arrancó la JVM.
+     */
+    public static long getDroppedCount() {
+        return dropped.get();
+    }
+}
@@ -6,8 +6,13 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 
+import java.io.IOException;
+import java.lang.reflect.Type;
+
 @Configuration
 public class JacksonConfig {
     @Bean
@@ -20,4 +25,20 @@ public class JacksonConfig {
         mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
         return mapper;
     }
-}   
\ No newline at end of file
+
+    // Sustituye al conversor de Boot para sumar la escritura del cuerpo a la fase json del RequestTiming
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2HttpMessageConverter(objectMapper) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+                long start = System.nanoTime();
+                try {
+                    super.writeInternal(object, type, outputMessage);
+                } finally {
+                    RequestTiming.record(RequestTiming.SERIALIZATION, System.nanoTime() - start);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,29 @@
+package com.tonilr.ToDoList.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Publica los mensajes de log que no llegan a escribirse (logging.suppressed):
+ * reason=rate_limit los corta {@link RateLimitingTurboFilter} y reason=queue_full
+ * los descarta {@link CountingAsyncAppender} con la cola llena.
+ */
+@Configuration
+public class LoggingMetricsConfig {
+
+    @Bean
+    public MeterBinder loggingSuppressedMetrics() {
+        return registry -> {
+            FunctionCounter.builder("logging.suppressed", RateLimitingTurboFilter.class, filter -> RateLimitingTurboFilter.getSuppressedCount())
+                .description("Mensajes de log que no se han escrito")
+                .tag("reason", "rate_limit")
+                .register(registry);
+            FunctionCounter.builder("logging.suppressed", CountingAsyncAppender.class, appender -> CountingAsyncAppender.getDroppedCount())
+                .description("Mensajes de log que no se han escrito")
+                .tag("reason", "queue_full")
+                .register(registry);
+        };
+    }
+}
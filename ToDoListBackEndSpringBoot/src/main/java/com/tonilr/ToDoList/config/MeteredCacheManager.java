@@ -0,0 +1,202 @@
+package com.tonilr.ToDoList.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * CacheManager que envuelve al real (Redis, Caffeine o NoOp) y publica por caché:
+ * cache.gets (result=hit|miss), cache.puts, cache.evictions y cache.load.
+ * El tiempo de carga es el que pasa entre un fallo y el put de la misma clave en el
+ * mismo hilo, que es lo que hace @Cacheable al ejecutar el método.
+ * Cubre también las cachés que se crean al vuelo, que el registro de Boot no ve.
+ * Las lecturas y escrituras suman además a la fase cache del {@link RequestTiming}.
+ */
+public class MeteredCacheManager implements CacheManager {
+
+    private final CacheManager target;
+    private final Supplier<MeterRegistry> meterRegistry;
+    private final Map<String, MeteredCache> caches = new ConcurrentHashMap<>();
+
+    public MeteredCacheManager(CacheManager target, Supplier<MeterRegistry> meterRegistry) {
+        this.target = target;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public CacheManager getTarget() {
+        return target;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = target.getCache(name);
+        if (cache == null) {
+            return null;
+        }
+        MeteredCache metered = caches.get(name);
+        if (metered == null || metered.getTarget() != cache) {
+            metered = new MeteredCache(cache, meterRegistry.get());
+            caches.put(name, metered);
+        }
+        return metered;
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return target.getCacheNames();
+    }
+
+    /**
+     * Caché con contadores de aciertos, fallos, escrituras y desalojos.
+     */
+    static class MeteredCache implements Cache {
+
+        private record PendingLoad(Object key, long startNanos) {
+        }
+
+        private final Cache target;
+        private final Counter hits;
+        private final Counter misses;
+        private final Counter puts;
+        private final Counter evictions;
+        private final Timer loads;
+        // Último fallo de este hilo, a la espera del put que lo resuelve
+        private final ThreadLocal<PendingLoad> pendingLoad = new ThreadLocal<>();
+
+        MeteredCache(Cache target, MeterRegistry registry) {
+            this.target = target;
+            String name = target.getName();
+            this.hits = Counter.builder("cache.gets").tag("cache", name).tag("result", "hit")
+                .description("Lecturas de la caché que encontraron valor").register(registry);
+            this.misses = Counter.builder("cache.gets").tag("cache", name).tag("result", "miss")
+                .description("Lecturas de la caché sin valor").register(registry);
+            this.puts = Counter.builder("cache.puts").tag("cache", name)
+                .description("Escrituras en la caché").register(registry);
+            this.evictions = Counter.builder("cache.evictions").tag("cache", name)
+                .description("Desalojos explícitos (evict y clear)").register(registry);
+            this.loads = Timer.builder("cache.load").tag("cache", name)
+                .description("Tiempo en calcular un valor tras un fallo de caché")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+        }
+
+        Cache getTarget() {
+            return target;
+        }
+
+        @Override
+        public String getName() {
+            return target.getName();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return target.getNativeCache();
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            return record(key, RequestTiming.time(RequestTiming.CACHE, () -> target.get(key)));
+        }
+
+        @Override
+        public <T> T get(Object key, Class<T> type) {
+            return record(key, RequestTiming.time(RequestTiming.CACHE, () -> target.get(key, type)));
+        }
+
+        @Override
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            boolean[] loaded = {false};
+            T value = target.get(key, () -> {
+                loaded[0] = true;
+                long start = System.nanoTime();
+                try {
+                    return valueLoader.call();
+                } finally {
+                    loads.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            });
+            (loaded[0] ? misses : hits).increment();
+            return value;
+        }
+
+        @Override
+        public CompletableFuture<?> retrieve(Object key) {
+            return target.retrieve(key);
+        }
+
+        @Override
+        public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+            return target.retrieve(key, valueLoader);
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            RequestTiming.time(RequestTiming.CACHE, () -> target.put(key, value));
+            recordPut(key);
+        }
+
+        @Override
+        public ValueWrapper putIfAbsent(Object key, Object value) {
+            ValueWrapper existing = RequestTiming.time(RequestTiming.CACHE, () -> target.putIfAbsent(key, value));
+            recordPut(key);
+            return existing;
+        }
+
+        @Override
+        public void evict(Object key) {
+            target.evict(key);
+            evictions.increment();
+        }
+
+        @Override
+        public boolean evictIfPresent(Object key) {
+            evictions.increment();
+            return target.evictIfPresent(key);
+        }
+
+        @Override
+        public void clear() {
+            target.clear();
+            evictions.increment();
+        }
+
+        @Override
+        public boolean invalidate() {
+            evictions.increment();
+            return target.invalidate();
+        }
+
+        private <T> T record(Object key, T value) {
+            if (value != null) {
+                hits.increment();
+            } else {
+                misses.increment();
+                pendingLoad.set(new PendingLoad(key, System.nanoTime()));
+            }
+            return value;
+        }
+
+        private void recordPut(Object key) {
+            puts.increment();
+            PendingLoad pending = pendingLoad.get();
+            if (pending != null) {
+                pendingLoad.remove();
+                if (Objects.equals(pending.key(), key)) {
+                    loads.record(System.nanoTime() - pending.startNanos(), TimeUnit.NANOSECONDS);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.tonilr.ToDoList.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.LoggerFactory;
+import org.slf4j.Marker;
+import org.springframework.util.StringUtils;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limita los mensajes por punto de log (logger + patrón del mensaje, sin argumentos).
+ * En cada ventana de windowMs deja pasar los primeros burst mensajes y después solo uno
+ * de cada sampleEvery (0 = ninguno). Al abrirse la siguiente ventana se escribe un resumen
+ * con los que se descartaron. Se configura en logback-spring.xml, antes de que arranque Spring,
+ * por eso los contadores son estáticos.
+ *
+ * Se siguen como mucho maxCallSites puntos: con el mapa lleno se retiran las ventanas ya
+ * caducadas y, si sigue lleno, los puntos nuevos (p. ej. mensajes concatenados, un patrón
+ * por valor) comparten una sola ventana "otros" que también se limita.
+ */
+public class RateLimitingTurboFilter extends TurboFilter {
+
+    static final String SUMMARY_LOGGER = "todolist.logging";
+
+    private static final AtomicLong suppressed = new AtomicLong();
+
+    private long windowNanos = TimeUnit.SECONDS.toNanos(1);
+    private int burst = 20;
+    private int sampleEvery = 100;
+    private int maxCallSites = 1024;
+    private Set<String> excludedLoggers = Set.of(SUMMARY_LOGGER);
+
+    // Punto compartido por los que no caben en el mapa
+    private static final CallSite OVERFLOW = new CallSite("*", "(otros puntos de log)");
+
+    private final Map<CallSite, Window> windows = new ConcurrentHashMap<>();
+
+    // Última limpieza de ventanas caducadas: como mucho una por ventana
+    private final AtomicLong lastSweep = new AtomicLong(System.nanoTime());
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // Se llama en cada log, también en los de nivel desactivado: lo primero es descartar esos sin coste
+        if (!isStarted() || format == null || !level.isGreaterOrEqual(logger.getEffectiveLevel())
+                || excludedLoggers.contains(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+
+        long now = System.nanoTime();
+        CallSite site = new CallSite(logger.getName(), format);
+        Window window = windows.get(site);
+        if (window == null) {
+            if (windows.size() >= maxCallSites) {
+                evictExpired(now);
+            }
+            if (windows.size() >= maxCallSites) {
+                site = OVERFLOW;
+            }
+            window = windows.computeIfAbsent(site, key -> new Window());
+        }
+
+        long dropped = 0;
+        boolean allowed;
+        synchronized (window) {
+            if (now - window.start >= windowNanos) {
+                dropped = window.dropped;
+                window.start = now;
+                window.count = 0;
+                window.dropped = 0;
+            }
+            long count = ++window.count;
+            allowed = count <= burst || (sampleEvery > 0 && (count - burst) % sampleEvery == 0);
+            if (!allowed) {
+                window.dropped++;
+            }
+        }
+
+        if (dropped > 0) {
+            logSummary(site, dropped);
+        }
+        if (allowed) {
+            return FilterReply.NEUTRAL;
+        }
+        suppressed.incrementAndGet();
+        return FilterReply.DENY;
+    }
+
+    // Retira las ventanas que no han recibido mensajes en su último periodo; lo hace un solo hilo
+    private void evictExpired(long now) {
+        long last = lastSweep.get();
+        if (now - last < windowNanos || !lastSweep.compareAndSet(last, now)) {
+            return;
+        }
+        windows.forEach((site, window) -> {
+            long dropped;
+            synchronized (window) {
+                if (now - window.start < windowNanos) {
+                    return;
+                }
+                dropped = window.dropped;
+            }
+            if (windows.remove(site, window) && dropped > 0) {
+                logSummary(site, dropped);
+            }
+        });
+    }
+
+    private static void logSummary(CallSite site, long dropped) {
+        LoggerFactory.getLogger(SUMMARY_LOGGER).warn("Suprimidos {} mensajes de {}: \"{}\"", dropped, site.logger(), abbreviate(site.format()));
+    }
+
+    /**
+     * Mensajes descartados por el límite desde que arrancó la JVM.
+     */
+    public static long getSuppressedCount() {
+        return suppressed.get();
+    }
+
+    public void setWindowMs(long windowMs) {
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+    }
+
+    public void setBurst(int burst) {
+        this.burst = burst;
+    }
+
+    public void setSampleEvery(int sampleEvery) {
+        this.sampleEvery = sampleEvery;
+    }
+
+    public void setMaxCallSites(int maxCallSites) {
+        this.maxCallSites = maxCallSites;
+    }
+
+    /**
+     * Loggers que no se limitan, separados por comas (el del resumen siempre está excluido).
+     */
+    public void setExcludedLoggers(String excludedLoggers) {
+        Set<String> names = new HashSet<>(StringUtils.commaDelimitedListToSet(excludedLoggers));
+        names.add(SUMMARY_LOGGER);
+        this.excludedLoggers = Set.copyOf(names);
+    }
+
+    // Solo la primera línea del patrón, para que el resumen quepa en una línea
+    private static String abbreviate(String format) {
+        int end = format.indexOf('\n');
+        String line = end >= 0 ? format.substring(0, end).trim() : format;
+        return line.length() > 120 ? line.substring(0, 120) + "..." : line;
+    }
+
+    private record CallSite(String logger, String format) {
+    }
+
+    private static final class Window {
+        private long start = System.nanoTime();
+        private long count;
+        private long dropped;
+    }
+}
@@ -0,0 +1,100 @@
+package com.tonilr.ToDoList.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+
+/**
+ * Réplica de lectura: las transacciones @Transactional(readOnly = true) usan el pool
+ * de la réplica y el resto el primario (spring.datasource.*).
+ * Solo se activa con app.datasource.replica.enabled=true; si no, se usa el DataSource
+ * autoconfigurado de Spring Boot.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+@Slf4j
+public class ReadReplicaConfig {
+
+    @Value("${app.datasource.replica.url}")
+    private String replicaUrl;
+
+    @Value("${app.datasource.replica.username:${spring.datasource.username:}}")
+    private String replicaUsername;
+
+    @Value("${app.datasource.replica.password:${spring.datasource.password:}}")
+    private String replicaPassword;
+
+    @Value("${app.datasource.replica.max-lag-ms:2000}")
+    private long maxLagMillis;
+
+    @Value("${app.datasource.replica.read-your-writes-ms:5000}")
+    private long readYourWritesMillis;
+
+    /**
+     * Pool del primario, configurado con spring.datasource.* y spring.datasource.hikari.*.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    /**
+     * Pool de la réplica, configurado con app.datasource.replica.* y app.datasource.replica.hikari.*.
+     */
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+            .type(HikariDataSource.class)
+            .driverClassName(properties.determineDriverClassName())
+            .url(replicaUrl)
+            .username(replicaUsername)
+            .password(replicaPassword)
+            .build();
+        dataSource.setPoolName("replica");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                                             @Qualifier("replicaDataSource") DataSource replica) {
+        if (readYourWritesMillis <= maxLagMillis) {
+            // Con una ventana menor que el retraso admitido un usuario podría no ver su propia escritura
+            log.warn("app.datasource.replica.read-your-writes-ms ({}) debería ser mayor que max-lag-ms ({})",
+                readYourWritesMillis, maxLagMillis);
+        }
+        return new ReplicaRoutingDataSource(primary, replica, maxLagMillis, readYourWritesMillis);
+    }
+
+    /**
+     * DataSource que usan JPA, Flyway y JdbcTemplate. El proxy retrasa la elección del
+     * pool hasta la primera sentencia, cuando ya se sabe si la transacción es de solo lectura.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public ReplicationLagMonitor replicationLagMonitor(@Qualifier("primaryDataSource") DataSource primary,
+                                                       @Qualifier("replicaDataSource") DataSource replica,
+                                                       ReplicaRoutingDataSource routingDataSource) {
+        return new ReplicationLagMonitor(primary, replica, routingDataSource, Clock.systemUTC());
+    }
+}
@@ -0,0 +1,73 @@
+package com.tonilr.ToDoList.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Configuración del ejecutor usado para repartir el envío de recordatorios.
+ * En JDK 21+ usa hilos virtuales; en JDK 17 un pool de hilos de plataforma acotado.
+ * La concurrencia real por etapa (BD / SMTP) se limita en GlobalReminderService.
+ */
+@Configuration
+@Slf4j
+public class ReminderExecutorConfig {
+
+    @Value("${app.reminders.pool-size:4}")
+    private int poolSize;
+
+    @Value("${app.reminders.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${app.reminders.virtual-threads:true}")
+    private boolean virtualThreadsEnabled;
+
+    /**
+     * Ejecutor para el trabajo por usuario de los recordatorios.
+     * @return ExecutorService con hilos virtuales o pool acotado
+     */
+    @Bean(name = "reminderExecutor", destroyMethod = "shutdown")
+    public ExecutorService reminderExecutor() {
+        if (virtualThreadsEnabled && Runtime.version().feature() >= 21) {
+            try {
+                // Compilamos contra Java 17, así que el método se resuelve por reflexión
+                ExecutorService executor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+                log.info("Recordatorios usando hilos virtuales");
+                return executor;
+            } catch (ReflectiveOperationException e) {
+                log.warn("No se pudieron crear hilos virtuales, usando pool de plataforma: {}", e.getMessage());
+            }
+        }
+
+        int threads = Math.max(1, poolSize);
+        log.info("Recordatorios usando pool de plataforma de {} hilos", threads);
+        // CallerRunsPolicy aplica contrapresión sobre el hilo del scheduler si la cola se llena
+        return new ThreadPoolExecutor(
+            threads, threads,
+            60L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+            namedThreadFactory("reminder-"),
+            new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+    }
+
+    private ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,252 @@
+package com.tonilr.ToDoList.config;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * DataSource que envía las transacciones de solo lectura a la réplica y el resto al primario.
+ *
+ * Una lectura va al primario si la réplica no responde, si su retraso (medido por
+ * ReplicationLagMonitor) supera el máximo, o si el mismo usuario ha confirmado una
+ * escritura hace menos de readYourWritesMillis. Debe usarse detrás de un
+ * LazyConnectionDataSourceProxy: la conexión se elige en la primera sentencia, cuando
+ * el flag readOnly de la transacción ya está establecido.
+ *
+ * Las escrituras se recuerdan en memoria de este nodo y, además, en la cookie
+ * READ_YOUR_WRITES_COOKIE de la respuesta, que lleva el fin de la ventana. Con varios
+ * nodos detrás del balanceador es la cookie la que fija las lecturas del cliente al
+ * primario en cualquier nodo; un cliente que no devuelve cookies (peticiones sin
+ * credenciales) solo tiene lectura de sus escrituras en el nodo que atendió la escritura,
+ * y en ese caso hace falta afinidad de sesión en el balanceador. Las escrituras anónimas
+ * (el registro) también dejan la cookie, y el login lee el usuario en el primario con
+ * onPrimary: si no, el login justo después de registrarse fallaría con la réplica retrasada.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route { PRIMARY, REPLICA }
+
+    static final String READ_YOUR_WRITES_COOKIE = "rw_until";
+
+    // Lecturas que deben ver el último estado confirmado aunque la réplica vaya con retraso
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final long maxLagMillis;
+    private final long readYourWritesMillis;
+
+    // Última escritura confirmada por usuario (epoch millis)
+    private final Map<String, Long> lastWriteByUser = new ConcurrentHashMap<>();
+
+    // -1 = desconocido o réplica caída: todo al primario hasta la siguiente medición
+    private volatile long replicaLagMillis = -1;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, long maxLagMillis, long readYourWritesMillis) {
+        this.primary = primary;
+        this.replica = replica;
+        this.maxLagMillis = maxLagMillis;
+        this.readYourWritesMillis = readYourWritesMillis;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return route(currentUsername());
+    }
+
+    /**
+     * Decide el destino de la conexión que se va a abrir en el hilo actual.
+     * @param username Usuario autenticado, o null en tareas programadas
+     * @return PRIMARY o REPLICA
+     */
+    Route route(String username) {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            rememberWriteOnCommit(username);
+            return Route.PRIMARY;
+        }
+        if (!isReplicaUsable() || Boolean.TRUE.equals(FORCE_PRIMARY.get())) {
+            return Route.PRIMARY;
+        }
+        if (username != null && isWithinReadYourWritesWindow(username)) {
+            return Route.PRIMARY;
+        }
+        if (isClientPinnedToPrimary()) {
+            return Route.PRIMARY;
+        }
+        return Route.REPLICA;
+    }
+
+    /**
+     * Ejecuta la acción con todas sus lecturas en el primario.
+     * @param action Acción a ejecutar en el hilo actual
+     * @return Resultado de la acción
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        Boolean previous = FORCE_PRIMARY.get();
+        FORCE_PRIMARY.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                FORCE_PRIMARY.remove();
+            } else {
+                FORCE_PRIMARY.set(previous);
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (determineCurrentLookupKey() != Route.REPLICA) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.getConnection();
+        } catch (SQLException e) {
+            // Réplica inaccesible: se deja de usar hasta que el monitor vuelva a medirla
+            log.warn("Réplica de lectura no disponible, usando el primario: {}", e.getMessage());
+            markReplicaUnavailable();
+            return primary.getConnection();
+        }
+    }
+
+    public boolean isReplicaUsable() {
+        long lag = replicaLagMillis;
+        return lag >= 0 && lag <= maxLagMillis;
+    }
+
+    public long getReplicaLagMillis() {
+        return replicaLagMillis;
+    }
+
+    public void updateReplicaLag(long lagMillis) {
+        this.replicaLagMillis = Math.max(0, lagMillis);
+    }
+
+    public void markReplicaUnavailable() {
+        this.replicaLagMillis = -1;
+    }
+
+    /**
+     * Anota una escritura confirmada del usuario; sus lecturas irán al primario durante la ventana.
+     * @param username Usuario que escribió
+     */
+    public void recordWrite(String username) {
+        lastWriteByUser.put(username, System.currentTimeMillis());
+    }
+
+    public boolean isWithinReadYourWritesWindow(String username) {
+        Long lastWrite = lastWriteByUser.get(username);
+        return lastWrite != null && System.currentTimeMillis() - lastWrite < readYourWritesMillis;
+    }
+
+    /**
+     * Elimina las ventanas ya caducadas para que el mapa no crezca con usuarios inactivos.
+     */
+    public void pruneExpiredWrites() {
+        long cutoff = System.currentTimeMillis() - readYourWritesMillis;
+        lastWriteByUser.values().removeIf(lastWrite -> lastWrite < cutoff);
+    }
+
+    // Sin usuario (registro, tareas programadas) solo se fija la cookie, si hay petición en curso
+    private void rememberWriteOnCommit(String username) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (username != null) {
+                    recordWrite(username);
+                }
+                pinClientToPrimary();
+            }
+        });
+    }
+
+    /**
+     * Añade a la respuesta en curso la cookie con el fin de la ventana, para que
+     * las siguientes lecturas del cliente vayan al primario aunque las atienda otro nodo.
+     */
+    private void pinClientToPrimary() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return;
+        }
+        HttpServletResponse response = servletAttributes.getResponse();
+        if (response == null || response.isCommitted()) {
+            return;
+        }
+        boolean secure = servletAttributes.getRequest().isSecure();
+        ResponseCookie cookie = ResponseCookie
+            .from(READ_YOUR_WRITES_COOKIE, Long.toString(System.currentTimeMillis() + readYourWritesMillis))
+            .path("/")
+            .maxAge(Duration.ofMillis(readYourWritesMillis))
+            .httpOnly(true)
+            .secure(secure)
+            // El frontend está en otro dominio: sin SameSite=None el navegador no la devuelve
+            .sameSite(secure ? "None" : "Lax")
+            .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+
+    /**
+     * La cookie de la petición en curso indica una escritura reciente del cliente.
+     * Un valor más allá de la ventana configurada se ignora: como mucho envía sus lecturas al primario.
+     */
+    private boolean isClientPinnedToPrimary() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return false;
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        for (Cookie cookie : cookies) {
+            if (READ_YOUR_WRITES_COOKIE.equals(cookie.getName())) {
+                try {
+                    long until = Long.parseLong(cookie.getValue());
+                    return until > now && until - now <= readYourWritesMillis;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    private String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
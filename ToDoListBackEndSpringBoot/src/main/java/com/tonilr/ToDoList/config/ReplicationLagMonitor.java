@@ -0,0 +1,83 @@
+package com.tonilr.ToDoList.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Clock;
+
+/**
+ * Mide el retraso de la réplica con un latido: escribe la hora actual en
+ * replication_heartbeat del primario y lee la última que ha llegado a la réplica.
+ * No depende de SHOW REPLICA STATUS, así que funciona con cualquier motor y con
+ * dos bases de datos embebidas en los tests.
+ */
+@Slf4j
+public class ReplicationLagMonitor {
+
+    private final JdbcTemplate primaryJdbc;
+    private final JdbcTemplate replicaJdbc;
+    private final TransactionTemplate primaryTransaction;
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final Clock clock;
+
+    // Último latido escrito por este nodo
+    private volatile Timestamp lastBeat;
+
+    public ReplicationLagMonitor(DataSource primary, DataSource replica, ReplicaRoutingDataSource routingDataSource, Clock clock) {
+        this.primaryJdbc = new JdbcTemplate(primary);
+        this.replicaJdbc = new JdbcTemplate(replica);
+        // El pool del primario puede tener auto-commit=false (prod): sin transacción el latido se descartaría
+        this.primaryTransaction = new TransactionTemplate(new DataSourceTransactionManager(primary));
+        this.routingDataSource = routingDataSource;
+        this.clock = clock;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:1000}")
+    public void checkLag() {
+        beat();
+        measure();
+        routingDataSource.pruneExpiredWrites();
+    }
+
+    /**
+     * Escribe el latido en el primario y lo confirma.
+     */
+    public void beat() {
+        Timestamp now = new Timestamp(clock.millis());
+        try {
+            primaryTransaction.executeWithoutResult(status -> {
+                int updated = primaryJdbc.update("UPDATE replication_heartbeat SET beat_at = ? WHERE id = 1", now);
+                if (updated == 0) {
+                    primaryJdbc.update("INSERT INTO replication_heartbeat (id, beat_at) VALUES (1, ?)", now);
+                }
+            });
+            lastBeat = now;
+        } catch (Exception e) {
+            log.warn("No se pudo escribir el latido de replicación: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Lee el latido replicado y actualiza el retraso en el DataSource de enrutado.
+     * Si la réplica ya tiene el último latido el retraso es 0; si no, es el tiempo
+     * transcurrido desde el latido que tiene (cota superior, con la precisión del intervalo).
+     */
+    public void measure() {
+        try {
+            Timestamp replicated = replicaJdbc.queryForObject(
+                "SELECT beat_at FROM replication_heartbeat WHERE id = 1", Timestamp.class);
+            Timestamp written = lastBeat;
+            long lag = written != null && !replicated.before(written) ? 0 : clock.millis() - replicated.getTime();
+            routingDataSource.updateReplicaLag(lag);
+        } catch (Exception e) {
+            // Sin fila o réplica caída: las lecturas vuelven al primario
+            log.warn("No se pudo medir el retraso de la réplica: {}", e.getMessage());
+            routingDataSource.markReplicaUnavailable();
+        }
+    }
+}
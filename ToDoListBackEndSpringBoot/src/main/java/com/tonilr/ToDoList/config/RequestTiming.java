@@ -0,0 +1,112 @@
+package com.tonilr.ToDoList.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Desglose del tiempo de la petición del hilo actual por fases (auth, user, cache, db, json, mail, audit).
+ * ServerTimingFilter lo abre y lo cierra; sin petición abierta, record y time no hacen nada.
+ * Las fases pueden solaparse (la sentencia de auditoría cuenta en audit y en db), como en Server-Timing.
+ */
+public final class RequestTiming {
+
+    public static final String AUTH = "auth";
+    public static final String USER = "user";
+    public static final String CACHE = "cache";
+    public static final String DB = "db";
+    public static final String SERIALIZATION = "json";
+    public static final String MAIL = "mail";
+    public static final String AUDIT = "audit";
+
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Tiempo y número de veces que se ha entrado en una fase.
+     */
+    public static final class Phase {
+        private long nanos;
+        private int count;
+        // Una fase que se llama a sí misma (findByUsername dentro de findByUsername) solo cuenta la externa
+        private int depth;
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        public int getCount() {
+            return count;
+        }
+    }
+
+    private final long startNanos = System.nanoTime();
+    private final Map<String, Phase> phases = new LinkedHashMap<>();
+
+    private RequestTiming() {
+    }
+
+    public static RequestTiming start() {
+        RequestTiming timing = new RequestTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    public static RequestTiming current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Suma a la fase un tiempo ya medido (p. ej. la ejecución JDBC que mide Hibernate).
+     */
+    public static void record(String phase, long nanos) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            Phase entry = timing.phases.computeIfAbsent(phase, name -> new Phase());
+            if (entry.depth == 0) {
+                entry.nanos += nanos;
+                entry.count++;
+            }
+        }
+    }
+
+    /**
+     * Ejecuta la acción y suma su duración a la fase.
+     */
+    public static <T> T time(String phase, Supplier<T> action) {
+        RequestTiming timing = CURRENT.get();
+        if (timing == null) {
+            return action.get();
+        }
+        Phase entry = timing.phases.computeIfAbsent(phase, name -> new Phase());
+        long start = System.nanoTime();
+        entry.depth++;
+        try {
+            return action.get();
+        } finally {
+            entry.depth--;
+            if (entry.depth == 0) {
+                entry.nanos += System.nanoTime() - start;
+                entry.count++;
+            }
+        }
+    }
+
+    public static void time(String phase, Runnable action) {
+        time(phase, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    public Map<String, Phase> getPhases() {
+        return phases;
+    }
+}
@@ -0,0 +1,43 @@
+package com.tonilr.ToDoList.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registra el {@link ServerTimingFilter} en /api/*, por fuera de Spring Security
+ * para que el tiempo del filtro JWT entre en el desglose.
+ */
+@Configuration
+public class ServerTimingConfig {
+
+    // Desactivada por defecto; activada, solo responde a las peticiones con X-Server-Timing
+    @Value("${app.server-timing.header:false}")
+    private boolean header;
+
+    @Value("${app.server-timing.trace-log:true}")
+    private boolean traceLog;
+
+    // Descargas que se envían tal cual, sin pasar por memoria para añadir la cabecera
+    @Value("${app.server-timing.unbuffered-paths:/api/admin/profiling/recordings/*.jfr}")
+    private List<String> unbufferedPaths;
+
+    // Rutas sin cabecera: en el login y el registro los tiempos delatarían si un usuario existe
+    @Value("${app.server-timing.excluded-paths:/api/auth/**}")
+    private List<String> excludedPaths;
+
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter() {
+        List<String> noHeaderPaths = new ArrayList<>(unbufferedPaths);
+        noHeaderPaths.addAll(excludedPaths);
+        FilterRegistrationBean<ServerTimingFilter> registration = new FilterRegistrationBean<>(new ServerTimingFilter(header, traceLog, noHeaderPaths));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 2);
+        return registration;
+    }
+}
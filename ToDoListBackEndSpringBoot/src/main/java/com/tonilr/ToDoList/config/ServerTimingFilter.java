@@ -0,0 +1,109 @@
+package com.tonilr.ToDoList.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Abre el {@link RequestTiming} de cada petición y, al terminar, escribe una línea de traza en el
+ * logger "todolist.trace" y, si está activada, añade la cabecera Server-Timing.
+ * La cabecera solo se envía a las peticiones que la piden con X-Server-Timing y nunca en las rutas
+ * de noHeaderPaths (descargas grandes y /api/auth, donde los tiempos delatarían si un usuario existe).
+ * En esas peticiones el cuerpo se guarda en memoria hasta el final: si no, la respuesta ya
+ * estaría enviada cuando se conoce el tiempo de serialización.
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    static final String REQUEST_HEADER = "X-Server-Timing";
+
+    private static final Logger trace = LoggerFactory.getLogger("todolist.trace");
+
+    private final boolean header;
+    private final boolean traceLog;
+    private final List<String> noHeaderPaths;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public ServerTimingFilter(boolean header, boolean traceLog, List<String> noHeaderPaths) {
+        this.header = header;
+        this.traceLog = traceLog;
+        this.noHeaderPaths = noHeaderPaths;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean withHeader = header && wantsHeader(request);
+        if (!withHeader && !(traceLog && trace.isInfoEnabled())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        RequestTiming timing = RequestTiming.start();
+        ContentCachingResponseWrapper buffered = withHeader ? new ContentCachingResponseWrapper(response) : null;
+        try {
+            filterChain.doFilter(request, buffered != null ? buffered : response);
+        } finally {
+            long total = timing.getElapsedNanos();
+            RequestTiming.end();
+            if (buffered != null) {
+                buffered.setHeader("Server-Timing", serverTiming(timing, total));
+                buffered.copyBodyToResponse();
+            }
+            if (traceLog && trace.isInfoEnabled()) {
+                trace.info(traceRecord(request, response.getStatus(), timing, total));
+            }
+        }
+    }
+
+    private boolean wantsHeader(HttpServletRequest request) {
+        if (request.getHeader(REQUEST_HEADER) == null) {
+            return false;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return noHeaderPaths.stream().noneMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    // auth;dur=1.20, db;dur=4.87;desc="n=3", ..., total;dur=12.40
+    static String serverTiming(RequestTiming timing, long totalNanos) {
+        StringBuilder value = new StringBuilder();
+        for (Map.Entry<String, RequestTiming.Phase> entry : timing.getPhases().entrySet()) {
+            RequestTiming.Phase phase = entry.getValue();
+            value.append(entry.getKey()).append(";dur=").append(millis(phase.getNanos()));
+            if (phase.getCount() > 1) {
+                value.append(";desc=\"n=").append(phase.getCount()).append('"');
+            }
+            value.append(", ");
+        }
+        return value.append("total;dur=").append(millis(totalNanos)).toString();
+    }
+
+    // Formato clave=valor (logfmt), una línea por petición
+    static String traceRecord(HttpServletRequest request, int status, RequestTiming timing, long totalNanos) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        StringBuilder record = new StringBuilder()
+            .append("method=").append(request.getMethod())
+            .append(" endpoint=").append(pattern != null ? pattern : request.getRequestURI())
+            .append(" status=").append(status)
+            .append(" total_ms=").append(millis(totalNanos));
+        timing.getPhases().forEach((name, phase) -> record
+            .append(' ').append(name).append("_ms=").append(millis(phase.getNanos()))
+            .append(' ').append(name).append("_n=").append(phase.getCount()));
+        return record.toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,44 @@
+package com.tonilr.ToDoList.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Shard del hilo actual, que ShardRoutingDataSource usa para elegir la base de datos.
+ * Sin shard fijado se usa el shard 0 (directorio). Debe fijarse antes de abrir la
+ * transacción: una vez obtenida la conexión, la transacción se queda en su shard.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Fija el shard del hilo.
+     * @param shard Shard a usar, o null para volver al directorio
+     * @return Shard anterior, para restaurarlo con el mismo método
+     */
+    public static Integer set(Integer shard) {
+        Integer previous = CURRENT.get();
+        if (shard == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(shard);
+        }
+        return previous;
+    }
+
+    public static <T> T callOn(int shard, Supplier<T> action) {
+        Integer previous = set(shard);
+        try {
+            return action.get();
+        } finally {
+            set(previous);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.tonilr.ToDoList.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DataSource que elige la base de datos según ShardContext.
+ *
+ * El shard 0 es la base de datos original: guarda el directorio (usuarios, roles,
+ * preferencias, mapa de shards) y además actúa como shard de datos. Los demás shards
+ * tienen el esquema completo; en ellos las tablas de tareas, listas y logs numeran sus
+ * ids a partir de shard << idBlockBits, así que un id identifica la fila en todo el sistema.
+ */
+@Slf4j
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final int DIRECTORY_SHARD = 0;
+
+    // Tablas repartidas por usuario
+    static final List<String> SHARDED_TABLES = List.of("task_lists", "tasks", "audit_logs");
+
+    private final List<DataSource> shards;
+
+    public ShardRoutingDataSource(List<DataSource> shards) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("Se necesita al menos el shard 0");
+        }
+        this.shards = List.copyOf(shards);
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            targets.put(i, shards.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(DIRECTORY_SHARD));
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer shard = ShardContext.current();
+        return shard != null ? shard : DIRECTORY_SHARD;
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    /**
+     * Pool de un shard, sin pasar por el enrutado (ni por la transacción en curso).
+     * @param shard Índice del shard
+     * @return DataSource del shard
+     */
+    public DataSource getShard(int shard) {
+        return shards.get(shard);
+    }
+
+    /**
+     * Aplica las migraciones a los shards 1..n (el 0 lo migra Spring Boot) y coloca
+     * el contador de ids de las tablas repartidas al inicio del bloque de cada shard.
+     * @param idBlockBits Bits del bloque de ids de cada shard
+     */
+    public void prepareShards(int idBlockBits) {
+        for (int shard = 1; shard < shards.size(); shard++) {
+            DataSource dataSource = shards.get(shard);
+            Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+            reserveIdBlock(dataSource, shard, idBlockBits);
+        }
+    }
+
+    /**
+     * Cierra los pools de los shards 1..n; el del shard 0 es un bean propio.
+     */
+    public void close() throws Exception {
+        for (int shard = 1; shard < shards.size(); shard++) {
+            if (shards.get(shard) instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    public static long idBlockStart(int shard, int idBlockBits) {
+        return (long) shard << idBlockBits;
+    }
+
+    private void reserveIdBlock(DataSource dataSource, int shard, int idBlockBits) {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        long blockStart = idBlockStart(shard, idBlockBits);
+        for (String table : SHARDED_TABLES) {
+            Long maxId = jdbc.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+            if (maxId == null || maxId < blockStart) {
+                jdbc.execute("ALTER TABLE " + table + " AUTO_INCREMENT = " + blockStart);
+            }
+        }
+        log.info("Shard {} preparado (ids desde {})", shard, blockStart);
+    }
+}
@@ -0,0 +1,65 @@
+package com.tonilr.ToDoList.config;
+
+import com.tonilr.ToDoList.service.ShardRouter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Fija el shard del usuario autenticado para las peticiones de tareas y listas.
+ * Se ejecuta después de la cadena de Spring Security, cuando ya se conoce el usuario.
+ * Mientras el usuario se mueve de shard, sus escrituras reciben 503 con Retry-After.
+ */
+public class ShardRoutingFilter extends OncePerRequestFilter {
+
+    private static final List<String> SHARDED_PATHS = List.of("/api/tasks", "/api/lists");
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final ShardRouter shardRouter;
+
+    public ShardRoutingFilter(ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return SHARDED_PATHS.stream().noneMatch(path::startsWith);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Long userId = authentication == null || authentication instanceof AnonymousAuthenticationToken
+            ? null
+            : shardRouter.userIdFor(authentication.getName());
+        if (userId == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (!READ_METHODS.contains(request.getMethod()) && shardRouter.isMoving(userId)) {
+            response.setHeader("Retry-After", "5");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Los datos del usuario se están moviendo de shard");
+            return;
+        }
+
+        Integer previous = ShardContext.set(shardRouter.shardFor(userId));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+}
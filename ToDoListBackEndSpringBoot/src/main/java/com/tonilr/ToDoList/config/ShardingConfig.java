@@ -0,0 +1,87 @@
+package com.tonilr.ToDoList.config;
+
+import com.tonilr.ToDoList.service.ShardRouter;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sharding por id de usuario de tareas, listas y logs de auditoría.
+ * El shard 0 es spring.datasource.*; app.sharding.urls añade los shards 1..n.
+ * Solo se activa con app.sharding.enabled=true y no se combina con la réplica de lectura
+ * (ambas configuraciones definen el DataSource principal).
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Value("${app.sharding.urls}")
+    private String[] shardUrls;
+
+    @Value("${app.sharding.username:${spring.datasource.username:}}")
+    private String username;
+
+    @Value("${app.sharding.password:${spring.datasource.password:}}")
+    private String password;
+
+    @Value("${app.sharding.pool-size:4}")
+    private int poolSize;
+
+    @Value("${app.sharding.id-block-bits:40}")
+    private int idBlockBits;
+
+    /**
+     * Pool del shard 0, configurado con spring.datasource.* y spring.datasource.hikari.*.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource directoryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("shard-0");
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public ShardRoutingDataSource dataSource(@Qualifier("directoryDataSource") DataSource directory,
+                                             DataSourceProperties properties) {
+        List<DataSource> shards = new ArrayList<>();
+        shards.add(directory);
+        for (String url : shardUrls) {
+            HikariDataSource shard = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url.trim())
+                .username(username)
+                .password(password)
+                .build();
+            shard.setPoolName("shard-" + shards.size());
+            shard.setMaximumPoolSize(poolSize);
+            shards.add(shard);
+        }
+        ShardRoutingDataSource routing = new ShardRoutingDataSource(shards);
+        routing.prepareShards(idBlockBits);
+        return routing;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ShardRoutingFilter> shardRoutingFilter(ShardRouter shardRouter) {
+        FilterRegistrationBean<ShardRoutingFilter> registration = new FilterRegistrationBean<>(new ShardRoutingFilter(shardRouter));
+        // Justo después de Spring Security, que deja el usuario en el SecurityContext
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+}
@@ -0,0 +1,34 @@
+package com.tonilr.ToDoList.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Engancha el {@link SqlStatementMonitor} a Hibernate (inspector de sentencias y listener de sesión)
+ * y a las peticiones de /api/*.
+ * Solo ve la SQL que pasa por Hibernate; los lotes de JdbcTemplate quedan fuera.
+ */
+@Configuration
+public class SqlMonitorConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlMonitorHibernateCustomizer() {
+        return properties -> {
+            // Sin pisar un inspector o listener configurado a mano (p. ej. en los tests de planes)
+            properties.putIfAbsent(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementInspector());
+            properties.putIfAbsent(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SqlTimingSessionListener.class.getName());
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlMonitorFilter> sqlMonitorFilter(SqlStatementMonitor monitor) {
+        FilterRegistrationBean<SqlMonitorFilter> registration = new FilterRegistrationBean<>(new SqlMonitorFilter(monitor));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+}
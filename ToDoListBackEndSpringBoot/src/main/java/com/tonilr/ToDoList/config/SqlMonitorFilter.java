@@ -0,0 +1,42 @@
+package com.tonilr.ToDoList.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Abre el contexto del {@link SqlStatementMonitor} en las peticiones muestreadas.
+ * Va antes de Spring Security para contar también la carga del usuario del token.
+ * El endpoint es el patrón de la ruta ("/api/tasks/{taskId}"), no la URI, para no disparar la cardinalidad.
+ */
+public class SqlMonitorFilter extends OncePerRequestFilter {
+
+    private final SqlStatementMonitor monitor;
+
+    public SqlMonitorFilter(SqlStatementMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        // Si ya hay un contexto abierto (p. ej. los tests de presupuesto), no se solapa
+        if (monitor.currentStatementCount() >= 0 || !monitor.shouldSample()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        monitor.beginRequest();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            monitor.endRequest(request.getMethod() + " " + (pattern != null ? pattern : "UNMAPPED"));
+        }
+    }
+}
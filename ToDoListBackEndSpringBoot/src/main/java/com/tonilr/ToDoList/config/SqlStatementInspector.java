@@ -0,0 +1,16 @@
+package com.tonilr.ToDoList.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Pasa al {@link SqlStatementMonitor} cada sentencia que prepara Hibernate.
+ * No modifica la SQL.
+ */
+public class SqlStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        SqlStatementMonitor.statementPrepared(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,329 @@
+package com.tonilr.ToDoList.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Detector de sentencias lentas y patrones N+1.
+ * SqlStatementInspector y SqlTimingSessionListener le pasan cada sentencia que Hibernate
+ * prepara y ejecuta; SqlMonitorFilter abre un contexto por petición muestreada.
+ * Por endpoint acumula sentencias, duplicadas (misma SQL repetida en la petición) y las
+ * SQL que se repiten al menos n-plus-one-threshold veces. Las sentencias lentas se registran
+ * siempre, haya muestreo o no. Resultado en /api/admin/sql y como métricas sql.*.
+ */
+@Component
+@Slf4j
+public class SqlStatementMonitor {
+
+    private static final String BACKGROUND = "background";
+    private static final int MAX_SUSPECTS_PER_ENDPOINT = 20;
+    private static final int MAX_SQL_LENGTH = 500;
+
+    // Hibernate instancia el inspector y el listener por su cuenta: llegan al monitor por aquí
+    private static volatile SqlStatementMonitor instance;
+    private static final ThreadLocal<String> lastSql = new ThreadLocal<>();
+    private static final ThreadLocal<RequestStatements> currentRequest = new ThreadLocal<>();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectProvider<EntityManagerFactory> entityManagerFactory;
+
+    @Value("${app.sql-monitor.enabled:true}")
+    private boolean enabled;
+
+    // Fracción de peticiones con recuento de sentencias (0..1)
+    @Value("${app.sql-monitor.sample-rate:0.1}")
+    private double sampleRate;
+
+    @Value("${app.sql-monitor.slow-threshold-ms:200}")
+    private long slowThresholdMillis;
+
+    // Repeticiones de la misma SQL en una petición a partir de las que se marca como N+1
+    @Value("${app.sql-monitor.n-plus-one-threshold:5}")
+    private int nPlusOneThreshold;
+
+    @Value("${app.sql-monitor.slow-capacity:50}")
+    private int slowCapacity;
+
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    private final Deque<Map<String, Object>> slowStatements = new ArrayDeque<>();
+    private Timer statementTimer;
+    private Counter slowCounter;
+
+    /**
+     * Sentencias de una petición muestreada.
+     */
+    private static class RequestStatements {
+        private final Map<String, Integer> executions = new HashMap<>();
+        private int statements;
+    }
+
+    /**
+     * Acumulado de un endpoint.
+     */
+    private class EndpointStats {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder duplicates = new LongAdder();
+        private final AtomicLong maxStatements = new AtomicLong();
+        private final AtomicLong maxDuplicates = new AtomicLong();
+        private final Map<String, Integer> suspects = new ConcurrentHashMap<>();
+        private final DistributionSummary statementSummary;
+        private final DistributionSummary duplicateSummary;
+
+        EndpointStats(String endpoint) {
+            statementSummary = DistributionSummary.builder("sql.request.statements")
+                .description("Sentencias SQL por petición muestreada")
+                .tag("endpoint", endpoint)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+            duplicateSummary = DistributionSummary.builder("sql.request.duplicates")
+                .description("Sentencias repetidas (misma SQL) por petición muestreada")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        statementTimer = Timer.builder("sql.statement.duration")
+            .description("Duración de las sentencias JDBC que ejecuta Hibernate")
+            .register(meterRegistry);
+        slowCounter = Counter.builder("sql.statements.slow")
+            .description("Sentencias por encima de app.sql-monitor.slow-threshold-ms")
+            .register(meterRegistry);
+        instance = this;
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (instance == this) {
+            instance = null;
+        }
+    }
+
+    /**
+     * Llamado por SqlStatementInspector al preparar cada sentencia.
+     */
+    static void statementPrepared(String sql) {
+        lastSql.set(sql);
+        RequestStatements request = currentRequest.get();
+        if (request != null) {
+            request.statements++;
+            request.executions.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Llamado por SqlTimingSessionListener al terminar cada ejecución JDBC.
+     */
+    static void statementExecuted(long nanos) {
+        SqlStatementMonitor monitor = instance;
+        if (monitor != null) {
+            monitor.recordExecution(nanos);
+        }
+    }
+
+    /**
+     * Decide si la petición actual se muestrea.
+     */
+    public boolean shouldSample() {
+        return enabled && sampleRate > 0 && (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    public void beginRequest() {
+        currentRequest.set(new RequestStatements());
+    }
+
+    /**
+     * Sentencias preparadas hasta ahora en la petición abierta en este hilo.
+     * @return Número de sentencias, o -1 si no hay petición abierta
+     */
+    public int currentStatementCount() {
+        RequestStatements request = currentRequest.get();
+        return request != null ? request.statements : -1;
+    }
+
+    /**
+     * Cierra el contexto de la petición y acumula sus cifras.
+     * @param endpoint Método y patrón de la ruta, p. ej. "GET /api/tasks/{taskId}"
+     */
+    public void endRequest(String endpoint) {
+        RequestStatements request = currentRequest.get();
+        currentRequest.remove();
+        lastSql.remove();
+        if (request == null) {
+            return;
+        }
+        int duplicates = request.statements - request.executions.size();
+        EndpointStats stats = endpoints.computeIfAbsent(endpoint, EndpointStats::new);
+        stats.requests.increment();
+        stats.statements.add(request.statements);
+        stats.duplicates.add(duplicates);
+        stats.maxStatements.accumulateAndGet(request.statements, Math::max);
+        stats.maxDuplicates.accumulateAndGet(duplicates, Math::max);
+        stats.statementSummary.record(request.statements);
+        stats.duplicateSummary.record(duplicates);
+        request.executions.forEach((sql, count) -> {
+            if (count < nPlusOneThreshold) {
+                return;
+            }
+            // La misma clave para el límite y para el mapa: una sentencia larga ya registrada se sigue actualizando
+            String key = truncate(sql);
+            if (stats.suspects.size() < MAX_SUSPECTS_PER_ENDPOINT || stats.suspects.containsKey(key)) {
+                stats.suspects.merge(key, count, Math::max);
+                log.debug("Posible N+1 en {}: {} ejecuciones de {}", endpoint, count, sql);
+            }
+        });
+    }
+
+    private void recordExecution(long nanos) {
+        if (!enabled) {
+            return;
+        }
+        statementTimer.record(nanos, TimeUnit.NANOSECONDS);
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        if (millis < slowThresholdMillis) {
+            return;
+        }
+        slowCounter.increment();
+        Map<String, Object> slow = new LinkedHashMap<>();
+        slow.put("sql", truncate(lastSql.get()));
+        slow.put("millis", millis);
+        slow.put("endpoint", currentEndpoint());
+        slow.put("at", LocalDateTime.now().toString());
+        synchronized (slowStatements) {
+            slowStatements.addFirst(slow);
+            while (slowStatements.size() > Math.max(1, slowCapacity)) {
+                slowStatements.removeLast();
+            }
+        }
+    }
+
+    /**
+     * Informe para el panel de administración.
+     */
+    public Map<String, Object> report() {
+        List<Map<String, Object>> endpointReports = new ArrayList<>();
+        endpoints.forEach((endpoint, stats) -> {
+            long requests = stats.requests.sum();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("endpoint", endpoint);
+            row.put("sampledRequests", requests);
+            row.put("avgStatements", requests == 0 ? 0.0 : (double) stats.statements.sum() / requests);
+            row.put("maxStatements", stats.maxStatements.get());
+            row.put("avgDuplicates", requests == 0 ? 0.0 : (double) stats.duplicates.sum() / requests);
+            row.put("maxDuplicates", stats.maxDuplicates.get());
+            row.put("nPlusOneSuspects", stats.suspects.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .map(e -> Map.of("sql", e.getKey(), "maxExecutions", e.getValue()))
+                .toList());
+            endpointReports.add(row);
+        });
+        endpointReports.sort(Comparator.comparingDouble((Map<String, Object> row) -> (double) row.get("avgStatements")).reversed());
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("enabled", enabled);
+        report.put("sampleRate", sampleRate);
+        report.put("slowThresholdMs", slowThresholdMillis);
+        report.put("nPlusOneThreshold", nPlusOneThreshold);
+        report.put("endpoints", endpointReports);
+        synchronized (slowStatements) {
+            report.put("slowStatements", new ArrayList<>(slowStatements));
+        }
+        report.put("hibernate", hibernateStatistics());
+        return report;
+    }
+
+    /**
+     * Vacía los acumulados del detector (no las estadísticas de Hibernate, que alimentan otras métricas).
+     */
+    public void reset() {
+        endpoints.clear();
+        synchronized (slowStatements) {
+            slowStatements.clear();
+        }
+    }
+
+    private Map<String, Object> hibernateStatistics() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        EntityManagerFactory emf = entityManagerFactory.getIfAvailable();
+        if (emf == null) {
+            return result;
+        }
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        result.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        if (!statistics.isStatisticsEnabled()) {
+            return result;
+        }
+        result.put("prepareStatementCount", statistics.getPrepareStatementCount());
+        result.put("queryExecutionCount", statistics.getQueryExecutionCount());
+        result.put("queryExecutionMaxTimeMs", statistics.getQueryExecutionMaxTime());
+        result.put("slowestQuery", statistics.getQueryExecutionMaxTimeQueryString());
+        // Cargas perezosas sueltas: un valor alto frente a las consultas suele ser N+1
+        result.put("entityFetchCount", statistics.getEntityFetchCount());
+        result.put("collectionFetchCount", statistics.getCollectionFetchCount());
+        result.put("entityLoadCount", statistics.getEntityLoadCount());
+        result.put("topQueries", Arrays.stream(statistics.getQueries())
+            .map(query -> Map.entry(query, statistics.getQueryStatistics(query)))
+            .sorted(Comparator.comparingLong((Map.Entry<String, QueryStatistics> e) -> e.getValue().getExecutionMaxTime()).reversed())
+            .limit(10)
+            .map(e -> Map.of(
+                "query", truncate(e.getKey()),
+                "executions", e.getValue().getExecutionCount(),
+                "avgMs", e.getValue().getExecutionAvgTime(),
+                "maxMs", e.getValue().getExecutionMaxTime()))
+            .toList());
+        return result;
+    }
+
+    private static String currentEndpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return BACKGROUND;
+        }
+        Object pattern = attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return pattern != null ? pattern.toString() : "UNMAPPED";
+    }
+
+    private static String truncate(String sql) {
+        if (sql == null) {
+            return null;
+        }
+        return sql.length() <= MAX_SQL_LENGTH ? sql : sql.substring(0, MAX_SQL_LENGTH) + "...";
+    }
+}
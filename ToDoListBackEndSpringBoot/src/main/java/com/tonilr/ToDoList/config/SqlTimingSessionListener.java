@@ -0,0 +1,44 @@
+package com.tonilr.ToDoList.config;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Mide cada ejecución JDBC de una sesión de Hibernate y la pasa al {@link SqlStatementMonitor}
+ * y a la fase db del {@link RequestTiming}.
+ * Hibernate crea una instancia por sesión (hibernate.session.events.auto), así que no se comparte entre hilos.
+ */
+public class SqlTimingSessionListener extends BaseSessionEventListener {
+
+    private long executionStart = -1;
+    private long batchStart = -1;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executionStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        if (executionStart > 0) {
+            long nanos = System.nanoTime() - executionStart;
+            SqlStatementMonitor.statementExecuted(nanos);
+            RequestTiming.record(RequestTiming.DB, nanos);
+            executionStart = -1;
+        }
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        if (batchStart > 0) {
+            long nanos = System.nanoTime() - batchStart;
+            SqlStatementMonitor.statementExecuted(nanos);
+            RequestTiming.record(RequestTiming.DB, nanos);
+            batchStart = -1;
+        }
+    }
+}
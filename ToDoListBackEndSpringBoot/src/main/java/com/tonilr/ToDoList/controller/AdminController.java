@@ -1,5 +1,6 @@
 package com.tonilr.ToDoList.controller;
 
+import com.tonilr.ToDoList.config.SqlStatementMonitor;
 import com.tonilr.ToDoList.model.Role;
 import com.tonilr.ToDoList.model.User;
 import com.tonilr.ToDoList.repository.RoleRepository;
@@ -7,14 +8,22 @@ import com.tonilr.ToDoList.service.UserService;
 import com.tonilr.ToDoList.service.SecurityService;
 import com.tonilr.ToDoList.service.AuditLogService;
 import com.tonilr.ToDoList.service.SystemMaintenanceService;
+import com.tonilr.ToDoList.service.ShardRebalanceService;
+import com.tonilr.ToDoList.service.ProfilingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.transaction.annotation.Transactional;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -54,6 +63,15 @@ public class AdminController {
     @Autowired
     private CacheManager cacheManager;
 
+    @Autowired
+    private ShardRebalanceService shardRebalanceService;
+
+    @Autowired
+    private SqlStatementMonitor sqlStatementMonitor;
+
+    @Autowired
+    private ProfilingService profilingService;
+
     /**
      * Obtiene todos los usuarios del sistema (admin only).
      * @return Lista de usuarios
@@ -297,6 +315,165 @@ public class AdminController {
         }
     }
 
+    /**
+     * Obtiene el reparto de usuarios y filas por shard.
+     * @return Resumen de cada shard
+     */
+    @Operation(summary = "Get shard distribution (Admin only)")
+    @GetMapping("/shards")
+    public ResponseEntity<?> getShards() {
+        try {
+            return ResponseEntity.ok(shardRebalanceService.describeShards());
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body("Error obteniendo los shards: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Mueve las listas, tareas y logs de un usuario a otro shard.
+     * @param userId ID del usuario
+     * @param targetShard Shard de destino
+     * @return Resumen del movimiento
+     */
+    @Operation(summary = "Move a user's data to another shard (Admin only)")
+    @PostMapping("/shards/users/{userId}/move")
+    public ResponseEntity<?> moveUserToShard(@PathVariable Long userId, @RequestParam int targetShard) {
+        try {
+            return ResponseEntity.ok(shardRebalanceService.moveUser(userId, targetShard));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body("Error moviendo el usuario de shard: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Informe del detector de SQL: sentencias por endpoint, sospechosos de N+1,
+     * sentencias lentas recientes y estadísticas de Hibernate.
+     * @return Informe del detector
+     */
+    @Operation(summary = "Get SQL statement report: N+1 suspects and slow statements (Admin only)")
+    @GetMapping("/sql")
+    public ResponseEntity<?> getSqlReport() {
+        try {
+            return ResponseEntity.ok(sqlStatementMonitor.report());
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body("Error obteniendo el informe de SQL: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reinicia los acumulados del detector de SQL.
+     * @return Resultado del reinicio
+     */
+    @Operation(summary = "Reset SQL statement report (Admin only)")
+    @DeleteMapping("/sql")
+    public ResponseEntity<?> resetSqlReport() {
+        try {
+            sqlStatementMonitor.reset();
+            return ResponseEntity.ok("Informe de SQL reiniciado");
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body("Error reiniciando el informe de SQL: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Inicia una grabación de Java Flight Recorder.
+     * @param profile Perfil de JFR ("default" o "profile")
+     * @param durationSeconds Duración de la grabación
+     * @return Estado de la grabación
+     */
+    @Operation(summary = "Start a JFR recording (Admin only)")
+    @PostMapping("/profiling/start")
+    public ResponseEntity<?> startProfiling(@RequestParam(defaultValue = "default") String profile,
+                                            @RequestParam(defaultValue = "60") long durationSeconds) {
+        try {
+            return ResponseEntity.ok(profilingService.start(profile, durationSeconds));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body("Error iniciando la grabación JFR: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Para la grabación de JFR en curso y la guarda en disco.
+     * @return Estado de la grabación parada
+     */
+    @Operation(summary = "Stop the running JFR recording (Admin only)")
+    @PostMapping("/profiling/stop")
+    public ResponseEntity<?> stopProfiling() {
+        try {
+            return ResponseEntity.ok(profilingService.stop());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body("Error parando la grabación JFR: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Lista la grabación en curso y las guardadas.
+     * @return Grabaciones
+     */
+    @Operation(summary = "List JFR recordings (Admin only)")
+    @GetMapping("/profiling/recordings")
+    public ResponseEntity<?> listRecordings() {
+        try {
+            return ResponseEntity.ok(profilingService.listRecordings());
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body("Error listando las grabaciones JFR: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Descarga una grabación guardada; el fichero se envía por streaming, sin cargarlo en memoria.
+     * @param name Nombre del fichero .jfr
+     * @return Fichero de la grabación
+     */
+    @Operation(summary = "Download a JFR recording (Admin only)")
+    @GetMapping("/profiling/recordings/{name}")
+    public ResponseEntity<?> downloadRecording(@PathVariable String name) {
+        try {
+            Path file = profilingService.getRecordingFile(name);
+            Resource resource = new FileSystemResource(file);
+            return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(resource.contentLength())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(name).build().toString())
+                .body(resource);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body("Error descargando la grabación JFR: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Resumen de una grabación: sitios de asignación, métodos calientes y contención de locks.
+     * @param name Nombre del fichero .jfr
+     * @return Resumen de la grabación
+     */
+    @Operation(summary = "Summarize a JFR recording (Admin only)")
+    @GetMapping("/profiling/recordings/{name}/summary")
+    public ResponseEntity<?> summarizeRecording(@PathVariable String name) {
+        try {
+            return ResponseEntity.ok(profilingService.summarize(name));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body("Error resumiendo la grabación JFR: " + e.getMessage());
+        }
+    }
+
     /**
      * Obtiene información del sistema.
      * @return Información del sistema
@@ -1,5 +1,6 @@
 package com.tonilr.ToDoList.controller;
 
+import com.tonilr.ToDoList.config.ReplicaRoutingDataSource;
 import com.tonilr.ToDoList.dto.LoginDTO;
 import com.tonilr.ToDoList.security.JwtTokenProvider;
 import io.swagger.v3.oas.annotations.Operation;
@@ -39,12 +40,13 @@ public class AuthController {
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody LoginDTO loginDTO) {
         try {
-            Authentication authentication = authenticationManager.authenticate(
+            // En el primario: el usuario puede haberse registrado hace un momento
+            Authentication authentication = ReplicaRoutingDataSource.onPrimary(() -> authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                     loginDTO.getUsername(),
                     loginDTO.getPassword()
                 )
-            );
+            ));
 
             SecurityContextHolder.getContext().setAuthentication(authentication);
             String jwt = tokenProvider.generateToken(authentication);
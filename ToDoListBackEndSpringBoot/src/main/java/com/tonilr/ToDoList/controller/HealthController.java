@@ -1,11 +1,16 @@
 package com.tonilr.ToDoList.controller;
 
+import com.tonilr.ToDoList.service.DependencyHealthService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.security.access.prepost.PreAuthorize;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -17,6 +22,9 @@ import java.util.Map;
 @RequestMapping("/api/health")
 public class HealthController {
 
+    @Autowired
+    private DependencyHealthService dependencyHealthService;
+
     /**
      * Endpoint de health básico para Railway.
      * Muy ligero y eficiente.
@@ -46,18 +54,14 @@ public class HealthController {
         health.put("version", "1.0.0");
         
         // Información básica del sistema (sin cálculos pesados)
-        Runtime runtime = Runtime.getRuntime();
-        long totalMemory = runtime.totalMemory();
-        long freeMemory = runtime.freeMemory();
-        long usedMemory = totalMemory - freeMemory;
-        
-        health.put("memory.total.mb", Math.round(totalMemory / (1024.0 * 1024.0) * 100.0) / 100.0);
-        health.put("memory.used.mb", Math.round(usedMemory / (1024.0 * 1024.0) * 100.0) / 100.0);
-        health.put("memory.free.mb", Math.round(freeMemory / (1024.0 * 1024.0) * 100.0) / 100.0);
-        
-        // Uptime básico
-        long uptime = System.currentTimeMillis() - System.nanoTime() / 1_000_000;
-        health.put("uptime.seconds", Math.round(uptime / 1000.0));
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        health.put("memory.heap.used.mb", toMb(heap.getUsed()));
+        health.put("memory.heap.committed.mb", toMb(heap.getCommitted()));
+        health.put("memory.heap.max.mb", heap.getMax() >= 0 ? toMb(heap.getMax()) : -1);
+
+        health.put("uptime.seconds", uptimeSeconds());
+        health.put("ready", dependencyHealthService.isReady());
+        health.put("dependencies", dependencyHealthService.getDependencies(true));
         
         // Información de Java
         health.put("java.version", System.getProperty("java.version"));
@@ -68,16 +72,19 @@ public class HealthController {
 
     /**
      * Endpoint de readiness para Railway.
-     * Indica si el servicio está listo para recibir requests.
+     * Indica si el servicio está listo para recibir requests: responde 503 mientras una
+     * dependencia crítica esté caída. Usa el último sondeo guardado, no consulta las dependencias.
      */
     @GetMapping("/ready")
     public ResponseEntity<Map<String, Object>> getReadiness() {
+        boolean ready = dependencyHealthService.isReady();
         Map<String, Object> readiness = new HashMap<>();
-        readiness.put("status", "READY");
+        readiness.put("status", ready ? "READY" : "NOT_READY");
         readiness.put("timestamp", System.currentTimeMillis());
-        readiness.put("message", "Service is ready to handle requests");
+        readiness.put("message", ready ? "Service is ready to handle requests" : "A critical dependency is unavailable");
+        readiness.put("dependencies", dependencyHealthService.getDependencies(false));
         
-        return ResponseEntity.ok(readiness);
+        return ResponseEntity.status(ready ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE).body(readiness);
     }
 
     /**
@@ -90,7 +97,16 @@ public class HealthController {
         liveness.put("status", "ALIVE");
         liveness.put("timestamp", System.currentTimeMillis());
         liveness.put("message", "Service is alive and running");
+        liveness.put("uptime.seconds", uptimeSeconds());
         
         return ResponseEntity.ok(liveness);
     }
+
+    private static long uptimeSeconds() {
+        return ManagementFactory.getRuntimeMXBean().getUptime() / 1000;
+    }
+
+    private static double toMb(long bytes) {
+        return Math.round(bytes / (1024.0 * 1024.0) * 100.0) / 100.0;
+    }
 }
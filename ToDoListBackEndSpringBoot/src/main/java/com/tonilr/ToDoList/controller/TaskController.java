@@ -2,6 +2,8 @@ package com.tonilr.ToDoList.controller;
 
 import com.tonilr.ToDoList.dto.TaskDTO;
 import com.tonilr.ToDoList.service.TaskService;
+import com.tonilr.ToDoList.service.TaskRankService;
+import com.tonilr.ToDoList.dto.MoveTaskDTO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -9,6 +11,7 @@ import com.tonilr.ToDoList.service.SecurityService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.util.ArrayList;
 import java.util.List;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -41,6 +44,9 @@ public class TaskController {
     @Autowired
     private SecurityService securityService;
 
+    @Autowired
+    private TaskRankService taskRankService;
+
 
 
     /**
@@ -85,13 +91,15 @@ public class TaskController {
 
     /**
      * Retrieves all tasks for the authenticated user, optionally filtered by completion status or list.
+     * Archived tasks are only added to completed or per-list views when includeArchived is true.
      */
     @Operation(summary = "Get user tasks")
     @ApiResponse(responseCode = "200", description = "Task list found")
     @GetMapping
     public ResponseEntity<?> getTasks(
         @RequestParam(required = false) Boolean showCompleted,
-        @RequestParam(required = false) Long listId) {
+        @RequestParam(required = false) Long listId,
+        @RequestParam(defaultValue = "false") boolean includeArchived) {
         
         try {
             String username = securityService.getCurrentUsername();
@@ -150,6 +158,14 @@ public class TaskController {
                     .collect(Collectors.toList());
             }
             
+            // El historial (tasks_archive) solo se consulta si el cliente lo pide
+            if (includeArchived && (listId != null || Boolean.TRUE.equals(showCompleted))) {
+                tasks = new ArrayList<>(tasks);
+                for (CacheableTaskDTO archived : taskService.getArchivedTasks(username, listId)) {
+                    tasks.add(archived.toTaskDTO());
+                }
+            }
+            
             log.info("✅ TaskController - getTasks completado exitosamente. Tareas obtenidas: {}", tasks.size());
             return ResponseEntity.ok(tasks);
             
@@ -176,6 +192,15 @@ public class TaskController {
         }
     }
 
+    /**
+     * Moves a task between two neighbours of its list.
+     */
+    @Operation(summary = "Move a task within its list")
+    @PatchMapping("/{taskId}/move")
+    public ResponseEntity<TaskDTO> moveTask(@PathVariable Long taskId, @RequestBody MoveTaskDTO move) {
+        return ResponseEntity.ok(taskRankService.moveTask(taskId, move));
+    }
+
     /**
      * Deletes a task by its ID.
      */
@@ -5,7 +5,11 @@ import com.tonilr.ToDoList.service.TaskListService;
 import io.swagger.v3.oas.annotations.Operation;
 
 import com.tonilr.ToDoList.service.SecurityService;
+import com.tonilr.ToDoList.dto.TaskDTO;
 import com.tonilr.ToDoList.dto.TaskListDTO;
+import com.tonilr.ToDoList.dto.TaskListDeletionDTO;
+import com.tonilr.ToDoList.dto.TaskListSummaryDTO;
+import org.springframework.data.domain.Page;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -119,6 +123,28 @@ public class TaskListController {
         }
     }
 
+    /**
+     * Retrieves the authenticated user's task lists with task counts only.
+     */
+    @Operation(summary = "Get a summary of the user's task lists")
+    @GetMapping("/summary")
+    public ResponseEntity<List<TaskListSummaryDTO>> getUserTaskListSummaries() {
+        String username = securityService.getCurrentUsername();
+        return ResponseEntity.ok(taskListService.getUserTaskListSummaries(username));
+    }
+
+    /**
+     * Retrieves one page of the tasks of a task list.
+     */
+    @Operation(summary = "Get the tasks of a task list, paged")
+    @GetMapping("/{listId}/tasks")
+    public ResponseEntity<Page<TaskDTO>> getTaskListTasks(
+            @PathVariable Long listId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(taskListService.getTaskListTasks(listId, page, size));
+    }
+
     /**
      * Creates a new task list for the authenticated user.
      */
@@ -185,12 +211,22 @@ public class TaskListController {
     @DeleteMapping("/{listId}")
     public ResponseEntity<?> deleteTaskList(@PathVariable Long listId) {
         try {
-            taskListService.deleteTaskList(listId);
-            return ResponseEntity.ok().build();
+            // Las tareas se purgan en segundo plano; el progreso se consulta en /{listId}/deletion
+            TaskListDeletionDTO status = taskListService.deleteTaskList(listId);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(null);
         }
-    }   
+    }
+
+    /**
+     * Reports the progress of a task list deletion.
+     */
+    @Operation(summary = "Get the deletion progress of a task list")
+    @GetMapping("/{listId}/deletion")
+    public ResponseEntity<TaskListDeletionDTO> getDeletionStatus(@PathVariable Long listId) {
+        return ResponseEntity.ok(taskListService.getDeletionStatus(listId));
+    }
 
     /**
      * Searches task lists by name for the authenticated user.
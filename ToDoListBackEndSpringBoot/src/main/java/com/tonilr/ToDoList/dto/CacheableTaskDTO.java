@@ -25,6 +25,7 @@ public class CacheableTaskDTO {
     private Long taskListId;
     private String taskListName;
     private String assignedToUsername;
+    private boolean archived;
     
     /**
      * Default constructor required for serialization.
@@ -48,6 +49,7 @@ public class CacheableTaskDTO {
         this.taskListId = taskDTO.getTaskListId();
         this.taskListName = taskDTO.getTaskListName();
         this.assignedToUsername = taskDTO.getAssignedTo();
+        this.archived = taskDTO.isArchived();
     }
     
     /**
@@ -68,6 +70,7 @@ public class CacheableTaskDTO {
         dto.setTaskListId(this.taskListId);
         dto.setTaskListName(this.taskListName);
         dto.setAssignedTo(this.assignedToUsername);
+        dto.setArchived(this.archived);
         return dto;
     }
     
@@ -101,4 +104,7 @@ public class CacheableTaskDTO {
     
     public String getAssignedToUsername() { return assignedToUsername; }
     public void setAssignedToUsername(String assignedToUsername) { this.assignedToUsername = assignedToUsername; }
+    
+    public boolean isArchived() { return archived; }
+    public void setArchived(boolean archived) { this.archived = archived; }
 }
\ No newline at end of file
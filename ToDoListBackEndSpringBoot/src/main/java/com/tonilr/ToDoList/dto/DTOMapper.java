@@ -80,6 +80,32 @@ public class DTOMapper {
             dto.setTaskListName(task.getTaskList().getName());
         }
         dto.setAssignedTo(task.getAssignedTo() != null ? task.getAssignedTo().getUsername() : null);
+        dto.setRank(task.getRank());
+        return dto;
+    }
+
+    /**
+     * Converts an archived task to TaskDTO for history responses.
+     * @param task Archived task to convert
+     * @return TaskDTO flagged as archived
+     */
+    public TaskDTO toTaskDTO(ArchivedTask task) {
+        TaskDTO dto = new TaskDTO();
+        dto.setId(task.getId());
+        dto.setTitle(task.getTitle());
+        dto.setDescription(task.getDescription());
+        dto.setCompleted(task.isCompleted());
+        dto.setPriority(task.getPriority());
+        dto.setCreatedAt(task.getCreatedAt());
+        dto.setDueDate(task.getDueDate() != null ? 
+            Date.from(task.getDueDate().atZone(java.time.ZoneId.systemDefault()).toInstant()) : null);
+        if (task.getTaskList() != null) {
+            dto.setTaskListId(task.getTaskList().getId());
+            dto.setTaskListName(task.getTaskList().getName());
+        }
+        dto.setAssignedTo(task.getAssignedTo() != null ? task.getAssignedTo().getUsername() : null);
+        dto.setRank(task.getRank());
+        dto.setArchived(true);
         return dto;
     }
 
@@ -0,0 +1,15 @@
+package com.tonilr.ToDoList.dto;
+
+import lombok.Data;
+
+/**
+ * Request body for moving a task inside its list.
+ * Holds the neighbours the task is dropped between; either may be null at the ends of the list.
+ */
+@Data
+public class MoveTaskDTO {
+
+    private Long previousTaskId;
+
+    private Long nextTaskId;
+}
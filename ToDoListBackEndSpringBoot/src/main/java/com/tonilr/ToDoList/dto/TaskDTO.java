@@ -38,5 +38,11 @@ public class TaskDTO {
     private Long assignedToId;
     
     private Long userId;
+
+    // Posición dentro de la lista (orden lexicográfico)
+    private String rank;
+
+    // true si viene de tasks_archive (solo en las consultas de historial)
+    private boolean archived;
     
 }
\ No newline at end of file
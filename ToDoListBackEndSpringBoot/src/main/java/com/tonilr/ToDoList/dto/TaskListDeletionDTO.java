@@ -0,0 +1,37 @@
+package com.tonilr.ToDoList.dto;
+
+/**
+ * Estado del borrado en segundo plano de una lista de tareas.
+ */
+public class TaskListDeletionDTO {
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_IN_PROGRESS = "IN_PROGRESS";
+    public static final String STATUS_DONE = "DONE";
+
+    private Long listId;
+    private String status;
+    private Long totalTasks;      // null hasta que la purga empieza
+    private Long remainingTasks;  // null si no se ha calculado
+
+    // Constructor por defecto
+    public TaskListDeletionDTO() {}
+
+    public TaskListDeletionDTO(Long listId, String status, Long totalTasks, Long remainingTasks) {
+        this.listId = listId;
+        this.status = status;
+        this.totalTasks = totalTasks;
+        this.remainingTasks = remainingTasks;
+    }
+
+    // Getters
+    public Long getListId() { return listId; }
+    public String getStatus() { return status; }
+    public Long getTotalTasks() { return totalTasks; }
+    public Long getRemainingTasks() { return remainingTasks; }
+
+    // Setters
+    public void setListId(Long listId) { this.listId = listId; }
+    public void setStatus(String status) { this.status = status; }
+    public void setTotalTasks(Long totalTasks) { this.totalTasks = totalTasks; }
+    public void setRemainingTasks(Long remainingTasks) { this.remainingTasks = remainingTasks; }
+}
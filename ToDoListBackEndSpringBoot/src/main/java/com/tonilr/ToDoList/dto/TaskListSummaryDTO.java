@@ -0,0 +1,53 @@
+package com.tonilr.ToDoList.dto;
+
+/**
+ * Vista ligera de una lista de tareas: datos básicos y contadores, sin las tareas.
+ */
+public class TaskListSummaryDTO {
+    private Long id;
+    private String name;
+    private String description;
+    private long taskCount;
+    private long completedCount;
+    private long overdueCount;
+
+    // Constructor por defecto
+    public TaskListSummaryDTO() {}
+
+    // Constructor usado por la consulta agregada (SUM devuelve null si la lista no tiene tareas)
+    public TaskListSummaryDTO(Long id, String name, String description, Long taskCount, Long completedCount, Long overdueCount) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.taskCount = taskCount != null ? taskCount : 0L;
+        this.completedCount = completedCount != null ? completedCount : 0L;
+        this.overdueCount = overdueCount != null ? overdueCount : 0L;
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public String getName() { return name; }
+    public String getDescription() { return description; }
+    public long getTaskCount() { return taskCount; }
+    public long getCompletedCount() { return completedCount; }
+    public long getOverdueCount() { return overdueCount; }
+
+    // Setters
+    public void setId(Long id) { this.id = id; }
+    public void setName(String name) { this.name = name; }
+    public void setDescription(String description) { this.description = description; }
+    public void setTaskCount(long taskCount) { this.taskCount = taskCount; }
+    public void setCompletedCount(long completedCount) { this.completedCount = completedCount; }
+    public void setOverdueCount(long overdueCount) { this.overdueCount = overdueCount; }
+
+    @Override
+    public String toString() {
+        return "TaskListSummaryDTO{" +
+                "id=" + id +
+                ", name='" + name + '\'' +
+                ", taskCount=" + taskCount +
+                ", completedCount=" + completedCount +
+                ", overdueCount=" + overdueCount +
+                '}';
+    }
+}
@@ -0,0 +1,178 @@
+package com.tonilr.ToDoList.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Column;
+import jakarta.persistence.Table;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
+import jakarta.persistence.ConstraintMode;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.Index;
+import java.util.Date;
+import java.time.LocalDateTime;
+
+/**
+ * Tarea completada movida a tasks_archive (ver V8__Add_Tasks_Archive.sql).
+ * Conserva el id que tenía en tasks; solo se lee cuando el cliente pide el historial.
+ */
+@Entity
+@Table(name = "tasks_archive", indexes = {
+    @Index(name = "idx_tasks_archive_assigned", columnList = "assigned_to_id, completed_at"),
+    @Index(name = "idx_tasks_archive_list", columnList = "task_list_id")
+})
+@NamedEntityGraph(name = ArchivedTask.GRAPH_LIST, attributeNodes = {
+    @NamedAttributeNode("taskList"),
+    @NamedAttributeNode("assignedTo")
+})
+public class ArchivedTask {
+    // Lo que necesita DTOMapper.toTaskDTO
+    public static final String GRAPH_LIST = "ArchivedTask.list";
+
+    @Id
+    private Long id;
+
+    // Sin claves foráneas: el archivo no frena el borrado de listas ni de usuarios
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "task_list_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private TaskList taskList;
+
+    @Column(nullable = false)
+    private String title;
+
+    private String description;
+
+    private boolean completed;
+
+    private int priority;
+
+    @Column(name = "due_date")
+    private LocalDateTime dueDate;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "assigned_to_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private User assignedTo;
+
+    @Column(name = "created_at")
+    private Date createdAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    @Column(name = "list_rank", length = 64)
+    private String rank;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(boolean completed) {
+        this.completed = completed;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public void setPriority(int priority) {
+        this.priority = priority;
+    }
+
+    public LocalDateTime getDueDate() {
+        return dueDate;
+    }
+
+    public void setDueDate(LocalDateTime dueDate) {
+        this.dueDate = dueDate;
+    }
+
+    public TaskList getTaskList() {
+        return taskList;
+    }
+
+    public void setTaskList(TaskList taskList) {
+        this.taskList = taskList;
+    }
+
+    public User getAssignedTo() {
+        return assignedTo;
+    }
+
+    public void setAssignedTo(User assignedTo) {
+        this.assignedTo = assignedTo;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+
+    public void setArchivedAt(LocalDateTime archivedAt) {
+        this.archivedAt = archivedAt;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    public String getRank() {
+        return rank;
+    }
+
+    public void setRank(String rank) {
+        this.rank = rank;
+    }
+}
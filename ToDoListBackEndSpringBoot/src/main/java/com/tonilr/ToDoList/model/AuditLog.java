@@ -5,13 +5,24 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "audit_logs")
+@Table(name = "audit_logs", indexes = {
+    @Index(name = "idx_audit_logs_timestamp", columnList = "timestamp"),
+    @Index(name = "idx_audit_logs_user_timestamp", columnList = "user_id, timestamp")
+})
+// Mapeo a AuditLogDTO: el log con el usuario que hizo la acción
+@NamedEntityGraph(name = AuditLog.GRAPH_WITH_USER, attributeNodes = @NamedAttributeNode("user"))
 public class AuditLog {
+    public static final String GRAPH_WITH_USER = "AuditLog.withUser";
+
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
@@ -19,7 +30,7 @@ public class AuditLog {
 
     private LocalDateTime timestamp;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
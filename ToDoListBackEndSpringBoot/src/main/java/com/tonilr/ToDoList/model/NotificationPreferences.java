@@ -5,12 +5,16 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Table;
 import jakarta.persistence.Index;
 import jakarta.persistence.Column;
 import lombok.Data;
 import lombok.ToString;
+import lombok.EqualsAndHashCode;
 
 @Entity
 @Table(name = "notification_preferences", indexes = {
@@ -19,13 +23,19 @@ import lombok.ToString;
 })
 @Data
 @ToString
+// Job de recordatorios: necesita la zona horaria del usuario de cada preferencia
+@NamedEntityGraph(name = NotificationPreferences.GRAPH_REMINDER, attributeNodes = @NamedAttributeNode("user"))
 public class NotificationPreferences {
+    public static final String GRAPH_REMINDER = "NotificationPreferences.reminder";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User user;
 
     private String email;
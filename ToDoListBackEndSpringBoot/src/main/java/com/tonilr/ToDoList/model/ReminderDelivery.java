@@ -0,0 +1,91 @@
+package com.tonilr.ToDoList.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Registro de recordatorios ya enviados.
+ * Una tarea recibe como máximo un recordatorio de cada tipo por ventana
+ * (el día de su fecha límite); si la fecha límite cambia de día, vuelve a ser elegible.
+ */
+@Entity
+@Table(name = "reminder_deliveries",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_reminder_delivery", columnNames = {"task_id", "reminder_kind", "window_day"})
+    },
+    indexes = {
+        @Index(name = "idx_reminder_delivery_sent_at", columnList = "sent_at")
+    })
+public class ReminderDelivery {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    @Column(name = "reminder_kind", nullable = false, length = 32)
+    private String reminderKind;
+
+    @Column(name = "window_day", nullable = false)
+    private LocalDate windowDay;
+
+    @Column(name = "sent_at", nullable = false)
+    private LocalDateTime sentAt;
+
+    public ReminderDelivery() {}
+
+    public ReminderDelivery(Long taskId, String reminderKind, LocalDate windowDay, LocalDateTime sentAt) {
+        this.taskId = taskId;
+        this.reminderKind = reminderKind;
+        this.windowDay = windowDay;
+        this.sentAt = sentAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(Long taskId) {
+        this.taskId = taskId;
+    }
+
+    public String getReminderKind() {
+        return reminderKind;
+    }
+
+    public void setReminderKind(String reminderKind) {
+        this.reminderKind = reminderKind;
+    }
+
+    public LocalDate getWindowDay() {
+        return windowDay;
+    }
+
+    public void setWindowDay(LocalDate windowDay) {
+        this.windowDay = windowDay;
+    }
+
+    public LocalDateTime getSentAt() {
+        return sentAt;
+    }
+
+    public void setSentAt(LocalDateTime sentAt) {
+        this.sentAt = sentAt;
+    }
+}
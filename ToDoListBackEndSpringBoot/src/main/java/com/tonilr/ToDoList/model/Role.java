@@ -7,6 +7,8 @@ import jakarta.persistence.Id;
 import jakarta.persistence.Column;
 import jakarta.persistence.Table;
 import jakarta.persistence.Index;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 
 /**
@@ -17,6 +19,8 @@ import org.springframework.security.core.GrantedAuthority;
 @Table(name = "roles", indexes = {
     @Index(name = "idx_roles_name", columnList = "name", unique = true)
 })
+// Los roles solo se crean al arrancar y nunca se modifican
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "roles")
 public class Role implements GrantedAuthority {
     
     @Id
@@ -8,26 +8,47 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Table;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import java.util.Date;
 import java.time.LocalDateTime;
 import jakarta.persistence.Index;
 
 @Entity
+// Índices alineados con los filtros reales de TaskRepository (ver db.migration.V5__Align_Task_And_Audit_Indexes)
 @Table(name = "tasks", indexes = {
-    @Index(name = "idx_tasks_user_completed", columnList = "user_id, completed"),
-    @Index(name = "idx_tasks_due_date", columnList = "due_date"),
-    @Index(name = "idx_tasks_priority", columnList = "priority"),
-    @Index(name = "idx_tasks_list", columnList = "task_list_id")
+    @Index(name = "idx_tasks_assigned_completed_due", columnList = "assigned_to_id, completed, due_date"),
+    @Index(name = "idx_tasks_assigned_due", columnList = "assigned_to_id, due_date"),
+    @Index(name = "idx_tasks_assigned_priority", columnList = "assigned_to_id, priority"),
+    @Index(name = "idx_tasks_list_rank", columnList = "task_list_id, list_rank"),
+    @Index(name = "idx_tasks_user", columnList = "user_id"),
+    @Index(name = "idx_tasks_completed_at", columnList = "completed_at")
+})
+// Las asociaciones son LAZY; cada caso de uso pide las suyas con un grafo en TaskRepository
+@NamedEntityGraph(name = Task.GRAPH_DETAIL, attributeNodes = {
+    @NamedAttributeNode("taskList"),
+    @NamedAttributeNode("assignedTo"),
+    @NamedAttributeNode("user")
+})
+@NamedEntityGraph(name = Task.GRAPH_LIST, attributeNodes = {
+    @NamedAttributeNode("taskList"),
+    @NamedAttributeNode("assignedTo")
 })
 public class Task {
+    // Vista de detalle: la tarea con su lista, el asignado y el creador
+    public static final String GRAPH_DETAIL = "Task.detail";
+    // Vista de listado: lo que necesita DTOMapper.toTaskDTO
+    public static final String GRAPH_LIST = "Task.list";
+
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "task_list_id")
     private TaskList taskList;
 
@@ -43,13 +64,21 @@ public class Task {
     @Column(name = "due_date")
     private LocalDateTime dueDate;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "assigned_to_id")
     private User assignedTo;
 
     @Column(name = "created_at")
     private Date createdAt;
 
+    // Cuándo se completó; TaskArchiveService mueve a tasks_archive las completadas hace tiempo
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    // Rango fraccional para el orden manual dentro de la lista ("rank" es palabra reservada en MySQL)
+    @Column(name = "list_rank", length = 64)
+    private String rank;
+
     public Long getId() {
         return id;
     }
@@ -122,6 +151,14 @@ public class Task {
         this.createdAt = createdAt;
     }
 
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+
     public User getUser() {
         return user;
     }
@@ -129,4 +166,12 @@ public class Task {
     public void setUser(User user) {
         this.user = user;
     }
+
+    public String getRank() {
+        return rank;
+    }
+
+    public void setRank(String rank) {
+        this.rank = rank;
+    }
 }
@@ -6,24 +6,40 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Column;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Table;
 import jakarta.persistence.Index;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "task_lists", indexes = {
     @Index(name = "idx_tasklist_user", columnList = "user_id"),
-    @Index(name = "idx_tasklist_name", columnList = "name")
+    @Index(name = "idx_tasklist_owner_deleted", columnList = "owner_id, deleted_at"),
+    @Index(name = "idx_tasklist_deleted", columnList = "deleted_at"),
+    @Index(name = "idx_tasklist_purged", columnList = "purged_at")
 })
+// Listas del usuario con sus tareas, tal y como las pinta DTOMapper.toTaskListDTO
+@NamedEntityGraph(name = TaskList.GRAPH_WITH_TASKS,
+    attributeNodes = {
+        @NamedAttributeNode("owner"),
+        @NamedAttributeNode(value = "tasks", subgraph = "tasks")
+    },
+    subgraphs = @NamedSubgraph(name = "tasks", attributeNodes = @NamedAttributeNode("assignedTo")))
 public class TaskList {
+    public static final String GRAPH_WITH_TASKS = "TaskList.withTasks";
+
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
@@ -35,10 +51,22 @@ public class TaskList {
     @OneToMany(mappedBy = "taskList", cascade = CascadeType.ALL)
     private List<Task> tasks = new ArrayList<>();
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id")
     private User owner;
 
+    // Marca de borrado: la lista deja de mostrarse y sus tareas se purgan en segundo plano
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
+    // Número de tareas que tenía la lista al empezar la purga
+    @Column(name = "deletion_total")
+    private Long deletionTotal;
+
+    // Fin de la purga: la fila queda como lápida hasta que la limpia TaskListPurgeService
+    @Column(name = "purged_at")
+    private LocalDateTime purgedAt;
+
     // Getters y Setters
     public Long getId() {
         return id;
@@ -87,4 +115,28 @@ public class TaskList {
     public void setOwner(User owner) {
         this.owner = owner;
     }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
+    public Long getDeletionTotal() {
+        return deletionTotal;
+    }
+
+    public void setDeletionTotal(Long deletionTotal) {
+        this.deletionTotal = deletionTotal;
+    }
+
+    public LocalDateTime getPurgedAt() {
+        return purgedAt;
+    }
+
+    public void setPurgedAt(LocalDateTime purgedAt) {
+        this.purgedAt = purgedAt;
+    }
 }
@@ -6,8 +6,11 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Column;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import jakarta.persistence.Index;
 import java.util.Set;
@@ -18,7 +21,13 @@ import java.util.HashSet;
     @Index(name = "idx_users_username", columnList = "username", unique = true),
     @Index(name = "idx_users_email", columnList = "email", unique = true)
 })
+// Sin caché de segundo nivel: es local a cada nodo y un cambio de roles o de datos quedaría
+// desfasado en los demás nodos hasta que expirase la entrada
+// Los roles solo hacen falta al autenticar y en las comprobaciones de administrador
+@NamedEntityGraph(name = User.GRAPH_WITH_ROLES, attributeNodes = @NamedAttributeNode("roles"))
 public class User {
+    public static final String GRAPH_WITH_ROLES = "User.withRoles";
+
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
@@ -30,7 +39,7 @@ public class User {
 
     private String password;
 
-    @ManyToMany(fetch = jakarta.persistence.FetchType.EAGER)
+    @ManyToMany
     @JoinTable(
         name = "user_roles",
         joinColumns = @JoinColumn(name = "user_id"),
@@ -89,6 +98,15 @@ public class User {
         this.timezone = timezone;
     }
 
+    // Las copias de users en los shards de datos no llevan contraseña (ShardRouter.copyUserStubs)
+    // y son de solo lectura: guardar una, en su shard o sobre la fila real, borraría la contraseña
+    @PreUpdate
+    void rejectShardStubUpdate() {
+        if (password == null) {
+            throw new IllegalStateException("El usuario " + id + " es una copia de shard sin contraseña y no se puede actualizar");
+        }
+    }
+
     // Métodos de seguridad
     public boolean hasRole(Role role) {
         return roles.contains(role);
@@ -0,0 +1,67 @@
+package com.tonilr.ToDoList.repository;
+
+import com.tonilr.ToDoList.model.ArchivedTask;
+import com.tonilr.ToDoList.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArchivedTaskRepository extends JpaRepository<ArchivedTask, Long> {
+
+    /**
+     * Finds the archived tasks assigned to a user, most recently completed first.
+     * @param user The assignee
+     * @return Archived tasks of the user
+     */
+    @EntityGraph(ArchivedTask.GRAPH_LIST)
+    @Query("SELECT a FROM ArchivedTask a WHERE a.assignedTo = :user ORDER BY a.completedAt DESC")
+    List<ArchivedTask> findByAssignedTo(@Param("user") User user);
+
+    /**
+     * Finds the archived tasks of a user within a task list.
+     * @param user The assignee
+     * @param taskListId The ID of the task list
+     * @return Archived tasks of the user in the list
+     */
+    @EntityGraph(ArchivedTask.GRAPH_LIST)
+    @Query("SELECT a FROM ArchivedTask a WHERE a.assignedTo = :user AND a.taskList.id = :taskListId ORDER BY a.completedAt DESC")
+    List<ArchivedTask> findByAssignedToAndTaskListId(@Param("user") User user, @Param("taskListId") Long taskListId);
+
+    /**
+     * Copies tasks into the archive keeping their ids. Must run in the same
+     * transaction as the delete from tasks.
+     * @param ids Ids of the tasks to archive
+     * @param archivedAt Archival instant
+     * @return Number of archived tasks
+     */
+    @Modifying
+    // Declarar la tabla afectada evita que Hibernate vacíe toda la caché de segundo nivel
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tasks_archive"))
+    @Query(value = "INSERT INTO tasks_archive (id, title, description, completed, priority, due_date, created_at, " +
+                   "completed_at, archived_at, assigned_to_id, user_id, task_list_id, list_rank) " +
+                   "SELECT id, title, description, completed, priority, due_date, created_at, " +
+                   "completed_at, :archivedAt, assigned_to_id, user_id, task_list_id, list_rank " +
+                   "FROM tasks WHERE id IN (:ids)", nativeQuery = true)
+    int copyFromTasks(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+    /**
+     * Deletes the archived tasks of a task list that is being purged.
+     * @param taskListId The ID of the task list
+     * @return Number of deleted archived tasks
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ArchivedTask a WHERE a.taskList.id = :taskListId")
+    int deleteByTaskListId(@Param("taskListId") Long taskListId);
+}
@@ -1,19 +1,35 @@
 package com.tonilr.ToDoList.repository;
 
 import com.tonilr.ToDoList.model.AuditLog;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
+
+    /**
+     * Todos los logs con su usuario, en una sola consulta para mapearlos a AuditLogDTO
+     */
+    @Override
+    @EntityGraph(AuditLog.GRAPH_WITH_USER)
+    List<AuditLog> findAll();
+
+    @Override
+    @EntityGraph(AuditLog.GRAPH_WITH_USER)
+    Optional<AuditLog> findById(Long id);
     
     /**
      * Elimina logs más antiguos que la fecha especificada
      */
+    @Transactional
     @Modifying
     @Query("DELETE FROM AuditLog a WHERE a.timestamp < :cutoffDate")
     int deleteLogsOlderThan(@Param("cutoffDate") LocalDateTime cutoffDate);
@@ -0,0 +1,52 @@
+package com.tonilr.ToDoList.repository;
+
+import com.tonilr.ToDoList.model.ClusterNode;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ClusterNodeRepository extends JpaRepository<ClusterNode, String> {
+
+    /**
+     * Actualiza el latido de un nodo ya registrado.
+     * @return Número de filas actualizadas (0 si el nodo no existe)
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query("UPDATE ClusterNode n SET n.lastHeartbeat = :now WHERE n.nodeId = :nodeId")
+    int touch(@Param("nodeId") String nodeId, @Param("now") LocalDateTime now);
+
+    /**
+     * Registra un nodo nuevo.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    // Declarar la tabla afectada evita que Hibernate vacíe toda la caché de segundo nivel
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "cluster_nodes"))
+    @Query(value = "INSERT INTO cluster_nodes (node_id, last_heartbeat) VALUES (:nodeId, :now)", nativeQuery = true)
+    int register(@Param("nodeId") String nodeId, @Param("now") LocalDateTime now);
+
+    /**
+     * Identificadores de los nodos con latido posterior al límite, en orden estable.
+     */
+    @Query("SELECT n.nodeId FROM ClusterNode n WHERE n.lastHeartbeat >= :since ORDER BY n.nodeId")
+    List<String> findLiveNodeIds(@Param("since") LocalDateTime since);
+
+    /**
+     * Elimina los nodos sin latido desde hace tiempo.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query("DELETE FROM ClusterNode n WHERE n.lastHeartbeat < :before")
+    int deleteStale(@Param("before") LocalDateTime before);
+}
@@ -2,9 +2,27 @@ package com.tonilr.ToDoList.repository;
 
 import com.tonilr.ToDoList.model.NotificationPreferences;
 import com.tonilr.ToDoList.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.List;
 import java.util.Optional;
 
 public interface NotificationPreferencesRepository extends JpaRepository<NotificationPreferences, Long> {
     Optional<NotificationPreferences> findByUser(User user);
+
+    /**
+     * Preferencias de los usuarios asignados a un nodo: user_id mod shardCount = shardIndex.
+     */
+    @EntityGraph(NotificationPreferences.GRAPH_REMINDER)
+    @Query("SELECT p FROM NotificationPreferences p WHERE MOD(p.user.id, :shardCount) = :shardIndex")
+    List<NotificationPreferences> findByUserShard(@Param("shardIndex") int shardIndex, @Param("shardCount") int shardCount);
+
+    /**
+     * Preferencias con resumen diario o semanal activo de los usuarios asignados a un nodo.
+     */
+    @Query("SELECT p FROM NotificationPreferences p JOIN FETCH p.user " +
+           "WHERE (p.dailySummary = true OR p.weeklySummary = true) AND MOD(p.user.id, :shardCount) = :shardIndex")
+    List<NotificationPreferences> findSummarySubscribersByUserShard(@Param("shardIndex") int shardIndex, @Param("shardCount") int shardCount);
 }
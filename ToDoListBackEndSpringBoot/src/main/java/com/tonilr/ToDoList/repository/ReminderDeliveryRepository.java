@@ -0,0 +1,35 @@
+package com.tonilr.ToDoList.repository;
+
+import com.tonilr.ToDoList.model.ReminderDelivery;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ReminderDeliveryRepository extends JpaRepository<ReminderDelivery, Long> {
+
+    /**
+     * Devuelve pares (taskId, windowDay) ya enviados para las tareas indicadas.
+     * Usa el índice único (task_id, reminder_kind, window_day).
+     */
+    @Query("SELECT d.taskId, d.windowDay FROM ReminderDelivery d " +
+           "WHERE d.reminderKind = :kind AND d.taskId IN :taskIds AND d.windowDay >= :fromDay")
+    List<Object[]> findSent(@Param("kind") String kind,
+                            @Param("taskIds") Collection<Long> taskIds,
+                            @Param("fromDay") LocalDate fromDay);
+
+    /**
+     * Elimina entradas del registro más antiguas que la fecha indicada.
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ReminderDelivery d WHERE d.sentAt < :cutoff")
+    int deleteSentBefore(@Param("cutoff") LocalDateTime cutoff);
+}
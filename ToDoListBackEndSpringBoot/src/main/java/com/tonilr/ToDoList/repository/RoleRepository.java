@@ -1,11 +1,20 @@
 package com.tonilr.ToDoList.repository;
 
 import com.tonilr.ToDoList.model.Role;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import java.util.Optional;
 
 @Repository
 public interface RoleRepository extends JpaRepository<Role, Long> {
+
+    // Se llama en cada registro y cambio de rol; los roles casi nunca cambian
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "roleQueries")
+    })
     Optional<Role> findByName(String name);
 }
@@ -0,0 +1,50 @@
+package com.tonilr.ToDoList.repository;
+
+import com.tonilr.ToDoList.model.SchedulerLock;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+
+@Repository
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+
+    /**
+     * Toma el lease si ha expirado. Tampoco es reentrante en el nodo que lo tiene: dos hilos
+     * del mismo nodo no deben ejecutar el mismo trabajo a la vez, ni repetirlo antes de lockAtLeastFor.
+     * @return 1 si se obtuvo el lease, 0 si lo tiene otro nodo u otro hilo
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.lockedBy = :nodeId, l.lockedAt = :now, l.lockedUntil = :until " +
+           "WHERE l.name = :name AND l.lockedUntil <= :now")
+    int acquireIfFree(@Param("name") String name, @Param("nodeId") String nodeId,
+                      @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    /**
+     * Crea la fila del lease. Falla con violación de clave primaria si otro nodo se adelantó.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    // Declarar la tabla afectada evita que Hibernate vacíe toda la caché de segundo nivel
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "scheduler_locks"))
+    @Query(value = "INSERT INTO scheduler_locks (name, locked_by, locked_at, locked_until) " +
+                   "VALUES (:name, :nodeId, :now, :until)", nativeQuery = true)
+    int insertLock(@Param("name") String name, @Param("nodeId") String nodeId,
+                   @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    /**
+     * Libera el lease acortando su expiración, solo si sigue perteneciendo a este nodo.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.lockedUntil = :until WHERE l.name = :name AND l.lockedBy = :nodeId")
+    int release(@Param("name") String name, @Param("nodeId") String nodeId, @Param("until") LocalDateTime until);
+}
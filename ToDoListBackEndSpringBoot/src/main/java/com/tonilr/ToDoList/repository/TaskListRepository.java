@@ -1,18 +1,64 @@
 package com.tonilr.ToDoList.repository;
 
+import com.tonilr.ToDoList.dto.TaskListSummaryDTO;
 import com.tonilr.ToDoList.model.TaskList;
 import com.tonilr.ToDoList.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface TaskListRepository extends JpaRepository<TaskList, Long> {
-    List<TaskList> findByOwner(User owner);
-    List<TaskList> findByOwnerAndNameContainingIgnoreCase(User owner, String name);
+    // Las listas marcadas para borrado quedan ocultas en todas las consultas de usuario
+    @Query("SELECT tl FROM TaskList tl WHERE tl.owner = :owner AND tl.deletedAt IS NULL")
+    List<TaskList> findByOwner(@Param("owner") User owner);
 
-    @Query("SELECT DISTINCT tl FROM TaskList tl LEFT JOIN FETCH tl.tasks WHERE tl.owner.id = :ownerId")
+    @EntityGraph(TaskList.GRAPH_WITH_TASKS)
+    @Query("SELECT tl FROM TaskList tl WHERE tl.owner = :owner AND tl.deletedAt IS NULL " +
+           "AND LOWER(tl.name) LIKE LOWER(CONCAT('%', :name, '%'))")
+    List<TaskList> findByOwnerAndNameContainingIgnoreCase(@Param("owner") User owner, @Param("name") String name);
+
+    @EntityGraph(TaskList.GRAPH_WITH_TASKS)
+    @Query("SELECT DISTINCT tl FROM TaskList tl WHERE tl.owner.id = :ownerId AND tl.deletedAt IS NULL")
     List<TaskList> findByOwnerIdWithTasks(@Param("ownerId") Long ownerId);
+
+    // Resumen de las listas con sus contadores en una sola consulta agregada
+    @Query("SELECT new com.tonilr.ToDoList.dto.TaskListSummaryDTO(tl.id, tl.name, tl.description, COUNT(t.id), " +
+           "SUM(CASE WHEN t.completed = true THEN 1L ELSE 0L END), " +
+           "SUM(CASE WHEN t.completed = false AND t.dueDate < :now THEN 1L ELSE 0L END)) " +
+           "FROM TaskList tl LEFT JOIN tl.tasks t WHERE tl.owner.id = :ownerId AND tl.deletedAt IS NULL " +
+           "GROUP BY tl.id, tl.name, tl.description ORDER BY tl.id")
+    List<TaskListSummaryDTO> findSummariesByOwnerId(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now);
+
+    // Tareas vencidas por lista (id, total): depende de la hora, por eso va aparte del resumen cacheado
+    @Query("SELECT t.taskList.id, COUNT(t.id) FROM Task t WHERE t.taskList.owner.id = :ownerId " +
+           "AND t.taskList.deletedAt IS NULL AND t.completed = false AND t.dueDate < :now GROUP BY t.taskList.id")
+    List<Object[]> countOverdueByOwnerId(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now);
+
+    // Listas pendientes de purga, las más antiguas primero: rango sobre idx_tasklist_deleted, que ya da el orden
+    @Query("SELECT tl.id FROM TaskList tl WHERE tl.deletedAt IS NOT NULL AND tl.purgedAt IS NULL ORDER BY tl.deletedAt")
+    List<Long> findPendingDeletionIds();
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE TaskList tl SET tl.deletionTotal = :total WHERE tl.id = :id")
+    int updateDeletionTotal(@Param("id") Long id, @Param("total") Long total);
+
+    // Deja la fila de la lista como lápida una vez borradas sus tareas
+    @Transactional
+    @Modifying
+    @Query("UPDATE TaskList tl SET tl.purgedAt = :now WHERE tl.id = :id AND tl.deletedAt IS NOT NULL")
+    int markPurged(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    // Borra las lápidas antiguas sin pasar por la cascada sobre sus tareas, que ya no existen
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM TaskList tl WHERE tl.purgedAt < :cutoff")
+    int deletePurgedBefore(@Param("cutoff") LocalDateTime cutoff);
 }
@@ -3,24 +3,42 @@ package com.tonilr.ToDoList.repository;
 import com.tonilr.ToDoList.model.Task;
 import com.tonilr.ToDoList.model.User;
 import com.tonilr.ToDoList.model.TaskList;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long> {
+    // Las consultas por usuario omiten las tareas de listas marcadas para borrado (tl.deletedAt)
+    // mientras TaskListPurgeService las elimina; las de la propia purga y el archivado no filtran
+
+    /**
+     * Loads a task for the detail view, together with its list, assignee and creator.
+     * @param id The ID of the task
+     * @return The task, if it exists
+     */
+    @Override
+    @EntityGraph(Task.GRAPH_DETAIL)
+    Optional<Task> findById(Long id);
     
     /**
      * Finds all tasks assigned to a specific user.
      * @param user The user to find tasks for
      * @return List of tasks assigned to the user
      */
-    List<Task> findByAssignedTo(User user);
+    @EntityGraph(Task.GRAPH_LIST)
+    @Query("SELECT t FROM Task t LEFT JOIN t.taskList tl WHERE t.assignedTo = :user AND tl.deletedAt IS NULL")
+    List<Task> findByAssignedTo(@Param("user") User user);
     
     /**
      * Finds all tasks assigned to a specific user with a given priority level.
@@ -28,7 +46,10 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
      * @param priority The priority level to filter by
      * @return List of tasks matching the user and priority criteria
      */
-    List<Task> findByAssignedToAndPriority(User user, int priority);
+    @EntityGraph(Task.GRAPH_LIST)
+    @Query("SELECT t FROM Task t LEFT JOIN t.taskList tl WHERE t.assignedTo = :user " +
+           "AND t.priority = :priority AND tl.deletedAt IS NULL")
+    List<Task> findByAssignedToAndPriority(@Param("user") User user, @Param("priority") int priority);
     
     /**
      * Finds all tasks assigned to a user that are due before a specific date/time.
@@ -36,7 +57,10 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
      * @param dueDate The cutoff date/time for task due dates
      * @return List of overdue or upcoming tasks for the user
      */
-    List<Task> findByAssignedToAndDueDateBefore(User user, LocalDateTime dueDate);
+    @EntityGraph(Task.GRAPH_LIST)
+    @Query("SELECT t FROM Task t LEFT JOIN t.taskList tl WHERE t.assignedTo = :user " +
+           "AND t.dueDate < :dueDate AND tl.deletedAt IS NULL")
+    List<Task> findByAssignedToAndDueDateBefore(@Param("user") User user, @Param("dueDate") LocalDateTime dueDate);
     
     /**
      * Finds tasks assigned to a user with titles containing the specified text (case-insensitive).
@@ -44,14 +68,95 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
      * @param title The text to search for in task titles
      * @return List of tasks with matching titles
      */
-    List<Task> findByAssignedToAndTitleContainingIgnoreCase(User user, String title);
+    @EntityGraph(Task.GRAPH_LIST)
+    @Query("SELECT t FROM Task t LEFT JOIN t.taskList tl WHERE t.assignedTo = :user " +
+           "AND LOWER(t.title) LIKE LOWER(CONCAT('%', :title, '%')) AND tl.deletedAt IS NULL")
+    List<Task> findByAssignedToAndTitleContainingIgnoreCase(@Param("user") User user, @Param("title") String title);
     
     /**
      * Finds all tasks belonging to a specific task list.
      * @param taskListId The ID of the task list
      * @return List of tasks in the specified task list
      */
-    List<Task> findByTaskListId(Long taskListId);
+    @EntityGraph(Task.GRAPH_LIST)
+    @Query("SELECT t FROM Task t WHERE t.taskList.id = :taskListId")
+    List<Task> findByTaskListId(@Param("taskListId") Long taskListId);
+
+    /**
+     * Finds one page of the tasks belonging to a task list.
+     * @param taskListId The ID of the task list
+     * @param pageable Page and sort to load
+     * @return Page of tasks in the specified task list
+     */
+    @EntityGraph(Task.GRAPH_LIST)
+    @Query("SELECT t FROM Task t WHERE t.taskList.id = :taskListId")
+    Page<Task> findByTaskListId(@Param("taskListId") Long taskListId, Pageable pageable);
+
+    /**
+     * Finds one page of the tasks of a task list in manual order.
+     * Unranked tasks go last, ordered by id, as TaskRankService leaves them when it respaces a list.
+     * The order is part of the query because Spring Data ignores the null handling of a Sort here.
+     * @param taskListId The ID of the task list
+     * @param pageable Page to load, without sort
+     * @return Page of tasks in the specified task list
+     */
+    @EntityGraph(Task.GRAPH_LIST)
+    @Query(value = "SELECT t FROM Task t WHERE t.taskList.id = :taskListId ORDER BY t.rank ASC NULLS LAST, t.id",
+           countQuery = "SELECT COUNT(t) FROM Task t WHERE t.taskList.id = :taskListId")
+    Page<Task> findByTaskListIdInManualOrder(@Param("taskListId") Long taskListId, Pageable pageable);
+
+    /**
+     * Finds the highest rank in a task list, used to append new tasks at the end.
+     * @param taskListId The ID of the task list
+     * @return Highest rank, or null if the list has no ranked tasks
+     */
+    @Query("SELECT MAX(t.rank) FROM Task t WHERE t.taskList.id = :taskListId")
+    String findMaxRankByTaskListId(@Param("taskListId") Long taskListId);
+
+    /**
+     * Finds the task lists containing unranked tasks or ranks longer than the limit.
+     * @param maxLength Maximum rank length before a rebalance
+     * @return Ids of the task lists to rebalance
+     */
+    @Query("SELECT DISTINCT t.taskList.id FROM Task t WHERE t.taskList IS NOT NULL " +
+           "AND (t.rank IS NULL OR LENGTH(t.rank) > :maxLength)")
+    List<Long> findTaskListIdsNeedingRebalance(@Param("maxLength") int maxLength);
+
+    /**
+     * Counts the tasks belonging to a task list.
+     * @param taskListId The ID of the task list
+     * @return Number of tasks in the list
+     */
+    @Query("SELECT COUNT(t) FROM Task t WHERE t.taskList.id = :taskListId")
+    long countByTaskListId(@Param("taskListId") Long taskListId);
+
+    /**
+     * Finds a bounded chunk of task ids of a task list, used to purge large lists.
+     * @param taskListId The ID of the task list
+     * @param pageable Chunk size
+     * @return Ids of the tasks in the chunk
+     */
+    @Query("SELECT t.id FROM Task t WHERE t.taskList.id = :taskListId ORDER BY t.id")
+    List<Long> findIdsByTaskListId(@Param("taskListId") Long taskListId, Pageable pageable);
+
+    /**
+     * Deletes tasks by id in a single statement and its own short transaction.
+     * @param ids Ids of the tasks to delete
+     * @return Number of deleted tasks
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Task t WHERE t.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Finds a bounded chunk of ids of tasks completed before the cutoff, to be archived.
+     * @param cutoff Tasks completed before this instant are archivable
+     * @param pageable Chunk size
+     * @return Ids of the tasks in the chunk
+     */
+    @Query("SELECT t.id FROM Task t WHERE t.completed = true AND t.completedAt < :cutoff ORDER BY t.id")
+    List<Long> findArchivableIds(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
     
     /**
      * Finds all pending (incomplete) tasks assigned to a specific user.
@@ -67,7 +172,8 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
      * @param user The user to find tasks for
      * @return List of tasks due for reminders
      */
-    @Query("SELECT t FROM Task t WHERE t.dueDate <= :reminderTime AND t.assignedTo = :user AND t.completed = false")
+    @Query("SELECT t FROM Task t LEFT JOIN t.taskList tl WHERE t.dueDate <= :reminderTime AND t.assignedTo = :user " +
+           "AND t.completed = false AND tl.deletedAt IS NULL")
     List<Task> findTasksDueBefore(@Param("reminderTime") LocalDateTime reminderTime, @Param("user") User user); 
 
     /**
@@ -76,7 +182,9 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
      * @param completed The completion status to filter by
      * @return List of tasks matching the completion criteria
      */
-    @Query("SELECT t FROM Task t WHERE t.assignedTo = :user AND t.completed = :completed")
+    @EntityGraph(Task.GRAPH_LIST)
+    @Query("SELECT t FROM Task t LEFT JOIN t.taskList tl WHERE t.assignedTo = :user AND t.completed = :completed " +
+           "AND tl.deletedAt IS NULL")
     List<Task> findByAssignedToAndCompleted(@Param("user") User user, @Param("completed") boolean completed);
 
     /**
@@ -88,7 +196,7 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
      * @param dateFilter Optional due date filter (null = no filter)
      * @return List of tasks matching the applied filters
      */
-    @Query("SELECT t FROM Task t WHERE t.assignedTo = :user " +
+    @Query("SELECT t FROM Task t LEFT JOIN t.taskList tl WHERE t.assignedTo = :user AND tl.deletedAt IS NULL " +
            "AND (:completed IS NULL OR t.completed = :completed) " +
            "AND (:priority IS NULL OR t.priority = :priority) " +
            "AND (:dateFilter IS NULL OR t.dueDate = :dateFilter)")
@@ -118,7 +226,9 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
      * @param user The user to find incomplete tasks for
      * @return List of incomplete tasks for the user
      */
-    List<Task> findByAssignedToAndCompletedFalse(User user);
+    @Query("SELECT t FROM Task t LEFT JOIN t.taskList tl WHERE t.assignedTo = :user AND t.completed = false " +
+           "AND tl.deletedAt IS NULL")
+    List<Task> findByAssignedToAndCompletedFalse(@Param("user") User user);
 
     /**
      * Finds incomplete tasks assigned to a user with due dates within a specific range.
@@ -127,22 +237,39 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
      * @param end The end of the date range
      * @return List of incomplete tasks due within the specified range
      */
-    @Query("SELECT t FROM Task t WHERE t.assignedTo = :user AND t.dueDate BETWEEN :start AND :end AND t.completed = false")
+    @Query("SELECT t FROM Task t LEFT JOIN t.taskList tl WHERE t.assignedTo = :user " +
+           "AND t.dueDate BETWEEN :start AND :end AND t.completed = false AND tl.deletedAt IS NULL")
     List<Task> findByAssignedToAndDueDateBetweenAndCompletedFalse(
         @Param("user") User user,
         @Param("start") LocalDateTime start,
         @Param("end") LocalDateTime end
     );
 
+    /**
+     * Finds incomplete tasks assigned to any of the given users with due dates within a range.
+     * Used to build the summaries of a whole schedule bucket with a single query.
+     * @param userIds Ids of the assigned users
+     * @param start The start of the date range
+     * @param end The end of the date range
+     * @return List of incomplete tasks due within the specified range
+     */
+    @Query("SELECT t FROM Task t LEFT JOIN t.taskList tl WHERE t.assignedTo.id IN :userIds " +
+           "AND t.dueDate BETWEEN :start AND :end AND t.completed = false AND tl.deletedAt IS NULL")
+    List<Task> findByAssignedToIdInAndDueDateBetweenAndCompletedFalse(
+        @Param("userIds") Collection<Long> userIds,
+        @Param("start") LocalDateTime start,
+        @Param("end") LocalDateTime end
+    );
+
     /**
      * Finds incomplete tasks assigned to a user that are overdue (due before a specific date/time).
      * @param user The user to find overdue tasks for
      * @param dateTime The cutoff date/time for overdue tasks
      * @return List of overdue incomplete tasks for the user
      */
-    @Query("SELECT t FROM Task t WHERE t.assignedTo = :user " +
+    @Query("SELECT t FROM Task t LEFT JOIN t.taskList tl WHERE t.assignedTo = :user " +
            "AND t.dueDate < :dateTime " +
-           "AND t.completed = false")
+           "AND t.completed = false AND tl.deletedAt IS NULL")
     List<Task> findByAssignedToAndDueDateBeforeAndCompletedFalse(
         @Param("user") User user,
         @Param("dateTime") LocalDateTime dateTime
@@ -200,10 +327,13 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
      * @param taskListId The ID of the task list to filter by
      * @return List of tasks assigned to the user in the specified task list
      */
-    @Query("SELECT t FROM Task t WHERE t.assignedTo = :user AND t.taskList.id = :taskListId")
+    @EntityGraph(Task.GRAPH_LIST)
+    @Query("SELECT t FROM Task t JOIN t.taskList tl WHERE t.assignedTo = :user AND tl.id = :taskListId " +
+           "AND tl.deletedAt IS NULL")
     List<Task> findByAssignedToAndTaskListId(@Param("user") User user, @Param("taskListId") Long taskListId);
 
     // AÑADIR paginación para consultas grandes
+    @EntityGraph(Task.GRAPH_LIST)
     @Query("SELECT t FROM Task t WHERE t.assignedTo = :user ORDER BY t.dueDate ASC")
     Page<Task> findByAssignedToWithPagination(@Param("user") User user, Pageable pageable);
 }
@@ -1,6 +1,7 @@
 package com.tonilr.ToDoList.repository;
 
 import com.tonilr.ToDoList.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import java.util.Optional;
@@ -8,6 +9,11 @@ import java.util.Optional;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
+
+    // Autenticación y comprobaciones de rol: el usuario con sus roles en una consulta
+    @EntityGraph(User.GRAPH_WITH_ROLES)
+    Optional<User> findWithRolesByUsername(String username);
+
     Optional<User> findByEmail(String email);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
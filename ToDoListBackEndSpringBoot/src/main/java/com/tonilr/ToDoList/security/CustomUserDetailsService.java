@@ -1,5 +1,6 @@
 package com.tonilr.ToDoList.security;
 
+import com.tonilr.ToDoList.config.RequestTiming;
 import com.tonilr.ToDoList.model.User;
 import com.tonilr.ToDoList.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,8 +20,8 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-            .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado: " + username));
+        User user = RequestTiming.time(RequestTiming.USER, () -> userRepository.findWithRolesByUsername(username)
+            .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado: " + username)));
 
         return org.springframework.security.core.userdetails.User
             .withUsername(user.getUsername())
@@ -14,6 +14,7 @@ import java.io.IOException;
 import org.springframework.util.StringUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import com.tonilr.ToDoList.config.RequestTiming;
 
 /**
  * JWT Authentication Filter for processing JWT tokens in HTTP requests.
@@ -50,24 +51,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
      */
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        long authStart = System.nanoTime();
         String requestURI = request.getRequestURI();
         String method = request.getMethod();
         
-        log.info("🔍 JWT Filter - Request: {} {}", method, requestURI);
-        
         // Extract JWT token from the request
         String token = getJwtFromRequest(request);
         
         if (StringUtils.hasText(token)) {
-            log.info(" JWT Filter - Token encontrado para: {} {}", method, requestURI);
             try {
                 // Extract username from JWT token
                 String username = tokenProvider.getUsernameFromJWT(token);
-                log.info("🔍 JWT Filter - Usuario extraído: {}", username);
                 
                 // Load user details from database
                 UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                log.info("🔍 JWT Filter - UserDetails cargado para: {}", username);
                 
                 // Create authentication token
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
@@ -76,17 +73,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 
                 // Set authentication in Spring Security context
                 SecurityContextHolder.getContext().setAuthentication(authentication);
-                log.info("✅ JWT Filter - Autenticación exitosa para usuario: {} en {}", username, requestURI);
+                log.debug("JWT Filter - Autenticación correcta para {} en {} {}", username, method, requestURI);
                 
             } catch (Exception e) {
-                log.error("❌ JWT Filter - Error de autenticación: {} - URI: {}", e.getMessage(), requestURI);
-                log.error("❌ JWT Filter - Stack trace:", e);
+                // Un token inválido es un error del cliente: una línea sin traza, y la traza solo en DEBUG
+                log.warn("JWT Filter - Token rechazado en {} {}: {}", method, requestURI, e.getMessage());
+                log.debug("JWT Filter - Detalle del token rechazado", e);
                 SecurityContextHolder.clearContext();
             }
         } else {
-            log.info("ℹ️ JWT Filter - No se encontró token en: {} {}", method, requestURI);
+            log.debug("JWT Filter - Sin token en {} {}", method, requestURI);
         }
         
+        RequestTiming.record(RequestTiming.AUTH, System.nanoTime() - authStart);
+
         // Continue with the filter chain
         filterChain.doFilter(request, response);
     }
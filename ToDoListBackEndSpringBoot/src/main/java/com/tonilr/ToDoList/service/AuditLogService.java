@@ -1,5 +1,6 @@
 package com.tonilr.ToDoList.service;
 
+import com.tonilr.ToDoList.config.RequestTiming;
 import com.tonilr.ToDoList.dto.AuditLogDTO;
 import com.tonilr.ToDoList.model.AuditLog;
 import com.tonilr.ToDoList.model.User;
@@ -9,11 +10,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.transaction.annotation.Transactional;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
@@ -22,14 +29,30 @@ import java.util.stream.Collectors;
  * for tracking user actions and system events.
  */
 @Service
+@Timed(value = "todolist.service", percentiles = {0.5, 0.95, 0.99})
 @Slf4j
 public class AuditLogService {
+
+    /**
+     * Lease de clúster compartido por todas las limpiezas de logs (diaria, semanal, preventiva),
+     * para que dos nodos nunca ejecuten los DELETE a la vez.
+     */
+    public static final String CLEANUP_LEASE = "auditLogCleanup";
     
     @Autowired
     private AuditLogRepository auditLogRepository;
     
     @Autowired
     private DTOMapper dtoMapper;
+
+    @Autowired
+    private ClusterCoordinationService clusterCoordinationService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
     
     // Configuración de retención de logs (por defecto 30 días)
     @Value("${app.audit.log.retention.days:30}")
@@ -47,12 +70,50 @@ public class AuditLogService {
     @Value("${app.audit.log.cleanup.cron:0 0 3 * * *}")
     private String cleanupCron;
 
+    // Últimos recuentos para las métricas; se recalculan cada app.audit.log.metrics-interval-ms
+    private final AtomicLong backlogLogs = new AtomicLong();
+    private final AtomicLong totalLogs = new AtomicLong();
+
+    /**
+     * Registers the audit backlog gauges.
+     */
+    @PostConstruct
+    public void initMetrics() {
+        Gauge.builder("audit.logs.backlog", backlogLogs, AtomicLong::get)
+            .description("Logs más antiguos que la retención, pendientes de limpieza")
+            .register(meterRegistry);
+        Gauge.builder("audit.logs.total", totalLogs, AtomicLong::get)
+            .description("Logs de auditoría almacenados en todos los shards")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Recalcula los recuentos de las métricas; las consultas no se hacen en cada scrape.
+     */
+    @Scheduled(fixedDelayString = "${app.audit.log.metrics-interval-ms:60000}",
+               initialDelayString = "${app.audit.log.metrics-interval-ms:60000}")
+    public void refreshBacklogMetrics() {
+        try {
+            LocalDateTime cutoffDate = LocalDateTime.now().minusDays(logRetentionDays);
+            long total = 0;
+            long backlog = 0;
+            for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+                total += shardRouter.callOnShard(shard, auditLogRepository::countTotalLogs);
+                backlog += shardRouter.callOnShard(shard, () -> auditLogRepository.countLogsOlderThan(cutoffDate));
+            }
+            totalLogs.set(total);
+            backlogLogs.set(backlog);
+        } catch (Exception e) {
+            log.warn("No se pudieron actualizar las métricas de logs: {}", e.getMessage());
+        }
+    }
+
     /**
      * Retrieves all audit logs from the database with pagination support.
      * @return List of all audit log DTOs
      */
     public List<AuditLogDTO> getAllLogs() {
-        return auditLogRepository.findAll().stream()
+        return shardRouter.collectFromShards(auditLogRepository::findAll).stream()
                 .map(dtoMapper::toAuditLogDTO)
                 .collect(Collectors.toList());
     }
@@ -63,7 +124,7 @@ public class AuditLogService {
      * @return Optional containing the audit log DTO if found
      */
     public Optional<AuditLogDTO> getLogById(Long id) {
-        return auditLogRepository.findById(id)
+        return shardRouter.callOnShard(shardRouter.shardForId(id), () -> auditLogRepository.findById(id))
                 .map(dtoMapper::toAuditLogDTO);
     }
 
@@ -75,21 +136,23 @@ public class AuditLogService {
      */
     @Transactional
     public void logAction(User user, String action, String details) {
-        try {
-            AuditLog log = new AuditLog();
-            log.setUser(user);
-            log.setAction(action);
-            log.setDetails(details);
-            log.setTimestamp(LocalDateTime.now());
-            auditLogRepository.save(log);
-            
-            // Verificar si necesitamos limpieza automática
-            if (autoCleanupEnabled) {
-                checkAndTriggerCleanup();
+        RequestTiming.time(RequestTiming.AUDIT, () -> {
+            try {
+                AuditLog log = new AuditLog();
+                log.setUser(user);
+                log.setAction(action);
+                log.setDetails(details);
+                log.setTimestamp(LocalDateTime.now());
+                auditLogRepository.save(log);
+
+                // Verificar si necesitamos limpieza automática
+                if (autoCleanupEnabled) {
+                    checkAndTriggerCleanup();
+                }
+            } catch (Exception e) {
+                log.error("Error creating audit log: {}", e.getMessage(), e);
             }
-        } catch (Exception e) {
-            log.error("Error creating audit log: {}", e.getMessage(), e);
-        }
+        });
     }
     
     /**
@@ -97,7 +160,6 @@ public class AuditLogService {
      * Se ejecuta según la configuración de cron especificada.
      */
     @Scheduled(cron = "${app.audit.log.cleanup.cron:0 0 3 * * *}")
-    @Transactional
     public void scheduledLogCleanup() {
         if (!autoCleanupEnabled) {
             log.info("Limpieza automática de logs deshabilitada");
@@ -105,17 +167,22 @@ public class AuditLogService {
         }
         
         try {
-            performLogCleanup();
+            // Solo un nodo del clúster ejecuta la limpieza
+            clusterCoordinationService.runExclusively(CLEANUP_LEASE,
+                Duration.ofMinutes(30), Duration.ofMinutes(5), this::performLogCleanup);
         } catch (Exception e) {
             log.error("Error durante la limpieza automática de logs: {}", e.getMessage(), e);
         }
     }
     
     /**
-     * Ejecuta la limpieza de logs basándose en la configuración de retención.
+     * Ejecuta la limpieza de logs basándose en la configuración de retención, shard a shard.
      */
-    @Transactional
     public void performLogCleanup() {
+        shardRouter.forEachShard(this::cleanupCurrentShard);
+    }
+
+    private void cleanupCurrentShard() {
         try {
             LocalDateTime cutoffDate = LocalDateTime.now().minusDays(logRetentionDays);
             
@@ -179,7 +246,10 @@ public class AuditLogService {
             if (totalLogs > (maxLogEntries * 0.8)) {
                 log.info("Activando limpieza preventiva de logs ({} de {} entradas)", 
                     totalLogs, maxLogEntries);
-                performLogCleanup();
+                // Si otro nodo ya está limpiando, no competimos por los mismos DELETE
+                // Dentro de la transacción de logAction solo se limpia el shard en curso
+                clusterCoordinationService.runExclusively(CLEANUP_LEASE,
+                    Duration.ofMinutes(30), Duration.ZERO, this::cleanupCurrentShard);
             }
         } catch (Exception e) {
             log.error("Error durante la verificación preventiva: {}", e.getMessage(), e);
@@ -192,9 +262,13 @@ public class AuditLogService {
      */
     public String getLogStatistics() {
         try {
-            long totalLogs = auditLogRepository.countTotalLogs();
             LocalDateTime cutoffDate = LocalDateTime.now().minusDays(logRetentionDays);
-            long oldLogs = auditLogRepository.countLogsOlderThan(cutoffDate);
+            long totalLogs = 0;
+            long oldLogs = 0;
+            for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+                totalLogs += shardRouter.callOnShard(shard, auditLogRepository::countTotalLogs);
+                oldLogs += shardRouter.callOnShard(shard, () -> auditLogRepository.countLogsOlderThan(cutoffDate));
+            }
             
             return String.format(
                 "Total logs: %d | Logs antiguos (>%d días): %d | Retención configurada: %d días | " +
@@ -213,7 +287,6 @@ public class AuditLogService {
      * @param daysToKeep Número de días de logs a mantener
      * @return Número de logs eliminados
      */
-    @Transactional
     public int manualLogCleanup(int daysToKeep) {
         try {
             if (daysToKeep < 1) {
@@ -221,13 +294,19 @@ public class AuditLogService {
             }
             
             LocalDateTime cutoffDate = LocalDateTime.now().minusDays(daysToKeep);
-            long logsToDelete = auditLogRepository.countLogsOlderThan(cutoffDate);
+            long logsToDelete = 0;
+            for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+                logsToDelete += shardRouter.callOnShard(shard, () -> auditLogRepository.countLogsOlderThan(cutoffDate));
+            }
             
             if (logsToDelete > 0) {
                 log.info("Limpieza manual iniciada: eliminando {} logs más antiguos que {} días", 
                     logsToDelete, daysToKeep);
                 
-                int deletedCount = auditLogRepository.deleteLogsOlderThan(cutoffDate);
+                int deletedCount = 0;
+                for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+                    deletedCount += shardRouter.callOnShard(shard, () -> auditLogRepository.deleteLogsOlderThan(cutoffDate));
+                }
                 log.info("Limpieza manual completada: {} logs eliminados", deletedCount);
                 return deletedCount;
             } else {
@@ -0,0 +1,241 @@
+package com.tonilr.ToDoList.service;
+
+import com.tonilr.ToDoList.config.ShardContext;
+import com.tonilr.ToDoList.config.ShardRoutingDataSource;
+import com.tonilr.ToDoList.repository.ClusterNodeRepository;
+import com.tonilr.ToDoList.repository.SchedulerLockRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Service coordinating scheduled jobs across several application instances
+ * sharing the same database.
+ * Singleton jobs run under a database lease so only one node executes them,
+ * and per-user work is partitioned across the nodes with a recent heartbeat.
+ */
+@Service
+@Slf4j
+public class ClusterCoordinationService {
+
+    @Autowired
+    private SchedulerLockRepository lockRepository;
+
+    @Autowired
+    private ClusterNodeRepository nodeRepository;
+
+    @Value("${app.cluster.enabled:true}")
+    private boolean clusterEnabled;
+
+    @Value("${app.cluster.node-id:}")
+    private String configuredNodeId;
+
+    // Un nodo sin latido durante este tiempo deja de recibir trabajo
+    @Value("${app.cluster.node-ttl-seconds:90}")
+    private long nodeTtlSeconds;
+
+    private String nodeId;
+
+    /**
+     * Resolves the node identifier and registers the first heartbeat.
+     */
+    @PostConstruct
+    public void init() {
+        nodeId = (configuredNodeId != null && !configuredNodeId.isBlank())
+            ? configuredNodeId
+            : defaultNodeId();
+        if (clusterEnabled) {
+            heartbeat();
+        }
+        log.info("Nodo de clúster {} ({})", nodeId, clusterEnabled ? "coordinación activa" : "coordinación deshabilitada");
+    }
+
+    /**
+     * Removes this node from the live set on shutdown so the others pick up its users.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (!clusterEnabled) {
+            return;
+        }
+        try {
+            nodeRepository.deleteById(nodeId);
+        } catch (Exception e) {
+            log.warn("No se pudo eliminar el registro del nodo {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    /**
+     * Periodically refreshes this node's heartbeat and purges dead nodes.
+     */
+    @Scheduled(fixedDelayString = "${app.cluster.heartbeat-interval-ms:30000}",
+               initialDelayString = "${app.cluster.heartbeat-interval-ms:30000}")
+    public void heartbeat() {
+        if (!clusterEnabled) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            if (nodeRepository.touch(nodeId, now) == 0) {
+                try {
+                    nodeRepository.register(nodeId, now);
+                } catch (DataIntegrityViolationException e) {
+                    nodeRepository.touch(nodeId, now);
+                }
+            }
+            nodeRepository.deleteStale(now.minusSeconds(nodeTtlSeconds * 10));
+        } catch (Exception e) {
+            log.error("Error actualizando latido del nodo {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    /**
+     * Tries to take the named lease for this node.
+     * @param name Lease name, one per job
+     * @param lockAtMostFor Maximum time the lease is held if this node dies mid-job
+     * @return true if this node now holds the lease
+     */
+    public boolean tryLock(String name, Duration lockAtMostFor) {
+        if (!clusterEnabled) {
+            return true;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plus(lockAtMostFor);
+        if (lockRepository.acquireIfFree(name, nodeId, now, until) > 0) {
+            return true;
+        }
+        if (lockRepository.existsById(name)) {
+            return false;
+        }
+        try {
+            return lockRepository.insertLock(name, nodeId, now, until) > 0;
+        } catch (DataIntegrityViolationException e) {
+            // Otro nodo creó la fila a la vez
+            return false;
+        }
+    }
+
+    /**
+     * Releases the named lease, keeping it until {@code holdUntil} so that
+     * nodes whose clock fires slightly later don't run the same job again.
+     * @param name Lease name
+     * @param holdUntil Earliest instant the lease may be taken again
+     */
+    public void unlock(String name, LocalDateTime holdUntil) {
+        if (!clusterEnabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        lockRepository.release(name, nodeId, holdUntil.isAfter(now) ? holdUntil : now);
+    }
+
+    /**
+     * Runs a job only if this node wins its lease.
+     * @param name Lease name
+     * @param lockAtMostFor Maximum lease duration
+     * @param lockAtLeastFor Minimum lease duration, measured from the start of the job
+     * @param job Work to run
+     * @return true if the job ran on this node
+     */
+    public boolean runExclusively(String name, Duration lockAtMostFor, Duration lockAtLeastFor, Runnable job) {
+        LocalDateTime started = LocalDateTime.now();
+        // Los leases viven en el shard 0 aunque el trabajo se lance desde el de un usuario
+        if (!ShardContext.callOn(ShardRoutingDataSource.DIRECTORY_SHARD, () -> tryLock(name, lockAtMostFor))) {
+            log.debug("Tarea '{}' omitida: el lease lo tiene otro nodo", name);
+            return false;
+        }
+        try {
+            job.run();
+            return true;
+        } finally {
+            try {
+                ShardContext.callOn(ShardRoutingDataSource.DIRECTORY_SHARD, () -> {
+                    unlock(name, started.plus(lockAtLeastFor));
+                    return null;
+                });
+            } catch (Exception e) {
+                log.warn("No se pudo liberar el lease '{}': {}", name, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Returns this node's share of the per-user work.
+     * Users are assigned by {@code userId mod count == index} over the live nodes sorted by id.
+     * @return Shard assignment for this node
+     */
+    public ShardAssignment currentShard() {
+        if (!clusterEnabled) {
+            return ShardAssignment.SINGLE;
+        }
+        try {
+            List<String> liveNodes = nodeRepository.findLiveNodeIds(LocalDateTime.now().minusSeconds(nodeTtlSeconds));
+            int index = liveNodes.indexOf(nodeId);
+            if (index < 0) {
+                // Nuestro latido ha caducado: lo renovamos y volvemos a leer
+                heartbeat();
+                liveNodes = nodeRepository.findLiveNodeIds(LocalDateTime.now().minusSeconds(nodeTtlSeconds));
+                index = liveNodes.indexOf(nodeId);
+            }
+            if (index < 0) {
+                log.warn("Nodo {} no registrado, procesando todos los usuarios", nodeId);
+                return ShardAssignment.SINGLE;
+            }
+            return new ShardAssignment(index, liveNodes.size());
+        } catch (Exception e) {
+            log.error("Error calculando el reparto de usuarios: {}", e.getMessage());
+            return ShardAssignment.SINGLE;
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    private String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * Slice of the user space processed by one node.
+     */
+    public static final class ShardAssignment {
+        public static final ShardAssignment SINGLE = new ShardAssignment(0, 1);
+
+        private final int index;
+        private final int count;
+
+        public ShardAssignment(int index, int count) {
+            this.index = index;
+            this.count = count;
+        }
+
+        public int getIndex() { return index; }
+        public int getCount() { return count; }
+
+        public boolean owns(Long userId) {
+            return userId != null && Math.floorMod(userId, (long) count) == index;
+        }
+
+        @Override
+        public String toString() {
+            return index + "/" + count;
+        }
+    }
+}
@@ -0,0 +1,398 @@
+package com.tonilr.ToDoList.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import lombok.extern.slf4j.Slf4j;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generador de datos sintéticos para pruebas de rendimiento (perfil "datagen").
+ * Crea usuarios con zona horaria, listas, tareas, preferencias de notificación y
+ * logs de auditoría con distribuciones sesgadas, mediante inserciones JDBC por lotes.
+ * Con la misma semilla y fecha de referencia genera exactamente los mismos datos.
+ * Con sharding activo todo se escribe en el shard 0, donde ShardRouter asigna después
+ * a estos usuarios; se pueden repartir con el rebalanceo de /api/admin/shards.
+ *
+ * Uso: java -jar ToDoList.jar --spring.profiles.active=datagen --app.datagen.tasks=2000000
+ */
+@Service
+@Profile("datagen")
+@Slf4j
+public class DataGeneratorService implements CommandLineRunner {
+
+    private static final String[] TIMEZONES = {
+        "Europe/Madrid", "Europe/Madrid", "Europe/Madrid", "Europe/Madrid", "UTC", "Europe/London",
+        "America/Mexico_City", "America/Bogota", "America/Argentina/Buenos_Aires", "America/New_York",
+        "Asia/Tokyo", "Australia/Sydney"
+    };
+
+    private static final String[] VERBS = {
+        "Comprar", "Revisar", "Llamar a", "Preparar", "Enviar", "Terminar", "Actualizar", "Pagar", "Organizar", "Leer"
+    };
+
+    private static final String[] OBJECTS = {
+        "informe trimestral", "cliente", "presupuesto", "factura", "presentación", "correo pendiente",
+        "documentación", "reunión semanal", "pedido", "contrato", "backlog", "billete de tren"
+    };
+
+    private static final String[] LIST_NAMES = {
+        "Trabajo", "Personal", "Compras", "Casa", "Proyectos", "Estudios", "Viajes", "Salud", "Ideas", "Finanzas"
+    };
+
+    private static final String[] AUDIT_ACTIONS = {
+        "CREAR_TAREA", "CREAR_TAREA", "CREAR_TAREA", "ACTUALIZAR_TAREA", "ACTUALIZAR_TAREA",
+        "ACTUALIZAR_TAREA", "ACTUALIZAR_TAREA", "ELIMINAR_TAREA", "CREAR_LISTA", "ACTUALIZAR_LISTA",
+        "ELIMINAR_LISTA", "ACTUALIZAR_USUARIO"
+    };
+
+    private static final String[] WEEK_DAYS = {
+        "monday", "tuesday", "wednesday", "thursday", "friday", "saturday", "sunday"
+    };
+
+    private static final String INSERT_USER =
+        "INSERT INTO users (username, email, password, timezone) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_USER_ROLE =
+        "INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)";
+    private static final String INSERT_PREFERENCES =
+        "INSERT INTO notification_preferences (user_id, email, notification_type, due_date_reminder, " +
+        "due_date_reminder_time, follow_up_reminder, follow_up_days, daily_summary, daily_summary_time, " +
+        "weekly_summary, weekly_summary_day, weekly_summary_time, min_priority, weekend_notifications, daily_reminders) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_LIST =
+        "INSERT INTO task_lists (name, description, owner_id, user_id) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_TASK =
+        "INSERT INTO tasks (title, description, completed, priority, due_date, created_at, completed_at, " +
+        "assigned_to_id, user_id, task_list_id, list_rank) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_AUDIT =
+        "INSERT INTO audit_logs (action, timestamp, details, user_id) VALUES (?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Value("${app.datagen.seed:42}")
+    private long seed;
+
+    @Value("${app.datagen.users:10000}")
+    private int userCount;
+
+    // Total de tareas, repartidas entre usuarios con una distribución de cola larga
+    @Value("${app.datagen.tasks:1000000}")
+    private long taskCount;
+
+    @Value("${app.datagen.lists-per-user:4}")
+    private int listsPerUser;
+
+    @Value("${app.datagen.audit-per-user:30}")
+    private int auditPerUser;
+
+    // Prefijo de los usernames; permite varios juegos de datos en la misma base de datos
+    @Value("${app.datagen.username-prefix:perf}")
+    private String usernamePrefix;
+
+    // Contraseña de todos los usuarios generados (para los tests de carga)
+    @Value("${app.datagen.password:perf123}")
+    private String password;
+
+    // Fecha a partir de la que se calculan vencimientos y antigüedades; vacía = hoy
+    @Value("${app.datagen.reference-date:}")
+    private String referenceDate;
+
+    // Usuarios por transacción
+    @Value("${app.datagen.users-per-chunk:100}")
+    private int usersPerChunk;
+
+    // Filas por sentencia batch
+    @Value("${app.datagen.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.datagen.exit-when-done:true}")
+    private boolean exitWhenDone;
+
+    @Override
+    public void run(String... args) {
+        try {
+            generate();
+        } finally {
+            if (exitWhenDone) {
+                System.exit(SpringApplication.exit(applicationContext, () -> 0));
+            }
+        }
+    }
+
+    /**
+     * Genera el juego de datos completo.
+     * @return Número de filas insertadas por tabla
+     */
+    public Map<String, Long> generate() {
+        Integer existing = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM users WHERE username LIKE ?", Integer.class, usernamePrefix + "\\_%");
+        if (existing != null && existing > 0) {
+            log.warn("Ya existen {} usuarios con el prefijo '{}'; no se generan datos", existing, usernamePrefix);
+            return Map.of();
+        }
+
+        long start = System.currentTimeMillis();
+        LocalDateTime reference = (referenceDate == null || referenceDate.isBlank()
+            ? LocalDate.now() : LocalDate.parse(referenceDate)).atTime(12, 0);
+        long[] tasksPerUser = distributeTasks();
+        String passwordHash = passwordEncoder.encode(password);
+        List<Long> roleIds = jdbcTemplate.queryForList("SELECT id FROM roles WHERE name = 'ROLE_USER'", Long.class);
+        if (roleIds.isEmpty()) {
+            log.warn("No existe ROLE_USER; los usuarios generados se crean sin roles");
+        }
+        Long roleId = roleIds.isEmpty() ? null : roleIds.get(0);
+
+        Map<String, Long> totals = new HashMap<>();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int chunk = Math.max(1, usersPerChunk);
+        for (int from = 0; from < userCount; from += chunk) {
+            int to = Math.min(userCount, from + chunk);
+            int first = from;
+            Map<String, Long> inserted = transaction.execute(status ->
+                generateUsers(first, to, tasksPerUser, passwordHash, roleId, reference));
+            inserted.forEach((table, rows) -> totals.merge(table, rows, Long::sum));
+            log.info("Datos generados: {}/{} usuarios, {} tareas", to, userCount, totals.getOrDefault("tasks", 0L));
+        }
+        log.info("Generación terminada en {} ms: {}", System.currentTimeMillis() - start, totals);
+        return totals;
+    }
+
+    /**
+     * Reparte las tareas entre los usuarios con pesos de Pareto: unos pocos usuarios
+     * concentran muchas tareas y la mayoría tiene pocas.
+     */
+    private long[] distributeTasks() {
+        Random random = new Random(seed);
+        double[] weights = new double[userCount];
+        double sum = 0;
+        for (int i = 0; i < userCount; i++) {
+            weights[i] = Math.pow(1.0 - random.nextDouble(), -1.0 / 1.2);
+            sum += weights[i];
+        }
+        long[] tasks = new long[userCount];
+        long assigned = 0;
+        for (int i = 0; i < userCount; i++) {
+            tasks[i] = (long) Math.floor(taskCount * weights[i] / sum);
+            assigned += tasks[i];
+        }
+        // El resto del redondeo, una tarea por usuario
+        for (int i = 0; assigned < taskCount; i = (i + 1) % userCount) {
+            tasks[i]++;
+            assigned++;
+        }
+        return tasks;
+    }
+
+    private Map<String, Long> generateUsers(int from, int to, long[] tasksPerUser, String passwordHash,
+                                            Long roleId, LocalDateTime reference) {
+        List<Object[]> users = new ArrayList<>();
+        Map<String, Random> randoms = new HashMap<>();
+        for (int i = from; i < to; i++) {
+            // Un Random por usuario: el resultado no depende del tamaño de los lotes
+            Random random = new Random(seed * 1_000_003L + i);
+            String username = username(i);
+            randoms.put(username, random);
+            users.add(new Object[] {username, username + "@example.com", passwordHash,
+                TIMEZONES[random.nextInt(TIMEZONES.length)]});
+        }
+        batch(INSERT_USER, users);
+        Map<String, Long> userIds = userIds(randoms.keySet());
+
+        List<Object[]> roles = new ArrayList<>();
+        List<Object[]> preferences = new ArrayList<>();
+        List<Object[]> lists = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            String username = username(i);
+            Long userId = userIds.get(username);
+            Random random = randoms.get(username);
+            if (roleId != null) {
+                roles.add(new Object[] {userId, roleId});
+            }
+            preferences.add(preferences(random, userId, username + "@example.com"));
+            int listCount = 1 + Math.min(LIST_NAMES.length - 1, geometric(random, Math.max(0, listsPerUser - 1)));
+            for (int l = 0; l < listCount; l++) {
+                lists.add(new Object[] {LIST_NAMES[l], "Lista de " + LIST_NAMES[l].toLowerCase(), userId, userId});
+            }
+        }
+        batch(INSERT_USER_ROLE, roles);
+        batch(INSERT_PREFERENCES, preferences);
+        batch(INSERT_LIST, lists);
+        Map<Long, List<Long>> listIds = listIds(userIds.values());
+
+        long tasks = 0;
+        long audits = 0;
+        List<Object[]> taskRows = new ArrayList<>();
+        List<Object[]> auditRows = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            String username = username(i);
+            Long userId = userIds.get(username);
+            Random random = randoms.get(username);
+            List<Long> userLists = listIds.get(userId);
+            int[] rankByList = new int[userLists.size()];
+            for (long t = 0; t < tasksPerUser[i]; t++) {
+                // Las primeras listas reciben más tareas
+                int list = (int) Math.min(userLists.size() - 1, geometric(random, 1.5));
+                taskRows.add(task(random, userId, userLists.get(list), ++rankByList[list], reference));
+                if (taskRows.size() >= batchSize) {
+                    tasks += batch(INSERT_TASK, taskRows);
+                    taskRows.clear();
+                }
+            }
+            int auditCount = geometric(random, auditPerUser);
+            for (int a = 0; a < auditCount; a++) {
+                auditRows.add(audit(random, userId, reference));
+            }
+            if (auditRows.size() >= batchSize) {
+                audits += batch(INSERT_AUDIT, auditRows);
+                auditRows.clear();
+            }
+        }
+        tasks += batch(INSERT_TASK, taskRows);
+        audits += batch(INSERT_AUDIT, auditRows);
+
+        return Map.of("users", (long) users.size(), "task_lists", (long) lists.size(), "tasks", tasks,
+            "notification_preferences", (long) preferences.size(), "audit_logs", audits);
+    }
+
+    private Object[] preferences(Random random, Long userId, String email) {
+        String[] types = {"both", "both", "email", "push"};
+        return new Object[] {
+            userId, email, types[random.nextInt(types.length)],
+            random.nextInt(10) < 8, random.nextBoolean() ? "1d" : "1h",
+            random.nextInt(10) < 6, 1 + random.nextInt(7),
+            random.nextInt(10) < 7, String.format("%02d:00", 6 + random.nextInt(6)),
+            random.nextInt(10) < 4, WEEK_DAYS[random.nextInt(WEEK_DAYS.length)], String.format("%02d:00", 8 + random.nextInt(4)),
+            1 + random.nextInt(3), random.nextInt(10) < 3, random.nextInt(10) < 2
+        };
+    }
+
+    private Object[] task(Random random, Long userId, Long listId, int position, LocalDateTime reference) {
+        String title = VERBS[random.nextInt(VERBS.length)] + " " + OBJECTS[random.nextInt(OBJECTS.length)];
+        String description = random.nextInt(3) == 0 ? null
+            : "Detalle: " + OBJECTS[random.nextInt(OBJECTS.length)] + " y " + OBJECTS[random.nextInt(OBJECTS.length)];
+
+        // Prioridad sesgada: 20% alta, 55% media, 25% baja
+        int roll = random.nextInt(100);
+        int priority = roll < 20 ? 1 : roll < 75 ? 2 : 3;
+
+        // Antigüedad de hasta un año, más densa en los últimos meses
+        LocalDateTime createdAt = reference.minusMinutes((long) (Math.pow(random.nextDouble(), 2) * 365 * 24 * 60));
+
+        // Vencimientos: 25% sin fecha, 20% vencidas, 30% esta semana, 25% en los próximos tres meses
+        LocalDateTime dueDate = null;
+        int dueRoll = random.nextInt(100);
+        if (dueRoll >= 25 && dueRoll < 45) {
+            dueDate = reference.minusHours(1 + random.nextInt(60 * 24));
+        } else if (dueRoll >= 45 && dueRoll < 75) {
+            dueDate = reference.plusHours(1 + random.nextInt(7 * 24));
+        } else if (dueRoll >= 75) {
+            dueDate = reference.plusHours(7 * 24 + random.nextInt(83 * 24));
+        }
+
+        // Las más antiguas están completadas con más frecuencia
+        boolean completed = random.nextDouble() < 0.3 + 0.5 * createdAt.until(reference, ChronoUnit.DAYS) / 365.0;
+        LocalDateTime completedAt = null;
+        if (completed) {
+            long openMinutes = Math.max(1, createdAt.until(reference, ChronoUnit.MINUTES));
+            completedAt = createdAt.plusMinutes((long) (random.nextDouble() * openMinutes));
+        }
+
+        return new Object[] {
+            title, description, completed, priority, timestamp(dueDate), timestamp(createdAt), timestamp(completedAt),
+            userId, userId, listId, rank(position)
+        };
+    }
+
+    private Object[] audit(Random random, Long userId, LocalDateTime reference) {
+        String action = AUDIT_ACTIONS[random.nextInt(AUDIT_ACTIONS.length)];
+        String subject = action.endsWith("LISTA") ? LIST_NAMES[random.nextInt(LIST_NAMES.length)]
+            : VERBS[random.nextInt(VERBS.length)] + " " + OBJECTS[random.nextInt(OBJECTS.length)];
+        // Hasta 60 días: parte del historial queda fuera de la retención y lo borra la limpieza
+        LocalDateTime timestamp = reference.minusMinutes(random.nextInt(60 * 24 * 60));
+        return new Object[] {action, timestamp(timestamp), "Generado: " + subject, userId};
+    }
+
+    // Rango de longitud fija, creciente dentro de la lista (mismo alfabeto que TaskRankService)
+    private static String rank(int position) {
+        String value = Long.toString(36L * 36L * position, 36);
+        return "0".repeat(Math.max(0, 6 - value.length())) + value;
+    }
+
+    // Entero con distribución geométrica de media aproximada mean
+    private static int geometric(Random random, double mean) {
+        if (mean <= 0) {
+            return 0;
+        }
+        double p = 1.0 / (mean + 1.0);
+        return (int) Math.floor(Math.log(1.0 - random.nextDouble()) / Math.log(1.0 - p));
+    }
+
+    private static Timestamp timestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+
+    private String username(int index) {
+        return String.format("%s_%07d", usernamePrefix, index);
+    }
+
+    private int batch(String sql, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        int size = Math.max(1, batchSize);
+        for (int from = 0; from < rows.size(); from += size) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + size)));
+        }
+        return rows.size();
+    }
+
+    private Map<String, Long> userIds(Collection<String> usernames) {
+        Map<String, Long> ids = new HashMap<>();
+        new NamedParameterJdbcTemplate(jdbcTemplate).query("SELECT id, username FROM users WHERE username IN (:usernames)",
+            new MapSqlParameterSource("usernames", usernames),
+            rs -> {
+                ids.put(rs.getString("username"), rs.getLong("id"));
+            });
+        return ids;
+    }
+
+    // Ids de las listas de cada usuario en el orden de inserción
+    private Map<Long, List<Long>> listIds(Collection<Long> userIds) {
+        Map<Long, List<Long>> ids = new HashMap<>();
+        new NamedParameterJdbcTemplate(jdbcTemplate).query("SELECT id, owner_id FROM task_lists WHERE owner_id IN (:ids) ORDER BY id",
+            new MapSqlParameterSource("ids", userIds),
+            rs -> {
+                ids.computeIfAbsent(rs.getLong("owner_id"), k -> new ArrayList<>()).add(rs.getLong("id"));
+            });
+        return ids;
+    }
+}
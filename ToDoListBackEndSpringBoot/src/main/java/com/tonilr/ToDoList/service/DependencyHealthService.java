@@ -0,0 +1,282 @@
+package com.tonilr.ToDoList.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Comprueba en segundo plano las dependencias externas (BD, Redis, SMTP) y guarda el último resultado.
+ * Los endpoints de health solo leen ese resultado, así que responden sin tocar ninguna dependencia
+ * por mucho que los consulte el orquestador.
+ * El servicio deja de estar listo cuando una dependencia crítica acumula failure-threshold fallos
+ * seguidos o su último resultado es demasiado antiguo (el sondeo se ha quedado colgado).
+ */
+@Service
+@Slf4j
+public class DependencyHealthService {
+
+    public static final String DB = "db";
+    public static final String REDIS = "redis";
+    public static final String SMTP = "smtp";
+
+    public enum Status { UP, DOWN }
+
+    /**
+     * Resultado de un sondeo. consecutiveFailures cuenta los fallos seguidos hasta este resultado.
+     */
+    public record ProbeResult(Status status, long latencyMs, long checkedAt, int consecutiveFailures,
+                              String error, Map<String, Object> details) {
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectProvider<RedisConnectionFactory> redisConnectionFactory;
+
+    @Autowired
+    private ObjectProvider<JavaMailSender> mailSender;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.health.probe-interval-ms:10000}")
+    private long probeIntervalMs;
+
+    @Value("${app.health.smtp-interval-ms:300000}")
+    private long smtpIntervalMs;
+
+    @Value("${app.health.probe-timeout-ms:2000}")
+    private long probeTimeoutMs;
+
+    @Value("${app.health.failure-threshold:2}")
+    private int failureThreshold;
+
+    @Value("${app.health.critical:db}")
+    private Set<String> critical;
+
+    @Value("${app.health.smtp.enabled:true}")
+    private boolean smtpEnabled;
+
+    private final Map<String, ProbeResult> results = new ConcurrentHashMap<>();
+    // Sondeos todavía en curso: no se lanza otro sobre la misma dependencia hasta que acabe
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor = Executors.newFixedThreadPool(3, daemonThreadFactory());
+    private volatile long lastSmtpProbe;
+    private volatile Boolean ready;
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.health.probe-interval-ms:10000}")
+    public void probeAll() {
+        runProbes();
+    }
+
+    /**
+     * Lanza los sondeos que tocan y devuelve un futuro que termina cuando todos tienen resultado.
+     */
+    CompletableFuture<Void> runProbes() {
+        List<CompletableFuture<?>> probes = new ArrayList<>();
+        probes.add(submit(DB, this::probeDatabase));
+
+        RedisConnectionFactory redis = redisConnectionFactory.getIfAvailable();
+        if (redis != null) {
+            probes.add(submit(REDIS, () -> probeRedis(redis)));
+        }
+
+        JavaMailSender mail = mailSender.getIfAvailable();
+        long now = System.currentTimeMillis();
+        if (smtpEnabled && mail instanceof JavaMailSenderImpl smtp && now - lastSmtpProbe >= smtpIntervalMs) {
+            lastSmtpProbe = now;
+            probes.add(submit(SMTP, () -> probeSmtp(smtp)));
+        }
+        return CompletableFuture.allOf(probes.toArray(CompletableFuture[]::new));
+    }
+
+    private CompletableFuture<?> submit(String name, Probe probe) {
+        if (!inFlight.add(name)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<ProbeResult> task = CompletableFuture.supplyAsync(() -> {
+            try {
+                return run(name, probe);
+            } finally {
+                inFlight.remove(name);
+            }
+        }, executor);
+        // Si el sondeo no contesta a tiempo se registra como caído sin esperar a que termine
+        return task
+            .completeOnTimeout(null, probeTimeoutMs, TimeUnit.MILLISECONDS)
+            .thenAccept(r -> record(name, r != null ? r : failure(name, probeTimeoutMs, "timeout tras " + probeTimeoutMs + " ms")));
+    }
+
+    private ProbeResult run(String name, Probe probe) {
+        long start = System.nanoTime();
+        try {
+            Map<String, Object> details = probe.check();
+            long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            return new ProbeResult(Status.UP, latency, System.currentTimeMillis(), 0, null, details);
+        } catch (Exception e) {
+            long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            return failure(name, latency, e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+    }
+
+    private ProbeResult failure(String name, long latencyMs, String error) {
+        ProbeResult previous = results.get(name);
+        int failures = previous != null ? previous.consecutiveFailures() + 1 : 1;
+        return new ProbeResult(Status.DOWN, latencyMs, System.currentTimeMillis(), failures, error, Collections.emptyMap());
+    }
+
+    private void record(String name, ProbeResult result) {
+        ProbeResult previous = results.put(name, result);
+        if (previous == null || previous.status() != result.status()) {
+            if (result.status() == Status.UP) {
+                log.info("Dependencia {} disponible ({} ms)", name, result.latencyMs());
+            } else {
+                log.warn("Dependencia {} caída: {}", name, result.error());
+            }
+        }
+        updateReadiness();
+    }
+
+    private void updateReadiness() {
+        boolean nowReady = isReady();
+        Boolean before = ready;
+        ready = nowReady;
+        // Al arrancar solo se avisa si no está listo: el estado inicial de Boot ya es ACCEPTING_TRAFFIC
+        if (before == null ? !nowReady : before != nowReady) {
+            log.warn("Readiness cambia a {}", nowReady ? "READY" : "NOT_READY");
+            AvailabilityChangeEvent.publish(eventPublisher, this,
+                nowReady ? ReadinessState.ACCEPTING_TRAFFIC : ReadinessState.REFUSING_TRAFFIC);
+        }
+    }
+
+    private Map<String, Object> probeDatabase() throws Exception {
+        Map<String, Object> details = new LinkedHashMap<>();
+        try (Connection connection = dataSource.getConnection()) {
+            int timeoutSeconds = (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(probeTimeoutMs));
+            if (!connection.isValid(timeoutSeconds)) {
+                throw new IllegalStateException("La conexión no es válida");
+            }
+        }
+        // Con DataSource de enrutado (réplicas, shards) no hay un pool único que mostrar
+        if (dataSource.isWrapperFor(HikariDataSource.class)) {
+            HikariPoolMXBean pool = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+            if (pool != null) {
+                details.put("active", pool.getActiveConnections());
+                details.put("idle", pool.getIdleConnections());
+                details.put("total", pool.getTotalConnections());
+                details.put("awaiting", pool.getThreadsAwaitingConnection());
+            }
+        }
+        return details;
+    }
+
+    private Map<String, Object> probeRedis(RedisConnectionFactory factory) {
+        try (RedisConnection connection = factory.getConnection()) {
+            return Map.of("ping", String.valueOf(connection.ping()));
+        }
+    }
+
+    private Map<String, Object> probeSmtp(JavaMailSenderImpl smtp) throws Exception {
+        smtp.testConnection();
+        return Map.of("host", String.valueOf(smtp.getHost()));
+    }
+
+    /**
+     * Listo cuando todas las dependencias críticas tienen un resultado reciente y no han
+     * alcanzado el umbral de fallos seguidos. Antes del primer sondeo no está listo.
+     */
+    public boolean isReady() {
+        long now = System.currentTimeMillis();
+        for (String name : critical) {
+            ProbeResult result = results.get(name);
+            if (result == null || isStale(name, result, now) || result.consecutiveFailures() >= failureThreshold) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isStale(String name, ProbeResult result, long now) {
+        long interval = SMTP.equals(name) ? smtpIntervalMs : probeIntervalMs;
+        return now - result.checkedAt() > 3 * interval + probeTimeoutMs;
+    }
+
+    /**
+     * Estado por dependencia a partir de los resultados guardados (sin sondear).
+     * @param includeDetails añade error y datos del pool/servidor
+     */
+    public Map<String, Object> getDependencies(boolean includeDetails) {
+        long now = System.currentTimeMillis();
+        Map<String, Object> dependencies = new LinkedHashMap<>();
+        results.forEach((name, result) -> {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            boolean stale = isStale(name, result, now);
+            entry.put("status", stale ? "STALE" : result.status().name());
+            entry.put("critical", critical.contains(name));
+            entry.put("latencyMs", result.latencyMs());
+            entry.put("checkedAgoMs", now - result.checkedAt());
+            if (includeDetails) {
+                entry.put("consecutiveFailures", result.consecutiveFailures());
+                if (result.error() != null) {
+                    entry.put("error", result.error());
+                }
+                entry.putAll(result.details());
+            }
+            dependencies.put(name, entry);
+        });
+        return dependencies;
+    }
+
+    ProbeResult getResult(String name) {
+        return results.get(name);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @FunctionalInterface
+    private interface Probe {
+        Map<String, Object> check() throws Exception;
+    }
+
+    private static ThreadFactory daemonThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "health-probe-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -4,14 +4,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import io.micrometer.core.annotation.Timed;
+import com.tonilr.ToDoList.config.RequestTiming;
 import com.tonilr.ToDoList.model.Task;
 import com.tonilr.ToDoList.model.User;
 import com.tonilr.ToDoList.repository.TaskRepository;
 import jakarta.mail.internet.MimeMessage;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.web.util.HtmlUtils;
 import lombok.extern.slf4j.Slf4j;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.time.ZoneId;
 import java.time.*;
 import java.time.format.DateTimeFormatter;
@@ -22,6 +27,7 @@ import java.time.format.DateTimeFormatter;
  * task reminders, and user notifications with proper HTML formatting and sanitization.
  */
 @Service
+@Timed(value = "todolist.service", percentiles = {0.5, 0.95, 0.99})
 @Slf4j
 public class EmailService {
 
@@ -52,7 +58,7 @@ public class EmailService {
         message.setTo(to);
         message.setSubject(subject);
         message.setText(text);
-        mailSender.send(message);
+        send(message);
     }
     
     /**
@@ -96,7 +102,7 @@ public class EmailService {
             message.setHeader("X-MSMail-Priority", "High");
             message.setHeader("Importance", "High");
             
-            mailSender.send(message);
+            send(message);
         } catch (Exception e) {
             log.error("Error enviando email de restablecimiento: {}", e.getMessage());
             throw new RuntimeException("Error enviando email de restablecimiento");
@@ -113,7 +119,7 @@ public class EmailService {
         message.setSubject("Contraseña Actualizada - ToDoList");
         message.setText("Tu contraseña ha sido actualizada exitosamente. " +
                        "Si no realizaste este cambio, por favor contacta con soporte inmediatamente.");
-        mailSender.send(message);
+        send(message);
     }
     
     /**
@@ -135,13 +141,39 @@ public class EmailService {
             String content = buildEmailContent(tasks, subject, user);
             helper.setText(content, true);
             
-            mailSender.send(message);
+            send(message);
         } catch (Exception e) {
             log.error("Error al enviar email: ", e);
             throw new RuntimeException("Error al enviar email", e);
         }
     }
     
+    /**
+     * Sends a single digest email grouping several notifications for the same user.
+     * @param to Recipient email address
+     * @param subject Email subject
+     * @param sections Tasks grouped by section title, in display order
+     * @param user User for timezone conversion
+     */
+    public void sendDigestEmail(String to, String subject, Map<String, List<Task>> sections, User user) {
+        try {
+            MimeMessage message = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, true);
+
+            helper.setFrom(fromEmail);
+            helper.setTo(to);
+            helper.setSubject(subject);
+
+            String content = buildEmailContent(sections, subject, user);
+            helper.setText(content, true);
+
+            send(message);
+        } catch (Exception e) {
+            log.error("Error al enviar email de resumen: ", e);
+            throw new RuntimeException("Error al enviar email", e);
+        }
+    }
+
     /**
      * Builds HTML email content for task reminders with user timezone support.
      * @param tasks List of tasks to include
@@ -150,36 +182,70 @@ public class EmailService {
      * @return Formatted HTML content
      */
     private String buildEmailContent(List<Task> tasks, String subject, User user) {
+        return buildEmailContent(Collections.singletonMap(null, tasks), subject, user);
+    }
+
+    /**
+     * Builds HTML email content with one block of tasks per section.
+     * A {@code null} section title renders the tasks without a section header.
+     * @param sections Tasks grouped by section title
+     * @param subject Email subject
+     * @param user User for timezone conversion
+     * @return Formatted HTML content
+     */
+    String buildEmailContent(Map<String, List<Task>> sections, String subject, User user) {
         StringBuilder content = new StringBuilder();
         content.append("<html><body style='font-family: Arial, sans-serif; line-height: 1.6; color: #333;'>");
         content.append("<div style='max-width: 600px; margin: 0 auto; padding: 20px;'>");
-        content.append("<h2 style='color: #007bff;'>").append(subject).append("</h2>");
+        // Títulos de lista y de tarea los escribe el usuario: se escapan antes de meterlos en el HTML
+        content.append("<h2 style='color: #007bff;'>").append(HtmlUtils.htmlEscape(subject)).append("</h2>");
 
         // Usar la zona horaria del usuario
-        ZoneId userZone = ZoneId.of(user.getTimezone());
+        ZoneId userZone = ZoneId.of(user.getTimezone() != null ? user.getTimezone() : "Europe/Madrid");
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
 
-        tasks.forEach(task -> {
-            String fechaFormateada = "";
-            if (task.getDueDate() != null) {
-                // Convertir directamente a la zona horaria del usuario
-                LocalDateTime localDateTime = task.getDueDate();
-                fechaFormateada = formatter.format(localDateTime);
+        sections.forEach((section, tasks) -> {
+            if (section != null) {
+                content.append("<h3 style='color: #555; margin-top: 25px;'>").append(HtmlUtils.htmlEscape(section)).append("</h3>");
             }
-            content.append("<div style='margin: 15px 0; padding: 10px; border-left: 4px solid #007bff;'>");
-            content.append("<h3 style='margin: 0;'>").append(task.getTitle()).append("</h3>");
-            content.append("<p>Fecha límite: ").append(fechaFormateada).append("</p>");
-            content.append("<p>Prioridad: ").append(getPriorityLabel(task.getPriority())).append("</p>");
-            if (task.getDescription() != null && !task.getDescription().isEmpty()) {
-                content.append("<p>").append(task.getDescription()).append("</p>");
-            }
-            content.append("</div>");
+            tasks.forEach(task -> {
+                String fechaFormateada = "";
+                if (task.getDueDate() != null) {
+                    // Convertir directamente a la zona horaria del usuario
+                    LocalDateTime localDateTime = task.getDueDate();
+                    fechaFormateada = formatter.format(localDateTime);
+                }
+                content.append("<div style='margin: 15px 0; padding: 10px; border-left: 4px solid #007bff;'>");
+                content.append("<h3 style='margin: 0;'>").append(task.getTitle() != null ? HtmlUtils.htmlEscape(task.getTitle()) : "").append("</h3>");
+                content.append("<p>Fecha límite: ").append(fechaFormateada).append("</p>");
+                content.append("<p>Prioridad: ").append(getPriorityLabel(task.getPriority())).append("</p>");
+                if (task.getDescription() != null && !task.getDescription().isEmpty()) {
+                    content.append("<p>").append(HtmlUtils.htmlEscape(task.getDescription())).append("</p>");
+                }
+                content.append("</div>");
+            });
         });
 
         content.append("</div></body></html>");
         return content.toString();
     }
     
+    /**
+     * Sends a plain-text message, timed as the request's mail phase.
+     * @param message Plain-text message to send
+     */
+    private void send(SimpleMailMessage message) {
+        RequestTiming.time(RequestTiming.MAIL, () -> mailSender.send(message));
+    }
+
+    /**
+     * Sends an HTML message built with {@link MimeMessageHelper}; also timed as the mail phase.
+     * @param message MIME message to send
+     */
+    private void send(MimeMessage message) {
+        RequestTiming.time(RequestTiming.MAIL, () -> mailSender.send(message));
+    }
+
     /**
      * Converts priority number to human-readable label.
      * @param priority Priority number (1-3)
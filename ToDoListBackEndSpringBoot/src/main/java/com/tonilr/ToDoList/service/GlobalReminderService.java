@@ -1,29 +1,45 @@
 package com.tonilr.ToDoList.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import io.micrometer.core.annotation.Timed;
 import com.tonilr.ToDoList.model.NotificationPreferences;
 import com.tonilr.ToDoList.model.Task;
 import com.tonilr.ToDoList.repository.NotificationPreferencesRepository;
 import com.tonilr.ToDoList.repository.TaskRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
-import java.time.LocalTime;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.Duration;
 import java.util.List;
-import java.time.DayOfWeek;
 import java.time.ZoneId;
 import java.util.Date;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.time.temporal.ChronoUnit;
 
 /**
  * Service class for managing global reminder operations.
- * Provides scheduled functionality to send automated email reminders
- * including due date reminders, daily summaries, and weekly summaries
- * based on user notification preferences.
+ * Provides scheduled functionality to send automated due date reminders
+ * based on user notification preferences. Daily and weekly summaries are
+ * scheduled per timezone by {@link SummaryScheduleService}.
+ * The per-user work is fanned out over {@code reminderExecutor}, with a
+ * concurrency limit for database queries; SMTP sends are limited by
+ * {@link NotificationDigestService}. When several instances are running,
+ * each one only processes its shard of the users.
  */
 @Service
+@Timed(value = "todolist.service", percentiles = {0.5, 0.95, 0.99})
 @Slf4j
 public class GlobalReminderService {
     @Autowired
@@ -33,7 +49,58 @@ public class GlobalReminderService {
     private TaskRepository taskRepository;
     
     @Autowired
-    private EmailService emailService;
+    private NotificationDigestService notificationDigestService;
+
+    @Autowired
+    private ClusterCoordinationService clusterCoordinationService;
+
+    @Autowired
+    private ReminderLedgerService reminderLedgerService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    @Qualifier("reminderExecutor")
+    private ExecutorService reminderExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Debe quedar por debajo del tamaño del pool de Hikari
+    @Value("${app.reminders.db-concurrency:4}")
+    private int dbConcurrency;
+
+    private Semaphore dbPermits;
+    private Timer runTimer;
+    private final AtomicLong lastRunLagMillis = new AtomicLong();
+    private final AtomicLong lastRunUsers = new AtomicLong();
+    // Fin de la última ejecución completa; al arrancar cuenta desde el inicio del nodo
+    private final AtomicLong lastCompletedAtMillis = new AtomicLong(System.currentTimeMillis());
+
+    /**
+     * Initializes the per-stage concurrency limits and the run metrics.
+     */
+    @PostConstruct
+    public void init() {
+        dbPermits = new Semaphore(Math.max(1, dbConcurrency));
+        runTimer = Timer.builder("reminders.run.duration")
+            .description("Duración de una ejecución completa de recordatorios")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(meterRegistry);
+        Gauge.builder("reminders.run.lag", lastRunLagMillis, AtomicLong::get)
+            .description("Retraso entre la hora programada y el inicio de la última ejecución")
+            .baseUnit("milliseconds")
+            .register(meterRegistry);
+        Gauge.builder("reminders.run.users", lastRunUsers, AtomicLong::get)
+            .description("Usuarios procesados en la última ejecución")
+            .register(meterRegistry);
+        Gauge.builder("reminders.last.run.age", lastCompletedAtMillis,
+                completedAt -> (System.currentTimeMillis() - completedAt.get()) / 1000.0)
+            .description("Tiempo desde la última ejecución completa; crece sin límite si el job se detiene")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
 
     /**
      * Scheduled method that runs every minute to check and send reminders.
@@ -42,36 +109,61 @@ public class GlobalReminderService {
      */
     @Scheduled(cron = "0 0 * * * *") 
     public void checkAndSendReminders() {
+        LocalDateTime started = LocalDateTime.now();
+        lastRunLagMillis.set(Duration.between(started.truncatedTo(ChronoUnit.HOURS), started).toMillis());
+        Timer.Sample sample = Timer.start(meterRegistry);
         try {
-            List<NotificationPreferences> preferences = notificationPreferencesRepository.findAll();
+            // Cada nodo vivo procesa solo su parte de los usuarios
+            ClusterCoordinationService.ShardAssignment shard = clusterCoordinationService.currentShard();
+            List<NotificationPreferences> preferences =
+                notificationPreferencesRepository.findByUserShard(shard.getIndex(), shard.getCount());
             
             if (preferences.isEmpty()) {
                 log.warn("No se encontraron preferencias de notificación");
+                lastCompletedAtMillis.set(System.currentTimeMillis());
                 return;
             }
 
+            List<CompletableFuture<Void>> futures = new ArrayList<>(preferences.size());
             for (NotificationPreferences pref : preferences) {
-                if (pref.isDueDateReminder()) {
-                    sendDueDateReminders(pref);
-                }
-                if (pref.isDailySummary()) {
-                    LocalTime horaActual = LocalTime.now().withSecond(0).withNano(0);
-                    LocalTime horaConfigurada = LocalTime.parse(pref.getDailySummaryTime());
-                    if (horaActual.equals(horaConfigurada)) {
-                        sendDailySummary(pref);
-                    }
-                }
-                if (pref.isWeeklySummary()) {
-                    LocalTime horaActual = LocalTime.now().withSecond(0).withNano(0);
-                    LocalTime horaConfigurada = LocalTime.parse(pref.getWeeklySummaryTime());
-                    String diaActual = LocalDate.now().getDayOfWeek().name().toLowerCase();
-                    if (horaActual.equals(horaConfigurada) && diaActual.equals(pref.getWeeklySummaryDay())) {
-                        sendWeeklySummary(pref);
-                    }
-                }
+                futures.add(CompletableFuture.runAsync(() -> processPreferences(pref), reminderExecutor));
             }
+            // Esperamos a todos para que la métrica de duración cubra la ejecución completa
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+            lastRunUsers.set(preferences.size());
+            lastCompletedAtMillis.set(System.currentTimeMillis());
         } catch (Exception e) {
             log.error("Error en checkAndSendReminders: ", e);
+        } finally {
+            sample.stop(runTimer);
+        }
+    }
+
+    /**
+     * Runs every reminder type enabled in a single user's preferences.
+     * @param pref User notification preferences
+     */
+    private void processPreferences(NotificationPreferences pref) {
+        try {
+            if (pref.isDueDateReminder()) {
+                sendDueDateReminders(pref);
+            }
+        } catch (Exception e) {
+            log.error("Error procesando recordatorios de preferencias {}: ", pref.getId(), e);
+        }
+    }
+
+    /**
+     * Runs a database query while holding one of the database permits.
+     * @param query Query to run
+     * @return Query result
+     */
+    private <T> T withDbPermit(Supplier<T> query) {
+        dbPermits.acquireUninterruptibly();
+        try {
+            return query.get();
+        } finally {
+            dbPermits.release();
         }
     }
 
@@ -99,103 +191,41 @@ public class GlobalReminderService {
 
             LocalDateTime reminderStart = now.minus(reminderDuration);
 
-            List<Task> allUserTasks = taskRepository.findByAssignedToAndCompletedFalse(preferences.getUser());
-            for (Task t : allUserTasks) {
-                log.warn("Tarea BD - ID: {}, Título: {}, due_date: {}, assigned_to_id: {}", 
-                    t.getId(), t.getTitle(), t.getDueDate(), 
-                    t.getAssignedTo() != null ? t.getAssignedTo().getId() : null);
-            }
-
-            List<Task> upcomingTasks = taskRepository.findByAssignedToAndDueDateBetweenAndCompletedFalse(
-                preferences.getUser(), reminderStart, now
-            );
-            if (upcomingTasks.isEmpty()) {
-                log.warn("El repositorio NO ha devuelto ninguna tarea próxima. Revisa los parámetros enviados y las fechas en la BD.");
-            } else {
+            // Las tareas están en el shard del usuario; las preferencias y el registro de envíos en el shard 0
+            Long userId = preferences.getUser().getId();
+            List<Task> upcomingTasks = withDbPermit(() -> shardRouter.callForUser(userId, () ->
+                taskRepository.findByAssignedToAndDueDateBetweenAndCompletedFalse(preferences.getUser(), reminderStart, now)));
+            if (log.isDebugEnabled()) {
                 upcomingTasks.forEach(task ->
-                    log.warn("Tarea encontrada - ID: {}, Fecha en BD: {}, Asignado a: {}", 
+                    log.debug("Tarea encontrada - ID: {}, Fecha en BD: {}, Asignado a: {}",
                         task.getId(), task.getDueDate(), task.getAssignedTo() != null ? task.getAssignedTo().getId() : null)
                 );
             }
 
-            if (!upcomingTasks.isEmpty()) {
-                emailService.sendTaskReminderEmail(
+            // Solo las tareas que aún no recibieron recordatorio en su ventana
+            List<Task> newlyEligible = upcomingTasks.isEmpty() ? upcomingTasks : withDbPermit(() ->
+                reminderLedgerService.filterUnsent(ReminderLedgerService.KIND_DUE_DATE, upcomingTasks));
+
+            if (!newlyEligible.isEmpty()) {
+                // El registro se escribe cuando el resumen sale de verdad: si el envío falla
+                // o el nodo cae antes, la siguiente ejecución vuelve a incluir estas tareas
+                notificationDigestService.enqueue(
+                    preferences.getUser(),
                     preferences.getEmail(),
                     "Recordatorio: Tareas próximas a vencer",
-                    upcomingTasks,
-                    preferences.getUser()
+                    newlyEligible,
+                    () -> reminderLedgerService.recordSent(ReminderLedgerService.KIND_DUE_DATE, newlyEligible)
                 );
+            } else if (!upcomingTasks.isEmpty()) {
+                log.debug("Recordatorios ya enviados para las {} tareas próximas", upcomingTasks.size());
             } else {
-                log.warn("No hay tareas para enviar recordatorio");
+                log.debug("No hay tareas para enviar recordatorio");
             }
         } catch (Exception e) {
             log.error("Error en sendDueDateReminders: ", e);
         }
     }
 
-    /**
-     * Sends daily summary of pending tasks for the current day.
-     * @param preferences User notification preferences
-     */
-    private void sendDailySummary(NotificationPreferences preferences) {
-        try {
-            ZoneId userZone = ZoneId.of(preferences.getUser().getTimezone());
-            LocalDate today = LocalDate.now(userZone);
-            LocalDateTime startOfDay = today.atStartOfDay();
-            LocalDateTime endOfDay = today.plusDays(1).atStartOfDay();
-
-            List<Task> tasks = taskRepository.findByAssignedToAndDueDateBetweenAndCompletedFalse(
-                preferences.getUser(),
-                startOfDay,
-                endOfDay
-            );
-
-            if (!tasks.isEmpty()) {
-                emailService.sendTaskReminderEmail(
-                    preferences.getEmail(),
-                    "Resumen diario de tareas pendientes",
-                    tasks,
-                    preferences.getUser()
-                );
-            }
-        } catch (Exception e) {
-            log.error("Error en sendDailySummary: ", e);
-        }
-    }
-
-    /**
-     * Sends weekly summary of pending tasks for the current week.
-     * @param preferences User notification preferences
-     */
-    private void sendWeeklySummary(NotificationPreferences preferences) {
-        try {
-            ZoneId userZone = ZoneId.of(preferences.getUser().getTimezone());
-            LocalDate today = LocalDate.now(userZone);
-            LocalDate startOfWeek = today.with(DayOfWeek.MONDAY);
-            LocalDate endOfWeek = startOfWeek.plusDays(7);
-
-            LocalDateTime startOfWeekDateTime = startOfWeek.atStartOfDay();
-            LocalDateTime endOfWeekDateTime = endOfWeek.atStartOfDay();
-
-            List<Task> tasks = taskRepository.findByAssignedToAndDueDateBetweenAndCompletedFalse(
-                preferences.getUser(),
-                startOfWeekDateTime,
-                endOfWeekDateTime
-            );
-            
-            if (!tasks.isEmpty()) {
-                emailService.sendTaskReminderEmail(
-                    preferences.getEmail(),
-                    "Resumen semanal de tareas pendientes",
-                    tasks,
-                    preferences.getUser()
-                );
-            }
-        } catch (Exception e) {
-            log.error("Error en sendWeeklySummary: ", e);
-        }
-    }
-
     /**
      * Truncates a Date object to seconds precision by removing milliseconds.
      * @param date Date to truncate
@@ -0,0 +1,209 @@
+package com.tonilr.ToDoList.service;
+
+import com.tonilr.ToDoList.model.Task;
+import com.tonilr.ToDoList.model.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Service coalescing outgoing task notifications per user.
+ * Notifications are buffered for a configurable window and then merged into a
+ * single digest email, one section per notification type, so a burst of
+ * priority-1 tasks or overlapping reminders results in one SMTP message.
+ * Callers that must know about the delivery (the reminder ledger) pass a
+ * callback that only runs once the email has actually been sent.
+ */
+@Service
+@Slf4j
+public class NotificationDigestService {
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Ventana de agrupación; 0 envía cada notificación al momento
+    @Value("${app.notifications.digest.window-seconds:120}")
+    private long windowSeconds;
+
+    // Límite de envíos SMTP simultáneos (con ventana 0 cada enqueue envía desde el hilo que llama)
+    @Value("${app.reminders.mail-concurrency:2}")
+    private int mailConcurrency;
+
+    private final Map<Long, PendingDigest> pending = new ConcurrentHashMap<>();
+    private Semaphore mailPermits;
+    private Counter enqueuedCounter;
+    private Counter sentCounter;
+
+    @PostConstruct
+    public void init() {
+        mailPermits = new Semaphore(Math.max(1, mailConcurrency));
+        enqueuedCounter = Counter.builder("notifications.digest.enqueued")
+            .description("Notificaciones recibidas para agrupar")
+            .register(meterRegistry);
+        sentCounter = Counter.builder("notifications.digest.sent")
+            .description("Emails de resumen enviados")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Adds a notification to the user's pending digest.
+     * @param user Recipient user
+     * @param email Recipient email address
+     * @param section Section title, also used as subject when it's the only one
+     * @param tasks Tasks included in the notification
+     */
+    public void enqueue(User user, String email, String section, List<Task> tasks) {
+        enqueue(user, email, section, tasks, null);
+    }
+
+    /**
+     * Adds a notification to the user's pending digest.
+     * @param user Recipient user
+     * @param email Recipient email address
+     * @param section Section title, also used as subject when it's the only one
+     * @param tasks Tasks included in the notification
+     * @param onSent Runs after the digest containing this notification has been sent;
+     *               never runs if the send fails or the node stops before flushing
+     */
+    public void enqueue(User user, String email, String section, List<Task> tasks, Runnable onSent) {
+        if (user == null || email == null || tasks == null || tasks.isEmpty()) {
+            return;
+        }
+        enqueuedCounter.increment();
+
+        if (windowSeconds <= 0 || user.getId() == null) {
+            Map<String, List<Task>> sections = new LinkedHashMap<>();
+            sections.put(section, new ArrayList<>(tasks));
+            PendingDigest digest = new PendingDigest(user, email, sections, LocalDateTime.now());
+            digest.addCallback(onSent);
+            send(digest);
+            return;
+        }
+
+        pending.compute(user.getId(), (id, digest) -> {
+            if (digest == null) {
+                digest = new PendingDigest(user, email, new LinkedHashMap<>(), LocalDateTime.now());
+            }
+            digest.add(email, section, tasks);
+            digest.addCallback(onSent);
+            return digest;
+        });
+    }
+
+    /**
+     * Sends the digests whose window has elapsed.
+     */
+    @Scheduled(fixedDelayString = "${app.notifications.digest.flush-interval-ms:15000}")
+    public void flushDue() {
+        flush(LocalDateTime.now().minusSeconds(windowSeconds));
+    }
+
+    /**
+     * Sends every pending digest on shutdown so buffered notifications aren't lost.
+     */
+    @PreDestroy
+    public void flushAll() {
+        flush(LocalDateTime.MAX);
+    }
+
+    /**
+     * @return Number of users with a pending digest
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    private void flush(LocalDateTime openedBefore) {
+        for (Long userId : new ArrayList<>(pending.keySet())) {
+            PendingDigest[] due = new PendingDigest[1];
+            // Sacamos el resumen de forma atómica para no perder notificaciones que lleguen a la vez
+            pending.computeIfPresent(userId, (id, digest) -> {
+                if (openedBefore.equals(LocalDateTime.MAX) || !digest.openedAt.isAfter(openedBefore)) {
+                    due[0] = digest;
+                    return null;
+                }
+                return digest;
+            });
+            if (due[0] != null) {
+                send(due[0]);
+            }
+        }
+    }
+
+    private void send(PendingDigest digest) {
+        String subject = digest.sections.size() == 1
+            ? digest.sections.keySet().iterator().next()
+            : "Resumen de notificaciones";
+        mailPermits.acquireUninterruptibly();
+        try {
+            emailService.sendDigestEmail(digest.email, subject, digest.sections, digest.user);
+            sentCounter.increment();
+            log.debug("Resumen enviado a {} con {} secciones", digest.email, digest.sections.size());
+        } catch (Exception e) {
+            log.error("Error enviando resumen de notificaciones a {}: {}", digest.email, e.getMessage());
+            return;
+        } finally {
+            mailPermits.release();
+        }
+        for (Runnable callback : digest.onSent) {
+            try {
+                callback.run();
+            } catch (Exception e) {
+                log.error("Error tras enviar el resumen a {}: {}", digest.email, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Notifications buffered for one user.
+     */
+    private static final class PendingDigest {
+        private final User user;
+        private String email;
+        private final Map<String, List<Task>> sections;
+        private final LocalDateTime openedAt;
+        private final List<Runnable> onSent = new ArrayList<>();
+
+        private PendingDigest(User user, String email, Map<String, List<Task>> sections, LocalDateTime openedAt) {
+            this.user = user;
+            this.email = email;
+            this.sections = sections;
+            this.openedAt = openedAt;
+        }
+
+        private void addCallback(Runnable callback) {
+            if (callback != null) {
+                onSent.add(callback);
+            }
+        }
+
+        private void add(String email, String section, List<Task> tasks) {
+            this.email = email;
+            List<Task> sectionTasks = sections.computeIfAbsent(section, key -> new ArrayList<>());
+            for (Task task : tasks) {
+                // Una tarea aparece una sola vez por sección
+                boolean duplicate = task.getId() != null && sectionTasks.stream()
+                    .anyMatch(existing -> task.getId().equals(existing.getId()));
+                if (!duplicate) {
+                    sectionTasks.add(task);
+                }
+            }
+        }
+    }
+}
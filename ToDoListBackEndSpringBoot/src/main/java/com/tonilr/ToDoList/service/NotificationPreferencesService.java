@@ -22,6 +22,8 @@ public class NotificationPreferencesService {
     private NotificationPreferencesRepository repository;
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private SummaryScheduleService summaryScheduleService;
 
     /**
      * Retrieves notification preferences for a specific user.
@@ -88,6 +90,8 @@ public class NotificationPreferencesService {
         
         try {
             preferences = repository.save(preferences);
+            // Los buckets de resúmenes se recalculan en el siguiente tick
+            summaryScheduleService.invalidate();
             //log.info("Preferencias guardadas exitosamente con ID: {}", preferences.getId());
         } catch (Exception e) {
             log.error("Error al guardar preferencias: {}", e.getMessage(), e);
@@ -151,6 +155,8 @@ public class NotificationPreferencesService {
         
         try {
             preferences = repository.save(preferences);
+            // Los buckets de resúmenes se recalculan en el siguiente tick
+            summaryScheduleService.invalidate();
             //log.info("Preferencias por defecto creadas con ID: {}", preferences.getId());
         } catch (Exception e) {
             log.error("Error al crear preferencias por defecto: {}", e.getMessage(), e);
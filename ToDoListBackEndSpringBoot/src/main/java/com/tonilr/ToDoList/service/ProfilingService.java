@@ -0,0 +1,326 @@
+package com.tonilr.ToDoList.service;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Grabaciones de Java Flight Recorder bajo demanda para diagnosticar producción.
+ * Una sola grabación activa a la vez; se escribe en disco al pararla o al cumplir su duración
+ * y solo se conservan las últimas max-recordings. El resumen (sitios de asignación,
+ * métodos calientes y contención de locks) se calcula leyendo el fichero.
+ */
+@Service
+@Slf4j
+public class ProfilingService {
+
+    private static final Pattern RECORDING_NAME = Pattern.compile("[A-Za-z0-9_.-]+\\.jfr");
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    private static final String APP_PACKAGE = "com.tonilr.";
+    private static final int TOP = 10;
+
+    @Value("${app.profiling.directory:jfr}")
+    private String directory;
+
+    @Value("${app.profiling.max-recordings:5}")
+    private int maxRecordings;
+
+    @Value("${app.profiling.max-duration-seconds:1800}")
+    private long maxDurationSeconds;
+
+    private Recording active;
+    private Path activeFile;
+
+    /**
+     * Inicia una grabación.
+     * @param profile Configuración de JFR: "default" (sobrecarga ~1%) o "profile" (más detalle, ~2%)
+     * @param durationSeconds Duración; al cumplirse la grabación se para y se escribe sola
+     * @return Estado de la grabación iniciada
+     */
+    public synchronized Map<String, Object> start(String profile, long durationSeconds) throws IOException {
+        if (durationSeconds <= 0 || durationSeconds > maxDurationSeconds) {
+            throw new IllegalArgumentException("La duración debe estar entre 1 y " + maxDurationSeconds + " segundos");
+        }
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(profile);
+        } catch (ParseException | IOException e) {
+            throw new IllegalArgumentException("Perfil de JFR desconocido: " + profile);
+        }
+        if (isRunning()) {
+            throw new IllegalStateException("Ya hay una grabación en curso: " + activeFile.getFileName());
+        }
+
+        if (active != null) {
+            // La anterior terminó sola al cumplir su duración: libera sus buffers
+            active.close();
+            active = null;
+        }
+
+        Path dir = recordingsDirectory();
+        Files.createDirectories(dir);
+        // Deja sitio para la nueva sin pasar de max-recordings
+        rotate(Math.max(0, maxRecordings - 1));
+
+        Path file = dir.resolve("todolist-" + LocalDateTime.now().format(FILE_TIMESTAMP) + "-" + profile + ".jfr");
+        Recording recording = new Recording(configuration);
+        recording.setName(file.getFileName().toString());
+        recording.setToDisk(true);
+        recording.setDuration(Duration.ofSeconds(durationSeconds));
+        recording.setDestination(file);
+        recording.start();
+
+        active = recording;
+        activeFile = file;
+        log.info("Grabación JFR iniciada: {} (perfil {}, {} s)", file.getFileName(), profile, durationSeconds);
+        return status();
+    }
+
+    /**
+     * Para la grabación en curso y la escribe en disco.
+     * @return Estado de la grabación parada
+     */
+    public synchronized Map<String, Object> stop() {
+        if (!isRunning()) {
+            throw new IllegalStateException("No hay ninguna grabación en curso");
+        }
+        Map<String, Object> status = status();
+        active.stop();
+        active.close();
+        active = null;
+        log.info("Grabación JFR parada: {}", activeFile.getFileName());
+        rotate(maxRecordings);
+        return status;
+    }
+
+    /**
+     * Grabación en curso (si la hay) y grabaciones guardadas, de la más reciente a la más antigua.
+     */
+    public synchronized Map<String, Object> listRecordings() throws IOException {
+        List<Map<String, Object>> files = new ArrayList<>();
+        for (Path file : recordingFiles()) {
+            Map<String, Object> info = new LinkedHashMap<>();
+            info.put("name", file.getFileName().toString());
+            info.put("sizeBytes", Files.size(file));
+            info.put("modified", Files.getLastModifiedTime(file).toString());
+            files.add(info);
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("active", isRunning() ? status() : null);
+        result.put("recordings", files);
+        return result;
+    }
+
+    /**
+     * Fichero de una grabación guardada, para descargarlo.
+     * @param name Nombre del fichero (sin ruta)
+     */
+    public Path getRecordingFile(String name) {
+        if (name == null || !RECORDING_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Nombre de grabación no válido: " + name);
+        }
+        Path dir = recordingsDirectory();
+        Path file = dir.resolve(name).normalize();
+        if (!file.getParent().equals(dir) || !Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("No existe la grabación: " + name);
+        }
+        synchronized (this) {
+            if (isRunning() && file.equals(activeFile)) {
+                throw new IllegalStateException("La grabación sigue en curso: " + name);
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Resumen de una grabación: sitios con más memoria asignada, métodos más muestreados
+     * y locks con más tiempo de espera.
+     * @param name Nombre del fichero
+     */
+    public Map<String, Object> summarize(String name) throws IOException {
+        Path file = getRecordingFile(name);
+
+        Map<String, Long> allocationByFrame = new HashMap<>();
+        Map<String, Long> allocationByAppFrame = new HashMap<>();
+        Map<String, Long> allocationByClass = new HashMap<>();
+        Map<String, Long> executionSamples = new HashMap<>();
+        Map<String, long[]> contention = new HashMap<>();
+        long events = 0;
+
+        try (RecordingFile recording = new RecordingFile(file)) {
+            while (recording.hasMoreEvents()) {
+                RecordedEvent event = recording.readEvent();
+                events++;
+                switch (event.getEventType().getName()) {
+                    case "jdk.ObjectAllocationSample" ->
+                        recordAllocation(event, event.getLong("weight"), allocationByFrame, allocationByAppFrame, allocationByClass);
+                    case "jdk.ObjectAllocationInNewTLAB" ->
+                        recordAllocation(event, event.getLong("tlabSize"), allocationByFrame, allocationByAppFrame, allocationByClass);
+                    case "jdk.ObjectAllocationOutsideTLAB" ->
+                        recordAllocation(event, event.getLong("allocationSize"), allocationByFrame, allocationByAppFrame, allocationByClass);
+                    case "jdk.ExecutionSample" ->
+                        executionSamples.merge(frame(event.getStackTrace(), false), 1L, Long::sum);
+                    case "jdk.JavaMonitorEnter" ->
+                        recordContention(event, "monitorClass", contention);
+                    case "jdk.ThreadPark" ->
+                        recordContention(event, "parkedClass", contention);
+                    default -> {
+                    }
+                }
+            }
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("name", name);
+        summary.put("sizeBytes", Files.size(file));
+        summary.put("events", events);
+        summary.put("topAllocationSites", top(allocationByFrame, "frame", "bytes"));
+        summary.put("topApplicationAllocationSites", top(allocationByAppFrame, "frame", "bytes"));
+        summary.put("topAllocatedClasses", top(allocationByClass, "class", "bytes"));
+        summary.put("hotMethods", top(executionSamples, "frame", "samples"));
+        summary.put("lockContention", contention.entrySet().stream()
+            .sorted(Comparator.comparingLong((Map.Entry<String, long[]> e) -> e.getValue()[1]).reversed())
+            .limit(TOP)
+            .map(e -> Map.of("lock", e.getKey(), "events", e.getValue()[0], "totalMs", e.getValue()[1] / 1_000_000))
+            .toList());
+        return summary;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        // Al parar la aplicación se guarda lo grabado hasta ese momento
+        if (isRunning()) {
+            stop();
+        }
+    }
+
+    private boolean isRunning() {
+        return active != null && active.getState() == RecordingState.RUNNING;
+    }
+
+    private Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("name", activeFile.getFileName().toString());
+        status.put("state", active.getState().name());
+        status.put("startTime", active.getStartTime() != null ? active.getStartTime().toString() : null);
+        status.put("durationSeconds", active.getDuration() != null ? active.getDuration().toSeconds() : null);
+        return status;
+    }
+
+    private Path recordingsDirectory() {
+        return Paths.get(directory).toAbsolutePath().normalize();
+    }
+
+    // Ficheros .jfr del directorio, del más reciente al más antiguo
+    private List<Path> recordingFiles() throws IOException {
+        Path dir = recordingsDirectory();
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files
+                .filter(file -> RECORDING_NAME.matcher(file.getFileName().toString()).matches())
+                .sorted(Comparator.comparing(this::lastModified).reversed())
+                .toList();
+        }
+    }
+
+    // Borra las grabaciones más antiguas hasta dejar como mucho keep
+    private void rotate(int keep) {
+        try {
+            List<Path> files = recordingFiles();
+            for (Path old : files.subList(Math.min(keep, files.size()), files.size())) {
+                if (!old.equals(activeFile) || !isRunning()) {
+                    Files.deleteIfExists(old);
+                    log.info("Grabación JFR antigua eliminada: {}", old.getFileName());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("No se pudieron rotar las grabaciones JFR: {}", e.getMessage());
+        }
+    }
+
+    private long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static void recordAllocation(RecordedEvent event, long bytes, Map<String, Long> byFrame,
+                                         Map<String, Long> byAppFrame, Map<String, Long> byClass) {
+        byFrame.merge(frame(event.getStackTrace(), false), bytes, Long::sum);
+        String appFrame = frame(event.getStackTrace(), true);
+        if (appFrame != null) {
+            byAppFrame.merge(appFrame, bytes, Long::sum);
+        }
+        RecordedClass objectClass = event.getClass("objectClass");
+        byClass.merge(objectClass != null ? objectClass.getName() : "?", bytes, Long::sum);
+    }
+
+    private static void recordContention(RecordedEvent event, String classField, Map<String, long[]> contention) {
+        RecordedClass lockClass = event.getClass(classField);
+        // Esperar en una Condition (hilos del pool sin trabajo) no es contención
+        if (lockClass != null && lockClass.getName().endsWith("$ConditionObject")) {
+            return;
+        }
+        String site = frame(event.getStackTrace(), true);
+        String key = (lockClass != null ? lockClass.getName() : "?") + " @ "
+            + (site != null ? site : frame(event.getStackTrace(), false));
+        long[] totals = contention.computeIfAbsent(key, k -> new long[2]);
+        totals[0]++;
+        totals[1] += event.getDuration().toNanos();
+    }
+
+    // Primer frame de la pila, o el primero de la aplicación si onlyApp
+    private static String frame(RecordedStackTrace stackTrace, boolean onlyApp) {
+        if (stackTrace == null) {
+            return onlyApp ? null : "?";
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (!frame.isJavaFrame()) {
+                continue;
+            }
+            String type = frame.getMethod().getType().getName();
+            if (!onlyApp || type.startsWith(APP_PACKAGE)) {
+                return type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+            }
+        }
+        return onlyApp ? null : "?";
+    }
+
+    private static List<Map<String, Object>> top(Map<String, Long> totals, String keyName, String valueName) {
+        return totals.entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+            .limit(TOP)
+            .map(e -> Map.<String, Object>of(keyName, e.getKey(), valueName, e.getValue()))
+            .toList();
+    }
+}
@@ -0,0 +1,167 @@
+package com.tonilr.ToDoList.service;
+
+import com.tonilr.ToDoList.model.ReminderDelivery;
+import com.tonilr.ToDoList.model.Task;
+import com.tonilr.ToDoList.repository.ReminderDeliveryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import lombok.extern.slf4j.Slf4j;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service keeping a ledger of reminders already sent so that the hourly
+ * reminder job only mails tasks that became eligible since the last run.
+ * The {@code reminder_deliveries} table is the source of truth; a bounded
+ * per-day set of task ids sits in front of it so repeated checks for the same
+ * tasks don't hit the database.
+ */
+@Service
+@Slf4j
+public class ReminderLedgerService {
+
+    public static final String KIND_DUE_DATE = "DUE_DATE";
+
+    @Autowired
+    private ReminderDeliveryRepository deliveryRepository;
+
+    @Autowired
+    private ClusterCoordinationService clusterCoordinationService;
+
+    // Días de registro que se conservan en la tabla
+    @Value("${app.reminders.ledger.retention-days:30}")
+    private int retentionDays;
+
+    // Días de ids enviados que se conservan en memoria
+    @Value("${app.reminders.ledger.cache-days:7}")
+    private int cacheDays;
+
+    // Máximo de ids por tipo y día; por encima se consulta la tabla
+    @Value("${app.reminders.ledger.cache-max-ids-per-day:100000}")
+    private int cacheMaxIdsPerDay;
+
+    // Ids de tarea con recordatorio enviado, por tipo de recordatorio y día de ventana.
+    // Un conjunto y no un bitmap: los ids de los shards empiezan en shard << 40
+    private final Map<String, Set<Long>> sentIds = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the tasks that have not yet received a reminder of the given kind
+     * for their current window.
+     * @param kind Reminder kind
+     * @param tasks Candidate tasks
+     * @return Tasks that still need a reminder
+     */
+    public List<Task> filterUnsent(String kind, List<Task> tasks) {
+        List<Task> candidates = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            if (task.getId() == null || task.getDueDate() == null) {
+                candidates.add(task);
+            } else if (!isCachedAsSent(kind, task.getDueDate().toLocalDate(), task.getId())) {
+                candidates.add(task);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+
+        List<Long> ids = new ArrayList<>(candidates.size());
+        LocalDate fromDay = null;
+        for (Task task : candidates) {
+            if (task.getId() != null && task.getDueDate() != null) {
+                ids.add(task.getId());
+                LocalDate day = task.getDueDate().toLocalDate();
+                if (fromDay == null || day.isBefore(fromDay)) {
+                    fromDay = day;
+                }
+            }
+        }
+        if (ids.isEmpty()) {
+            return candidates;
+        }
+
+        // Una sola consulta indexada para los candidatos que no están en memoria
+        Set<String> sentInDb = new HashSet<>();
+        for (Object[] row : deliveryRepository.findSent(kind, ids, fromDay)) {
+            Long taskId = (Long) row[0];
+            LocalDate windowDay = (LocalDate) row[1];
+            sentInDb.add(taskId + "@" + windowDay);
+            markCached(kind, windowDay, taskId);
+        }
+
+        List<Task> unsent = new ArrayList<>(candidates.size());
+        for (Task task : candidates) {
+            if (task.getId() == null || task.getDueDate() == null
+                    || !sentInDb.contains(task.getId() + "@" + task.getDueDate().toLocalDate())) {
+                unsent.add(task);
+            }
+        }
+        return unsent;
+    }
+
+    /**
+     * Records that a reminder of the given kind was sent for the tasks.
+     * Entries already written by another node are ignored.
+     * @param kind Reminder kind
+     * @param tasks Tasks included in the sent reminder
+     */
+    public void recordSent(String kind, List<Task> tasks) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Task task : tasks) {
+            if (task.getId() == null || task.getDueDate() == null) {
+                continue;
+            }
+            LocalDate windowDay = task.getDueDate().toLocalDate();
+            try {
+                deliveryRepository.save(new ReminderDelivery(task.getId(), kind, windowDay, now));
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Recordatorio {} de la tarea {} ya registrado", kind, task.getId());
+            }
+            markCached(kind, windowDay, task.getId());
+        }
+    }
+
+    /**
+     * Purges old ledger rows and in-memory id sets once a day.
+     */
+    @Scheduled(cron = "${app.reminders.ledger.cleanup.cron:0 30 3 * * *}")
+    public void purgeOldEntries() {
+        LocalDate oldestCachedDay = LocalDate.now().minusDays(cacheDays);
+        sentIds.keySet().removeIf(key -> LocalDate.parse(key.substring(key.indexOf(':') + 1)).isBefore(oldestCachedDay));
+
+        clusterCoordinationService.runExclusively("reminderLedgerCleanup",
+            Duration.ofMinutes(30), Duration.ofMinutes(5), () -> {
+                int deleted = deliveryRepository.deleteSentBefore(LocalDateTime.now().minusDays(retentionDays));
+                log.info("Registro de recordatorios: {} entradas antiguas eliminadas", deleted);
+            });
+    }
+
+    private boolean isCachedAsSent(String kind, LocalDate windowDay, Long taskId) {
+        Set<Long> ids = sentIds.get(cacheKey(kind, windowDay));
+        return ids != null && ids.contains(taskId);
+    }
+
+    private void markCached(String kind, LocalDate windowDay, Long taskId) {
+        if (windowDay.isBefore(LocalDate.now().minusDays(cacheDays))) {
+            return;
+        }
+        Set<Long> ids = sentIds.computeIfAbsent(cacheKey(kind, windowDay), key -> ConcurrentHashMap.newKeySet());
+        // Lleno: el resto de ese día se responde desde la tabla
+        if (ids.size() < cacheMaxIdsPerDay) {
+            ids.add(taskId);
+        }
+    }
+
+    private String cacheKey(String kind, LocalDate windowDay) {
+        return kind + ":" + windowDay;
+    }
+}
@@ -0,0 +1,264 @@
+package com.tonilr.ToDoList.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Mueve los datos de un usuario (listas, tareas, tareas archivadas y logs) a otro shard sin parar la aplicación.
+ *
+ * 1. Marca al usuario como "moving": sus peticiones de escritura reciben 503, las
+ *    lecturas siguen en el shard de origen y el archivo, la purga de listas y el reespaciado
+ *    de rangos dejan de procesar el shard de origen (ShardRouter.hasMoveInProgress).
+ * 2. Espera drain-ms, para que terminen las escrituras en curso y todos los nodos vean la marca.
+ * 3. Copia las filas al destino en una transacción, con ids nuevos del bloque del destino:
+ *    conservar los del origen rompería el reparto de ids por shard (shardForId y el
+ *    AUTO_INCREMENT de MySQL, que avanzaría hasta el bloque del origen).
+ * 4. Duplica en reminder_deliveries las entradas de las tareas con su id nuevo, para que
+ *    no se reenvíen sus recordatorios.
+ * 5. Apunta el usuario al destino, borra las filas del origen y limpia las cachés; los demás
+ *    nodos las limpian al releer la asignación. Los clientes con ids antiguos reciben 404
+ *    y recargan sus listas.
+ */
+@Service
+@Slf4j
+public class ShardRebalanceService {
+
+    private static final int DELETE_CHUNK = 500;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    // Debe superar app.sharding.directory-cache-ms y la duración de una petición de escritura
+    @Value("${app.sharding.rebalance.drain-ms:10000}")
+    private long drainMillis;
+
+    /**
+     * Mueve los datos de un usuario al shard indicado.
+     * @param userId ID del usuario
+     * @param targetShard Shard de destino
+     * @return Resumen del movimiento (shards y filas movidas)
+     */
+    public Map<String, Object> moveUser(Long userId, int targetShard) {
+        if (!shardRouter.isEnabled()) {
+            throw new IllegalStateException("El sharding no está activado");
+        }
+        if (targetShard < 0 || targetShard >= shardRouter.getShardCount()) {
+            throw new IllegalArgumentException("Shard de destino inexistente: " + targetShard);
+        }
+        int sourceShard = shardRouter.shardFor(userId);
+        if (sourceShard == targetShard) {
+            throw new IllegalArgumentException("El usuario ya está en el shard " + targetShard);
+        }
+        if (shardRouter.isMoving(userId)) {
+            throw new IllegalStateException("El usuario " + userId + " ya se está moviendo");
+        }
+
+        log.info("Moviendo usuario {} del shard {} al shard {}", userId, sourceShard, targetShard);
+        shardRouter.setMoving(userId, true);
+        UserRows rows;
+        try {
+            pause(drainMillis);
+            rows = readUserRows(shardRouter.shardJdbc(sourceShard), userId);
+            shardRouter.copyUserStubs(rows.referencedUsers, targetShard);
+            Map<Long, Long> taskIds = copyRows(targetShard, rows);
+            copyReminderLedger(taskIds);
+            shardRouter.assign(userId, targetShard);
+        } catch (RuntimeException e) {
+            log.error("Error moviendo usuario {}, sigue en el shard {}: {}", userId, sourceShard, e.getMessage());
+            shardRouter.setMoving(userId, false);
+            throw e;
+        }
+
+        // El usuario ya lee del destino; si el borrado falla solo quedan filas huérfanas en el origen
+        try {
+            deleteRows(sourceShard, rows);
+        } catch (RuntimeException e) {
+            log.warn("Usuario {} movido, pero no se pudieron borrar sus filas del shard {}: {}", userId, sourceShard, e.getMessage());
+        }
+        shardRouter.evictTaskCaches();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("userId", userId);
+        result.put("sourceShard", sourceShard);
+        result.put("targetShard", targetShard);
+        result.put("taskLists", rows.lists.size());
+        result.put("tasks", rows.tasks.size());
+        result.put("archivedTasks", rows.archivedTasks.size());
+        result.put("auditLogs", rows.auditLogs.size());
+        log.info("Usuario {} movido al shard {}: {}", userId, targetShard, result);
+        return result;
+    }
+
+    /**
+     * Usuarios asignados y filas de cada tabla repartida por shard.
+     * @return Resumen por shard
+     */
+    public List<Map<String, Object>> describeShards() {
+        List<Map<String, Object>> shards = new ArrayList<>();
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            Map<String, Object> description = new LinkedHashMap<>();
+            description.put("shard", shard);
+            if (shardRouter.isEnabled()) {
+                JdbcTemplate jdbc = shardRouter.shardJdbc(shard);
+                description.put("assignedUsers", shardRouter.shardJdbc(0).queryForObject(
+                    "SELECT COUNT(*) FROM user_shards WHERE shard_id = ?", Long.class, shard));
+                description.put("taskLists", jdbc.queryForObject("SELECT COUNT(*) FROM task_lists", Long.class));
+                description.put("tasks", jdbc.queryForObject("SELECT COUNT(*) FROM tasks", Long.class));
+                description.put("auditLogs", jdbc.queryForObject("SELECT COUNT(*) FROM audit_logs", Long.class));
+            }
+            shards.add(description);
+        }
+        return shards;
+    }
+
+    private static class UserRows {
+        List<Map<String, Object>> lists;
+        List<Map<String, Object>> tasks;
+        List<Map<String, Object>> archivedTasks;
+        List<Map<String, Object>> auditLogs;
+        Set<Long> referencedUsers = new LinkedHashSet<>();
+    }
+
+    private UserRows readUserRows(JdbcTemplate source, Long userId) {
+        UserRows rows = new UserRows();
+        rows.lists = source.queryForList(
+            "SELECT * FROM task_lists WHERE owner_id = ? OR user_id = ? ORDER BY id", userId, userId);
+        rows.tasks = source.queryForList(
+            "SELECT * FROM tasks WHERE task_list_id IN (SELECT id FROM task_lists WHERE owner_id = ? OR user_id = ?) " +
+            "OR (task_list_id IS NULL AND assigned_to_id = ?) ORDER BY id", userId, userId, userId);
+        rows.archivedTasks = source.queryForList(
+            "SELECT * FROM tasks_archive WHERE task_list_id IN (SELECT id FROM task_lists WHERE owner_id = ? OR user_id = ?) " +
+            "OR (task_list_id IS NULL AND assigned_to_id = ?) ORDER BY id", userId, userId, userId);
+        rows.auditLogs = source.queryForList("SELECT * FROM audit_logs WHERE user_id = ? ORDER BY id", userId);
+
+        rows.referencedUsers.add(userId);
+        collectUsers(rows.referencedUsers, rows.lists, "owner_id", "user_id");
+        collectUsers(rows.referencedUsers, rows.tasks, "user_id", "assigned_to_id");
+        collectUsers(rows.referencedUsers, rows.archivedTasks, "user_id", "assigned_to_id");
+        return rows;
+    }
+
+    private void collectUsers(Set<Long> users, List<Map<String, Object>> rows, String... columns) {
+        for (Map<String, Object> row : rows) {
+            for (String column : columns) {
+                Object value = row.get(column);
+                if (value != null) {
+                    users.add(((Number) value).longValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * Copia las filas al destino.
+     * @return Id nuevo de cada tarea, por su id en el origen
+     */
+    private Map<Long, Long> copyRows(int targetShard, UserRows rows) {
+        JdbcTemplate target = shardRouter.shardJdbc(targetShard);
+        Map<Long, Long> taskIds = new HashMap<>();
+        new TransactionTemplate(new DataSourceTransactionManager(target.getDataSource())).executeWithoutResult(status -> {
+            SimpleJdbcInsert listInsert = new SimpleJdbcInsert(target).withTableName("task_lists").usingGeneratedKeyColumns("id");
+            SimpleJdbcInsert taskInsert = new SimpleJdbcInsert(target).withTableName("tasks").usingGeneratedKeyColumns("id");
+            // El archivo conserva los ids originales de tasks
+            SimpleJdbcInsert archiveInsert = new SimpleJdbcInsert(target).withTableName("tasks_archive");
+            SimpleJdbcInsert logInsert = new SimpleJdbcInsert(target).withTableName("audit_logs").usingGeneratedKeyColumns("id");
+
+            // Las tareas apuntan a las listas por id: se traducen a los ids nuevos
+            Map<Long, Long> listIds = new HashMap<>();
+            for (Map<String, Object> list : rows.lists) {
+                Long oldId = ((Number) list.get("id")).longValue();
+                listIds.put(oldId, listInsert.executeAndReturnKey(list).longValue());
+            }
+            for (Map<String, Object> task : rows.tasks) {
+                Object listId = task.get("task_list_id");
+                if (listId != null) {
+                    task.put("task_list_id", listIds.get(((Number) listId).longValue()));
+                }
+                Long oldId = ((Number) task.get("id")).longValue();
+                taskIds.put(oldId, taskInsert.executeAndReturnKey(task).longValue());
+            }
+            for (Map<String, Object> archived : rows.archivedTasks) {
+                Object listId = archived.get("task_list_id");
+                if (listId != null) {
+                    archived.put("task_list_id", listIds.get(((Number) listId).longValue()));
+                }
+                archiveInsert.execute(archived);
+            }
+            for (Map<String, Object> auditLog : rows.auditLogs) {
+                logInsert.executeAndReturnKey(auditLog);
+            }
+        });
+        return taskIds;
+    }
+
+    /**
+     * Copia el registro de recordatorios enviados (en el directorio) a los ids nuevos de las tareas.
+     * Las entradas con el id antiguo se quedan hasta que caducan: mientras el usuario no
+     * apunta al destino el trabajo de recordatorios sigue viendo las tareas del origen.
+     */
+    private void copyReminderLedger(Map<Long, Long> taskIds) {
+        if (taskIds.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(taskIds.size());
+        taskIds.forEach((oldId, newId) -> args.add(new Object[] {newId, oldId}));
+        shardRouter.shardJdbc(0).batchUpdate(
+            "INSERT INTO reminder_deliveries (task_id, reminder_kind, window_day, sent_at) " +
+            "SELECT ?, reminder_kind, window_day, sent_at FROM reminder_deliveries WHERE task_id = ?", args);
+    }
+
+    private void deleteRows(int sourceShard, UserRows rows) {
+        JdbcTemplate source = shardRouter.shardJdbc(sourceShard);
+        NamedParameterJdbcTemplate named = new NamedParameterJdbcTemplate(source);
+        new TransactionTemplate(new DataSourceTransactionManager(source.getDataSource())).executeWithoutResult(status -> {
+            deleteByIds(named, "tasks", ids(rows.tasks));
+            deleteByIds(named, "tasks_archive", ids(rows.archivedTasks));
+            deleteByIds(named, "task_lists", ids(rows.lists));
+            deleteByIds(named, "audit_logs", ids(rows.auditLogs));
+        });
+    }
+
+    private void deleteByIds(NamedParameterJdbcTemplate jdbc, String table, List<Long> ids) {
+        for (int i = 0; i < ids.size(); i += DELETE_CHUNK) {
+            jdbc.update("DELETE FROM " + table + " WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", ids.subList(i, Math.min(i + DELETE_CHUNK, ids.size()))));
+        }
+    }
+
+    // Ids originales (las filas copiadas ya tienen los suyos en el destino)
+    private List<Long> ids(List<Map<String, Object>> rows) {
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            ids.add(((Number) row.get("id")).longValue());
+        }
+        return ids;
+    }
+
+    private void pause(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Movimiento interrumpido", e);
+        }
+    }
+}
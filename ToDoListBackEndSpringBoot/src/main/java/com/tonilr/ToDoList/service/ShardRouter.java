@@ -0,0 +1,387 @@
+package com.tonilr.ToDoList.service;
+
+import com.tonilr.ToDoList.config.ShardContext;
+import com.tonilr.ToDoList.config.ShardRoutingDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Mapa de shards por usuario y punto de entrada para ejecutar trabajo en el shard de un usuario.
+ *
+ * Las tareas, listas y logs de un usuario viven en su shard; el resto (usuarios, roles,
+ * preferencias) en el shard 0. Cada shard guarda además una copia de las filas de users
+ * que referencian sus datos, sin contraseña y de solo lectura (User rechaza actualizarla).
+ * Sin app.sharding.enabled todos los métodos ejecutan el trabajo directamente sobre la
+ * única base de datos.
+ */
+@Service
+@Slf4j
+public class ShardRouter {
+
+    // Cachés con datos de tareas y listas, que cambian de shard (y de id) al mover un usuario
+    private static final List<String> TASK_CACHES = List.of("tasks", "taskLists", "taskCounts");
+
+    @Autowired(required = false)
+    private ShardRoutingDataSource shardRoutingDataSource;
+
+    @Autowired(required = false)
+    private CacheManager cacheManager;
+
+    @Value("${app.sharding.id-block-bits:40}")
+    private int idBlockBits;
+
+    // Las asignaciones se releen pasado este tiempo, para ver los movimientos hechos desde otro nodo
+    @Value("${app.sharding.directory-cache-ms:5000}")
+    private long directoryCacheMillis;
+
+    private final Map<Long, Assignment> assignments = new ConcurrentHashMap<>();
+    private final Map<String, Long> userIdByUsername = new ConcurrentHashMap<>();
+
+    private record Assignment(int shard, boolean moving, long loadedAt) {
+    }
+
+    public boolean isEnabled() {
+        return shardRoutingDataSource != null;
+    }
+
+    public int getShardCount() {
+        return isEnabled() ? shardRoutingDataSource.getShardCount() : 1;
+    }
+
+    /**
+     * Shard de los datos de un usuario. La primera vez se asigna: al shard 0 si ya
+     * tiene datos allí (usuarios anteriores al sharding) y si no por userId mod shards.
+     * @param userId ID del usuario
+     * @return Índice del shard
+     */
+    public int shardFor(Long userId) {
+        if (!isEnabled() || userId == null) {
+            return ShardRoutingDataSource.DIRECTORY_SHARD;
+        }
+        return assignment(userId).shard();
+    }
+
+    /**
+     * Indica si el usuario se está moviendo de shard; mientras tanto solo se admiten lecturas.
+     * @param userId ID del usuario
+     * @return true durante un movimiento
+     */
+    public boolean isMoving(Long userId) {
+        return isEnabled() && userId != null && assignment(userId).moving();
+    }
+
+    /**
+     * Indica si algún usuario del shard se está moviendo a otro. Lee el directorio en cada
+     * llamada: los trabajos en segundo plano lo consultan antes de cada lote para no escribir
+     * en filas que se están copiando.
+     * @param shard Índice del shard
+     * @return true si hay un movimiento en curso desde el shard
+     */
+    public boolean hasMoveInProgress(int shard) {
+        if (!isEnabled()) {
+            return false;
+        }
+        Integer moving = directory().queryForObject(
+            "SELECT COUNT(*) FROM user_shards WHERE shard_id = ? AND moving = TRUE", Integer.class, shard);
+        return moving != null && moving > 0;
+    }
+
+    /**
+     * Shard fijado en el hilo actual (el 0 si no hay ninguno).
+     */
+    public int currentShard() {
+        Integer current = ShardContext.current();
+        return current != null ? current : ShardRoutingDataSource.DIRECTORY_SHARD;
+    }
+
+    /**
+     * Indica si las consultas del hilo actual van al directorio, donde están las filas reales
+     * de users; en los demás shards solo hay copias sin contraseña.
+     */
+    public boolean isOnDirectory() {
+        return !isEnabled() || currentShard() == ShardRoutingDataSource.DIRECTORY_SHARD;
+    }
+
+    /**
+     * Shard en el que se creó una tarea, lista o log, deducido del bloque de su id.
+     * @param id ID de la fila
+     * @return Índice del shard
+     */
+    public int shardForId(Long id) {
+        if (!isEnabled() || id == null) {
+            return ShardRoutingDataSource.DIRECTORY_SHARD;
+        }
+        return (int) Math.min(id >>> idBlockBits, getShardCount() - 1);
+    }
+
+    public Long userIdFor(String username) {
+        if (username == null) {
+            return null;
+        }
+        Long cached = userIdByUsername.get(username);
+        if (cached != null) {
+            return cached;
+        }
+        List<Long> ids = directory().queryForList("SELECT id FROM users WHERE username = ?", Long.class, username);
+        if (ids.isEmpty()) {
+            return null;
+        }
+        userIdByUsername.put(username, ids.get(0));
+        return ids.get(0);
+    }
+
+    public <T> T callForUser(Long userId, Supplier<T> action) {
+        return callOnShard(shardFor(userId), action);
+    }
+
+    /**
+     * Ejecuta el trabajo con el shard indicado. No se puede cambiar de shard dentro
+     * de una transacción: su conexión ya pertenece a otra base de datos.
+     * @param shard Índice del shard
+     * @param action Trabajo a ejecutar
+     * @return Resultado del trabajo
+     */
+    public <T> T callOnShard(int shard, Supplier<T> action) {
+        if (!isEnabled()) {
+            return action.get();
+        }
+        int effective = currentShard();
+        if (effective != shard && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("No se puede cambiar al shard " + shard + " dentro de una transacción del shard " + effective);
+        }
+        return ShardContext.callOn(shard, action);
+    }
+
+    public void runOnShard(int shard, Runnable action) {
+        callOnShard(shard, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Ejecuta el trabajo una vez por shard (una sola vez sin sharding).
+     * @param action Trabajo a ejecutar
+     */
+    public void forEachShard(Runnable action) {
+        for (int shard = 0; shard < getShardCount(); shard++) {
+            runOnShard(shard, action);
+        }
+    }
+
+    /**
+     * Ejecuta una consulta en todos los shards y concatena los resultados.
+     * @param query Consulta a ejecutar en cada shard
+     * @return Resultados de todos los shards
+     */
+    public <T> List<T> collectFromShards(Supplier<? extends Collection<T>> query) {
+        List<T> results = new ArrayList<>();
+        for (int shard = 0; shard < getShardCount(); shard++) {
+            results.addAll(callOnShard(shard, query));
+        }
+        return results;
+    }
+
+    /**
+     * Agrupa usuarios por shard, para lanzar una consulta por shard en vez de una por usuario.
+     * @param userIds IDs de usuario
+     * @return Usuarios de cada shard, ordenados por shard
+     */
+    public Map<Integer, List<Long>> groupByShard(Collection<Long> userIds) {
+        Map<Integer, List<Long>> byShard = new TreeMap<>();
+        for (Long userId : userIds) {
+            byShard.computeIfAbsent(shardFor(userId), shard -> new ArrayList<>()).add(userId);
+        }
+        return byShard;
+    }
+
+    /**
+     * Marca o desmarca el movimiento de un usuario en el directorio.
+     * @param userId ID del usuario
+     * @param moving true al empezar el movimiento
+     */
+    public void setMoving(Long userId, boolean moving) {
+        int shard = shardFor(userId);
+        directory().update("UPDATE user_shards SET moving = ? WHERE user_id = ?", moving, userId);
+        assignments.put(userId, new Assignment(shard, moving, System.currentTimeMillis()));
+    }
+
+    /**
+     * Apunta el usuario a un nuevo shard y termina su movimiento.
+     * @param userId ID del usuario
+     * @param shard Nuevo shard
+     */
+    public void assign(Long userId, int shard) {
+        int updated = directory().update("UPDATE user_shards SET shard_id = ?, moving = FALSE, assigned_at = ? WHERE user_id = ?",
+            shard, new Timestamp(System.currentTimeMillis()), userId);
+        if (updated == 0) {
+            insertAssignment(userId, shard);
+        }
+        assignments.put(userId, new Assignment(shard, false, System.currentTimeMillis()));
+    }
+
+    /**
+     * Vacía las cachés de tareas y listas de este nodo.
+     */
+    public void evictTaskCaches() {
+        if (cacheManager == null) {
+            return;
+        }
+        for (String name : TASK_CACHES) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    /**
+     * Copia las filas de users (y sus roles) que aún no existan en el shard, sin contraseña.
+     * Las copias solo sirven para las claves ajenas y las consultas del shard: User impide
+     * guardarlas y UserService no las cachea.
+     * @param userIds Usuarios referenciados por los datos del shard
+     * @param shard Shard de destino
+     */
+    public void copyUserStubs(Collection<Long> userIds, int shard) {
+        if (!isEnabled() || shard == ShardRoutingDataSource.DIRECTORY_SHARD) {
+            return;
+        }
+        JdbcTemplate target = new JdbcTemplate(shardRoutingDataSource.getShard(shard));
+        for (Long userId : userIds) {
+            Integer existing = target.queryForObject("SELECT COUNT(*) FROM users WHERE id = ?", Integer.class, userId);
+            if (existing != null && existing > 0) {
+                continue;
+            }
+            List<Map<String, Object>> rows = directory().queryForList("SELECT * FROM users WHERE id = ?", userId);
+            if (rows.isEmpty()) {
+                continue;
+            }
+            Map<String, Object> row = rows.get(0);
+            row.put("password", null);
+            new SimpleJdbcInsert(target).withTableName("users").execute(row);
+
+            for (String roleName : directory().queryForList(
+                    "SELECT r.name FROM user_roles ur JOIN roles r ON r.id = ur.role_id WHERE ur.user_id = ?", String.class, userId)) {
+                target.update("INSERT INTO user_roles (user_id, role_id) SELECT ?, id FROM roles WHERE name = ?", userId, roleName);
+            }
+        }
+    }
+
+    /**
+     * Actualiza la copia del usuario en su shard tras confirmar un cambio de perfil.
+     * @param userId ID del usuario
+     */
+    public void refreshUserStubAfterCommit(Long userId) {
+        if (!isEnabled() || userId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refreshUserStub(userId);
+                }
+            });
+        } else {
+            refreshUserStub(userId);
+        }
+    }
+
+    public JdbcTemplate shardJdbc(int shard) {
+        return new JdbcTemplate(shardRoutingDataSource.getShard(shard));
+    }
+
+    private void refreshUserStub(Long userId) {
+        int shard = shardFor(userId);
+        if (shard == ShardRoutingDataSource.DIRECTORY_SHARD) {
+            return;
+        }
+        try {
+            Map<String, Object> row = directory().queryForMap("SELECT username, email, timezone FROM users WHERE id = ?", userId);
+            shardJdbc(shard).update("UPDATE users SET username = ?, email = ?, timezone = ? WHERE id = ?",
+                row.get("username"), row.get("email"), row.get("timezone"), userId);
+        } catch (Exception e) {
+            log.warn("No se pudo actualizar la copia del usuario {} en el shard {}: {}", userId, shard, e.getMessage());
+        }
+    }
+
+    private Assignment assignment(Long userId) {
+        Assignment cached = assignments.get(userId);
+        if (cached != null && System.currentTimeMillis() - cached.loadedAt() < directoryCacheMillis) {
+            return cached;
+        }
+        Assignment loaded = loadOrAssign(userId);
+        assignments.put(userId, loaded);
+        if (cached != null && cached.shard() != loaded.shard()) {
+            // Otro nodo ha movido al usuario: lo cacheado aquí tiene los ids del shard anterior
+            log.info("Usuario {} movido del shard {} al {}, se vacían las cachés de tareas", userId, cached.shard(), loaded.shard());
+            evictTaskCaches();
+        }
+        return loaded;
+    }
+
+    private Assignment loadOrAssign(Long userId) {
+        Assignment existing = load(userId);
+        if (existing != null) {
+            return existing;
+        }
+        int shard = hasDirectoryData(userId)
+            ? ShardRoutingDataSource.DIRECTORY_SHARD
+            : (int) Math.floorMod(userId, (long) getShardCount());
+        copyUserStubs(List.of(userId), shard);
+        try {
+            insertAssignment(userId, shard);
+            log.info("Usuario {} asignado al shard {}", userId, shard);
+        } catch (DuplicateKeyException e) {
+            // Otro nodo lo asignó a la vez: vale su asignación
+            Assignment winner = load(userId);
+            if (winner != null) {
+                return winner;
+            }
+        }
+        return new Assignment(shard, false, System.currentTimeMillis());
+    }
+
+    private Assignment load(Long userId) {
+        List<Assignment> rows = directory().query("SELECT shard_id, moving FROM user_shards WHERE user_id = ?",
+            (rs, rowNum) -> new Assignment(rs.getInt("shard_id"), rs.getBoolean("moving"), System.currentTimeMillis()),
+            userId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private void insertAssignment(Long userId, int shard) {
+        directory().update("INSERT INTO user_shards (user_id, shard_id, moving, assigned_at) VALUES (?, ?, FALSE, ?)",
+            userId, shard, new Timestamp(System.currentTimeMillis()));
+    }
+
+    private boolean hasDirectoryData(Long userId) {
+        Integer lists = directory().queryForObject(
+            "SELECT COUNT(*) FROM task_lists WHERE owner_id = ? OR user_id = ?", Integer.class, userId, userId);
+        Integer tasks = directory().queryForObject(
+            "SELECT COUNT(*) FROM tasks WHERE assigned_to_id = ?", Integer.class, userId);
+        return (lists != null && lists > 0) || (tasks != null && tasks > 0);
+    }
+
+    // Pool del shard 0 directamente: las consultas al directorio no usan la transacción en curso
+    private JdbcTemplate directory() {
+        return shardJdbc(ShardRoutingDataSource.DIRECTORY_SHARD);
+    }
+}
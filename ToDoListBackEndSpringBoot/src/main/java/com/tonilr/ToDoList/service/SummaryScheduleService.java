@@ -0,0 +1,311 @@
+package com.tonilr.ToDoList.service;
+
+import com.tonilr.ToDoList.model.NotificationPreferences;
+import com.tonilr.ToDoList.model.Task;
+import com.tonilr.ToDoList.repository.NotificationPreferencesRepository;
+import com.tonilr.ToDoList.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import lombok.extern.slf4j.Slf4j;
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Service scheduling the daily and weekly task summaries.
+ * Subscribers are grouped by timezone and configured local time (and day, for
+ * weekly summaries) into buckets whose next UTC fire instant is precomputed.
+ * A per-minute tick fires every due bucket exactly once, loading the tasks of
+ * all its users with a single query.
+ */
+@Service
+@Slf4j
+public class SummaryScheduleService {
+
+    private static final String DEFAULT_TIMEZONE = "Europe/Madrid";
+
+    @Autowired
+    private NotificationPreferencesRepository notificationPreferencesRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private NotificationDigestService notificationDigestService;
+
+    @Autowired
+    private ClusterCoordinationService clusterCoordinationService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    // Máximo de usuarios por consulta IN al cargar las tareas de un bucket
+    @Value("${app.summaries.batch-size:500}")
+    private int batchSize;
+
+    private final Map<BucketKey, Bucket> buckets = new ConcurrentHashMap<>();
+    private volatile boolean dirty = true;
+
+    /**
+     * Marks the buckets for rebuild on the next tick, e.g. after a user changes their preferences.
+     */
+    public void invalidate() {
+        dirty = true;
+    }
+
+    /**
+     * Periodically rebuilds the buckets to pick up shard changes and new users.
+     */
+    @Scheduled(fixedDelayString = "${app.summaries.refresh-interval-ms:600000}",
+               initialDelayString = "${app.summaries.refresh-interval-ms:600000}")
+    public void refresh() {
+        invalidate();
+    }
+
+    /**
+     * Runs every minute and fires the buckets whose instant has arrived.
+     */
+    @Scheduled(cron = "0 * * * * *")
+    public void tick() {
+        Instant now = Instant.now();
+        try {
+            if (dirty) {
+                rebuild(now);
+            }
+            fireDueBuckets(now);
+        } catch (Exception e) {
+            log.error("Error en la planificación de resúmenes: ", e);
+        }
+    }
+
+    /**
+     * Regroups this node's summary subscribers into buckets.
+     * Buckets that already existed keep their next fire instant so they never fire twice.
+     * @param now Current instant
+     */
+    public void rebuild(Instant now) {
+        dirty = false;
+        ClusterCoordinationService.ShardAssignment shard = clusterCoordinationService.currentShard();
+        List<NotificationPreferences> subscribers =
+            notificationPreferencesRepository.findSummarySubscribersByUserShard(shard.getIndex(), shard.getCount());
+
+        // ZoneId.of se resuelve una vez por zona, no una vez por usuario
+        Map<String, ZoneId> zones = new HashMap<>();
+        Map<BucketKey, List<NotificationPreferences>> grouped = new HashMap<>();
+        for (NotificationPreferences pref : subscribers) {
+            ZoneId zone = resolveZone(zones, pref.getUser().getTimezone());
+            if (pref.isDailySummary()) {
+                LocalTime time = parseTime(pref.getDailySummaryTime(), pref);
+                if (time != null) {
+                    grouped.computeIfAbsent(new BucketKey(SummaryKind.DAILY, zone, time, null), key -> new ArrayList<>()).add(pref);
+                }
+            }
+            if (pref.isWeeklySummary()) {
+                LocalTime time = parseTime(pref.getWeeklySummaryTime(), pref);
+                DayOfWeek day = parseDay(pref.getWeeklySummaryDay(), pref);
+                if (time != null && day != null) {
+                    grouped.computeIfAbsent(new BucketKey(SummaryKind.WEEKLY, zone, time, day), key -> new ArrayList<>()).add(pref);
+                }
+            }
+        }
+
+        buckets.keySet().retainAll(grouped.keySet());
+        grouped.forEach((key, members) -> buckets.compute(key, (k, existing) -> {
+            Instant nextFire = existing != null ? existing.nextFire : k.nextFireAfter(now);
+            return new Bucket(k, members, nextFire);
+        }));
+        log.info("Resúmenes planificados: {} suscriptores en {} buckets (shard {})",
+            subscribers.size(), buckets.size(), shard);
+    }
+
+    /**
+     * Fires every bucket whose instant is not after {@code now}.
+     * A bucket that missed several instants (e.g. after a pause) fires once and
+     * moves on to its next future instant.
+     * @param now Current instant
+     * @return Number of buckets fired
+     */
+    public int fireDueBuckets(Instant now) {
+        int fired = 0;
+        for (Bucket bucket : new ArrayList<>(buckets.values())) {
+            if (bucket.nextFire.isAfter(now)) {
+                continue;
+            }
+            Instant scheduled = bucket.nextFire;
+            bucket.nextFire = bucket.key.nextFireAfter(now);
+            try {
+                fire(bucket, scheduled);
+                fired++;
+            } catch (Exception e) {
+                log.error("Error enviando resúmenes del bucket {}: ", bucket.key, e);
+            }
+        }
+        return fired;
+    }
+
+    /**
+     * @return Number of precomputed buckets
+     */
+    public int getBucketCount() {
+        return buckets.size();
+    }
+
+    private void fire(Bucket bucket, Instant scheduled) {
+        LocalDate today = scheduled.atZone(bucket.key.zone).toLocalDate();
+        LocalDateTime start;
+        LocalDateTime end;
+        String subject;
+        if (bucket.key.kind == SummaryKind.DAILY) {
+            start = today.atStartOfDay();
+            end = today.plusDays(1).atStartOfDay();
+            subject = "Resumen diario de tareas pendientes";
+        } else {
+            LocalDate startOfWeek = today.with(DayOfWeek.MONDAY);
+            start = startOfWeek.atStartOfDay();
+            end = startOfWeek.plusDays(7).atStartOfDay();
+            subject = "Resumen semanal de tareas pendientes";
+        }
+
+        Map<Long, NotificationPreferences> membersByUser = new HashMap<>();
+        for (NotificationPreferences pref : bucket.members) {
+            membersByUser.put(pref.getUser().getId(), pref);
+        }
+        // Una consulta por bucket y shard (troceada solo si supera el tamaño de lote)
+        List<Task> tasks = new ArrayList<>();
+        int chunk = Math.max(1, batchSize);
+        for (Map.Entry<Integer, List<Long>> shard : shardRouter.groupByShard(membersByUser.keySet()).entrySet()) {
+            List<Long> userIds = shard.getValue();
+            for (int i = 0; i < userIds.size(); i += chunk) {
+                List<Long> batch = userIds.subList(i, Math.min(i + chunk, userIds.size()));
+                tasks.addAll(shardRouter.callOnShard(shard.getKey(), () ->
+                    taskRepository.findByAssignedToIdInAndDueDateBetweenAndCompletedFalse(batch, start, end)));
+            }
+        }
+
+        Map<Long, List<Task>> tasksByUser = tasks.stream()
+            .filter(task -> task.getAssignedTo() != null)
+            .collect(Collectors.groupingBy(task -> task.getAssignedTo().getId()));
+        tasksByUser.forEach((userId, userTasks) -> {
+            NotificationPreferences pref = membersByUser.get(userId);
+            if (pref != null) {
+                notificationDigestService.enqueue(pref.getUser(), pref.getEmail(), subject, userTasks);
+            }
+        });
+        log.info("Bucket {} disparado: {} usuarios, {} con tareas", bucket.key, membersByUser.size(), tasksByUser.size());
+    }
+
+    private ZoneId resolveZone(Map<String, ZoneId> zones, String timezone) {
+        String id = (timezone == null || timezone.isEmpty()) ? DEFAULT_TIMEZONE : timezone;
+        return zones.computeIfAbsent(id, key -> {
+            try {
+                return ZoneId.of(key);
+            } catch (DateTimeException e) {
+                log.warn("Zona horaria no válida '{}', usando {}", key, DEFAULT_TIMEZONE);
+                return ZoneId.of(DEFAULT_TIMEZONE);
+            }
+        });
+    }
+
+    private LocalTime parseTime(String value, NotificationPreferences pref) {
+        try {
+            return LocalTime.parse(value).withSecond(0).withNano(0);
+        } catch (Exception e) {
+            log.warn("Hora de resumen no válida '{}' en preferencias {}", value, pref.getId());
+            return null;
+        }
+    }
+
+    private DayOfWeek parseDay(String value, NotificationPreferences pref) {
+        try {
+            return DayOfWeek.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (Exception e) {
+            log.warn("Día de resumen no válido '{}' en preferencias {}", value, pref.getId());
+            return null;
+        }
+    }
+
+    private enum SummaryKind { DAILY, WEEKLY }
+
+    /**
+     * Identity of a bucket: summary kind, timezone, local time and, for weekly summaries, day.
+     */
+    private static final class BucketKey {
+        private final SummaryKind kind;
+        private final ZoneId zone;
+        private final LocalTime time;
+        private final DayOfWeek day;
+
+        private BucketKey(SummaryKind kind, ZoneId zone, LocalTime time, DayOfWeek day) {
+            this.kind = kind;
+            this.zone = zone;
+            this.time = time;
+            this.day = day;
+        }
+
+        /**
+         * Next instant strictly after {@code now} matching this bucket's local schedule.
+         */
+        private Instant nextFireAfter(Instant now) {
+            LocalDate date = now.atZone(zone).toLocalDate();
+            if (day != null) {
+                date = date.with(TemporalAdjusters.nextOrSame(day));
+            }
+            ZonedDateTime candidate = ZonedDateTime.of(date, time, zone);
+            while (!candidate.toInstant().isAfter(now)) {
+                date = date.plusDays(day != null ? 7 : 1);
+                candidate = ZonedDateTime.of(date, time, zone);
+            }
+            return candidate.toInstant();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof BucketKey)) return false;
+            BucketKey other = (BucketKey) o;
+            return kind == other.kind && zone.equals(other.zone) && time.equals(other.time) && day == other.day;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, zone, time, day);
+        }
+
+        @Override
+        public String toString() {
+            return kind + " " + zone + " " + time + (day != null ? " " + day : "");
+        }
+    }
+
+    /**
+     * Users sharing a bucket and the bucket's next fire instant.
+     */
+    private static final class Bucket {
+        private final BucketKey key;
+        private final List<NotificationPreferences> members;
+        private volatile Instant nextFire;
+
+        private Bucket(BucketKey key, List<NotificationPreferences> members, Instant nextFire) {
+            this.key = key;
+            this.members = Collections.unmodifiableList(members);
+            this.nextFire = nextFire;
+        }
+    }
+}
@@ -10,6 +10,7 @@ import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
 import java.lang.management.RuntimeMXBean;
 import java.util.concurrent.TimeUnit;
+import java.time.Duration;
 
 /**
  * Servicio de mantenimiento del sistema que ejecuta tareas de limpieza
@@ -24,6 +25,9 @@ public class SystemMaintenanceService {
     
     @Autowired(required = false)
     private CacheManager cacheManager;
+
+    @Autowired
+    private ClusterCoordinationService clusterCoordinationService;
     
     // Configuración de mantenimiento
     @Value("${app.maintenance.enabled:true}")
@@ -49,10 +53,11 @@ public class SystemMaintenanceService {
         try {
             log.info("Iniciando mantenimiento diario del sistema");
             
-            // Limpieza de logs de auditoría
-            auditLogService.performLogCleanup();
+            // Limpieza de logs de auditoría: mismo lease que la limpieza programada de AuditLogService
+            clusterCoordinationService.runExclusively(AuditLogService.CLEANUP_LEASE,
+                Duration.ofMinutes(30), Duration.ofMinutes(5), auditLogService::performLogCleanup);
             
-            // Limpieza de caché si está habilitada
+            // La caché y la memoria son locales a cada nodo
             if (cacheCleanupEnabled) {
                 cleanupCache();
             }
@@ -145,8 +150,9 @@ public class SystemMaintenanceService {
         try {
             log.info("Iniciando mantenimiento semanal del sistema");
             
-            // Limpieza más agresiva de logs (mantener solo 7 días)
-            auditLogService.manualLogCleanup(7);
+            // Limpieza más agresiva de logs (mantener solo 7 días), solo en un nodo del clúster
+            clusterCoordinationService.runExclusively(AuditLogService.CLEANUP_LEASE,
+                Duration.ofMinutes(30), Duration.ofMinutes(5), () -> auditLogService.manualLogCleanup(7));
             
             // Limpieza completa de caché
             if (cacheCleanupEnabled) {
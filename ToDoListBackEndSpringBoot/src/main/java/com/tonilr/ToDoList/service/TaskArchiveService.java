@@ -0,0 +1,132 @@
+package com.tonilr.ToDoList.service;
+
+import com.tonilr.ToDoList.repository.ArchivedTaskRepository;
+import com.tonilr.ToDoList.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import lombok.extern.slf4j.Slf4j;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Service moving old completed tasks from the hot {@code tasks} table to {@code tasks_archive}.
+ * Each chunk is copied and deleted in its own short transaction, so the hot table
+ * shrinks without long locks; long runs are resumed on the next execution.
+ * A shard stops being archived while one of its users is being moved to another shard.
+ */
+@Service
+@Slf4j
+public class TaskArchiveService {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ArchivedTaskRepository archivedTaskRepository;
+
+    @Autowired
+    private ClusterCoordinationService clusterCoordinationService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired(required = false)
+    private CacheManager cacheManager;
+
+    // Las tareas completadas hace más de estos días pasan al archivo
+    @Value("${app.tasks.archive.after-days:90}")
+    private int archiveAfterDays;
+
+    // Tareas archivadas por transacción
+    @Value("${app.tasks.archive.batch-size:500}")
+    private int batchSize;
+
+    // Pausa entre lotes para dejar paso a otras transacciones
+    @Value("${app.tasks.archive.pause-ms:50}")
+    private long pauseMillis;
+
+    // Tiempo máximo por ejecución; el resto continúa en la siguiente
+    @Value("${app.tasks.archive.max-run-ms:300000}")
+    private long maxRunMillis;
+
+    /**
+     * Nightly archival run, on one node at a time.
+     */
+    @Scheduled(cron = "${app.tasks.archive.cron:0 45 3 * * *}")
+    public void archiveCompletedTasks() {
+        clusterCoordinationService.runExclusively("taskArchive",
+            Duration.ofMillis(maxRunMillis).plusMinutes(5), Duration.ofMinutes(5), () -> {
+                long deadline = System.currentTimeMillis() + maxRunMillis;
+                LocalDateTime cutoff = LocalDateTime.now().minusDays(archiveAfterDays);
+                shardRouter.forEachShard(() -> archiveCompletedBefore(cutoff, deadline));
+            });
+    }
+
+    /**
+     * Archives, chunk by chunk, the tasks completed before the cutoff.
+     * @param cutoff Tasks completed before this instant are archived
+     * @param deadline Time limit in epoch milliseconds
+     * @return Number of archived tasks
+     */
+    public long archiveCompletedBefore(LocalDateTime cutoff, long deadline) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        PageRequest chunk = PageRequest.of(0, Math.max(1, batchSize));
+        long archived = 0;
+        while (System.currentTimeMillis() < deadline) {
+            // Las filas de un usuario que se mueve se están copiando: se archivan en la siguiente ejecución
+            int shard = shardRouter.currentShard();
+            if (shardRouter.hasMoveInProgress(shard)) {
+                log.info("Archivo del shard {} pausado: hay un usuario moviéndose de shard", shard);
+                break;
+            }
+            Integer moved = transaction.execute(status -> {
+                List<Long> ids = taskRepository.findArchivableIds(cutoff, chunk);
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                archivedTaskRepository.copyFromTasks(ids, LocalDateTime.now());
+                return taskRepository.deleteByIdIn(ids);
+            });
+            if (moved == null || moved == 0) {
+                break;
+            }
+            archived += moved;
+            if (pauseMillis > 0) {
+                try {
+                    Thread.sleep(pauseMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        if (archived > 0) {
+            evictCaches();
+            log.info("{} tareas completadas antes de {} movidas al archivo", archived, cutoff);
+        }
+        return archived;
+    }
+
+    private void evictCaches() {
+        if (cacheManager == null) {
+            return;
+        }
+        for (String name : List.of("tasks", "taskCounts", "userStats")) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.tonilr.ToDoList.service;
+
+import com.tonilr.ToDoList.repository.ArchivedTaskRepository;
+import com.tonilr.ToDoList.repository.TaskListRepository;
+import com.tonilr.ToDoList.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import lombok.extern.slf4j.Slf4j;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Service purging deleted task lists in the background.
+ * A deleted list is only hidden by the request; this service removes its tasks
+ * in bounded chunks, each in its own short transaction, and finally marks
+ * the list row as purged. Long purges are resumed on the next run. The purged
+ * row is kept as a tombstone, so its owner can still see the deletion finish,
+ * and removed after the retention period.
+ * Lists on a shard with a user move in progress wait until the move ends.
+ */
+@Service
+@Slf4j
+public class TaskListPurgeService {
+
+    @Autowired
+    private TaskListRepository taskListRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ArchivedTaskRepository archivedTaskRepository;
+
+    @Autowired
+    private ClusterCoordinationService clusterCoordinationService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired(required = false)
+    private CacheManager cacheManager;
+
+    // Tareas borradas por sentencia DELETE
+    @Value("${app.lists.purge.chunk-size:500}")
+    private int chunkSize;
+
+    // Pausa entre lotes para dejar paso a otras transacciones
+    @Value("${app.lists.purge.pause-ms:50}")
+    private long pauseMillis;
+
+    // Tiempo máximo de purga por ejecución; el resto continúa en la siguiente
+    @Value("${app.lists.purge.max-run-ms:60000}")
+    private long maxRunMillis;
+
+    // Horas que se conserva la lápida de una lista purgada
+    @Value("${app.lists.purge.tombstone-retention-hours:24}")
+    private long tombstoneRetentionHours;
+
+    /**
+     * Purges the lists marked for deletion, on one node at a time.
+     */
+    @Scheduled(fixedDelayString = "${app.lists.purge.interval-ms:5000}")
+    public void purgePendingLists() {
+        List<Long> pending = shardRouter.collectFromShards(taskListRepository::findPendingDeletionIds);
+        if (pending.isEmpty()) {
+            return;
+        }
+        clusterCoordinationService.runExclusively("taskListPurge",
+            Duration.ofMillis(maxRunMillis).plusMinutes(5), Duration.ZERO, () -> {
+                long deadline = System.currentTimeMillis() + maxRunMillis;
+                for (Long listId : pending) {
+                    int shard = shardRouter.shardForId(listId);
+                    if (shardRouter.hasMoveInProgress(shard)) {
+                        continue;
+                    }
+                    boolean purged = shardRouter.callOnShard(shard, () -> purgeList(listId, deadline));
+                    if (!purged) {
+                        break;
+                    }
+                }
+            });
+    }
+
+    /**
+     * Deletes the tasks of a hidden list chunk by chunk, then marks the list as purged.
+     * @param listId ID of the list marked for deletion
+     * @param deadline Time limit in epoch milliseconds
+     * @return true if the list was fully purged before the deadline
+     */
+    public boolean purgeList(Long listId, long deadline) {
+        taskListRepository.findById(listId).ifPresent(list -> {
+            if (list.getDeletionTotal() == null) {
+                taskListRepository.updateDeletionTotal(listId, taskRepository.countByTaskListId(listId));
+            }
+        });
+
+        PageRequest chunk = PageRequest.of(0, Math.max(1, chunkSize));
+        long deleted = 0;
+        while (true) {
+            List<Long> ids = taskRepository.findIdsByTaskListId(listId, chunk);
+            if (ids.isEmpty()) {
+                archivedTaskRepository.deleteByTaskListId(listId);
+                taskListRepository.markPurged(listId, LocalDateTime.now());
+                evictCaches();
+                log.info("Lista {} purgada ({} tareas en esta ejecución)", listId, deleted);
+                return true;
+            }
+            deleted += taskRepository.deleteByIdIn(ids);
+
+            if (shardRouter.hasMoveInProgress(shardRouter.currentShard())) {
+                log.info("Purga de la lista {} pausada tras {} tareas: hay un usuario moviéndose de shard", listId, deleted);
+                return false;
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                log.info("Purga de la lista {} pausada tras {} tareas, se reanuda en la siguiente ejecución", listId, deleted);
+                return false;
+            }
+            if (pauseMillis > 0) {
+                try {
+                    Thread.sleep(pauseMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the tombstones of lists purged before the retention period, on one node at a time.
+     */
+    @Scheduled(cron = "${app.lists.purge.tombstone-cleanup.cron:0 15 * * * *}")
+    public void purgeTombstones() {
+        clusterCoordinationService.runExclusively("taskListTombstoneCleanup",
+            Duration.ofMinutes(10), Duration.ZERO, () -> {
+                LocalDateTime cutoff = LocalDateTime.now().minusHours(tombstoneRetentionHours);
+                shardRouter.forEachShard(() -> {
+                    int deleted = taskListRepository.deletePurgedBefore(cutoff);
+                    if (deleted > 0) {
+                        log.info("Eliminadas {} lápidas de listas purgadas", deleted);
+                    }
+                });
+            });
+    }
+
+    private void evictCaches() {
+        if (cacheManager == null) {
+            return;
+        }
+        for (String name : List.of("taskLists", "tasks", "taskCounts")) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+}
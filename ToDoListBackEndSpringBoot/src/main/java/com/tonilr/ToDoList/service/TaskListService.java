@@ -1,23 +1,35 @@
 package com.tonilr.ToDoList.service;
 
 import com.tonilr.ToDoList.dto.DTOMapper;
+import com.tonilr.ToDoList.dto.TaskDTO;
 import com.tonilr.ToDoList.dto.TaskListDTO;
+import com.tonilr.ToDoList.dto.TaskListDeletionDTO;
+import com.tonilr.ToDoList.dto.TaskListSummaryDTO;
 import com.tonilr.ToDoList.exception.BadRequestException;
 import com.tonilr.ToDoList.exception.ResourceNotFoundException;
 import com.tonilr.ToDoList.exception.UnauthorizedException;
 import com.tonilr.ToDoList.model.TaskList;
 import com.tonilr.ToDoList.model.User;
 import com.tonilr.ToDoList.repository.TaskListRepository;
+import com.tonilr.ToDoList.repository.TaskRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.CacheEvict;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Service class for managing task list operations.
@@ -25,11 +37,17 @@ import java.util.Collections;
  * with proper authorization checks, caching, and audit logging.
  */
 @Service
+@Timed(value = "todolist.service", percentiles = {0.5, 0.95, 0.99})
 public class TaskListService {
     private static final Logger log = LoggerFactory.getLogger(TaskListService.class);
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private TaskListRepository taskListRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
     
     @Autowired
     private UserService userService;
@@ -46,13 +64,16 @@ public class TaskListService {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private CacheManager cacheManager;
+
     /**
      * Creates a new task list for the specified user.
      * @param taskListDTO Task list data to create
      * @param username Username of the list owner
      * @return Created task list DTO
      */
-    @CacheEvict(value = {"taskLists", "tasks"}, allEntries = true)
+    @CacheEvict(value = {"taskLists", "tasks", "taskCounts"}, allEntries = true)
     @Transactional
     public TaskListDTO createTaskList(TaskListDTO taskListDTO, String username) {
         User owner = userService.findByUsername(username);
@@ -77,6 +98,7 @@ public class TaskListService {
      * @return List of task list DTOs
      */
     @Cacheable(value = "taskLists", key = "'user_' + #username")
+    @Transactional(readOnly = true)
     public List<TaskListDTO> getUserTaskLists(String username) {
         //log.info("🔍 ===== INICIO TaskListService.getUserTaskLists =====");
         //log.info(" Username recibido: {}", username);
@@ -124,16 +146,72 @@ public class TaskListService {
         }
     }
 
+    /**
+     * Retrieves a lightweight summary of the user's task lists with task counts,
+     * without loading the tasks themselves.
+     * Task and completed counts are cached until the next write; the overdue count
+     * depends on the current time, so it is queried on every call.
+     * @param username Username to get task lists for
+     * @return List of task list summaries
+     */
+    @Transactional(readOnly = true)
+    public List<TaskListSummaryDTO> getUserTaskListSummaries(String username) {
+        User user = userService.findByUsername(username);
+        if (user == null) {
+            return Collections.emptyList();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Cache cache = cacheManager.getCache("taskCounts");
+        List<TaskListSummaryDTO> cached = cache != null
+            ? cache.get("lists_summary_" + username, () -> taskListRepository.findSummariesByOwnerId(user.getId(), now))
+            : taskListRepository.findSummariesByOwnerId(user.getId(), now);
+        if (cached == null || cached.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<Long, Long> overdue = new HashMap<>();
+        for (Object[] row : taskListRepository.countOverdueByOwnerId(user.getId(), now)) {
+            overdue.put((Long) row[0], (Long) row[1]);
+        }
+        // Copias: las entradas de la caché no se modifican
+        return cached.stream()
+            .map(summary -> new TaskListSummaryDTO(summary.getId(), summary.getName(), summary.getDescription(),
+                summary.getTaskCount(), summary.getCompletedCount(), overdue.get(summary.getId())))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Retrieves one page of the tasks of a task list, in manual order, with authorization checks.
+     * @param listId ID of the task list
+     * @param page Page number, starting at 0
+     * @param size Page size
+     * @return Page of task DTOs
+     */
+    @Transactional(readOnly = true)
+    public Page<TaskDTO> getTaskListTasks(Long listId, int page, int size) {
+        TaskList taskList = taskListRepository.findById(listId)
+            .filter(list -> list.getDeletedAt() == null)
+            .orElseThrow(() -> new ResourceNotFoundException("Lista no encontrada con ID: " + listId));
+        if (!securityService.isOwner(taskList.getOwner().getId())) {
+            throw new UnauthorizedException("No tienes permiso para ver esta lista");
+        }
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Paginación no válida: page >= 0 y 1 <= size <= " + MAX_PAGE_SIZE);
+        }
+        return taskRepository.findByTaskListIdInManualOrder(listId, PageRequest.of(page, size)).map(dtoMapper::toTaskDTO);
+    }
+
     /**
      * Updates an existing task list with authorization checks.
      * @param listId ID of the task list to update
      * @param taskListDetails Updated task list data
      * @return Updated task list DTO
      */
-    @CacheEvict(value = {"taskLists", "tasks"}, allEntries = true)
+    @CacheEvict(value = {"taskLists", "tasks", "taskCounts"}, allEntries = true)
     @Transactional
     public TaskListDTO updateTaskList(Long listId, TaskListDTO taskListDetails) {
         TaskList taskList = taskListRepository.findById(listId)
+            .filter(list -> list.getDeletedAt() == null)
             .orElseThrow(() -> new ResourceNotFoundException("Lista no encontrada con ID: " + listId));
 
         if (!securityService.isOwner(taskList.getOwner().getId())) {
@@ -154,18 +232,53 @@ public class TaskListService {
 
     /**
      * Deletes a task list with authorization checks.
+     * The list is hidden immediately and its tasks are purged in the background
+     * by {@link TaskListPurgeService}, so the call doesn't depend on the list size.
      * @param listId ID of the task list to delete
+     * @return Deletion status
      */
-    @CacheEvict(value = {"taskLists", "tasks"}, allEntries = true)
+    @CacheEvict(value = {"taskLists", "tasks", "taskCounts"}, allEntries = true)
     @Transactional
-    public void deleteTaskList(Long listId) {
+    public TaskListDeletionDTO deleteTaskList(Long listId) {
         TaskList taskList = taskListRepository.findById(listId)
             .orElseThrow(() -> new ResourceNotFoundException("Lista no encontrada con ID: " + listId));
         if (!securityService.isOwner(taskList.getOwner().getId())) {
             throw new UnauthorizedException("No tienes permiso para eliminar esta lista");
         }
-        auditLogService.logAction(taskList.getOwner(), "ELIMINAR_LISTA", "Lista eliminada: " + taskList.getName());
-        taskListRepository.delete(taskList);
+        if (taskList.getDeletedAt() == null) {
+            taskList.setDeletedAt(LocalDateTime.now());
+            taskListRepository.save(taskList);
+            auditLogService.logAction(taskList.getOwner(), "ELIMINAR_LISTA", "Lista eliminada: " + taskList.getName());
+        }
+        return new TaskListDeletionDTO(listId, TaskListDeletionDTO.STATUS_PENDING, taskList.getDeletionTotal(), null);
+    }
+
+    /**
+     * Reports the progress of a background list deletion, with authorization checks.
+     * A purged list keeps its row as a tombstone for a while, so its owner sees DONE;
+     * once the tombstone is removed the list is reported as not found.
+     * @param listId ID of the deleted task list
+     * @return Deletion status; DONE when the purge finished or no tasks remain
+     */
+    @Transactional(readOnly = true)
+    public TaskListDeletionDTO getDeletionStatus(Long listId) {
+        TaskList taskList = taskListRepository.findById(listId)
+            .orElseThrow(() -> new ResourceNotFoundException("Lista no encontrada con ID: " + listId));
+        if (!securityService.isOwner(taskList.getOwner().getId())) {
+            throw new UnauthorizedException("No tienes permiso para ver esta lista");
+        }
+        if (taskList.getDeletedAt() == null) {
+            throw new BadRequestException("La lista no está siendo eliminada");
+        }
+        if (taskList.getPurgedAt() != null) {
+            return new TaskListDeletionDTO(listId, TaskListDeletionDTO.STATUS_DONE, taskList.getDeletionTotal(), 0L);
+        }
+        if (taskList.getDeletionTotal() == null) {
+            return new TaskListDeletionDTO(listId, TaskListDeletionDTO.STATUS_PENDING, null, null);
+        }
+        long remaining = taskRepository.countByTaskListId(listId);
+        String status = remaining == 0 ? TaskListDeletionDTO.STATUS_DONE : TaskListDeletionDTO.STATUS_IN_PROGRESS;
+        return new TaskListDeletionDTO(listId, status, taskList.getDeletionTotal(), remaining);
     }
 
     /**
@@ -175,6 +288,7 @@ public class TaskListService {
      * @return List of matching task list DTOs
      */
     @Cacheable(value = "taskLists", key = "'user_' + #username + '_search_' + #name")
+    @Transactional(readOnly = true)
     public List<TaskListDTO> searchUserTaskListsByName(String username, String name) {
         User owner = userService.findByUsername(username);
         return taskListRepository.findByOwnerAndNameContainingIgnoreCase(owner, name)
@@ -0,0 +1,66 @@
+package com.tonilr.ToDoList.service;
+
+import com.tonilr.ToDoList.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import lombok.extern.slf4j.Slf4j;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Background jobs respacing task ranks.
+ * Lists flagged by recent moves are handled every few seconds on the node that
+ * saw the move; a daily sweep under the cluster lease catches unranked tasks
+ * and anything the flags missed. Lists on a shard with a user move in progress are
+ * skipped; the copied lists get new ids and the sweep picks them up if needed.
+ */
+@Service
+@Slf4j
+public class TaskRankRebalanceService {
+
+    @Autowired
+    private TaskRankService taskRankService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ClusterCoordinationService clusterCoordinationService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    /**
+     * Respaces the lists flagged by moves on this node.
+     */
+    @Scheduled(fixedDelayString = "${app.tasks.rank.rebalance-interval-ms:30000}")
+    public void rebalanceFlaggedLists() {
+        rebalance(taskRankService.drainFlaggedLists());
+    }
+
+    /**
+     * Daily sweep for lists with unranked tasks or over-long ranks.
+     */
+    @Scheduled(cron = "${app.tasks.rank.sweep.cron:0 15 4 * * *}")
+    public void sweep() {
+        clusterCoordinationService.runExclusively("taskRankSweep", Duration.ofHours(1), Duration.ofMinutes(5), () ->
+            rebalance(shardRouter.collectFromShards(() ->
+                taskRepository.findTaskListIdsNeedingRebalance(taskRankService.getMaxRankLength()))));
+    }
+
+    private void rebalance(List<Long> listIds) {
+        for (Long listId : listIds) {
+            int shard = shardRouter.shardForId(listId);
+            try {
+                if (shardRouter.hasMoveInProgress(shard)) {
+                    log.info("Lista {} no reespaciada: hay un usuario moviéndose desde el shard {}", listId, shard);
+                    continue;
+                }
+                shardRouter.runOnShard(shard, () -> taskRankService.rebalanceList(listId));
+            } catch (Exception e) {
+                log.error("Error reespaciando rangos de la lista {}: {}", listId, e.getMessage());
+            }
+        }
+    }
+}
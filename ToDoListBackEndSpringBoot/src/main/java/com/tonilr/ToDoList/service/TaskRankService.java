@@ -0,0 +1,229 @@
+package com.tonilr.ToDoList.service;
+
+import com.tonilr.ToDoList.dto.DTOMapper;
+import com.tonilr.ToDoList.dto.MoveTaskDTO;
+import com.tonilr.ToDoList.dto.TaskDTO;
+import com.tonilr.ToDoList.exception.BadRequestException;
+import com.tonilr.ToDoList.exception.ResourceNotFoundException;
+import com.tonilr.ToDoList.exception.UnauthorizedException;
+import com.tonilr.ToDoList.model.Task;
+import com.tonilr.ToDoList.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service managing the manual order of tasks inside a task list.
+ * Each task holds a lexicographic fractional rank (digits and lowercase letters),
+ * so moving a task only rewrites that task's rank. Lists whose ranks grow too
+ * long are respaced by {@link TaskRankRebalanceService}.
+ */
+@Service
+@Slf4j
+public class TaskRankService {
+
+    private static final String DIGITS = "0123456789abcdefghijklmnopqrstuvwxyz";
+    private static final int BASE = DIGITS.length();
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private SecurityService securityService;
+
+    @Autowired
+    private DTOMapper dtoMapper;
+
+    // Longitud a partir de la cual se reespacian los rangos de la lista
+    @Value("${app.tasks.rank.max-length:24}")
+    private int maxRankLength;
+
+    // Listas con rangos demasiado largos pendientes de reespaciar
+    private final Set<Long> listsToRebalance = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Returns a rank placing a new task at the end of the list.
+     * @param taskListId ID of the task list
+     * @return Rank after the current last task
+     */
+    public String rankAtEnd(Long taskListId) {
+        return between(taskRepository.findMaxRankByTaskListId(taskListId), null);
+    }
+
+    /**
+     * Moves a task between two neighbours of the same list, updating only the moved task.
+     * @param taskId ID of the task to move
+     * @param move Neighbours after the move
+     * @return Moved task DTO
+     */
+    @CacheEvict(value = {"tasks", "taskCounts"}, allEntries = true)
+    @Transactional
+    public TaskDTO moveTask(Long taskId, MoveTaskDTO move) {
+        Task task = taskRepository.findById(taskId)
+            .orElseThrow(() -> new ResourceNotFoundException("Tarea no encontrada con ID: " + taskId));
+        if (!securityService.isOwner(task.getAssignedTo().getId())) {
+            throw new UnauthorizedException("No tienes permiso para mover esta tarea");
+        }
+        if (task.getTaskList() == null) {
+            throw new BadRequestException("La tarea no pertenece a ninguna lista");
+        }
+        Long listId = task.getTaskList().getId();
+        Task previous = findNeighbour(move.getPreviousTaskId(), listId, taskId);
+        Task next = findNeighbour(move.getNextTaskId(), listId, taskId);
+
+        if (!ranksUsable(previous, next)) {
+            // Rangos ausentes (tareas antiguas) o empatados: se reespacia la lista una vez
+            rebalanceList(listId);
+        }
+        String previousRank = previous != null ? previous.getRank() : null;
+        String nextRank = next != null ? next.getRank() : null;
+        if (previousRank != null && nextRank != null && previousRank.compareTo(nextRank) >= 0) {
+            throw new BadRequestException("Las tareas vecinas no están en orden");
+        }
+
+        task.setRank(between(previousRank, nextRank));
+        Task saved = taskRepository.save(task);
+        if (saved.getRank().length() > maxRankLength) {
+            listsToRebalance.add(listId);
+        }
+        return dtoMapper.toTaskDTO(saved);
+    }
+
+    /**
+     * Reassigns evenly spaced, short ranks to every task of a list, keeping the current order.
+     * Unranked tasks go last, ordered by id.
+     * @param taskListId ID of the task list
+     * @return Number of tasks respaced
+     */
+    @CacheEvict(value = {"tasks", "taskCounts"}, allEntries = true)
+    @Transactional
+    public int rebalanceList(Long taskListId) {
+        List<Task> tasks = new ArrayList<>(taskRepository.findByTaskListId(taskListId));
+        tasks.sort(Comparator.comparing(Task::getRank, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Task::getId));
+        List<String> ranks = spread(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            tasks.get(i).setRank(ranks.get(i));
+        }
+        taskRepository.saveAll(tasks);
+        listsToRebalance.remove(taskListId);
+        log.info("Rangos de la lista {} reespaciados ({} tareas)", taskListId, tasks.size());
+        return tasks.size();
+    }
+
+    /**
+     * Takes the lists flagged for rebalancing by recent moves.
+     * @return IDs of the flagged lists
+     */
+    public List<Long> drainFlaggedLists() {
+        List<Long> flagged = new ArrayList<>(listsToRebalance);
+        listsToRebalance.removeAll(flagged);
+        return flagged;
+    }
+
+    public int getMaxRankLength() {
+        return maxRankLength;
+    }
+
+    /**
+     * Returns a rank strictly between two ranks.
+     * @param before Lower bound, or null for the start of the list
+     * @param after Upper bound, or null for the end of the list
+     * @return New rank; never ends in the lowest digit, so there is always room before it
+     */
+    public static String between(String before, String after) {
+        if (before != null && after != null && before.compareTo(after) >= 0) {
+            throw new IllegalArgumentException("Rango inferior no menor que el superior: " + before + " / " + after);
+        }
+        StringBuilder rank = new StringBuilder();
+        String upper = after;
+        int i = 0;
+        while (true) {
+            int low = before != null && i < before.length() ? digit(before.charAt(i)) : 0;
+            int high = upper != null && i < upper.length() ? digit(upper.charAt(i)) : BASE;
+            if (low == high) {
+                rank.append(DIGITS.charAt(low));
+                i++;
+                continue;
+            }
+            int mid = (low + high) / 2;
+            if (mid > low) {
+                return rank.append(DIGITS.charAt(mid)).toString();
+            }
+            // Dígitos consecutivos: seguimos por el inferior y el superior deja de acotar
+            rank.append(DIGITS.charAt(low));
+            upper = null;
+            i++;
+        }
+    }
+
+    /**
+     * Returns {@code count} fixed-width ranks evenly spread over the key space.
+     * @param count Number of ranks
+     * @return Ranks in ascending order
+     */
+    public static List<String> spread(int count) {
+        int width = 1;
+        long space = BASE;
+        while (space <= count + 1L) {
+            width++;
+            space *= BASE;
+        }
+        // Un dígito extra de margen para futuras inserciones
+        width++;
+        space *= BASE;
+        long step = space / (count + 1L);
+        List<String> ranks = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            ranks.add(encode(step * i, width));
+        }
+        return ranks;
+    }
+
+    private Task findNeighbour(Long neighbourId, Long listId, Long taskId) {
+        if (neighbourId == null) {
+            return null;
+        }
+        if (neighbourId.equals(taskId)) {
+            throw new BadRequestException("Una tarea no puede ser su propia vecina");
+        }
+        Task neighbour = taskRepository.findById(neighbourId)
+            .orElseThrow(() -> new ResourceNotFoundException("Tarea no encontrada con ID: " + neighbourId));
+        if (neighbour.getTaskList() == null || !listId.equals(neighbour.getTaskList().getId())) {
+            throw new BadRequestException("Las tareas vecinas deben pertenecer a la misma lista");
+        }
+        return neighbour;
+    }
+
+    private boolean ranksUsable(Task previous, Task next) {
+        if ((previous != null && previous.getRank() == null) || (next != null && next.getRank() == null)) {
+            return false;
+        }
+        return previous == null || next == null || previous.getRank().compareTo(next.getRank()) < 0;
+    }
+
+    private static int digit(char c) {
+        int value = DIGITS.indexOf(c);
+        if (value < 0) {
+            throw new IllegalArgumentException("Carácter de rango no válido: " + c);
+        }
+        return value;
+    }
+
+    private static String encode(long value, int width) {
+        char[] chars = new char[width];
+        for (int i = width - 1; i >= 0; i--) {
+            chars[i] = DIGITS.charAt((int) (value % BASE));
+            value /= BASE;
+        }
+        return new String(chars);
+    }
+}
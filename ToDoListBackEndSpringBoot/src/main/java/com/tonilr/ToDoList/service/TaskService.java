@@ -8,15 +8,18 @@ import com.tonilr.ToDoList.exception.UnauthorizedException;
 import com.tonilr.ToDoList.model.Task;
 import com.tonilr.ToDoList.model.TaskList;
 import com.tonilr.ToDoList.model.User;
+import com.tonilr.ToDoList.repository.ArchivedTaskRepository;
 import com.tonilr.ToDoList.repository.TaskListRepository;
 import com.tonilr.ToDoList.repository.TaskRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.Date;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -31,9 +34,12 @@ import java.util.Collections;
  * and filtering tasks with proper authorization, caching, and audit logging.
  */
 @Service
+@Timed(value = "todolist.service", percentiles = {0.5, 0.95, 0.99})
 public class TaskService {
     private static final Logger log = LoggerFactory.getLogger(TaskService.class);
 
+    private static final Set<String> DATE_FILTERS = Set.of("all", "today", "week", "month", "overdue");
+
     @Autowired
     private TaskRepository taskRepository;
     
@@ -50,11 +56,17 @@ public class TaskService {
     private AuditLogService auditLogService;
 
     @Autowired
-    private EmailService emailService;
+    private NotificationDigestService notificationDigestService;
+
+    @Autowired
+    private TaskRankService taskRankService;
 
     @Autowired
     private TaskListRepository taskListRepository;
 
+    @Autowired
+    private ArchivedTaskRepository archivedTaskRepository;
+
     /**
      * Creates a new task for the specified user with list assignment and timezone handling.
      * @param taskDTO Task data to create
@@ -69,10 +81,14 @@ public class TaskService {
         task.setAssignedTo(user);
         task.setUser(user);
         task.setCreatedAt(new Date());
+        if (task.isCompleted()) {
+            task.setCompletedAt(LocalDateTime.now());
+        }
         
         // Si hay un taskListId, asignar la tarea a esa lista
         if (taskDTO.getTaskListId() != null) {
             TaskList taskList = taskListRepository.findById(taskDTO.getTaskListId())
+                .filter(list -> list.getDeletedAt() == null)
                 .orElseThrow(() -> new ResourceNotFoundException("Lista no encontrada"));
             
             // Verificar permisos: el usuario debe ser propietario O usuario asignado
@@ -84,6 +100,8 @@ public class TaskService {
             }
             
             task.setTaskList(taskList);
+            // Las tareas nuevas se añaden al final del orden manual
+            task.setRank(taskRankService.rankAtEnd(taskList.getId()));
         }
         
         // Convertir la fecha a la zona horaria del usuario
@@ -102,10 +120,12 @@ public class TaskService {
 
         // Notificación si la tarea es de alta prioridad
         if (task.getPriority() == 1) {
-            emailService.sendSimpleEmail(
+            // Se agrupa con el resto de notificaciones del usuario en un único email
+            notificationDigestService.enqueue(
+                user,
                 user.getEmail(),
-                "Nueva tarea importante creada",
-                "Has creado una tarea de alta prioridad: " + task.getTitle()
+                "Nuevas tareas de alta prioridad",
+                Collections.singletonList(savedTask)
             );
         }
 
@@ -119,6 +139,7 @@ public class TaskService {
      * @return List of cacheable task DTOs
      */
     @Cacheable(value = "tasks", key = "'user_' + #username + '_all'")
+    @Transactional(readOnly = true)
     public List<CacheableTaskDTO> getUserTasks(String username) {
         User user = userService.findByUsername(username);
         List<Task> tasks = taskRepository.findByAssignedTo(user);
@@ -142,6 +163,7 @@ public class TaskService {
      * @return List of cacheable task DTOs
      */
     @Cacheable(value = "tasks", key = "'user_' + #username + '_status_' + #showCompleted")
+    @Transactional(readOnly = true)
     public List<CacheableTaskDTO> getUserTasksByStatus(String username, boolean showCompleted) {
         User user = userService.findByUsername(username);
         List<Task> tasks = taskRepository.findByAssignedToAndCompleted(user, showCompleted);
@@ -158,6 +180,24 @@ public class TaskService {
             .collect(Collectors.toList());
     }
 
+    /**
+     * Retrieves the archived tasks of a user, only used when the client asks for history.
+     * @param username Username to get archived tasks for
+     * @param taskListId Optional task list to restrict to
+     * @return List of cacheable task DTOs flagged as archived
+     */
+    @Cacheable(value = "tasks", key = "'user_' + #username + '_archived_' + #taskListId")
+    @Transactional(readOnly = true)
+    public List<CacheableTaskDTO> getArchivedTasks(String username, Long taskListId) {
+        User user = userService.findByUsername(username);
+        return (taskListId != null
+                ? archivedTaskRepository.findByAssignedToAndTaskListId(user, taskListId)
+                : archivedTaskRepository.findByAssignedTo(user))
+            .stream()
+            .map(task -> new CacheableTaskDTO(dtoMapper.toTaskDTO(task)))
+            .collect(Collectors.toList());
+    }
+
     /**
      * Retrieves tasks by priority level for a user with caching.
      * @param username Username to get tasks for
@@ -165,6 +205,7 @@ public class TaskService {
      * @return List of cacheable task DTOs
      */
     @Cacheable(value = "tasks", key = "'user_' + #username + '_priority_' + #priority")
+    @Transactional(readOnly = true)
     public List<CacheableTaskDTO> getUserTasksByPriority(String username, int priority) {
         User user = userService.findByUsername(username);
         List<Task> tasks = taskRepository.findByAssignedToAndPriority(user, priority);
@@ -184,6 +225,7 @@ public class TaskService {
      * @return List of task DTOs
      */
     @Cacheable(value = "tasks", key = "'user_' + #username + '_duedate_' + #dueDate")
+    @Transactional(readOnly = true)
     public List<TaskDTO> getUserTasksByDueDate(String username, Date dueDate) {
         User user = userService.findByUsername(username);
         LocalDateTime localDateTime = dueDate.toInstant()
@@ -202,6 +244,7 @@ public class TaskService {
      * @return List of cacheable task DTOs
      */
     @Cacheable(value = "tasks", key = "'user_' + #username + '_search_' + #title")
+    @Transactional(readOnly = true)
     public List<CacheableTaskDTO> searchUserTasksByTitle(String username, String title) {
         User user = userService.findByUsername(username);
         List<Task> tasks = taskRepository.findByAssignedToAndTitleContainingIgnoreCase(user, title);
@@ -239,6 +282,9 @@ public class TaskService {
         // Actualizar la tarea
         task.setTitle(taskDetails.getTitle());
         task.setDescription(taskDetails.getDescription());
+        if (taskDetails.isCompleted() != task.isCompleted()) {
+            task.setCompletedAt(taskDetails.isCompleted() ? LocalDateTime.now() : null);
+        }
         task.setCompleted(taskDetails.isCompleted());
         task.setPriority(taskDetails.getPriority());
         task.setDueDate(taskDetails.getDueDate() != null ? 
@@ -272,8 +318,11 @@ public class TaskService {
      * @return Task DTO
      */
     @Cacheable(value = "tasks", key = "'task_' + #taskId")
+    @Transactional(readOnly = true)
     public TaskDTO getTaskDetails(Long taskId, String username) {
+        // Las tareas de una lista pendiente de purga ya no son visibles
         Task task = taskRepository.findById(taskId)
+            .filter(found -> found.getTaskList() == null || found.getTaskList().getDeletedAt() == null)
             .orElseThrow(() -> new ResourceNotFoundException("Tarea no encontrada con ID: " + taskId));
         
         if (!securityService.isOwner(task.getAssignedTo().getId())) {
@@ -287,6 +336,7 @@ public class TaskService {
      * Retrieves filtered tasks based on multiple criteria with caching.
      */
     @Cacheable(value = "tasks", key = "'user_' + #username + '_filtered_' + #search + '_' + #completed + '_' + #priority + '_' + #dateFilter + '_' + #taskListId")
+    @Transactional(readOnly = true)
     public List<CacheableTaskDTO> getFilteredTasks(String search, Boolean completed, String priority, String dateFilter, String username, Long taskListId) {
         try {
             // Validar parámetros de entrada
@@ -294,6 +344,15 @@ public class TaskService {
                 log.error("❌ TaskService - Username es null o vacío en getFilteredTasks");
                 return Collections.emptyList();
             }
+
+            // Los filtros se validan una sola vez aquí: matchesFilters se ejecuta por cada tarea
+            if (priority != null && !priority.equals("all") && !isNumeric(priority)) {
+                log.warn("⚠️ TaskService - Prioridad inválida en filtro: {}", priority);
+                return Collections.emptyList();
+            }
+            if (dateFilter != null && !DATE_FILTERS.contains(dateFilter)) {
+                log.warn("⚠️ TaskService - Filtro de fecha desconocido: {}", dateFilter);
+            }
             
             User user = userService.findByUsername(username);
             if (user == null) {
@@ -334,84 +393,7 @@ public class TaskService {
             // Aplicar filtros adicionales
             List<CacheableTaskDTO> filteredTasks = tasks.stream()
                 .filter(task -> task != null) // Filtrar tareas nulas
-                .filter(task -> {
-                    try {
-                        // Filtro por estado (completed)
-                        if (completed != null) {
-                            if (task.isCompleted() != completed) {
-                                return false;
-                            }
-                        }
-                        
-                        // Filtro por búsqueda (search)
-                        if (search != null && !search.trim().isEmpty()) {
-                            String taskTitle = task.getTitle() != null ? task.getTitle() : "";
-                            String taskDescription = task.getDescription() != null ? task.getDescription() : "";
-                            
-                            if (!taskTitle.toLowerCase().contains(search.toLowerCase()) &&
-                                !taskDescription.toLowerCase().contains(search.toLowerCase())) {
-                                return false;
-                            }
-                        }
-                        
-                        // Filtro por prioridad
-                        if (priority != null && !priority.equals("all")) {
-                            try {
-                                int priorityInt = Integer.parseInt(priority);
-                                if (task.getPriority() != priorityInt) {
-                                    return false;
-                                }
-                            } catch (NumberFormatException e) {
-                                log.warn("⚠️ TaskService - Prioridad inválida en filtro: {}", priority);
-                                return false;
-                            }
-                        }
-                        
-                        // Filtro por fecha
-                        if (dateFilter != null && !dateFilter.equals("all") && task.getDueDate() != null) {
-                            try {
-                                LocalDateTime now = LocalDateTime.now();
-                                LocalDateTime dueDate = task.getDueDate();
-                                
-                                switch (dateFilter) {
-                                    case "today":
-                                        if (!dueDate.toLocalDate().equals(now.toLocalDate())) {
-                                            return false;
-                                        }
-                                        break;
-                                    case "week":
-                                        LocalDateTime weekFromNow = now.plusWeeks(1);
-                                        if (dueDate.isAfter(weekFromNow) || dueDate.isBefore(now)) {
-                                            return false;
-                                        }
-                                        break;
-                                    case "month":
-                                        LocalDateTime monthFromNow = now.plusMonths(1);
-                                        if (dueDate.isAfter(monthFromNow) || dueDate.isBefore(now)) {
-                                            return false;
-                                        }
-                                        break;
-                                    case "overdue":
-                                        if (!dueDate.isBefore(now)) {
-                                            return false;
-                                        }
-                                        break;
-                                    default:
-                                        log.warn("⚠️ TaskService - Filtro de fecha desconocido: {}", dateFilter);
-                                        break;
-                                }
-                            } catch (Exception e) {
-                                log.error("❌ TaskService - Error en filtro de fecha: {}", e.getMessage());
-                                return false;
-                            }
-                        }
-                        
-                        return true;
-                    } catch (Exception e) {
-                        log.error("❌ TaskService - Error aplicando filtros a tarea: {}", e.getMessage());
-                        return false;
-                    }
-                })
+                .filter(task -> matchesFilters(task, search, completed, priority, dateFilter))
                 .map(task -> {
                     try {
                         TaskDTO dto = dtoMapper.toTaskDTO(task);
@@ -443,6 +425,7 @@ public class TaskService {
      * @return List of cacheable task DTOs
      */
     @Cacheable(value = "tasks", key = "'user_' + #username + '_list_' + #listId")
+    @Transactional(readOnly = true)
     public List<CacheableTaskDTO> getTasksByList(Long listId, String username) {
         User user = userService.findByUsername(username);
         List<Task> tasks = taskRepository.findByAssignedToAndTaskListId(user, listId);
@@ -472,4 +455,96 @@ public class TaskService {
             return taskRepository.findAll();
         }
     }
+
+    private static boolean isNumeric(String value) {
+        try {
+            Integer.parseInt(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Filter predicate applied by getFilteredTasks to each task.
+     * @return true if the task passes the status, search, priority and date filters
+     */
+    boolean matchesFilters(Task task, String search, Boolean completed, String priority, String dateFilter) {
+        try {
+            // Filtro por estado (completed)
+            if (completed != null) {
+                if (task.isCompleted() != completed) {
+                    return false;
+                }
+            }
+            
+            // Filtro por búsqueda (search)
+            if (search != null && !search.trim().isEmpty()) {
+                String taskTitle = task.getTitle() != null ? task.getTitle() : "";
+                String taskDescription = task.getDescription() != null ? task.getDescription() : "";
+                
+                if (!taskTitle.toLowerCase().contains(search.toLowerCase()) &&
+                    !taskDescription.toLowerCase().contains(search.toLowerCase())) {
+                    return false;
+                }
+            }
+            
+            // Filtro por prioridad
+            if (priority != null && !priority.equals("all")) {
+                try {
+                    int priorityInt = Integer.parseInt(priority);
+                    if (task.getPriority() != priorityInt) {
+                        return false;
+                    }
+                } catch (NumberFormatException e) {
+                    log.debug("TaskService - Prioridad inválida en filtro: {}", priority);
+                    return false;
+                }
+            }
+            
+            // Filtro por fecha
+            if (dateFilter != null && !dateFilter.equals("all") && task.getDueDate() != null) {
+                try {
+                    LocalDateTime now = LocalDateTime.now();
+                    LocalDateTime dueDate = task.getDueDate();
+                    
+                    switch (dateFilter) {
+                        case "today":
+                            if (!dueDate.toLocalDate().equals(now.toLocalDate())) {
+                                return false;
+                            }
+                            break;
+                        case "week":
+                            LocalDateTime weekFromNow = now.plusWeeks(1);
+                            if (dueDate.isAfter(weekFromNow) || dueDate.isBefore(now)) {
+                                return false;
+                            }
+                            break;
+                        case "month":
+                            LocalDateTime monthFromNow = now.plusMonths(1);
+                            if (dueDate.isAfter(monthFromNow) || dueDate.isBefore(now)) {
+                                return false;
+                            }
+                            break;
+                        case "overdue":
+                            if (!dueDate.isBefore(now)) {
+                                return false;
+                            }
+                            break;
+                        default:
+                            log.debug("TaskService - Filtro de fecha desconocido: {}", dateFilter);
+                            break;
+                    }
+                } catch (Exception e) {
+                    log.error("❌ TaskService - Error en filtro de fecha: {}", e.getMessage());
+                    return false;
+                }
+            }
+            
+            return true;
+        } catch (Exception e) {
+            log.error("❌ TaskService - Error aplicando filtros a tarea: {}", e.getMessage());
+            return false;
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package com.tonilr.ToDoList.service;
 
+import com.tonilr.ToDoList.config.RequestTiming;
 import com.tonilr.ToDoList.exception.BadRequestException;
 import com.tonilr.ToDoList.exception.ResourceNotFoundException;
 import com.tonilr.ToDoList.model.User;
@@ -10,6 +11,7 @@ import com.tonilr.ToDoList.dto.UserCacheDTO;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.redis.core.RedisTemplate;
@@ -21,6 +23,7 @@ import java.time.Duration;
  * and password operations with proper security measures and audit logging.
  */
 @Service
+@Timed(value = "todolist.service", percentiles = {0.5, 0.95, 0.99})
 @Transactional
 public class UserService {
     @Autowired
@@ -38,6 +41,9 @@ public class UserService {
     @Autowired
     private RoleRepository roleRepository;
 
+    @Autowired
+    private ShardRouter shardRouter;
+
     @Autowired(required = false)
     private RedisTemplate<String, Object> redisTemplate;
 
@@ -152,24 +158,28 @@ public class UserService {
      */
     @Transactional(readOnly = true)
     public User findByUsername(String username) {
-        // Primero intentar obtener del caché solo si Redis está disponible
-        if (redisTemplate != null) {
-            UserCacheDTO cachedUser = getUserFromCache(username);
-            if (cachedUser != null) {
-                return cachedUser.toUser();
+        return RequestTiming.time(RequestTiming.USER, () -> {
+            // Primero intentar obtener del caché solo si Redis está disponible
+            if (redisTemplate != null) {
+                UserCacheDTO cachedUser = getUserFromCache(username);
+                if (cachedUser != null) {
+                    return cachedUser.toUser();
+                }
             }
-        }
-        
-        // Si no está en caché o Redis no está disponible, obtener de la base de datos
-        User user = userRepository.findByUsername(username)
-            .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
-        
-        // Guardar en caché solo si Redis está disponible
-        if (redisTemplate != null) {
-            saveUserToCache(user);
-        }
-        
-        return user;
+
+            // Si no está en caché o Redis no está disponible, obtener de la base de datos
+            // Con roles: los necesitan las comprobaciones de administrador y la entrada de caché
+            User user = userRepository.findWithRolesByUsername(username)
+                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+
+            // Guardar en caché solo si Redis está disponible y la fila es la real del directorio:
+            // en los shards de datos es una copia sin contraseña, y la clave no distingue shards
+            if (redisTemplate != null && shardRouter.isOnDirectory()) {
+                saveUserToCache(user);
+            }
+
+            return user;
+        });
     }
 
     /**
@@ -225,6 +235,7 @@ public class UserService {
         
         User updatedUser = userRepository.save(user);
         auditLogService.logAction(updatedUser, "ACTUALIZAR_USUARIO", "Usuario actualizado: " + updatedUser.getUsername());
+        shardRouter.refreshUserStubAfterCommit(updatedUser.getId());
         return updatedUser;
     }
 
@@ -256,7 +267,9 @@ public class UserService {
      * @return Saved user entity
      */
     public User save(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        shardRouter.refreshUserStubAfterCommit(saved.getId());
+        return saved;
     }
 
     /**
@@ -267,6 +280,8 @@ public class UserService {
      */
     public User setTimezone(User user, String timezone) {
         user.setTimezone(timezone);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        shardRouter.refreshUserStubAfterCommit(saved.getId());
+        return saved;
     }
 }
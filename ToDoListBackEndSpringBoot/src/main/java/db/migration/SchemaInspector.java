@@ -0,0 +1,97 @@
+package db.migration;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Consultas al catálogo (information_schema a través de DatabaseMetaData) para las
+ * migraciones en Java: los nombres de columnas, índices y claves foráneas dependen de
+ * cómo se creó la base de datos, así que se buscan en vez de suponerlos.
+ * MySQL y H2 guardan los identificadores con distinto caso: se comparan sin distinguirlo.
+ */
+final class SchemaInspector {
+
+    private final Connection connection;
+    private final DatabaseMetaData metaData;
+
+    SchemaInspector(Connection connection) throws SQLException {
+        this.connection = connection;
+        this.metaData = connection.getMetaData();
+    }
+
+    /**
+     * Nombre real de la tabla en el catálogo, o null si no existe.
+     */
+    String tableName(String table) throws SQLException {
+        try (ResultSet tables = metaData.getTables(connection.getCatalog(), connection.getSchema(), null, new String[] {"TABLE"})) {
+            while (tables.next()) {
+                String name = tables.getString("TABLE_NAME");
+                if (name.equalsIgnoreCase(table)) {
+                    return name;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Nombre real de la columna, o null si la tabla no la tiene.
+     */
+    String columnName(String table, String column) throws SQLException {
+        String actualTable = tableName(table);
+        if (actualTable == null) {
+            return null;
+        }
+        try (ResultSet columns = metaData.getColumns(connection.getCatalog(), connection.getSchema(), actualTable, null)) {
+            while (columns.next()) {
+                String name = columns.getString("COLUMN_NAME");
+                if (name.equalsIgnoreCase(column)) {
+                    return name;
+                }
+            }
+        }
+        return null;
+    }
+
+    boolean hasIndex(String table, String index) throws SQLException {
+        String actualTable = tableName(table);
+        if (actualTable == null) {
+            return false;
+        }
+        try (ResultSet indexes = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), actualTable, false, false)) {
+            while (indexes.next()) {
+                if (index.equalsIgnoreCase(indexes.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Nombre de la clave foránea que sale de table.column, o null si no hay ninguna.
+     */
+    String foreignKeyName(String table, String column) throws SQLException {
+        String actualTable = tableName(table);
+        if (actualTable == null) {
+            return null;
+        }
+        try (ResultSet keys = metaData.getImportedKeys(connection.getCatalog(), connection.getSchema(), actualTable)) {
+            while (keys.next()) {
+                if (column.equalsIgnoreCase(keys.getString("FKCOLUMN_NAME"))) {
+                    return keys.getString("FK_NAME");
+                }
+            }
+        }
+        return null;
+    }
+
+    void execute(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
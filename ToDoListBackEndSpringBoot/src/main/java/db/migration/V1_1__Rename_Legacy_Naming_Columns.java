@@ -0,0 +1,59 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Renombra a snake_case las columnas de bases de datos creadas con ddl-auto=update y las
+ * estrategias de nombres antiguas del perfil prod (ImplicitNamingStrategyLegacyJpaImpl y
+ * PhysicalNamingStrategyStandardImpl). Con ellas los campos sin @Column(name) se creaban
+ * con el nombre del campo (notificationType, dueDateReminder...). Esas bases de datos se
+ * marcan como V1 sin comprobar nada (baseline-on-migrate), así que esta es la primera
+ * migración que se les aplica. En las creadas con V1 o con los nombres por defecto no cambia nada.
+ */
+public class V1_1__Rename_Legacy_Naming_Columns extends BaseJavaMigration {
+
+    private static final String NOTIFICATION_PREFERENCES = "notification_preferences";
+
+    // Campos de NotificationPreferences sin @Column(name): nombre antiguo -> nombre actual
+    private static final Map<String, String> LEGACY_COLUMNS = new LinkedHashMap<>();
+
+    static {
+        LEGACY_COLUMNS.put("notificationType", "notification_type");
+        LEGACY_COLUMNS.put("dueDateReminder", "due_date_reminder");
+        LEGACY_COLUMNS.put("dueDateReminderTime", "due_date_reminder_time");
+        LEGACY_COLUMNS.put("followUpReminder", "follow_up_reminder");
+        LEGACY_COLUMNS.put("followUpDays", "follow_up_days");
+        LEGACY_COLUMNS.put("dailySummary", "daily_summary");
+        LEGACY_COLUMNS.put("dailySummaryTime", "daily_summary_time");
+        LEGACY_COLUMNS.put("weeklySummary", "weekly_summary");
+        LEGACY_COLUMNS.put("weeklySummaryDay", "weekly_summary_day");
+        LEGACY_COLUMNS.put("weeklySummaryTime", "weekly_summary_time");
+        LEGACY_COLUMNS.put("minPriority", "min_priority");
+        LEGACY_COLUMNS.put("weekendNotifications", "weekend_notifications");
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        SchemaInspector schema = new SchemaInspector(context.getConnection());
+        String table = schema.tableName(NOTIFICATION_PREFERENCES);
+        if (table == null) {
+            return;
+        }
+        for (Map.Entry<String, String> column : LEGACY_COLUMNS.entrySet()) {
+            String legacy = schema.columnName(NOTIFICATION_PREFERENCES, column.getKey());
+            // Solo si existe el nombre antiguo y no el nuevo (en H2 sin comillas ambos pueden coincidir en mayúsculas)
+            if (legacy != null && !legacy.equalsIgnoreCase(column.getValue())
+                    && schema.columnName(NOTIFICATION_PREFERENCES, column.getValue()) == null) {
+                schema.execute("ALTER TABLE " + table + " RENAME COLUMN " + legacy + " TO " + column.getValue());
+            }
+        }
+        // Con las estrategias antiguas @Index(columnList = "notification_type") no encontraba la columna
+        if (!schema.hasIndex(NOTIFICATION_PREFERENCES, "idx_notif_prefs_type")) {
+            schema.execute("CREATE INDEX idx_notif_prefs_type ON " + table + "(notification_type)");
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Alinea los índices con los predicados reales de los repositorios.
+ *
+ * En Java y no en SQL porque MySQL no deja borrar el índice que sostiene una clave foránea:
+ * las de tasks.user_id y tasks.task_list_id se borran y se recrean alrededor, y su nombre
+ * depende de quién creó la base de datos (Hibernate genera un hash distinto según la
+ * estrategia de nombres). Se buscan en el catálogo en vez de suponerlos.
+ */
+public class V5__Align_Task_And_Audit_Indexes extends BaseJavaMigration {
+
+    // Nombres de V1, para recrear una clave que no existiera
+    private static final String DEFAULT_USER_FK = "FK6s1ob9k4ihi75xbxe2w0ylsdh";
+    private static final String DEFAULT_TASK_LIST_FK = "FKiinc04iyv3yaa1w86w5p724l7";
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        SchemaInspector schema = new SchemaInspector(context.getConnection());
+
+        // tasks: todas las consultas de usuario filtran por assigned_to_id, no por user_id.
+        // Columnas de igualdad primero y el rango (due_date) al final.
+        schema.execute("CREATE INDEX idx_tasks_assigned_completed_due ON tasks(assigned_to_id, completed, due_date)");
+        schema.execute("CREATE INDEX idx_tasks_assigned_due ON tasks(assigned_to_id, due_date)");
+        schema.execute("CREATE INDEX idx_tasks_assigned_priority ON tasks(assigned_to_id, priority)");
+
+        // user_id sigue necesitando índice propio para su clave foránea.
+        // La clave foránea se recrea para que pase a apoyarse en el índice nuevo.
+        schema.execute("CREATE INDEX idx_tasks_user ON tasks(user_id)");
+        String userFk = dropForeignKey(schema, "user_id");
+        dropIndex(schema, "tasks", "idx_tasks_user_completed");
+        schema.execute("ALTER TABLE tasks ADD CONSTRAINT " + (userFk != null ? userFk : DEFAULT_USER_FK)
+            + " FOREIGN KEY (user_id) REFERENCES users (id)");
+
+        // Ninguna consulta filtra solo por due_date o priority, y (task_list_id, list_rank) cubre task_list_id
+        dropIndex(schema, "tasks", "idx_tasks_due_date");
+        dropIndex(schema, "tasks", "idx_tasks_priority");
+        String taskListFk = dropForeignKey(schema, "task_list_id");
+        dropIndex(schema, "tasks", "idx_tasks_list");
+        schema.execute("ALTER TABLE tasks ADD CONSTRAINT " + (taskListFk != null ? taskListFk : DEFAULT_TASK_LIST_FK)
+            + " FOREIGN KEY (task_list_id) REFERENCES task_lists (id)");
+
+        // task_lists: listas visibles del propietario y cola de purga
+        schema.execute("CREATE INDEX idx_tasklist_owner_deleted ON task_lists(owner_id, deleted_at)");
+        schema.execute("CREATE INDEX idx_tasklist_deleted ON task_lists(deleted_at)");
+        // LIKE '%...%' no puede usar este índice
+        dropIndex(schema, "task_lists", "idx_tasklist_name");
+
+        // audit_logs: limpieza por antigüedad e historial por usuario
+        schema.execute("CREATE INDEX idx_audit_logs_timestamp ON audit_logs(timestamp)");
+        schema.execute("CREATE INDEX idx_audit_logs_user_timestamp ON audit_logs(user_id, timestamp)");
+    }
+
+    // Devuelve el nombre de la clave borrada, o null si la columna no tenía ninguna
+    private String dropForeignKey(SchemaInspector schema, String column) throws Exception {
+        String name = schema.foreignKeyName("tasks", column);
+        if (name != null) {
+            schema.execute("ALTER TABLE tasks DROP FOREIGN KEY " + name);
+        }
+        return name;
+    }
+
+    // Las bases de datos de ddl-auto pueden no tener todos los índices de V1
+    private void dropIndex(SchemaInspector schema, String table, String index) throws Exception {
+        if (schema.hasIndex(table, index)) {
+            schema.execute("DROP INDEX " + index + " ON " + table);
+        }
+    }
+}
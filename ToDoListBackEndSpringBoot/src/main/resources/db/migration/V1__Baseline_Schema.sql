@@ -0,0 +1,105 @@
+-- Esquema base: el que generaba ddl-auto=update antes de introducir Flyway
+-- V1__Baseline_Schema.sql
+
+-- Las bases de datos existentes no ejecutan este script: se marcan como versión 1
+-- (spring.flyway.baseline-on-migrate) y continúan desde V2.
+
+CREATE TABLE users (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    username VARCHAR(255),
+    email VARCHAR(255),
+    password VARCHAR(255),
+    timezone VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE roles (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255) NOT NULL,
+    display_name VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE user_roles (
+    user_id BIGINT NOT NULL,
+    role_id BIGINT NOT NULL,
+    PRIMARY KEY (role_id, user_id)
+);
+
+CREATE TABLE task_lists (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255) NOT NULL,
+    description VARCHAR(255),
+    owner_id BIGINT,
+    user_id BIGINT,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE tasks (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    title VARCHAR(255) NOT NULL,
+    description VARCHAR(255),
+    completed BIT NOT NULL,
+    priority INTEGER NOT NULL,
+    due_date DATETIME(6),
+    created_at DATETIME(6),
+    assigned_to_id BIGINT,
+    user_id BIGINT,
+    task_list_id BIGINT,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE notification_preferences (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT,
+    email VARCHAR(255),
+    notification_type VARCHAR(255),
+    due_date_reminder BIT NOT NULL,
+    due_date_reminder_time VARCHAR(255),
+    follow_up_reminder BIT NOT NULL,
+    follow_up_days INTEGER,
+    daily_summary BIT NOT NULL,
+    daily_summary_time VARCHAR(255),
+    weekly_summary BIT NOT NULL,
+    weekly_summary_day VARCHAR(255),
+    weekly_summary_time VARCHAR(255),
+    min_priority INTEGER,
+    weekend_notifications BIT NOT NULL,
+    daily_reminders BIT,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE audit_logs (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    action VARCHAR(255),
+    timestamp DATETIME(6),
+    details VARCHAR(255),
+    user_id BIGINT,
+    PRIMARY KEY (id)
+);
+
+-- Índices y restricciones únicas
+ALTER TABLE users ADD CONSTRAINT idx_users_username UNIQUE (username);
+ALTER TABLE users ADD CONSTRAINT idx_users_email UNIQUE (email);
+ALTER TABLE roles ADD CONSTRAINT idx_roles_name UNIQUE (name);
+ALTER TABLE notification_preferences ADD CONSTRAINT UK_n2jopkbm16qv3xelbvoyjkd0g UNIQUE (user_id);
+
+CREATE INDEX idx_tasks_user_completed ON tasks(user_id, completed);
+CREATE INDEX idx_tasks_due_date ON tasks(due_date);
+CREATE INDEX idx_tasks_priority ON tasks(priority);
+CREATE INDEX idx_tasks_list ON tasks(task_list_id);
+CREATE INDEX idx_tasklist_user ON task_lists(user_id);
+CREATE INDEX idx_tasklist_name ON task_lists(name);
+CREATE INDEX idx_notif_prefs_user ON notification_preferences(user_id);
+CREATE INDEX idx_notif_prefs_type ON notification_preferences(notification_type);
+
+-- Claves foráneas (mismos nombres que generaba Hibernate)
+ALTER TABLE user_roles ADD CONSTRAINT FKh8ciramu9cc9q3qcqiv4ue8a6 FOREIGN KEY (role_id) REFERENCES roles (id);
+ALTER TABLE user_roles ADD CONSTRAINT FKhfh9dx7w3ubf1co1vdev94g3f FOREIGN KEY (user_id) REFERENCES users (id);
+ALTER TABLE task_lists ADD CONSTRAINT FKmrpyl8tfih9tnkhub6bx7y2l FOREIGN KEY (owner_id) REFERENCES users (id);
+ALTER TABLE task_lists ADD CONSTRAINT FKo8a1kdwjs23fwdyp438v7uf6m FOREIGN KEY (user_id) REFERENCES users (id);
+ALTER TABLE tasks ADD CONSTRAINT FK4516wfa828r15k9u3iw5er4vi FOREIGN KEY (assigned_to_id) REFERENCES users (id);
+ALTER TABLE tasks ADD CONSTRAINT FKiinc04iyv3yaa1w86w5p724l7 FOREIGN KEY (task_list_id) REFERENCES task_lists (id);
+ALTER TABLE tasks ADD CONSTRAINT FK6s1ob9k4ihi75xbxe2w0ylsdh FOREIGN KEY (user_id) REFERENCES users (id);
+ALTER TABLE notification_preferences ADD CONSTRAINT FKt9qjvmcl36i14utm5uptyqg84 FOREIGN KEY (user_id) REFERENCES users (id);
+ALTER TABLE audit_logs ADD CONSTRAINT FKjs4iimve3y0xssbtve5ysyef0 FOREIGN KEY (user_id) REFERENCES users (id);
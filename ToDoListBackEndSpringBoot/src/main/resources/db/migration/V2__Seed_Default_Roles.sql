@@ -0,0 +1,21 @@
+-- Roles predefinidos y rol por defecto para usuarios existentes
+-- V2__Seed_Default_Roles.sql
+
+-- Sustituye al antiguo script de roles como enum, que nunca llegó a ejecutarse
+-- y eliminaba la tabla roles que usa la entidad Role.
+INSERT INTO roles (name, display_name)
+SELECT 'ROLE_USER', 'Usuario' FROM (SELECT 1 AS dummy) seed
+WHERE NOT EXISTS (SELECT 1 FROM roles WHERE name = 'ROLE_USER');
+
+INSERT INTO roles (name, display_name)
+SELECT 'ROLE_ADMIN', 'Administrador' FROM (SELECT 1 AS dummy) seed
+WHERE NOT EXISTS (SELECT 1 FROM roles WHERE name = 'ROLE_ADMIN');
+
+-- Todo usuario sin roles recibe ROLE_USER
+INSERT INTO user_roles (user_id, role_id)
+SELECT u.id, r.id FROM users u, roles r
+WHERE r.name = 'ROLE_USER'
+  AND NOT EXISTS (SELECT 1 FROM user_roles ur WHERE ur.user_id = u.id);
+
+-- El primer administrador lo crea AdminInitializationService (app.admin.*)
+-- con la contraseña configurada, no un hash fijo en una migración.
@@ -0,0 +1,31 @@
+-- Coordinación entre nodos y registro de recordatorios enviados
+-- V3__Add_Cluster_And_Reminder_Ledger_Tables.sql
+
+-- Leases de tareas programadas: una fila por tarea
+CREATE TABLE scheduler_locks (
+    name VARCHAR(64) NOT NULL,
+    locked_until DATETIME(6) NOT NULL,
+    locked_at DATETIME(6) NOT NULL,
+    locked_by VARCHAR(255) NOT NULL,
+    PRIMARY KEY (name)
+);
+
+-- Latidos de los nodos vivos, para repartir usuarios
+CREATE TABLE cluster_nodes (
+    node_id VARCHAR(128) NOT NULL,
+    last_heartbeat DATETIME(6) NOT NULL,
+    PRIMARY KEY (node_id)
+);
+CREATE INDEX idx_cluster_nodes_heartbeat ON cluster_nodes(last_heartbeat);
+
+-- Un recordatorio por tarea, tipo y día de ventana
+CREATE TABLE reminder_deliveries (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    task_id BIGINT NOT NULL,
+    reminder_kind VARCHAR(32) NOT NULL,
+    window_day DATE NOT NULL,
+    sent_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+ALTER TABLE reminder_deliveries ADD CONSTRAINT uk_reminder_delivery UNIQUE (task_id, reminder_kind, window_day);
+CREATE INDEX idx_reminder_delivery_sent_at ON reminder_deliveries(sent_at);
@@ -0,0 +1,10 @@
+-- Borrado de listas en segundo plano y orden manual de tareas
+-- V4__Add_List_Deletion_And_Task_Rank.sql
+
+-- Una lista con deleted_at queda oculta hasta que la purga termina de borrarla
+ALTER TABLE task_lists ADD COLUMN deleted_at DATETIME(6);
+ALTER TABLE task_lists ADD COLUMN deletion_total BIGINT;
+
+-- Rango fraccional de la tarea dentro de su lista
+ALTER TABLE tasks ADD COLUMN list_rank VARCHAR(64);
+CREATE INDEX idx_tasks_list_rank ON tasks(task_list_id, list_rank);
@@ -0,0 +1,9 @@
+-- Latido para medir el retraso de la réplica de lectura
+-- V6__Add_Replication_Heartbeat.sql
+
+-- Una sola fila (id = 1): el primario escribe la hora y se lee en la réplica
+CREATE TABLE replication_heartbeat (
+    id INT NOT NULL,
+    beat_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+);
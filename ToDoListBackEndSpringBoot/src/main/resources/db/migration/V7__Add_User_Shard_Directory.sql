@@ -0,0 +1,12 @@
+-- Mapa de shards: en qué base de datos viven las tareas, listas y logs de cada usuario
+-- V7__Add_User_Shard_Directory.sql
+
+-- Solo se usa en el shard 0 (directorio); moving = true mientras se mueve el usuario
+CREATE TABLE user_shards (
+    user_id BIGINT NOT NULL,
+    shard_id INT NOT NULL,
+    moving BOOLEAN NOT NULL DEFAULT FALSE,
+    assigned_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (user_id)
+);
+CREATE INDEX idx_user_shards_shard ON user_shards(shard_id);
@@ -0,0 +1,29 @@
+-- Archivo de tareas completadas antiguas
+-- V8__Add_Tasks_Archive.sql
+
+-- Fecha de finalización. Las tareas ya completadas toman la fecha de la migración y no la de
+-- creación: así el primer archivado no se lleva las que el usuario acaba de completar
+ALTER TABLE tasks ADD COLUMN completed_at DATETIME(6);
+UPDATE tasks SET completed_at = CURRENT_TIMESTAMP WHERE completed = TRUE;
+CREATE INDEX idx_tasks_completed_at ON tasks(completed_at);
+
+-- Mismas columnas que tasks (conserva el id original), sin claves foráneas
+-- y solo con los índices que usa el historial
+CREATE TABLE tasks_archive (
+    id BIGINT NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    description VARCHAR(255),
+    completed BIT NOT NULL,
+    priority INTEGER NOT NULL,
+    due_date DATETIME(6),
+    created_at DATETIME(6),
+    completed_at DATETIME(6),
+    archived_at DATETIME(6) NOT NULL,
+    assigned_to_id BIGINT,
+    user_id BIGINT,
+    task_list_id BIGINT,
+    list_rank VARCHAR(64),
+    PRIMARY KEY (id)
+);
+CREATE INDEX idx_tasks_archive_assigned ON tasks_archive(assigned_to_id, completed_at);
+CREATE INDEX idx_tasks_archive_list ON tasks_archive(task_list_id);
@@ -0,0 +1,7 @@
+-- Lápida de las listas purgadas
+-- V9__Add_List_Purge_Tombstone.sql
+
+-- La fila de la lista se conserva un tiempo tras la purga para que el propietario
+-- pueda consultar que el borrado terminó; después se elimina
+ALTER TABLE task_lists ADD COLUMN purged_at DATETIME(6);
+CREATE INDEX idx_tasklist_purged ON task_lists(purged_at);
@@ -0,0 +1,81 @@
+package com.tonilr.ToDoList.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Métricas por caché del MeteredCacheManager sobre un ConcurrentMapCacheManager.
+ */
+class MeteredCacheManagerTest {
+
+    private MeterRegistry registry;
+    private MeteredCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        cacheManager = new MeteredCacheManager(new ConcurrentMapCacheManager(), () -> registry);
+    }
+
+    private double count(String name, String cache, String... tags) {
+        return registry.get(name).tag("cache", cache).tags(tags).counter().count();
+    }
+
+    @Test
+    void cacheableFlow_RecordsMissLoadAndHit() {
+        // Arrange
+        Cache cache = cacheManager.getCache("tasks");
+
+        // Act: fallo, el método calcula el valor y lo guarda, luego acierto
+        assertNull(cache.get("user_1"));
+        cache.put("user_1", "value");
+        assertNotNull(cache.get("user_1"));
+
+        // Assert
+        assertEquals(1, count("cache.gets", "tasks", "result", "miss"));
+        assertEquals(1, count("cache.gets", "tasks", "result", "hit"));
+        assertEquals(1, count("cache.puts", "tasks"));
+        assertEquals(1, registry.get("cache.load").tag("cache", "tasks").timer().count());
+    }
+
+    @Test
+    void putWithoutPendingMiss_DoesNotRecordLoad() {
+        // Arrange
+        Cache cache = cacheManager.getCache("taskCounts");
+
+        // Act
+        assertNull(cache.get("a"));
+        cache.put("b", 1);
+
+        // Assert
+        assertEquals(1, count("cache.puts", "taskCounts"));
+        assertEquals(0, registry.get("cache.load").tag("cache", "taskCounts").timer().count());
+    }
+
+    @Test
+    void valueLoaderAndEvictions_AreRecordedPerCache() {
+        // Arrange
+        Cache users = cacheManager.getCache("users");
+        Cache lists = cacheManager.getCache("taskLists");
+
+        // Act
+        assertEquals("loaded", users.get("u", () -> "loaded"));
+        assertEquals("loaded", users.get("u", () -> "other"));
+        users.evict("u");
+        lists.clear();
+
+        // Assert
+        assertEquals(1, count("cache.gets", "users", "result", "miss"));
+        assertEquals(1, count("cache.gets", "users", "result", "hit"));
+        assertEquals(1, registry.get("cache.load").tag("cache", "users").timer().count());
+        assertEquals(1, count("cache.evictions", "users"));
+        assertEquals(1, count("cache.evictions", "taskLists"));
+        assertSame(cacheManager.getCache("users"), cacheManager.getCache("users"));
+    }
+}
@@ -0,0 +1,127 @@
+package com.tonilr.ToDoList.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Límite por punto de log: ráfaga permitida, muestreo posterior y ventanas independientes.
+ */
+class RateLimitingTurboFilterTest {
+
+    private RateLimitingTurboFilter filter;
+    private Logger logger;
+
+    @BeforeEach
+    void setUp() {
+        LoggerContext context = new LoggerContext();
+        logger = context.getLogger("com.tonilr.ToDoList.Test");
+        logger.setLevel(Level.INFO);
+
+        filter = new RateLimitingTurboFilter();
+        filter.setContext(context);
+        filter.setBurst(3);
+        filter.setSampleEvery(5);
+        filter.setWindowMs(60_000);
+        filter.setExcludedLoggers("todolist.trace");
+        filter.start();
+    }
+
+    @Test
+    void burstThenSampling_PerCallSite() {
+        // Arrange
+        long suppressedBefore = RateLimitingTurboFilter.getSuppressedCount();
+
+        // Act
+        List<FilterReply> replies = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            replies.add(decide(logger, Level.WARN, "Token rechazado: {}"));
+        }
+        FilterReply otherSite = decide(logger, Level.WARN, "Otro mensaje: {}");
+
+        // Assert: 3 de ráfaga, 4 descartados y el 5º tras la ráfaga pasa como muestra
+        assertEquals(List.of(
+            FilterReply.NEUTRAL, FilterReply.NEUTRAL, FilterReply.NEUTRAL,
+            FilterReply.DENY, FilterReply.DENY, FilterReply.DENY, FilterReply.DENY,
+            FilterReply.NEUTRAL), replies);
+        assertEquals(FilterReply.NEUTRAL, otherSite);
+        assertTrue(RateLimitingTurboFilter.getSuppressedCount() - suppressedBefore >= 4);
+    }
+
+    @Test
+    void disabledLevelsAndExcludedLoggers_AreNotCounted() {
+        Logger trace = (Logger) logger.getLoggerContext().getLogger("todolist.trace");
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(FilterReply.NEUTRAL, decide(logger, Level.DEBUG, "Detalle: {}"));
+            assertEquals(FilterReply.NEUTRAL, decide(trace, Level.INFO, "method=GET"));
+        }
+        // El nivel desactivado no ha consumido la ráfaga del mismo patrón en WARN
+        assertEquals(FilterReply.NEUTRAL, decide(logger, Level.WARN, "Detalle: {}"));
+    }
+
+    @Test
+    void newWindow_ResetsBurst() throws InterruptedException {
+        filter.setWindowMs(20);
+        for (int i = 0; i < 4; i++) {
+            decide(logger, Level.ERROR, "Fallo: {}");
+        }
+        assertEquals(FilterReply.DENY, decide(logger, Level.ERROR, "Fallo: {}"));
+
+        Thread.sleep(50);
+
+        assertEquals(FilterReply.NEUTRAL, decide(logger, Level.ERROR, "Fallo: {}"));
+    }
+
+    @Test
+    void tooManyCallSites_OverflowSharesOneLimitedWindow() {
+        // Arrange: el mapa solo admite dos puntos y uno de ellos ya agotó su ráfaga
+        filter.setMaxCallSites(2);
+        for (int i = 0; i < 4; i++) {
+            decide(logger, Level.WARN, "Token rechazado: {}");
+        }
+        decide(logger, Level.WARN, "Otro mensaje: {}");
+
+        // Act: mensajes concatenados, un patrón distinto cada vez
+        List<FilterReply> replies = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            replies.add(decide(logger, Level.WARN, "Usuario " + i + " no encontrado"));
+        }
+
+        // Assert: comparten la ráfaga de "otros" y el punto ya limitado sigue limitado
+        assertEquals(List.of(
+            FilterReply.NEUTRAL, FilterReply.NEUTRAL, FilterReply.NEUTRAL,
+            FilterReply.DENY, FilterReply.DENY), replies);
+        assertEquals(FilterReply.DENY, decide(logger, Level.WARN, "Token rechazado: {}"));
+    }
+
+    @Test
+    void tooManyCallSites_ExpiredWindowsMakeRoom() throws InterruptedException {
+        // Arrange
+        filter.setWindowMs(20);
+        filter.setMaxCallSites(1);
+        for (int i = 0; i < 4; i++) {
+            decide(logger, Level.WARN, "Viejo: {}");
+        }
+
+        Thread.sleep(50);
+
+        // Act & Assert: la ventana caducada se retira y el punto nuevo tiene la suya
+        for (int i = 0; i < 3; i++) {
+            assertEquals(FilterReply.NEUTRAL, decide(logger, Level.WARN, "Nuevo: {}"));
+        }
+        assertEquals(FilterReply.DENY, decide(logger, Level.WARN, "Nuevo: {}"));
+    }
+
+    private FilterReply decide(Logger target, Level level, String format) {
+        return filter.decide(null, target, level, format, new Object[] {"x"}, null);
+    }
+}
@@ -0,0 +1,88 @@
+package com.tonilr.ToDoList.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cabecera Server-Timing y traza del ServerTimingFilter con fases simuladas.
+ */
+class ServerTimingFilterTest {
+
+    @Test
+    void phasesRecordedDuringRequest_AppearInHeaderAndTrace() throws Exception {
+        // Arrange
+        ServerTimingFilter filter = new ServerTimingFilter(true, true, List.of());
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks/7");
+        request.addHeader(ServerTimingFilter.REQUEST_HEADER, "1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act: dos sentencias, una búsqueda de usuario y el cuerpo escrito dentro de la cadena
+        filter.doFilter(request, response, (req, res) -> {
+            RequestTiming.record(RequestTiming.DB, TimeUnit.MILLISECONDS.toNanos(3));
+            RequestTiming.record(RequestTiming.DB, TimeUnit.MILLISECONDS.toNanos(2));
+            RequestTiming.time(RequestTiming.USER, () -> RequestTiming.time(RequestTiming.USER, () -> "anidada"));
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/tasks/{taskId}");
+            res.getWriter().write("{\"id\":7}");
+        });
+
+        // Assert: el cuerpo llega entero y la cabecera lleva las fases y el total
+        assertEquals("{\"id\":7}", response.getContentAsString());
+        String header = response.getHeader("Server-Timing");
+        assertNotNull(header);
+        assertTrue(header.startsWith("db;dur=5.00;desc=\"n=2\", user;dur="), header);
+        assertFalse(header.contains("user;dur=0.00;desc"), "La llamada anidada no cuenta dos veces: " + header);
+        assertTrue(header.contains(", total;dur="), header);
+        assertNull(RequestTiming.current());
+    }
+
+    @Test
+    void header_OnlyWhenRequestedAndNeverOnExcludedPaths() throws Exception {
+        // Arrange
+        ServerTimingFilter filter = new ServerTimingFilter(true, false, List.of("/api/auth/**"));
+        MockHttpServletRequest notRequested = new MockHttpServletRequest("GET", "/api/tasks");
+        MockHttpServletRequest login = new MockHttpServletRequest("POST", "/api/auth/login");
+        login.addHeader(ServerTimingFilter.REQUEST_HEADER, "1");
+        MockHttpServletResponse notRequestedResponse = new MockHttpServletResponse();
+        MockHttpServletResponse loginResponse = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(notRequested, notRequestedResponse, (req, res) -> res.getWriter().write("[]"));
+        filter.doFilter(login, loginResponse, (req, res) -> res.getWriter().write("{}"));
+
+        // Assert
+        assertNull(notRequestedResponse.getHeader("Server-Timing"));
+        assertEquals("[]", notRequestedResponse.getContentAsString());
+        assertNull(loginResponse.getHeader("Server-Timing"));
+        assertEquals("{}", loginResponse.getContentAsString());
+    }
+
+    @Test
+    void traceRecord_UsesRoutePattern() {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("DELETE", "/api/tasks/7");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/tasks/{taskId}");
+        RequestTiming timing = RequestTiming.start();
+        RequestTiming.record(RequestTiming.AUDIT, TimeUnit.MICROSECONDS.toNanos(1500));
+        RequestTiming.end();
+
+        // Act
+        String record = ServerTimingFilter.traceRecord(request, 200, timing, TimeUnit.MILLISECONDS.toNanos(10));
+
+        // Assert
+        assertEquals("method=DELETE endpoint=/api/tasks/{taskId} status=200 total_ms=10.00 audit_ms=1.50 audit_n=1", record);
+    }
+
+    @Test
+    void withoutOpenRequest_TimingIsNoOp() {
+        RequestTiming.record(RequestTiming.DB, 1000);
+        assertEquals("valor", RequestTiming.time(RequestTiming.CACHE, () -> "valor"));
+        assertNull(RequestTiming.current());
+    }
+}
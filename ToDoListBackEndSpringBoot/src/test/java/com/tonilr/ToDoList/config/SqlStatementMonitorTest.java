@@ -0,0 +1,144 @@
+package com.tonilr.ToDoList.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Recuento por petición, sospechosos de N+1 y sentencias lentas del SqlStatementMonitor.
+ */
+class SqlStatementMonitorTest {
+
+    private static final String ENDPOINT = "GET /api/tasks";
+    private static final String SELECT_LIST = "select * from task_lists where id=?";
+
+    private MeterRegistry registry;
+    private SqlStatementMonitor monitor;
+    private final SqlStatementInspector inspector = new SqlStatementInspector();
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        monitor = new SqlStatementMonitor();
+        ReflectionTestUtils.setField(monitor, "meterRegistry", registry);
+        ReflectionTestUtils.setField(monitor, "entityManagerFactory", mock(ObjectProvider.class));
+        ReflectionTestUtils.setField(monitor, "enabled", true);
+        ReflectionTestUtils.setField(monitor, "sampleRate", 1.0);
+        ReflectionTestUtils.setField(monitor, "slowThresholdMillis", 200L);
+        ReflectionTestUtils.setField(monitor, "nPlusOneThreshold", 5);
+        ReflectionTestUtils.setField(monitor, "slowCapacity", 2);
+        monitor.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        monitor.destroy();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> endpointRow() {
+        List<Map<String, Object>> endpoints = (List<Map<String, Object>>) monitor.report().get("endpoints");
+        assertEquals(1, endpoints.size());
+        return endpoints.get(0);
+    }
+
+    @Test
+    void repeatedStatement_IsReportedAsNPlusOneSuspect() {
+        // Arrange
+        assertTrue(monitor.shouldSample());
+        monitor.beginRequest();
+
+        // Act: una consulta de tareas y una carga perezosa de lista por cada tarea
+        inspector.inspect("select * from tasks where assigned_to_id=?");
+        for (int i = 0; i < 6; i++) {
+            inspector.inspect(SELECT_LIST);
+        }
+        monitor.endRequest(ENDPOINT);
+
+        // Assert
+        Map<String, Object> row = endpointRow();
+        assertEquals(ENDPOINT, row.get("endpoint"));
+        assertEquals(1L, row.get("sampledRequests"));
+        assertEquals(7L, row.get("maxStatements"));
+        assertEquals(5L, row.get("maxDuplicates"));
+        assertEquals(List.of(Map.of("sql", SELECT_LIST, "maxExecutions", 6)), row.get("nPlusOneSuspects"));
+        assertEquals(7.0, registry.get("sql.request.statements").tag("endpoint", ENDPOINT).summary().totalAmount());
+        assertEquals(5.0, registry.get("sql.request.duplicates").tag("endpoint", ENDPOINT).summary().totalAmount());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void longSuspect_KeepsUpdatingOnceSuspectListIsFull() {
+        // Arrange: 20 sospechosos (el máximo por endpoint), uno de ellos más largo que el límite de texto
+        String longSql = "select * from tasks where id in (" + "?,".repeat(300) + "?)";
+        monitor.beginRequest();
+        for (int i = 0; i < 19; i++) {
+            for (int j = 0; j < 5; j++) {
+                inspector.inspect("select * from t" + i + " where id=?");
+            }
+        }
+        for (int j = 0; j < 5; j++) {
+            inspector.inspect(longSql);
+        }
+        monitor.endRequest(ENDPOINT);
+
+        // Act: la sentencia larga vuelve a repetirse, más veces
+        monitor.beginRequest();
+        for (int j = 0; j < 9; j++) {
+            inspector.inspect(longSql);
+        }
+        monitor.endRequest(ENDPOINT);
+
+        // Assert
+        List<Map<String, Object>> suspects = (List<Map<String, Object>>) endpointRow().get("nPlusOneSuspects");
+        assertEquals(20, suspects.size());
+        assertTrue(suspects.stream().anyMatch(suspect ->
+            ((String) suspect.get("sql")).endsWith("...") && Integer.valueOf(9).equals(suspect.get("maxExecutions"))));
+    }
+
+    @Test
+    void statementsOutsideSampledRequest_AreNotCounted() {
+        // Act
+        inspector.inspect(SELECT_LIST);
+        monitor.endRequest(ENDPOINT);
+        ReflectionTestUtils.setField(monitor, "sampleRate", 0.0);
+
+        // Assert
+        assertFalse(monitor.shouldSample());
+        assertEquals(List.of(), monitor.report().get("endpoints"));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void slowStatements_AreKeptInBoundedBuffer() {
+        // Act: una rápida y tres lentas, fuera de petición muestreada
+        inspector.inspect("select 1");
+        SqlStatementMonitor.statementExecuted(TimeUnit.MILLISECONDS.toNanos(5));
+        for (int i = 0; i < 3; i++) {
+            inspector.inspect("select slow_" + i);
+            SqlStatementMonitor.statementExecuted(TimeUnit.MILLISECONDS.toNanos(300));
+        }
+
+        // Assert: solo las dos más recientes, la última primero
+        List<Map<String, Object>> slow = (List<Map<String, Object>>) monitor.report().get("slowStatements");
+        assertEquals(2, slow.size());
+        assertEquals("select slow_2", slow.get(0).get("sql"));
+        assertEquals("background", slow.get(0).get("endpoint"));
+        assertEquals(3.0, registry.get("sql.statements.slow").counter().count());
+        assertEquals(4, registry.get("sql.statement.duration").timer().count());
+
+        monitor.reset();
+        assertEquals(List.of(), monitor.report().get("slowStatements"));
+    }
+}
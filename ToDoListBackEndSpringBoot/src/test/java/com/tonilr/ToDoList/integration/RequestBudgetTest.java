@@ -0,0 +1,250 @@
+package com.tonilr.ToDoList.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tonilr.ToDoList.config.SqlStatementMonitor;
+import com.tonilr.ToDoList.dto.TaskDTO;
+import com.tonilr.ToDoList.model.AuditLog;
+import com.tonilr.ToDoList.model.Task;
+import com.tonilr.ToDoList.model.TaskList;
+import com.tonilr.ToDoList.model.User;
+import com.tonilr.ToDoList.repository.AuditLogRepository;
+import com.tonilr.ToDoList.repository.TaskListRepository;
+import com.tonilr.ToDoList.repository.TaskRepository;
+import com.tonilr.ToDoList.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Sentencias SQL y memoria asignada por endpoint frente a request-budgets.csv.
+ * Sin transacción de test, para que cada llamada cargue lo que cargaría en producción;
+ * con 2 listas de 15 tareas, un N+1 supera el presupuesto de sentencias por mucho.
+ */
+@SpringBootTest
+@ActiveProfiles("test-h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RequestBudgetTest {
+
+    private static final int TASKS_PER_LIST = 15;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private SqlStatementMonitor sqlStatementMonitor;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskListRepository taskListRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private MockMvc mockMvc;
+    private RequestBudgets budgets;
+    private RequestPostProcessor owner;
+    private User testUser;
+    private final List<User> users = new ArrayList<>();
+    private TaskList work;
+    private Task firstTask;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).apply(springSecurity()).build();
+        budgets = new RequestBudgets(sqlStatementMonitor, "request-budgets.csv", 3, 5);
+
+        testUser = newUser();
+        owner = user(testUser.getUsername()).roles("USER");
+
+        work = newList("Work");
+        TaskList home = newList("Home");
+        for (int i = 0; i < TASKS_PER_LIST; i++) {
+            Task task = newTask(work, "Informe " + i, i % 3 == 0);
+            if (firstTask == null) {
+                firstTask = task;
+            }
+            newTask(home, "Compra " + i, false);
+        }
+
+        // Referencia para la memoria: misma pila de filtros y serialización, sin acceso a datos
+        budgets.baseline(ignored ->
+            mockMvc.perform(get("/api/health/live").with(owner)).andExpect(status().isOk()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Sin transacción de test: se borra lo creado por el test y por las llamadas medidas (auditoría incluida)
+        for (User created : users) {
+            Long userId = created.getId();
+            jdbcTemplate.update("DELETE FROM audit_logs WHERE user_id = ?", userId);
+            jdbcTemplate.update("DELETE FROM tasks WHERE assigned_to_id = ? OR user_id = ?", userId, userId);
+            jdbcTemplate.update("DELETE FROM task_lists WHERE owner_id = ? OR user_id = ?", userId, userId);
+            for (String table : List.of("notification_preferences", "user_roles")) {
+                jdbcTemplate.update("DELETE FROM " + table + " WHERE user_id = ?", userId);
+            }
+            jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+        }
+    }
+
+    @Test
+    void getTasks_WithinBudget() throws Exception {
+        budgets.check("GET /api/tasks", ignored ->
+            mockMvc.perform(get("/api/tasks").with(owner)).andExpect(status().isOk()));
+    }
+
+    @Test
+    void getTasksByList_WithinBudget() throws Exception {
+        budgets.check("GET /api/tasks?listId", ignored ->
+            mockMvc.perform(get("/api/tasks").param("listId", work.getId().toString()).with(owner))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void getFilteredTasks_WithinBudget() throws Exception {
+        budgets.check("GET /api/tasks/filter", ignored ->
+            mockMvc.perform(get("/api/tasks/filter").param("search", "informe").param("priority", "1").with(owner))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void getTaskDetails_WithinBudget() throws Exception {
+        budgets.check("GET /api/tasks/{taskId}", ignored ->
+            mockMvc.perform(get("/api/tasks/" + firstTask.getId()).with(owner)).andExpect(status().isOk()));
+    }
+
+    @Test
+    void createTask_WithinBudget() throws Exception {
+        TaskDTO dto = new TaskDTO();
+        dto.setTitle("Nueva tarea");
+        dto.setPriority(2);
+        dto.setTaskListId(work.getId());
+        String body = objectMapper.writeValueAsString(dto);
+
+        budgets.check("POST /api/tasks", ignored ->
+            mockMvc.perform(post("/api/tasks").contentType(MediaType.APPLICATION_JSON).content(body).with(owner))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void updateTask_WithinBudget() throws Exception {
+        TaskDTO dto = new TaskDTO();
+        dto.setTitle("Informe revisado");
+        dto.setPriority(1);
+        dto.setCompleted(true);
+        String body = objectMapper.writeValueAsString(dto);
+
+        budgets.check("PUT /api/tasks/{taskId}", ignored ->
+            mockMvc.perform(put("/api/tasks/" + firstTask.getId()).contentType(MediaType.APPLICATION_JSON).content(body).with(owner))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void deleteTask_WithinBudget() throws Exception {
+        budgets.check("DELETE /api/tasks/{taskId}", () -> newTask(work, "Para borrar", false), task ->
+            mockMvc.perform(delete("/api/tasks/" + task.getId()).with(owner)).andExpect(status().isOk()));
+    }
+
+    @Test
+    void getLists_WithinBudget() throws Exception {
+        budgets.check("GET /api/lists", ignored ->
+            mockMvc.perform(get("/api/lists").with(owner)).andExpect(status().isOk()));
+    }
+
+    @Test
+    void getListSummaries_WithinBudget() throws Exception {
+        budgets.check("GET /api/lists/summary", ignored ->
+            mockMvc.perform(get("/api/lists/summary").with(owner)).andExpect(status().isOk()));
+    }
+
+    @Test
+    void getListTasksPage_WithinBudget() throws Exception {
+        budgets.check("GET /api/lists/{listId}/tasks", ignored ->
+            mockMvc.perform(get("/api/lists/" + work.getId() + "/tasks").param("size", "10").with(owner))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void searchLists_WithinBudget() throws Exception {
+        budgets.check("GET /api/lists/search", ignored ->
+            mockMvc.perform(get("/api/lists/search").param("name", "o").with(owner)).andExpect(status().isOk()));
+    }
+
+    @Test
+    void getAuditLogs_WithinBudget() throws Exception {
+        // Registros de varios usuarios: cargar el usuario de cada uno por separado sería un N+1
+        for (int i = 0; i < 10; i++) {
+            AuditLog log = new AuditLog();
+            log.setUser(i % 2 == 0 ? testUser : newUser());
+            log.setAction("BUDGET_" + i);
+            log.setTimestamp(LocalDateTime.now());
+            auditLogRepository.save(log);
+        }
+
+        budgets.check("GET /api/audit", ignored ->
+            mockMvc.perform(get("/api/audit").with(owner)).andExpect(status().isOk()));
+    }
+
+    private User newUser() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setUsername("budget-" + suffix);
+        user.setEmail("budget-" + suffix + "@example.com");
+        user.setPassword("secret");
+        user.setTimezone("Europe/Madrid");
+        user = userRepository.save(user);
+        users.add(user);
+        return user;
+    }
+
+    private TaskList newList(String name) {
+        TaskList list = new TaskList();
+        list.setName(name);
+        list.setOwner(testUser);
+        list.setUser(testUser);
+        return taskListRepository.save(list);
+    }
+
+    private Task newTask(TaskList list, String title, boolean completed) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setPriority(1);
+        task.setCompleted(completed);
+        task.setTaskList(list);
+        task.setAssignedTo(testUser);
+        task.setUser(testUser);
+        task.setDueDate(LocalDateTime.now().plusDays(1));
+        return taskRepository.save(task);
+    }
+}
@@ -0,0 +1,162 @@
+package com.tonilr.ToDoList.integration;
+
+import com.tonilr.ToDoList.config.SqlStatementMonitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Presupuesto de sentencias SQL y memoria asignada por llamada a un endpoint.
+ * Cada medición abre un contexto del {@link SqlStatementMonitor} en el hilo del test (MockMvc
+ * ejecuta el controlador en ese mismo hilo) y lee los bytes asignados por el hilo con ThreadMXBean.
+ * La memoria se compara con la de una llamada de referencia medida igual ({@link #baseline}): lo que
+ * asigna la pila de Spring cambia con la versión de la JVM y sus opciones, la proporción mucho menos.
+ * Los presupuestos se declaran en request-budgets.csv; un endpoint sin presupuesto hace fallar el test.
+ * En CI se puede ampliar el margen de memoria con -Drequest.budgets.allocation-margin=1.5.
+ */
+class RequestBudgets {
+
+    /**
+     * Llamada a medir (normalmente un mockMvc.perform con sus expectativas).
+     */
+    @FunctionalInterface
+    interface Call<T> {
+        void perform(T fixture) throws Exception;
+    }
+
+    /**
+     * Prepara lo que necesita cada llamada (p. ej. la tarea a borrar) fuera de la medición.
+     */
+    @FunctionalInterface
+    interface Fixture<T> {
+        T create() throws Exception;
+    }
+
+    /**
+     * Coste de una llamada: sentencias (la peor repetición) y bytes asignados (la mejor, la menos ruidosa).
+     */
+    record Cost(int statements, long allocatedBytes) {
+    }
+
+    /**
+     * Sentencias máximas y memoria máxima en veces la de la llamada de referencia.
+     */
+    record Budget(int statements, double allocationRatio) {
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(RequestBudgets.class);
+
+    private static final double ALLOCATION_MARGIN = Double.parseDouble(System.getProperty("request.budgets.allocation-margin", "1.0"));
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final SqlStatementMonitor monitor;
+    private final Map<String, Budget> budgets;
+    private final int warmup;
+    private final int repetitions;
+    private long baselineBytes;
+
+    RequestBudgets(SqlStatementMonitor monitor, String resource, int warmup, int repetitions) {
+        this.monitor = monitor;
+        this.budgets = load(resource);
+        this.warmup = warmup;
+        this.repetitions = repetitions;
+    }
+
+    /**
+     * Mide la llamada de referencia con la que se comparan las asignaciones de memoria.
+     * Debe recorrer la misma pila (filtros, seguridad, serialización) haciendo el mínimo trabajo propio.
+     */
+    void baseline(Call<Void> call) throws Exception {
+        baselineBytes = Math.max(1, measure("baseline", () -> null, call).allocatedBytes());
+    }
+
+    /**
+     * Mide la llamada y comprueba que está dentro del presupuesto de su endpoint.
+     * @param endpoint Método y patrón de la ruta, como en request-budgets.csv
+     */
+    Cost check(String endpoint, Call<Void> call) throws Exception {
+        return check(endpoint, () -> null, call);
+    }
+
+    <T> Cost check(String endpoint, Fixture<T> fixture, Call<T> call) throws Exception {
+        Budget budget = budgets.get(endpoint);
+        assertNotNull(budget, "Sin presupuesto para " + endpoint + " en request-budgets.csv");
+
+        Cost cost = measure(endpoint, fixture, call);
+        double ratio = (double) cost.allocatedBytes() / baselineBytes;
+        log.debug("Presupuesto {}: {} sentencias (max {}), {} KB = {}x la referencia (max {}x)", endpoint,
+            cost.statements(), budget.statements(), cost.allocatedBytes() / 1024, format(ratio), format(budget.allocationRatio()));
+
+        assertTrue(cost.statements() <= budget.statements(), () -> endpoint + ": " + cost.statements()
+            + " sentencias SQL, presupuesto " + budget.statements() + " (¿N+1?)");
+        if (THREADS.isThreadAllocatedMemorySupported() && THREADS.isThreadAllocatedMemoryEnabled()) {
+            assertTrue(baselineBytes > 0, "Falta medir la llamada de referencia con baseline()");
+            assertTrue(ratio <= budget.allocationRatio() * ALLOCATION_MARGIN, () -> endpoint + ": "
+                + cost.allocatedBytes() / 1024 + " KB asignados, " + format(ratio) + "x la referencia ("
+                + baselineBytes / 1024 + " KB), presupuesto " + format(budget.allocationRatio()) + "x");
+        }
+        return cost;
+    }
+
+    private <T> Cost measure(String endpoint, Fixture<T> fixture, Call<T> call) throws Exception {
+        // El calentamiento deja cargadas las clases y resueltos los proxies y cachés de Spring
+        for (int i = 0; i < warmup; i++) {
+            call.perform(fixture.create());
+        }
+
+        int statements = 0;
+        long allocated = Long.MAX_VALUE;
+        for (int i = 0; i < repetitions; i++) {
+            T value = fixture.create();
+            monitor.beginRequest();
+            try {
+                long before = THREADS.getCurrentThreadAllocatedBytes();
+                call.perform(value);
+                allocated = Math.min(allocated, THREADS.getCurrentThreadAllocatedBytes() - before);
+                statements = Math.max(statements, monitor.currentStatementCount());
+            } finally {
+                monitor.endRequest(endpoint);
+            }
+        }
+        return new Cost(statements, allocated);
+    }
+
+    private static String format(double ratio) {
+        return String.format(Locale.ROOT, "%.2f", ratio);
+    }
+
+    // Formato: endpoint, sentencias máximas, memoria máxima en veces la referencia; '#' para comentarios
+    private static Map<String, Budget> load(String resource) {
+        Map<String, Budget> result = new LinkedHashMap<>();
+        InputStream in = RequestBudgets.class.getClassLoader().getResourceAsStream(resource);
+        assertNotNull(in, "No se encuentra " + resource);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                assertEquals(3, fields.length, "Línea inválida en " + resource + ": " + line);
+                result.put(fields[0].trim(), new Budget(Integer.parseInt(fields[1].trim()), Double.parseDouble(fields[2].trim())));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("No se puede leer " + resource, e);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,128 @@
+package com.tonilr.ToDoList.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba de carga de la API sobre H2 embebido, con datos del perfil "datagen".
+ * No corre en el build normal:
+ * mvn test -Dgroups=load -Dtest.excludedGroups= -Dload.concurrency=16 -Dload.iterations=50
+ * Informe en consola y en target/load-report.json; -Dload.max-p95-ms=N falla si algún endpoint lo supera.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "spring.main.web-application-type=servlet",
+    "spring.datasource.url=jdbc:h2:mem:loaddb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "logging.level.com.tonilr.ToDoList=WARN",
+    "app.datagen.exit-when-done=false",
+    "app.datagen.users=${load.users:50}",
+    "app.datagen.tasks=${load.tasks:20000}",
+    "app.datagen.reference-date=2025-03-01"
+})
+@ActiveProfiles({"test-h2", "datagen"})
+class ApiLoadTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.datagen.username-prefix}")
+    private String usernamePrefix;
+
+    @Value("${app.datagen.password}")
+    private String password;
+
+    @Value("${app.datagen.users}")
+    private int datasetUsers;
+
+    @Value("${load.concurrency:8}")
+    private int concurrency;
+
+    @Value("${load.warmup:3}")
+    private int warmupIterations;
+
+    @Value("${load.iterations:20}")
+    private int iterations;
+
+    // Cada cuántas iteraciones vuelve a hacer login el usuario virtual
+    @Value("${load.login-every:10}")
+    private int loginEvery;
+
+    @Value("${load.max-p95-ms:0}")
+    private double maxP95Millis;
+
+    @Value("${load.report:target/load-report.json}")
+    private String reportFile;
+
+    @Test
+    void apiScenario() throws Exception {
+        LoadTestHarness harness = new LoadTestHarness("http://localhost:" + port);
+
+        LoadReport report = harness.run(concurrency, warmupIterations, iterations,
+            (session, virtualUser) -> session.put("username",
+                String.format("%s_%07d", usernamePrefix, virtualUser % datasetUsers)),
+            (session, iteration) -> {
+                if (session.get("listId") == null || iteration % loginEvery == 0) {
+                    login(session);
+                }
+                Long listId = session.get("listId");
+
+                expectOk(session.send("GET /api/lists", "GET", "/api/lists", null));
+                expectOk(session.send("GET /api/tasks?listId", "GET", "/api/tasks?listId=" + listId, null));
+                expectOk(session.send("GET /api/tasks/filter", "GET",
+                    "/api/tasks/filter?search=informe&priority=1&dateFilter=week", null));
+
+                String title = "Carga " + iteration;
+                HttpResponse<String> created = expectOk(session.send("POST /api/tasks", "POST", "/api/tasks",
+                    "{\"title\":\"" + title + "\",\"priority\":2,\"taskListId\":" + listId + "}"));
+                long taskId = objectMapper.readTree(created.body()).get("id").asLong();
+
+                expectOk(session.send("PUT /api/tasks/{id}", "PUT", "/api/tasks/" + taskId,
+                    "{\"title\":\"" + title + "\",\"priority\":2,\"completed\":true,\"taskListId\":" + listId + "}"));
+                expectOk(session.send("DELETE /api/tasks/{id}", "DELETE", "/api/tasks/" + taskId, null));
+            });
+
+        System.out.println(report.toTable());
+        report.writeJson(Path.of(reportFile));
+
+        assertEquals(0, report.totalErrors(), "Respuestas fuera de 2xx durante la carga");
+        if (maxP95Millis > 0) {
+            report.endpoints().forEach(row -> assertTrue(row.p95Millis() <= maxP95Millis,
+                row.endpoint() + " p95 " + row.p95Millis() + " ms > " + maxP95Millis + " ms"));
+        }
+    }
+
+    private void login(LoadTestHarness.Session session) throws Exception {
+        String username = session.get("username");
+        HttpResponse<String> response = expectOk(session.send("POST /api/auth/login", "POST", "/api/auth/login",
+            "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}"));
+        session.setToken(objectMapper.readTree(response.body()).get("token").asText());
+        if (session.get("listId") == null) {
+            JsonNode lists = objectMapper.readTree(
+                expectOk(session.send("GET /api/lists", "GET", "/api/lists", null)).body());
+            session.put("listId", lists.get(0).get("id").asLong());
+        }
+    }
+
+    private static HttpResponse<String> expectOk(HttpResponse<String> response) {
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(response.request().method() + " " + response.request().uri()
+                + " -> " + response.statusCode() + ": " + response.body());
+        }
+        return response;
+    }
+}
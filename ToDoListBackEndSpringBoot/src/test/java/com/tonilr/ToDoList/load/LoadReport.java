@@ -0,0 +1,78 @@
+package com.tonilr.ToDoList.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resultado de una ejecución de carga: latencias y throughput por endpoint.
+ */
+class LoadReport {
+
+    /**
+     * Una fila del informe.
+     */
+    record EndpointReport(String endpoint, int requests, int errors, double throughputPerSecond,
+                          double p50Millis, double p95Millis, double p99Millis, double maxMillis) {
+    }
+
+    private final int concurrency;
+    private final int iterations;
+    private final double elapsedSeconds;
+    private final List<EndpointReport> endpoints = new ArrayList<>();
+
+    LoadReport(int concurrency, int iterations, long elapsedNanos, Map<String, LatencyStats> stats) {
+        this.concurrency = concurrency;
+        this.iterations = iterations;
+        this.elapsedSeconds = Math.max(elapsedNanos, 1) / 1_000_000_000.0;
+        stats.forEach((endpoint, latencies) -> endpoints.add(new EndpointReport(endpoint,
+            latencies.count(), latencies.errors(), latencies.count() / elapsedSeconds,
+            latencies.percentileMillis(50), latencies.percentileMillis(95),
+            latencies.percentileMillis(99), latencies.percentileMillis(100))));
+    }
+
+    List<EndpointReport> endpoints() {
+        return endpoints;
+    }
+
+    int totalErrors() {
+        return endpoints.stream().mapToInt(EndpointReport::errors).sum();
+    }
+
+    /**
+     * Tabla legible para la salida del test.
+     */
+    String toTable() {
+        StringBuilder table = new StringBuilder();
+        table.append(String.format("Carga: %d usuarios virtuales x %d iteraciones en %.1f s%n",
+            concurrency, iterations, elapsedSeconds));
+        table.append(String.format("%-28s %8s %7s %9s %9s %9s %9s %9s%n",
+            "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        for (EndpointReport row : endpoints) {
+            table.append(String.format("%-28s %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                row.endpoint(), row.requests(), row.errors(), row.throughputPerSecond(),
+                row.p50Millis(), row.p95Millis(), row.p99Millis(), row.maxMillis()));
+        }
+        return table.toString();
+    }
+
+    /**
+     * Guarda el informe en JSON para comparar ejecuciones.
+     */
+    void writeJson(Path file) throws IOException {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("concurrency", concurrency);
+        json.put("iterations", iterations);
+        json.put("elapsedSeconds", elapsedSeconds);
+        json.put("endpoints", endpoints);
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), json);
+    }
+}
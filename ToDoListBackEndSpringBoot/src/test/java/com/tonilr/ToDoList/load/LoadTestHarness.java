@@ -0,0 +1,157 @@
+package com.tonilr.ToDoList.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Driver de carga HTTP: ejecuta un escenario con N usuarios virtuales en paralelo y
+ * mide la latencia de cada llamada agrupada por endpoint (p50/p95/p99 y throughput).
+ */
+class LoadTestHarness {
+
+    /**
+     * Escenario de un usuario virtual; cada llamada se hace con {@link Session#send}.
+     */
+    @FunctionalInterface
+    interface Scenario {
+        void run(Session session, int iteration) throws Exception;
+    }
+
+    /**
+     * Prepara la sesión de un usuario virtual (login) antes de medir.
+     */
+    @FunctionalInterface
+    interface SessionSetup {
+        void setUp(Session session, int virtualUser) throws Exception;
+    }
+
+    private final String baseUrl;
+    private final HttpClient client;
+    private final Map<String, LatencyStats> stats = new ConcurrentSkipListMap<>();
+
+    LoadTestHarness(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    }
+
+    /**
+     * Ejecuta el escenario con la concurrencia indicada.
+     * Las iteraciones de calentamiento se ejecutan pero no se miden.
+     * @return Informe con las estadísticas por endpoint
+     */
+    LoadReport run(int concurrency, int warmupIterations, int iterations, SessionSetup setup, Scenario scenario)
+            throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Session> sessions = new ArrayList<>();
+            for (int user = 0; user < concurrency; user++) {
+                Session session = new Session();
+                setup.setUp(session, user);
+                sessions.add(session);
+            }
+            runAll(executor, sessions, 0, warmupIterations, scenario);
+            stats.clear();
+            long start = System.nanoTime();
+            runAll(executor, sessions, warmupIterations, warmupIterations + iterations, scenario);
+            return new LoadReport(concurrency, iterations, System.nanoTime() - start, snapshot());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void runAll(ExecutorService executor, List<Session> sessions, int from, int to, Scenario scenario)
+            throws Exception {
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (Session session : sessions) {
+            futures.add(executor.submit(() -> {
+                ready.await();
+                for (int iteration = from; iteration < to; iteration++) {
+                    scenario.run(session, iteration);
+                }
+                return null;
+            }));
+        }
+        ready.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+    private Map<String, LatencyStats> snapshot() {
+        return new LinkedHashMap<>(stats);
+    }
+
+    /**
+     * Estado de un usuario virtual: su token y los datos que el escenario quiera guardar.
+     */
+    class Session {
+
+        private String token;
+        private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+
+        void setToken(String token) {
+            this.token = token;
+        }
+
+        @SuppressWarnings("unchecked")
+        <T> T get(String key) {
+            return (T) attributes.get(key);
+        }
+
+        void put(String key, Object value) {
+            attributes.put(key, value);
+        }
+
+        /**
+         * Envía una petición y registra su latencia bajo el nombre del endpoint.
+         * Cualquier respuesta fuera de 2xx cuenta como error.
+         * @param endpoint Nombre con el que se agrupa, p. ej. "GET /api/tasks"
+         * @param path Ruta con query string
+         * @param method Método HTTP
+         * @param jsonBody Cuerpo JSON o null
+         */
+        HttpResponse<String> send(String endpoint, String method, String path, String jsonBody)
+                throws IOException, InterruptedException {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/json");
+            if (token != null) {
+                request.header("Authorization", "Bearer " + token);
+            }
+            if (jsonBody != null) {
+                request.header("Content-Type", "application/json");
+                request.method(method, HttpRequest.BodyPublishers.ofString(jsonBody));
+            } else {
+                request.method(method, HttpRequest.BodyPublishers.noBody());
+            }
+            long start = System.nanoTime();
+            HttpResponse<String> response;
+            try {
+                response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            } catch (IOException e) {
+                stats.computeIfAbsent(endpoint, k -> new LatencyStats()).record(System.nanoTime() - start, true);
+                throw e;
+            }
+            boolean error = response.statusCode() < 200 || response.statusCode() >= 300;
+            stats.computeIfAbsent(endpoint, k -> new LatencyStats()).record(System.nanoTime() - start, error);
+            return response;
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.tonilr.ToDoList.repository;
+
+import com.tonilr.ToDoList.dto.AuditLogDTO;
+import com.tonilr.ToDoList.dto.DTOMapper;
+import com.tonilr.ToDoList.dto.TaskDTO;
+import com.tonilr.ToDoList.dto.TaskListDTO;
+import com.tonilr.ToDoList.model.AuditLog;
+import com.tonilr.ToDoList.model.NotificationPreferences;
+import com.tonilr.ToDoList.model.Role;
+import com.tonilr.ToDoList.model.Task;
+import com.tonilr.ToDoList.model.TaskList;
+import com.tonilr.ToDoList.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sentencias SQL de la consulta de repositorio que hay detrás de cada endpoint, con las
+ * asociaciones en LAZY. Cada lectura se hace fuera de transacción y se mapea a DTO igual que
+ * en los servicios: si un grafo no trae lo que el DTO necesita, el test falla con
+ * LazyInitializationException en vez de lanzar N+1. El recuento de la petición completa
+ * (seguridad, servicio y serialización) por endpoint, a través de MockMvc, está en RequestBudgetTest.
+ */
+@DataJpaTest
+@ActiveProfiles("test-h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FetchPlanQueryCountTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private TaskListRepository taskListRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private NotificationPreferencesRepository notificationPreferencesRepository;
+
+    private final DTOMapper dtoMapper = new DTOMapper();
+
+    private Statistics statistics;
+    private User owner;
+    private TaskList work;
+    private TaskList home;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        owner = newUser();
+        User creator = newUser();
+        work = newList("Work");
+        home = newList("Home");
+        for (int i = 0; i < 3; i++) {
+            newTask(work, creator, "work-" + i);
+            newTask(home, creator, "home-" + i);
+        }
+    }
+
+    // Los datos se confirman (sin transacción del test): se limpian para los demás tests de la BD en memoria
+    @AfterEach
+    void tearDown() {
+        notificationPreferencesRepository.deleteAll();
+        auditLogRepository.deleteAll();
+        taskRepository.deleteAll();
+        taskListRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void getUserTasks_OneStatementForAllTasks() {
+        // GET /api/tasks
+        List<TaskDTO> tasks = countStatements(1, () -> taskRepository.findByAssignedTo(owner).stream()
+            .map(dtoMapper::toTaskDTO)
+            .collect(Collectors.toList()));
+
+        assertEquals(6, tasks.size());
+        assertTrue(tasks.stream().allMatch(dto -> dto.getTaskListName() != null && owner.getUsername().equals(dto.getAssignedTo())));
+    }
+
+    @Test
+    void getTasksByList_OneStatement() {
+        // GET /api/tasks?taskListId=
+        List<TaskDTO> tasks = countStatements(1, () -> taskRepository.findByAssignedToAndTaskListId(owner, work.getId()).stream()
+            .map(dtoMapper::toTaskDTO)
+            .collect(Collectors.toList()));
+
+        assertEquals(3, tasks.size());
+        assertTrue(tasks.stream().allMatch(dto -> "Work".equals(dto.getTaskListName())));
+    }
+
+    @Test
+    void getTaskDetails_OneStatement() {
+        // GET /api/tasks/{id}
+        Long taskId = taskRepository.findByTaskListId(home.getId()).get(0).getId();
+
+        Task task = countStatements(1, () -> taskRepository.findById(taskId).orElseThrow());
+
+        assertEquals("Home", dtoMapper.toTaskDTO(task).getTaskListName());
+        assertNotNull(task.getUser().getUsername());
+    }
+
+    @Test
+    void getTaskListTasks_PageAndCountOnly() {
+        // GET /api/lists/{id}/tasks
+        Page<TaskDTO> page = countStatements(2, () ->
+            taskRepository.findByTaskListIdInManualOrder(work.getId(), PageRequest.of(0, 2)).map(dtoMapper::toTaskDTO));
+
+        assertEquals(3, page.getTotalElements());
+        assertEquals(owner.getUsername(), page.getContent().get(0).getAssignedTo());
+    }
+
+    @Test
+    void getUserTaskLists_OneStatementWithTasks() {
+        // GET /api/lists
+        List<TaskListDTO> lists = countStatements(1, () -> taskListRepository.findByOwnerIdWithTasks(owner.getId()).stream()
+            .map(dtoMapper::toTaskListDTO)
+            .collect(Collectors.toList()));
+
+        assertEquals(2, lists.size());
+        assertTrue(lists.stream().allMatch(list -> list.getTasks().size() == 3));
+    }
+
+    @Test
+    void searchTaskLists_OneStatementWithTasks() {
+        // GET /api/lists/search
+        List<TaskListDTO> lists = countStatements(1, () -> taskListRepository.findByOwnerAndNameContainingIgnoreCase(owner, "wor").stream()
+            .map(dtoMapper::toTaskListDTO)
+            .collect(Collectors.toList()));
+
+        assertEquals(1, lists.size());
+        assertEquals(owner.getUsername(), lists.get(0).getOwnerUsername());
+    }
+
+    @Test
+    void getAllAuditLogs_OneStatement() {
+        // GET /api/audit
+        for (int i = 0; i < 3; i++) {
+            AuditLog log = new AuditLog();
+            log.setUser(i % 2 == 0 ? owner : newUser());
+            log.setAction("ACTION_" + i);
+            log.setTimestamp(LocalDateTime.now());
+            auditLogRepository.save(log);
+        }
+
+        List<AuditLogDTO> logs = countStatements(1, () -> auditLogRepository.findAll().stream()
+            .map(dtoMapper::toAuditLogDTO)
+            .collect(Collectors.toList()));
+
+        assertTrue(logs.size() >= 3);
+        assertTrue(logs.stream().allMatch(dto -> dto.getUsername() != null));
+    }
+
+    @Test
+    void reminderJob_PreferencesWithUserInOneStatement() {
+        NotificationPreferences preferences = new NotificationPreferences();
+        preferences.setUser(owner);
+        preferences.setEmail(owner.getEmail());
+        notificationPreferencesRepository.save(preferences);
+
+        List<String> zones = countStatements(1, () -> notificationPreferencesRepository.findByUserShard(0, 1).stream()
+            .map(p -> p.getUser().getTimezone())
+            .collect(Collectors.toList()));
+
+        assertFalse(zones.isEmpty());
+    }
+
+    @Test
+    void authentication_LoadsRolesOnlyWhenAsked() {
+        Role role = roleRepository.save(new Role("ROLE_FETCH_" + UUID.randomUUID(), "Fetch"));
+        User user = newUser();
+        user.getRoles().add(role);
+        userRepository.save(user);
+
+        User plain = countStatements(1, () -> userRepository.findByUsername(user.getUsername()).orElseThrow());
+        User withRoles = countStatements(1, () -> userRepository.findWithRolesByUsername(user.getUsername()).orElseThrow());
+
+        assertFalse(Hibernate.isInitialized(plain.getRoles()));
+        assertEquals(1, withRoles.getRoles().size());
+    }
+
+    // Ejecuta la lectura (consulta y mapeo) y comprueba cuántas sentencias preparó Hibernate
+    private <T> T countStatements(long expected, Supplier<T> action) {
+        long before = statistics.getPrepareStatementCount();
+        T result = action.get();
+        assertEquals(expected, statistics.getPrepareStatementCount() - before);
+        return result;
+    }
+
+    private User newUser() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setUsername("fetch-" + suffix);
+        user.setEmail("fetch-" + suffix + "@example.com");
+        user.setPassword("secret");
+        user.setTimezone("Europe/Madrid");
+        return userRepository.save(user);
+    }
+
+    private TaskList newList(String name) {
+        TaskList list = new TaskList();
+        list.setName(name);
+        list.setOwner(owner);
+        list.setUser(owner);
+        return taskListRepository.save(list);
+    }
+
+    private void newTask(TaskList list, User creator, String title) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setTaskList(list);
+        task.setAssignedTo(owner);
+        task.setUser(creator);
+        task.setDueDate(LocalDateTime.now().plusDays(1));
+        taskRepository.save(task);
+    }
+}
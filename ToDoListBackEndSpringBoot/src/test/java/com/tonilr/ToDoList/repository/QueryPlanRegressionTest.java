@@ -0,0 +1,235 @@
+package com.tonilr.ToDoList.repository;
+
+import com.tonilr.ToDoList.model.TaskList;
+import com.tonilr.ToDoList.model.User;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ejecuta EXPLAIN sobre el SQL que Hibernate genera para cada consulta caliente
+ * de los repositorios (H2 en modo MySQL) y falla si alguna tabla se recorre entera
+ * o si el índice elegido no se usa por su columna inicial.
+ * Al añadir una consulta nueva en un camino caliente, añadirla también aquí.
+ *
+ * Consultas que recorren la tabla a propósito y por eso no están aquí:
+ * - AuditLogRepository.findAll: exportación completa desde el panel de administración.
+ * - AuditLogRepository.countTotalLogs: COUNT(*) sin filtro para las estadísticas de limpieza;
+ *   InnoDB lo resuelve con el índice más pequeño, pero lo recorre entero.
+ * - TaskRepository.findTaskListIdsNeedingRebalance: LENGTH(list_rank) no es indexable; la lanza
+ *   TaskRankRebalanceService en segundo plano, una vez por intervalo y bajo lease de clúster.
+ */
+@DataJpaTest
+@ActiveProfiles("test-h2")
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:explaindb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.tonilr.ToDoList.repository.QueryPlanRegressionTest$SqlCapture"
+})
+class QueryPlanRegressionTest {
+
+    // Accesos a tabla en el plan de H2: "/* PUBLIC.TASKS.tableScan */" o "/* PUBLIC.IDX_X: condición */"
+    private static final Pattern TABLE_ACCESS = Pattern.compile("/\\* PUBLIC\\.([A-Z0-9_]+)(\\.tableScan)?(?::(.*?))?\\s*\\*/", Pattern.DOTALL);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskListRepository taskListRepository;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private NotificationPreferencesRepository notificationPreferencesRepository;
+
+    @Autowired
+    private ReminderDeliveryRepository reminderDeliveryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    private User user;
+    private TaskList taskList;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId(1L);
+        taskList = new TaskList();
+        taskList.setId(1L);
+    }
+
+    @Test
+    void taskQueries_UseAnIndex() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("findByAssignedTo", () -> taskRepository.findByAssignedTo(user));
+        queries.put("findByAssignedToAndPriority", () -> taskRepository.findByAssignedToAndPriority(user, 1));
+        queries.put("findByAssignedToAndDueDateBefore", () -> taskRepository.findByAssignedToAndDueDateBefore(user, now));
+        queries.put("findByAssignedToAndTitleContainingIgnoreCase", () -> taskRepository.findByAssignedToAndTitleContainingIgnoreCase(user, "x"));
+        queries.put("findByTaskListId", () -> taskRepository.findByTaskListId(1L));
+        queries.put("findByTaskListIdInManualOrder", () -> taskRepository.findByTaskListIdInManualOrder(1L, PageRequest.of(0, 20)));
+        queries.put("findMaxRankByTaskListId", () -> taskRepository.findMaxRankByTaskListId(1L));
+        queries.put("countByTaskListId", () -> taskRepository.countByTaskListId(1L));
+        queries.put("findIdsByTaskListId", () -> taskRepository.findIdsByTaskListId(1L, PageRequest.of(0, 500)));
+        queries.put("findTasksDueBefore", () -> taskRepository.findTasksDueBefore(now, user));
+        queries.put("findByTaskList", () -> taskRepository.findByTaskList(taskList));
+        queries.put("findArchivableIds", () -> taskRepository.findArchivableIds(now, PageRequest.of(0, 500)));
+        queries.put("findByAssignedToAndCompleted", () -> taskRepository.findByAssignedToAndCompleted(user, false));
+        queries.put("findByAssignedToAndFilters", () -> taskRepository.findByAssignedToAndFilters(user, false, null, null));
+        queries.put("findByAssignedToAndDueDateBetween", () -> taskRepository.findByAssignedToAndDueDateBetween(user, now, now));
+        queries.put("findByAssignedToAndCompletedFalse", () -> taskRepository.findByAssignedToAndCompletedFalse(user));
+        queries.put("findByAssignedToAndDueDateBetweenAndCompletedFalse", () -> taskRepository.findByAssignedToAndDueDateBetweenAndCompletedFalse(user, now, now));
+        queries.put("findByAssignedToIdInAndDueDateBetweenAndCompletedFalse", () -> taskRepository.findByAssignedToIdInAndDueDateBetweenAndCompletedFalse(List.of(1L, 2L), now, now));
+        queries.put("findByAssignedToAndDueDateBeforeAndCompletedFalse", () -> taskRepository.findByAssignedToAndDueDateBeforeAndCompletedFalse(user, now));
+        queries.put("countByAssignedTo", () -> taskRepository.countByAssignedTo(user));
+        queries.put("countByAssignedToAndCompleted", () -> taskRepository.countByAssignedToAndCompleted(user, true));
+        queries.put("countByAssignedToAndPriority", () -> taskRepository.countByAssignedToAndPriority(user, 1));
+        queries.put("countByAssignedToAndDueDateBefore", () -> taskRepository.countByAssignedToAndDueDateBefore(user, now));
+        queries.put("findByAssignedToAndTaskListId", () -> taskRepository.findByAssignedToAndTaskListId(user, 1L));
+        queries.put("findByAssignedToWithPagination", () -> taskRepository.findByAssignedToWithPagination(user, PageRequest.of(0, 20)));
+
+        assertNoFullScans(queries);
+    }
+
+    @Test
+    void taskListQueries_UseAnIndex() {
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("findByOwner", () -> taskListRepository.findByOwner(user));
+        queries.put("findByOwnerAndNameContainingIgnoreCase", () -> taskListRepository.findByOwnerAndNameContainingIgnoreCase(user, "x"));
+        queries.put("findByOwnerIdWithTasks", () -> taskListRepository.findByOwnerIdWithTasks(1L));
+        queries.put("findSummariesByOwnerId", () -> taskListRepository.findSummariesByOwnerId(1L, LocalDateTime.now()));
+        queries.put("countOverdueByOwnerId", () -> taskListRepository.countOverdueByOwnerId(1L, LocalDateTime.now()));
+        queries.put("findPendingDeletionIds", () -> taskListRepository.findPendingDeletionIds());
+
+        assertNoFullScans(queries);
+    }
+
+    @Test
+    void userAndRoleQueries_UseAnIndex() {
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("findByUsername", () -> userRepository.findByUsername("user"));
+        queries.put("findWithRolesByUsername", () -> userRepository.findWithRolesByUsername("user"));
+        queries.put("findByEmail", () -> userRepository.findByEmail("user@example.com"));
+        queries.put("existsByUsername", () -> userRepository.existsByUsername("user"));
+        queries.put("existsByEmail", () -> userRepository.existsByEmail("user@example.com"));
+        queries.put("findRoleByName", () -> roleRepository.findByName("ROLE_USER"));
+
+        assertNoFullScans(queries);
+    }
+
+    @Test
+    void auditAndReminderQueries_UseAnIndex() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(30);
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("countLogsOlderThan", () -> auditLogRepository.countLogsOlderThan(cutoff));
+        queries.put("deleteLogsOlderThan", () -> auditLogRepository.deleteLogsOlderThan(cutoff));
+        queries.put("findPreferencesByUser", () -> notificationPreferencesRepository.findByUser(user));
+        queries.put("findSentReminders", () -> reminderDeliveryRepository.findSent("DUE_DATE", List.of(1L, 2L), LocalDate.now()));
+
+        assertNoFullScans(queries);
+    }
+
+    private void assertNoFullScans(Map<String, Runnable> queries) {
+        List<String> failures = new ArrayList<>();
+        queries.forEach((name, query) -> {
+            SqlCapture.clear();
+            query.run();
+            List<String> statements = SqlCapture.captured();
+            assertFalse(statements.isEmpty(), name + " no generó SQL");
+            for (String sql : statements) {
+                String problem = findFullScan(sql);
+                if (problem != null) {
+                    failures.add(name + ": " + problem + "\n    " + sql);
+                }
+            }
+        });
+        assertTrue(failures.isEmpty(), "Consultas sin índice adecuado:\n" + String.join("\n", failures));
+    }
+
+    /**
+     * @return Description of the full scan in the plan, or null if every table access seeks an index
+     */
+    private String findFullScan(String sql) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+        Matcher matcher = TABLE_ACCESS.matcher(plan);
+        while (matcher.find()) {
+            String accessed = matcher.group(1);
+            if (matcher.group(2) != null) {
+                return "recorrido completo de " + accessed;
+            }
+            String condition = matcher.group(3);
+            String leadingColumn = leadingColumn(accessed);
+            if (condition == null || condition.isBlank()) {
+                // H2 recorre el índice entero para "col IS NOT NULL"; MySQL lo resuelve como rango (type=range)
+                if (leadingColumn != null && Pattern.compile("\\b" + leadingColumn + "\\s+IS NOT NULL\\b",
+                        Pattern.CASE_INSENSITIVE).matcher(sql).find()) {
+                    continue;
+                }
+                return "recorrido completo del índice " + accessed;
+            }
+            if (leadingColumn != null && !Pattern.compile("\\b" + leadingColumn + "\\b").matcher(condition).find()) {
+                return "índice " + accessed + " usado sin su columna inicial " + leadingColumn;
+            }
+        }
+        return null;
+    }
+
+    private String leadingColumn(String indexName) {
+        List<String> columns = jdbcTemplate.queryForList(
+            "SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.INDEX_COLUMNS WHERE INDEX_NAME = ? AND ORDINAL_POSITION = 1",
+            String.class, indexName);
+        return columns.isEmpty() ? null : columns.get(0).toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Guarda el SQL preparado por Hibernate para poder pasarlo a EXPLAIN.
+     */
+    public static class SqlCapture implements StatementInspector {
+        private static final List<String> STATEMENTS = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public String inspect(String sql) {
+            String normalized = sql.trim().toLowerCase(Locale.ROOT);
+            if (normalized.startsWith("select") || normalized.startsWith("delete") || normalized.startsWith("update")) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+
+        static void clear() {
+            STATEMENTS.clear();
+        }
+
+        static List<String> captured() {
+            synchronized (STATEMENTS) {
+                return new ArrayList<>(STATEMENTS);
+            }
+        }
+    }
+}
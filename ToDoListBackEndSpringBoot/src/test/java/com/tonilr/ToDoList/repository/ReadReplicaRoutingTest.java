@@ -0,0 +1,321 @@
+package com.tonilr.ToDoList.repository;
+
+import com.tonilr.ToDoList.config.ReplicaRoutingDataSource;
+import com.tonilr.ToDoList.config.ReplicationLagMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Enrutado a la réplica con dos bases de datos H2 embebidas. La "replicación" se simula
+ * copiando el latido del primario a la réplica; cada base de datos tiene una tabla
+ * node con su nombre para saber a cuál ha ido cada transacción.
+ */
+class ReadReplicaRoutingTest {
+
+    private static final long MAX_LAG_MS = 2000;
+    private static final long READ_YOUR_WRITES_MS = 5000;
+
+    private final MutableClock clock = new MutableClock();
+    private DataSource primary;
+    private DataSource replica;
+    private ReplicaRoutingDataSource routing;
+    private ReplicationLagMonitor monitor;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        primary = newDatabase("primary");
+        replica = newDatabase("replica");
+        use(replica);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void readOnlyTransaction_GoesToReplica_WritesToPrimary() {
+        // Arrange
+        replicate();
+
+        // Act & Assert
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+        assertEquals("primary", readWrite.execute(status -> currentNode()));
+        assertEquals("primary", currentNode());
+    }
+
+    @Test
+    void unknownLag_ReadsStayOnPrimary() {
+        // Sin medición todavía: no se sabe si la réplica está al día
+        assertFalse(routing.isReplicaUsable());
+        assertEquals("primary", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void laggingReplica_FallsBackToPrimaryUntilCaughtUp() {
+        // Arrange: la réplica deja de recibir latidos
+        replicate();
+        clock.advance(MAX_LAG_MS + 1000);
+        monitor.beat();
+
+        // Act
+        monitor.measure();
+
+        // Assert
+        assertEquals(MAX_LAG_MS + 1000, routing.getReplicaLagMillis());
+        assertEquals("primary", readOnly.execute(status -> currentNode()));
+
+        // La réplica se pone al día
+        copyHeartbeat();
+        monitor.measure();
+        assertEquals(0, routing.getReplicaLagMillis());
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void readYourWrites_WriterReadsFromPrimaryDuringWindow() {
+        // Arrange
+        replicate();
+        authenticate("alice");
+        readWrite.executeWithoutResult(status -> jdbc.update("UPDATE node SET name = name"));
+
+        // Act & Assert
+        assertEquals("primary", readOnly.execute(status -> currentNode()));
+        authenticate("bob");
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void readYourWrites_RolledBackWriteDoesNotOpenWindow() {
+        // Arrange
+        replicate();
+        authenticate("alice");
+        readWrite.executeWithoutResult(status -> {
+            jdbc.update("UPDATE node SET name = name");
+            status.setRollbackOnly();
+        });
+
+        // Act & Assert
+        assertFalse(routing.isWithinReadYourWritesWindow("alice"));
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void readYourWrites_CookieKeepsClientOnPrimaryInAnotherNode() {
+        // Arrange: el nodo actual atiende la escritura
+        replicate();
+        authenticate("alice");
+        MockHttpServletResponse writeResponse = new MockHttpServletResponse();
+        bindRequest(new MockHttpServletRequest(), writeResponse);
+        readWrite.executeWithoutResult(status -> jdbc.update("UPDATE node SET name = name"));
+        Cookie cookie = writeResponse.getCookie("rw_until");
+        assertNotNull(cookie, writeResponse.getHeader(HttpHeaders.SET_COOKIE));
+
+        // Otro nodo, sin la escritura en su memoria
+        use(replica);
+        replicate();
+        assertFalse(routing.isWithinReadYourWritesWindow("alice"));
+
+        // Act & Assert: con la cookie la lectura va al primario; sin ella, a la réplica
+        MockHttpServletRequest withCookie = new MockHttpServletRequest();
+        withCookie.setCookies(cookie);
+        bindRequest(withCookie, new MockHttpServletResponse());
+        assertEquals("primary", readOnly.execute(status -> currentNode()));
+
+        bindRequest(new MockHttpServletRequest(), new MockHttpServletResponse());
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void readYourWrites_AnonymousWriteAlsoPinsClient() {
+        // Arrange: registro sin usuario autenticado
+        replicate();
+        MockHttpServletResponse writeResponse = new MockHttpServletResponse();
+        bindRequest(new MockHttpServletRequest(), writeResponse);
+        readWrite.executeWithoutResult(status -> jdbc.update("UPDATE node SET name = name"));
+        Cookie cookie = writeResponse.getCookie("rw_until");
+        assertNotNull(cookie);
+
+        // Act & Assert: el login siguiente, todavía anónimo, lee del primario
+        MockHttpServletRequest login = new MockHttpServletRequest();
+        login.setCookies(cookie);
+        bindRequest(login, new MockHttpServletResponse());
+        assertEquals("primary", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void onPrimary_ReadsSkipReplica() {
+        // Arrange
+        replicate();
+
+        // Act & Assert
+        assertEquals("primary", ReplicaRoutingDataSource.onPrimary(() -> readOnly.execute(status -> currentNode())));
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void readYourWrites_CookieBeyondWindowIsIgnored() {
+        replicate();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie("rw_until", Long.toString(System.currentTimeMillis() + 10 * READ_YOUR_WRITES_MS)));
+        bindRequest(request, new MockHttpServletResponse());
+
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void beat_IsCommittedWhenPoolHasAutoCommitDisabled() {
+        // Arrange: pool del primario como en prod (spring.datasource.hikari.auto-commit=false)
+        String url = newDatabaseUrl("primary-pool");
+        initDatabase(new DriverManagerDataSource(url, "sa", ""), "primary");
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl(url);
+        pool.setUsername("sa");
+        pool.setPassword("");
+        pool.setAutoCommit(false);
+        try {
+            ReplicaRoutingDataSource poolRouting = new ReplicaRoutingDataSource(pool, replica, MAX_LAG_MS, READ_YOUR_WRITES_MS);
+            ReplicationLagMonitor poolMonitor = new ReplicationLagMonitor(pool, replica, poolRouting, clock);
+
+            // Act
+            poolMonitor.beat();
+
+            // Assert: otra conexión, fuera del pool, ve el latido
+            JdbcTemplate other = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+            assertEquals(1, other.queryForObject("SELECT COUNT(*) FROM replication_heartbeat WHERE id = 1", Integer.class));
+        } finally {
+            pool.close();
+        }
+    }
+
+    @Test
+    void unreachableReplica_FallsBackToPrimary() {
+        // Arrange: réplica que no acepta conexiones
+        DriverManagerDataSource missing = new DriverManagerDataSource(
+            "jdbc:h2:mem:missing-" + UUID.randomUUID() + ";IFEXISTS=TRUE", "sa", "");
+        use(missing);
+        routing.updateReplicaLag(0);
+
+        // Act
+        String node = readOnly.execute(status -> currentNode());
+
+        // Assert
+        assertEquals("primary", node);
+        assertFalse(routing.isReplicaUsable());
+
+        monitor.measure();
+        assertFalse(routing.isReplicaUsable());
+    }
+
+    private void use(DataSource replicaDataSource) {
+        routing = new ReplicaRoutingDataSource(primary, replicaDataSource, MAX_LAG_MS, READ_YOUR_WRITES_MS);
+        monitor = new ReplicationLagMonitor(primary, replicaDataSource, routing, clock);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    // Latido en el primario, copia a la réplica y medición: retraso 0
+    private void replicate() {
+        monitor.beat();
+        copyHeartbeat();
+        monitor.measure();
+        assertTrue(routing.isReplicaUsable());
+    }
+
+    private void copyHeartbeat() {
+        Object beat = new JdbcTemplate(primary).queryForObject("SELECT beat_at FROM replication_heartbeat WHERE id = 1", Object.class);
+        JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+        replicaJdbc.update("DELETE FROM replication_heartbeat");
+        replicaJdbc.update("INSERT INTO replication_heartbeat (id, beat_at) VALUES (1, ?)", beat);
+    }
+
+    private String currentNode() {
+        List<String> names = jdbc.queryForList("SELECT name FROM node", String.class);
+        return names.get(0);
+    }
+
+    private void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+
+    private void bindRequest(MockHttpServletRequest request, MockHttpServletResponse response) {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+    }
+
+    private DataSource newDatabase(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(newDatabaseUrl(name), "sa", "");
+        dataSource.setDriverClassName("org.h2.Driver");
+        initDatabase(dataSource, name);
+        return dataSource;
+    }
+
+    private static String newDatabaseUrl(String name) {
+        return "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+    }
+
+    private static void initDatabase(DataSource dataSource, String name) {
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V6__Add_Replication_Heartbeat.sql")).execute(dataSource);
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("CREATE TABLE node (name VARCHAR(16))");
+        template.update("INSERT INTO node (name) VALUES (?)", name);
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T10:00:00Z");
+
+        void advance(long millis) {
+            now = now.plusMillis(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
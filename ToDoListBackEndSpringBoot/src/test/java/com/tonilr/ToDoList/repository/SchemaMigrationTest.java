@@ -0,0 +1,206 @@
+package com.tonilr.ToDoList.repository;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Comprueba que las migraciones de db/migration construyen exactamente el esquema
+ * que esperan las entidades (Hibernate en modo validate), tanto en una base de datos
+ * nueva como en una creada antes con ddl-auto=update, con las estrategias de nombres
+ * actuales o con las antiguas del perfil prod.
+ */
+class SchemaMigrationTest {
+
+    @Test
+    void migrate_EmptyDatabase_MatchesEntities() {
+        // Arrange
+        DataSource dataSource = newDatabase();
+
+        // Act
+        MigrateResult result = flyway(dataSource).migrate();
+
+        // Assert
+        assertEquals("9", result.targetSchemaVersion);
+        assertDoesNotThrow(() -> bootHibernate(dataSource, "validate").destroy());
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        assertEquals(2, jdbc.queryForObject("SELECT COUNT(*) FROM roles WHERE name IN ('ROLE_USER', 'ROLE_ADMIN')", Integer.class));
+    }
+
+    @Test
+    void migrate_ExistingDdlAutoDatabase_BaselinesAndUpgrades() {
+        // Arrange: esquema creado por ddl-auto antes de Flyway, con un usuario sin roles
+        DataSource dataSource = newDatabase();
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__Baseline_Schema.sql")).execute(dataSource);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("INSERT INTO users (username, email, password, timezone) VALUES ('legacy', 'legacy@example.com', 'x', 'UTC')");
+        jdbc.update("INSERT INTO tasks (title, completed, priority, created_at) VALUES ('legacy', TRUE, 1, ?)",
+            LocalDateTime.now().minusYears(2));
+
+        // Act
+        MigrateResult result = flyway(dataSource).migrate();
+
+        // Assert
+        assertEquals(9, result.migrationsExecuted);
+        assertDoesNotThrow(() -> bootHibernate(dataSource, "validate").destroy());
+        assertEquals("ROLE_USER", jdbc.queryForObject(
+            "SELECT r.name FROM user_roles ur JOIN roles r ON r.id = ur.role_id JOIN users u ON u.id = ur.user_id WHERE u.username = 'legacy'",
+            String.class));
+        // Las tareas ya completadas toman la fecha de la migración, no la de creación
+        LocalDateTime completedAt = jdbc.queryForObject("SELECT completed_at FROM tasks WHERE title = 'legacy'", LocalDateTime.class);
+        assertTrue(completedAt.isAfter(LocalDateTime.now().minusDays(1)));
+    }
+
+    @Test
+    void migrate_LegacyNamingStrategyDatabase_RenamesColumnsAndUpgrades() throws IOException {
+        // Arrange: esquema creado por ddl-auto con ImplicitNamingStrategyLegacyJpaImpl y
+        // PhysicalNamingStrategyStandardImpl: columnas en camelCase, sin idx_notif_prefs_type
+        // y claves foráneas con otros nombres
+        DataSource dataSource = newDatabase();
+        new ResourceDatabasePopulator(new ByteArrayResource(legacyNamingBaseline().getBytes(StandardCharsets.UTF_8)))
+            .execute(dataSource);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("INSERT INTO users (username, email, password, timezone) VALUES ('legacy', 'legacy@example.com', 'x', 'UTC')");
+        Long userId = jdbc.queryForObject("SELECT id FROM users WHERE username = 'legacy'", Long.class);
+        jdbc.update("INSERT INTO notification_preferences (user_id, notificationType, dueDateReminder, followUpReminder, "
+            + "dailySummary, dailySummaryTime, weeklySummary, weekendNotifications) VALUES (?, 'EMAIL', TRUE, FALSE, TRUE, '08:30', FALSE, TRUE)",
+            userId);
+        jdbc.update("INSERT INTO tasks (title, completed, priority, created_at, user_id) VALUES ('legacy', FALSE, 1, ?, ?)",
+            LocalDateTime.now(), userId);
+
+        // Act
+        MigrateResult result = flyway(dataSource).migrate();
+
+        // Assert
+        assertEquals(9, result.migrationsExecuted);
+        assertDoesNotThrow(() -> bootHibernate(dataSource, "validate").destroy());
+        assertEquals("EMAIL", jdbc.queryForObject(
+            "SELECT notification_type FROM notification_preferences WHERE user_id = ?", String.class, userId));
+        assertEquals("08:30", jdbc.queryForObject(
+            "SELECT daily_summary_time FROM notification_preferences WHERE user_id = ?", String.class, userId));
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM information_schema.indexes "
+            + "WHERE LOWER(index_name) = 'idx_notif_prefs_type'", Integer.class));
+        // V5 recrea las claves foráneas con el nombre que tenían
+        assertEquals(2, jdbc.queryForObject("SELECT COUNT(*) FROM information_schema.table_constraints "
+            + "WHERE constraint_name IN ('FK_LEGACY_TASKS_USER', 'FK_LEGACY_TASKS_LIST')", Integer.class));
+        assertThrows(Exception.class, () -> jdbc.update("INSERT INTO tasks (title, completed, priority, created_at, user_id) "
+            + "VALUES ('orphan', FALSE, 1, ?, -1)", LocalDateTime.now()));
+    }
+
+    // V1 tal como lo habrían creado las estrategias de nombres antiguas
+    private String legacyNamingBaseline() throws IOException {
+        String sql = new ClassPathResource("db/migration/V1__Baseline_Schema.sql").getContentAsString(StandardCharsets.UTF_8);
+        for (String column : new String[] {"notification_type", "due_date_reminder", "due_date_reminder_time",
+                "follow_up_reminder", "follow_up_days", "daily_summary", "daily_summary_time", "weekly_summary",
+                "weekly_summary_day", "weekly_summary_time", "min_priority", "weekend_notifications"}) {
+            sql = sql.replaceAll("(?m)^    " + column + " ", "    " + toCamelCase(column) + " ");
+        }
+        return sql
+            .replaceAll("(?m)^CREATE INDEX idx_notif_prefs_type .*$", "")
+            .replace("FK6s1ob9k4ihi75xbxe2w0ylsdh", "FK_LEGACY_TASKS_USER")
+            .replace("FKiinc04iyv3yaa1w86w5p724l7", "FK_LEGACY_TASKS_LIST");
+    }
+
+    private String toCamelCase(String column) {
+        StringBuilder camel = new StringBuilder();
+        for (String part : column.split("_")) {
+            camel.append(camel.length() == 0 ? part : Character.toUpperCase(part.charAt(0)) + part.substring(1));
+        }
+        return camel.toString();
+    }
+
+    /**
+     * Compara el arranque de JPA con validate (esquema ya migrado) frente a update.
+     * No corre en el build normal: mvn test -Dgroups=benchmark -Dtest.excludedGroups=
+     */
+    @Test
+    @Tag("benchmark")
+    void benchmark_StartupValidateVsUpdate() {
+        int iterations = Integer.getInteger("schema.benchmark.iterations", 10);
+        DataSource dataSource = newDatabase();
+        flyway(dataSource).migrate();
+
+        // Calentamiento para no medir la carga de clases
+        bootHibernate(dataSource, "validate").destroy();
+        bootHibernate(dataSource, "update").destroy();
+
+        long[] flywayCheck = new long[iterations];
+        long[] validate = new long[iterations];
+        long[] update = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            MigrateResult noop = flyway(dataSource).migrate();
+            flywayCheck[i] = System.nanoTime() - start;
+            assertEquals(0, noop.migrationsExecuted);
+
+            start = System.nanoTime();
+            bootHibernate(dataSource, "validate").destroy();
+            validate[i] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            bootHibernate(dataSource, "update").destroy();
+            update[i] = System.nanoTime() - start;
+        }
+
+        System.out.printf("Arranque del esquema (mediana de %d): flyway sin cambios %.1f ms, validate %.1f ms, update %.1f ms%n",
+            iterations, median(flywayCheck), median(validate), median(update));
+    }
+
+    private DataSource newDatabase() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:migration-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        dataSource.setDriverClassName("org.h2.Driver");
+        return dataSource;
+    }
+
+    // Misma configuración que spring.flyway.* en application.properties
+    private Flyway flyway(DataSource dataSource) {
+        return Flyway.configure()
+            .dataSource(dataSource)
+            .locations("classpath:db/migration")
+            .baselineOnMigrate(true)
+            .baselineVersion("1")
+            .load();
+    }
+
+    private LocalContainerEntityManagerFactoryBean bootHibernate(DataSource dataSource, String ddlAuto) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("hibernate.hbm2ddl.auto", ddlAuto);
+        // Estrategias de nombres por defecto de Spring Boot
+        properties.put("hibernate.physical_naming_strategy", "org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy");
+        properties.put("hibernate.implicit_naming_strategy", "org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy");
+
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setPackagesToScan("com.tonilr.ToDoList.model");
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.setJpaPropertyMap(properties);
+        factory.afterPropertiesSet();
+        return factory;
+    }
+
+    private double median(long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,143 @@
+package com.tonilr.ToDoList.repository;
+
+import com.tonilr.ToDoList.config.CacheRegionsEndpoint;
+import com.tonilr.ToDoList.model.Role;
+import com.tonilr.ToDoList.model.TaskList;
+import com.tonilr.ToDoList.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cada llamada al repositorio abre su propia sesión, así que una segunda lectura
+ * sin sentencias SQL solo puede venir de la caché de segundo nivel.
+ */
+@DataJpaTest
+@ActiveProfiles("test-h2")
+@TestPropertySource(properties = {
+    "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+    "spring.jpa.properties.hibernate.cache.use_query_cache=true"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskListRepository taskListRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findRoleByName_SecondLookupServedFromQueryCache() {
+        // Arrange
+        String name = "ROLE_CACHE_" + UUID.randomUUID();
+        roleRepository.save(new Role(name, "Caché"));
+        roleRepository.findByName(name);
+        long statements = statistics.getPrepareStatementCount();
+
+        // Act
+        Role role = roleRepository.findByName(name).orElseThrow();
+
+        // Assert
+        assertEquals(name, role.getName());
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getQueryRegionStatistics("roleQueries").getHitCount() > 0);
+    }
+
+    @Test
+    void findRoleById_SecondLoadServedFromCache() {
+        // Arrange
+        Role role = roleRepository.save(new Role("ROLE_BYID_" + UUID.randomUUID(), "Caché"));
+        roleRepository.findById(role.getId());
+        long statements = statistics.getPrepareStatementCount();
+
+        // Act
+        Role loaded = roleRepository.findById(role.getId()).orElseThrow();
+
+        // Assert
+        assertEquals(role.getName(), loaded.getName());
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getCacheRegionStatistics("roles").getHitCount() > 0);
+    }
+
+    @Test
+    void usersAndTaskLists_AreAlwaysReadFromTheDatabase() {
+        // Arrange: la caché es local a cada nodo, así que solo guarda datos que no cambian
+        TaskList list = new TaskList();
+        list.setName("Sin caché");
+        list.setOwner(newUser());
+        list = taskListRepository.save(list);
+        userRepository.findById(list.getOwner().getId());
+        taskListRepository.findById(list.getId());
+        long statements = statistics.getPrepareStatementCount();
+
+        // Act
+        userRepository.findById(list.getOwner().getId()).orElseThrow();
+        taskListRepository.findById(list.getId()).orElseThrow();
+
+        // Assert
+        assertEquals(statements + 2, statistics.getPrepareStatementCount());
+        assertFalse(entityManagerFactory.getCache().contains(User.class, list.getOwner().getId()));
+        assertFalse(entityManagerFactory.getCache().contains(TaskList.class, list.getId()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void cacheRegionsEndpoint_ReportsPerRegionCounters() {
+        // Arrange
+        Role role = roleRepository.save(new Role("ROLE_REGION_" + UUID.randomUUID(), "Caché"));
+        roleRepository.findById(role.getId());
+        roleRepository.findById(role.getId());
+        CacheRegionsEndpoint endpoint = new CacheRegionsEndpoint();
+        ReflectionTestUtils.setField(endpoint, "entityManagerFactory", entityManagerFactory);
+
+        // Act
+        Map<String, Object> result = endpoint.regions();
+
+        // Assert
+        assertEquals(true, result.get("statisticsEnabled"));
+        Map<String, Object> regions = (Map<String, Object>) result.get("regions");
+        assertTrue(regions.containsKey("roles"));
+        assertFalse(regions.keySet().stream().anyMatch(List.of("users", "userRoles", "taskLists")::contains));
+        Map<String, Object> roles = (Map<String, Object>) regions.get("roles");
+        assertTrue((Long) roles.get("hits") > 0);
+    }
+
+    private User newUser() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setUsername("cache-" + suffix);
+        user.setEmail("cache-" + suffix + "@example.com");
+        user.setPassword("secret");
+        return userRepository.save(user);
+    }
+}
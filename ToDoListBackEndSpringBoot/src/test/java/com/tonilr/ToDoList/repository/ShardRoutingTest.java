@@ -0,0 +1,388 @@
+package com.tonilr.ToDoList.repository;
+
+import com.tonilr.ToDoList.config.ShardContext;
+import com.tonilr.ToDoList.config.ShardRoutingDataSource;
+import com.tonilr.ToDoList.config.ShardRoutingFilter;
+import com.tonilr.ToDoList.model.AuditLog;
+import com.tonilr.ToDoList.model.Task;
+import com.tonilr.ToDoList.model.TaskList;
+import com.tonilr.ToDoList.model.User;
+import com.tonilr.ToDoList.service.ShardRebalanceService;
+import com.tonilr.ToDoList.service.ShardRouter;
+import com.tonilr.ToDoList.service.TaskArchiveService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sharding con tres bases de datos H2 embebidas migradas con Flyway: los repositorios
+ * escriben en el shard del usuario y ShardRebalanceService mueve sus datos entre shards.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=validate",
+    "app.sharding.rebalance.drain-ms=0"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test-h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ShardRouter.class, ShardRebalanceService.class, ShardRoutingTest.ShardedDataSourceConfig.class})
+class ShardRoutingTest {
+
+    private static final int SHARDS = 3;
+    private static final int ID_BLOCK_BITS = 40;
+
+    @TestConfiguration
+    static class ShardedDataSourceConfig {
+
+        @Bean
+        @Primary
+        ShardRoutingDataSource dataSource() {
+            List<DataSource> shards = new ArrayList<>();
+            for (int shard = 0; shard < SHARDS; shard++) {
+                DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                    "jdbc:h2:mem:shard" + shard + "-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+                dataSource.setDriverClassName("org.h2.Driver");
+                shards.add(dataSource);
+            }
+            // En la aplicación el shard 0 lo migra Spring Boot
+            Flyway.configure().dataSource(shards.get(0)).locations("classpath:db/migration").load().migrate();
+            ShardRoutingDataSource routing = new ShardRoutingDataSource(shards);
+            routing.prepareShards(ID_BLOCK_BITS);
+            return routing;
+        }
+    }
+
+    @Autowired
+    private ShardRoutingDataSource routing;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ShardRebalanceService shardRebalanceService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskListRepository taskListRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private ArchivedTaskRepository archivedTaskRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(shardRouter, "directoryCacheMillis", 0L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        for (int shard = 0; shard < SHARDS; shard++) {
+            JdbcTemplate jdbc = jdbc(shard);
+            for (String table : List.of("tasks_archive", "tasks", "task_lists", "audit_logs", "user_roles", "users")) {
+                jdbc.update("DELETE FROM " + table);
+            }
+        }
+        jdbc(0).update("DELETE FROM user_shards");
+        jdbc(0).update("DELETE FROM reminder_deliveries");
+    }
+
+    @Test
+    void repositoryWrites_LandInUserShardWithShardIdBlock() {
+        // Arrange
+        User user = userOnShard(2);
+
+        // Act
+        TaskList list = shardRouter.callForUser(user.getId(), () -> newList(user, "Work"));
+        Task task = shardRouter.callForUser(user.getId(), () -> newTask(list, user, "Write report"));
+
+        // Assert
+        long blockStart = ShardRoutingDataSource.idBlockStart(2, ID_BLOCK_BITS);
+        assertTrue(list.getId() >= blockStart);
+        assertTrue(task.getId() >= blockStart);
+        assertEquals(2, shardRouter.shardForId(task.getId()));
+        assertEquals(1, count(2, "tasks"));
+        assertEquals(0, count(0, "tasks"));
+        assertEquals(0, count(0, "task_lists"));
+        assertTrue(shardRouter.callForUser(user.getId(), () -> taskRepository.findById(task.getId())).isPresent());
+        assertTrue(taskRepository.findById(task.getId()).isEmpty());
+    }
+
+    @Test
+    void firstAssignment_LegacyDataStaysOnDirectory_NewUsersAreHashed() {
+        // Arrange: lista creada antes de activar el sharding, en el shard 0
+        User legacy = newUser();
+        newList(legacy, "Legacy");
+        User fresh = newUser();
+
+        // Act
+        int legacyShard = shardRouter.shardFor(legacy.getId());
+        int freshShard = shardRouter.shardFor(fresh.getId());
+
+        // Assert
+        assertEquals(0, legacyShard);
+        assertEquals((int) Math.floorMod(fresh.getId(), (long) SHARDS), freshShard);
+        assertEquals(1, jdbc(freshShard).queryForObject("SELECT COUNT(*) FROM users WHERE id = ?", Integer.class, fresh.getId()));
+        assertEquals(freshShard, jdbc(0).queryForObject("SELECT shard_id FROM user_shards WHERE user_id = ?", Integer.class, fresh.getId()));
+    }
+
+    @Test
+    void moveUser_CopiesRowsWithNewIdsAndSwitchesAssignment() {
+        // Arrange
+        User user = userOnShard(1);
+        shardRouter.runOnShard(1, () -> {
+            TaskList list = newList(user, "Home");
+            newTask(list, user, "Buy milk");
+            newTask(list, user, "Fix door");
+            AuditLog log = new AuditLog();
+            log.setUser(user);
+            log.setAction("CREAR_TAREA");
+            log.setDetails("Buy milk");
+            log.setTimestamp(LocalDateTime.now());
+            auditLogRepository.save(log);
+        });
+
+        // Act
+        Map<String, Object> result = shardRebalanceService.moveUser(user.getId(), 2);
+
+        // Assert
+        assertEquals(2, result.get("tasks"));
+        assertEquals(2, shardRouter.shardFor(user.getId()));
+        assertFalse(shardRouter.isMoving(user.getId()));
+        assertEquals(0, count(1, "tasks") + count(1, "task_lists") + count(1, "audit_logs"));
+        assertEquals(2, count(2, "tasks"));
+        assertEquals(1, count(2, "audit_logs"));
+
+        List<TaskList> lists = shardRouter.callForUser(user.getId(), () -> taskListRepository.findByOwnerIdWithTasks(user.getId()));
+        assertEquals(1, lists.size());
+        assertEquals(2, lists.get(0).getTasks().size());
+        assertEquals(2, shardRouter.shardForId(lists.get(0).getId()));
+    }
+
+    @Test
+    void moveUser_CopiesReminderLedgerToNewTaskIds() {
+        // Arrange: recordatorio ya enviado para la tarea en el shard de origen
+        User user = userOnShard(1);
+        Task task = shardRouter.callForUser(user.getId(), () -> newTask(newList(user, "Home"), user, "Pay rent"));
+        LocalDate windowDay = task.getDueDate().toLocalDate();
+        jdbc(0).update("INSERT INTO reminder_deliveries (task_id, reminder_kind, window_day, sent_at) VALUES (?, 'DUE_DATE', ?, ?)",
+            task.getId(), Date.valueOf(windowDay), new Timestamp(System.currentTimeMillis()));
+
+        // Act
+        shardRebalanceService.moveUser(user.getId(), 2);
+
+        // Assert: la tarea tiene id nuevo y el registro la sigue dando por avisada
+        Long newId = jdbc(2).queryForObject("SELECT id FROM tasks WHERE title = 'Pay rent'", Long.class);
+        assertNotEquals(task.getId(), newId);
+        assertEquals(1, jdbc(0).queryForObject(
+            "SELECT COUNT(*) FROM reminder_deliveries WHERE task_id = ? AND reminder_kind = 'DUE_DATE' AND window_day = ?",
+            Integer.class, newId, Date.valueOf(windowDay)));
+    }
+
+    @Test
+    void archive_SkipsShardWhileUserIsMoving() {
+        // Arrange: tarea archivable en el shard 1
+        User user = userOnShard(1);
+        shardRouter.runOnShard(1, () -> {
+            Task task = newTask(newList(user, "Done"), user, "Old task");
+            task.setCompleted(true);
+            task.setCompletedAt(LocalDateTime.now().minusDays(200));
+            taskRepository.save(task);
+        });
+        TaskArchiveService archiveService = new TaskArchiveService();
+        ReflectionTestUtils.setField(archiveService, "taskRepository", taskRepository);
+        ReflectionTestUtils.setField(archiveService, "archivedTaskRepository", archivedTaskRepository);
+        ReflectionTestUtils.setField(archiveService, "shardRouter", shardRouter);
+        ReflectionTestUtils.setField(archiveService, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(archiveService, "batchSize", 10);
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(90);
+        long deadline = System.currentTimeMillis() + 60_000;
+
+        // Act: con el usuario moviéndose no se toca el shard de origen
+        shardRouter.setMoving(user.getId(), true);
+        long duringMove = shardRouter.callOnShard(1, () -> archiveService.archiveCompletedBefore(cutoff, deadline));
+        shardRouter.setMoving(user.getId(), false);
+        long afterMove = shardRouter.callOnShard(1, () -> archiveService.archiveCompletedBefore(cutoff, deadline));
+
+        // Assert
+        assertFalse(shardRouter.hasMoveInProgress(1));
+        assertEquals(0, duringMove);
+        assertEquals(1, afterMove);
+        assertEquals(0, count(1, "tasks"));
+        assertEquals(1, count(1, "tasks_archive"));
+    }
+
+    @Test
+    void userStub_LoadedOnShard_CannotOverwriteDirectoryRow() {
+        // Arrange: copia del usuario leída en su shard (sin contraseña), como la que podría quedar cacheada
+        User user = userOnShard(1);
+        User stub = shardRouter.callOnShard(1, () -> userRepository.findById(user.getId())).orElseThrow();
+        assertNull(stub.getPassword());
+
+        // Act: guardarla en el shard 0 borraría la contraseña real
+        stub.setTimezone("UTC");
+        assertThrows(RuntimeException.class, () -> userRepository.save(stub));
+
+        // Assert: la fila real sigue intacta y se puede actualizar cargándola del directorio
+        assertEquals("secret", jdbc(0).queryForObject("SELECT password FROM users WHERE id = ?", String.class, user.getId()));
+        User real = userRepository.findById(user.getId()).orElseThrow();
+        real.setTimezone("UTC");
+        userRepository.save(real);
+        assertEquals("UTC", jdbc(0).queryForObject("SELECT timezone FROM users WHERE id = ?", String.class, user.getId()));
+        assertEquals("secret", jdbc(0).queryForObject("SELECT password FROM users WHERE id = ?", String.class, user.getId()));
+    }
+
+    @Test
+    void moveObservedFromAnotherNode_EvictsTaskCaches() {
+        // Arrange: este nodo tiene cacheada la asignación y datos del usuario
+        User user = userOnShard(1);
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager("tasks");
+        cacheManager.getCache("tasks").put("user_" + user.getUsername() + "_all", List.of());
+        Object previousCacheManager = ReflectionTestUtils.getField(shardRouter, "cacheManager");
+        ReflectionTestUtils.setField(shardRouter, "cacheManager", cacheManager);
+        try {
+            assertEquals(1, shardRouter.shardFor(user.getId()));
+
+            // Act: otro nodo mueve al usuario (solo cambia el directorio)
+            jdbc(0).update("UPDATE user_shards SET shard_id = 2 WHERE user_id = ?", user.getId());
+
+            // Assert
+            assertEquals(2, shardRouter.shardFor(user.getId()));
+            assertNull(cacheManager.getCache("tasks").get("user_" + user.getUsername() + "_all"));
+        } finally {
+            ReflectionTestUtils.setField(shardRouter, "cacheManager", previousCacheManager);
+        }
+    }
+
+    @Test
+    void moveUser_InvalidTargets_AreRejected() {
+        User user = userOnShard(1);
+
+        assertThrows(IllegalArgumentException.class, () -> shardRebalanceService.moveUser(user.getId(), 1));
+        assertThrows(IllegalArgumentException.class, () -> shardRebalanceService.moveUser(user.getId(), SHARDS));
+        shardRouter.setMoving(user.getId(), true);
+        assertThrows(IllegalStateException.class, () -> shardRebalanceService.moveUser(user.getId(), 2));
+    }
+
+    @Test
+    void filter_RejectsWritesWhileMoving_ReadsRunOnUserShard() throws Exception {
+        // Arrange
+        User user = userOnShard(2);
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(user.getUsername(), null, List.of()));
+        ShardRoutingFilter filter = new ShardRoutingFilter(shardRouter);
+        AtomicReference<Integer> seenShard = new AtomicReference<>();
+        shardRouter.setMoving(user.getId(), true);
+
+        // Act
+        MockHttpServletResponse write = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/tasks"), write, (request, response) -> seenShard.set(-1));
+        MockHttpServletResponse read = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/tasks"), read, (request, response) -> seenShard.set(ShardContext.current()));
+
+        // Assert
+        assertEquals(503, write.getStatus());
+        assertEquals("5", write.getHeader("Retry-After"));
+        assertEquals(200, read.getStatus());
+        assertEquals(2, seenShard.get());
+        assertNull(ShardContext.current());
+    }
+
+    @Test
+    void callOnShard_InsideTransactionOnAnotherShard_Throws() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        transaction.executeWithoutResult(status -> {
+            taskListRepository.count();
+            assertEquals(0L, (long) shardRouter.callOnShard(0, taskListRepository::count));
+            assertThrows(IllegalStateException.class, () -> shardRouter.callOnShard(1, taskListRepository::count));
+        });
+    }
+
+    private User userOnShard(int shard) {
+        User user = newUser();
+        shardRouter.copyUserStubs(List.of(user.getId()), shard);
+        shardRouter.assign(user.getId(), shard);
+        return user;
+    }
+
+    private User newUser() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setUsername("shard-" + suffix);
+        user.setEmail("shard-" + suffix + "@example.com");
+        user.setPassword("secret");
+        user.setTimezone("Europe/Madrid");
+        return userRepository.save(user);
+    }
+
+    private TaskList newList(User owner, String name) {
+        TaskList list = new TaskList();
+        list.setName(name);
+        list.setOwner(owner);
+        list.setUser(owner);
+        return taskListRepository.save(list);
+    }
+
+    private Task newTask(TaskList list, User user, String title) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setTaskList(list);
+        task.setAssignedTo(user);
+        task.setUser(user);
+        task.setDueDate(LocalDateTime.now().plusDays(1));
+        return taskRepository.save(task);
+    }
+
+    private JdbcTemplate jdbc(int shard) {
+        return new JdbcTemplate(routing.getShard(shard));
+    }
+
+    private long count(int shard, String table) {
+        return jdbc(shard).queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+}
@@ -0,0 +1,157 @@
+package com.tonilr.ToDoList.repository;
+
+import com.tonilr.ToDoList.dto.TaskListSummaryDTO;
+import com.tonilr.ToDoList.model.Task;
+import com.tonilr.ToDoList.model.TaskList;
+import com.tonilr.ToDoList.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test-h2")
+class TaskListRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskListRepository taskListRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private User owner;
+    private TaskList work;
+    private TaskList empty;
+
+    @BeforeEach
+    void setUp() {
+        owner = new User();
+        owner.setUsername("owner");
+        owner.setEmail("owner@example.com");
+        owner.setPassword("secret");
+        owner = userRepository.save(owner);
+
+        work = newList("Work");
+        empty = newList("Empty");
+
+        LocalDateTime now = LocalDateTime.now();
+        newTask(work, "Overdue", false, now.minusDays(1));
+        newTask(work, "Done", true, now.minusDays(2));
+        newTask(work, "Upcoming", false, now.plusDays(1));
+    }
+
+    private TaskList newList(String name) {
+        TaskList list = new TaskList();
+        list.setName(name);
+        list.setOwner(owner);
+        return taskListRepository.save(list);
+    }
+
+    private void newTask(TaskList list, String title, boolean completed, LocalDateTime dueDate) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setCompleted(completed);
+        task.setDueDate(dueDate);
+        task.setTaskList(list);
+        task.setUser(owner);
+        task.setAssignedTo(owner);
+        taskRepository.save(task);
+    }
+
+    @Test
+    void findSummariesByOwnerId_CountsTasksWithoutLoadingThem() {
+        // Act
+        List<TaskListSummaryDTO> summaries = taskListRepository.findSummariesByOwnerId(owner.getId(), LocalDateTime.now());
+
+        // Assert
+        assertEquals(2, summaries.size());
+        TaskListSummaryDTO workSummary = summaries.get(0);
+        assertEquals(work.getId(), workSummary.getId());
+        assertEquals(3, workSummary.getTaskCount());
+        assertEquals(1, workSummary.getCompletedCount());
+        assertEquals(1, workSummary.getOverdueCount());
+
+        TaskListSummaryDTO emptySummary = summaries.get(1);
+        assertEquals(empty.getId(), emptySummary.getId());
+        assertEquals(0, emptySummary.getTaskCount());
+        assertEquals(0, emptySummary.getCompletedCount());
+        assertEquals(0, emptySummary.getOverdueCount());
+    }
+
+    @Test
+    void countOverdueByOwnerId_OnlyListsWithOverdueTasks() {
+        // Act
+        List<Object[]> rows = taskListRepository.countOverdueByOwnerId(owner.getId(), LocalDateTime.now());
+
+        // Assert
+        assertEquals(1, rows.size());
+        assertEquals(work.getId(), rows.get(0)[0]);
+        assertEquals(1L, rows.get(0)[1]);
+    }
+
+    @Test
+    void findByTaskListId_ReturnsRequestedPage() {
+        // Act
+        Page<Task> page = taskRepository.findByTaskListId(work.getId(), PageRequest.of(0, 2, Sort.by("dueDate")));
+
+        // Assert
+        assertEquals(3, page.getTotalElements());
+        assertEquals(2, page.getContent().size());
+        assertEquals("Done", page.getContent().get(0).getTitle());
+    }
+
+    @Test
+    void findByTaskListId_UnrankedTasksGoLast() {
+        // Arrange: "Upcoming" se movió a mano; las demás no tienen rango todavía
+        Task ranked = taskRepository.findByTaskListId(work.getId()).stream()
+            .filter(task -> task.getTitle().equals("Upcoming")).findFirst().orElseThrow();
+        ranked.setRank("i");
+        taskRepository.save(ranked);
+
+        // Act
+        Page<Task> page = taskRepository.findByTaskListIdInManualOrder(work.getId(), PageRequest.of(0, 3));
+
+        // Assert
+        assertEquals(List.of("Upcoming", "Overdue", "Done"), page.getContent().stream().map(Task::getTitle).toList());
+    }
+
+    @Test
+    void tasksOfDeletedList_AreHiddenFromUserQueries() {
+        // Arrange: la lista está marcada y la purga aún no ha borrado sus tareas
+        LocalDateTime now = LocalDateTime.now();
+        newTask(empty, "Sin lista", false, now.plusHours(1));
+        Task orphan = new Task();
+        orphan.setTitle("Suelta");
+        orphan.setDueDate(now.plusHours(2));
+        orphan.setUser(owner);
+        orphan.setAssignedTo(owner);
+        taskRepository.save(orphan);
+        work.setDeletedAt(now);
+        taskListRepository.save(work);
+
+        // Act
+        List<Task> all = taskRepository.findByAssignedTo(owner);
+        List<Task> pending = taskRepository.findByAssignedToAndCompletedFalse(owner);
+        List<Task> upcoming = taskRepository.findByAssignedToIdInAndDueDateBetweenAndCompletedFalse(
+            List.of(owner.getId()), now.minusDays(3), now.plusDays(3));
+
+        // Assert: solo quedan la tarea de la otra lista y la que no tiene lista
+        assertEquals(List.of("Sin lista", "Suelta"), all.stream().map(Task::getTitle).sorted().toList());
+        assertEquals(2, pending.size());
+        assertEquals(2, upcoming.size());
+        assertTrue(taskRepository.findByAssignedToAndTaskListId(owner, work.getId()).isEmpty());
+        assertEquals(3, taskRepository.countByTaskListId(work.getId()));
+    }
+}
@@ -0,0 +1,106 @@
+package com.tonilr.ToDoList.service;
+
+import com.tonilr.ToDoList.repository.ClusterNodeRepository;
+import com.tonilr.ToDoList.repository.SchedulerLockRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Simula varios nodos de la aplicación compartiendo una misma base de datos H2.
+ */
+@DataJpaTest
+@ActiveProfiles("test-h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ClusterCoordinationServiceTest {
+
+    @Autowired
+    private SchedulerLockRepository lockRepository;
+
+    @Autowired
+    private ClusterNodeRepository nodeRepository;
+
+    private ClusterCoordinationService nodeA;
+    private ClusterCoordinationService nodeB;
+
+    @BeforeEach
+    void setUp() {
+        lockRepository.deleteAll();
+        nodeRepository.deleteAll();
+        nodeA = newNode("node-a");
+        nodeB = newNode("node-b");
+    }
+
+    private ClusterCoordinationService newNode(String nodeId) {
+        ClusterCoordinationService node = new ClusterCoordinationService();
+        ReflectionTestUtils.setField(node, "lockRepository", lockRepository);
+        ReflectionTestUtils.setField(node, "nodeRepository", nodeRepository);
+        ReflectionTestUtils.setField(node, "clusterEnabled", true);
+        ReflectionTestUtils.setField(node, "configuredNodeId", nodeId);
+        ReflectionTestUtils.setField(node, "nodeTtlSeconds", 90L);
+        node.init();
+        return node;
+    }
+
+    @Test
+    void tryLock_OnlyOneNodeHoldsTheLease() {
+        assertTrue(nodeA.tryLock("job", Duration.ofMinutes(5)));
+        assertFalse(nodeB.tryLock("job", Duration.ofMinutes(5)));
+
+        nodeA.unlock("job", LocalDateTime.now());
+
+        assertTrue(nodeB.tryLock("job", Duration.ofMinutes(5)));
+        assertFalse(nodeA.tryLock("job", Duration.ofMinutes(5)));
+    }
+
+    @Test
+    void tryLock_IsNotReentrantOnTheSameNode() {
+        assertTrue(nodeA.tryLock("job", Duration.ofMinutes(5)));
+
+        // Otro hilo del mismo nodo no puede entrar mientras dura el lease
+        assertFalse(nodeA.tryLock("job", Duration.ofMinutes(5)));
+
+        nodeA.unlock("job", LocalDateTime.now());
+        assertTrue(nodeA.tryLock("job", Duration.ofMinutes(5)));
+    }
+
+    @Test
+    void runExclusively_LockAtLeastForBlocksSecondRun() {
+        AtomicInteger runs = new AtomicInteger();
+
+        assertTrue(nodeA.runExclusively("cleanup", Duration.ofMinutes(5), Duration.ofMinutes(1), runs::incrementAndGet));
+        assertFalse(nodeB.runExclusively("cleanup", Duration.ofMinutes(5), Duration.ofMinutes(1), runs::incrementAndGet));
+
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void currentShard_SplitsUsersAcrossLiveNodes() {
+        ClusterCoordinationService.ShardAssignment shardA = nodeA.currentShard();
+        ClusterCoordinationService.ShardAssignment shardB = nodeB.currentShard();
+
+        assertEquals(2, shardA.getCount());
+        assertEquals(2, shardB.getCount());
+        assertNotEquals(shardA.getIndex(), shardB.getIndex());
+        for (long userId = 1; userId <= 100; userId++) {
+            assertTrue(shardA.owns(userId) ^ shardB.owns(userId));
+        }
+
+        nodeB.shutdown();
+
+        ClusterCoordinationService.ShardAssignment alone = nodeA.currentShard();
+        assertEquals(1, alone.getCount());
+        assertTrue(alone.owns(42L));
+    }
+}
@@ -0,0 +1,192 @@
+package com.tonilr.ToDoList.service;
+
+import com.tonilr.ToDoList.model.SchedulerLock;
+import com.tonilr.ToDoList.repository.ClusterNodeRepository;
+import com.tonilr.ToDoList.repository.SchedulerLockRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Dos contextos de Spring independientes (cada uno con su pool de conexiones) sobre la misma
+ * base de datos H2 compiten por el lease de limpieza de logs, como dos nodos reales.
+ */
+class ClusterLeaseContextsTest {
+
+    private static final String DB_URL = "jdbc:h2:mem:cluster-leases;DB_CLOSE_DELAY=-1";
+
+    private static ConfigurableApplicationContext contextA;
+    private static ConfigurableApplicationContext contextB;
+
+    @BeforeAll
+    static void startNodes() {
+        // Arrancan uno detrás de otro para que solo el primero cree el esquema
+        contextA = startNode("node-a");
+        contextB = startNode("node-b");
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        if (contextB != null) {
+            contextB.close();
+        }
+        if (contextA != null) {
+            contextA.close();
+        }
+    }
+
+    private static ConfigurableApplicationContext startNode(String nodeId) {
+        return new SpringApplicationBuilder(LeaseNode.class)
+            .web(WebApplicationType.NONE)
+            .run("--spring.config.name=cluster-lease-test",
+                 "--spring.main.banner-mode=off",
+                 "--spring.datasource.url=" + DB_URL,
+                 "--spring.datasource.username=sa",
+                 "--spring.datasource.password=",
+                 "--spring.datasource.hikari.maximum-pool-size=4",
+                 "--spring.jpa.hibernate.ddl-auto=update",
+                 "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                 "--app.cluster.enabled=true",
+                 "--app.cluster.node-id=" + nodeId);
+    }
+
+    @BeforeEach
+    void clearLeases() {
+        contextA.getBean(SchedulerLockRepository.class).deleteAll();
+    }
+
+    @Test
+    void cleanupLease_RunsOnOneNodeOnly() throws Exception {
+        // Arrange: cuatro hilos por nodo lanzan la limpieza a la vez
+        ClusterCoordinationService nodeA = contextA.getBean(ClusterCoordinationService.class);
+        ClusterCoordinationService nodeB = contextB.getBean(ClusterCoordinationService.class);
+        AtomicInteger runs = new AtomicInteger();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        Runnable cleanup = () -> {
+            maxConcurrent.accumulateAndGet(running.incrementAndGet(), Math::max);
+            runs.incrementAndGet();
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+        };
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < 8; i++) {
+                ClusterCoordinationService node = i % 2 == 0 ? nodeA : nodeB;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return node.runExclusively(AuditLogService.CLEANUP_LEASE,
+                        Duration.ofMinutes(30), Duration.ofMinutes(5), cleanup);
+                }));
+            }
+
+            // Act
+            start.countDown();
+            int won = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(10, TimeUnit.SECONDS)) {
+                    won++;
+                }
+            }
+
+            // Assert: lockAtLeastFor impide además que otro nodo repita la limpieza al terminar
+            assertEquals(1, won);
+            assertEquals(1, runs.get());
+            assertEquals(1, maxConcurrent.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void leaseHolder_IsVisibleFromTheOtherNode() {
+        ClusterCoordinationService nodeA = contextA.getBean(ClusterCoordinationService.class);
+        ClusterCoordinationService nodeB = contextB.getBean(ClusterCoordinationService.class);
+
+        assertTrue(nodeB.tryLock(AuditLogService.CLEANUP_LEASE, Duration.ofMinutes(5)));
+
+        assertFalse(nodeA.tryLock(AuditLogService.CLEANUP_LEASE, Duration.ofMinutes(5)));
+        SchedulerLock lease = contextA.getBean(SchedulerLockRepository.class)
+            .findById(AuditLogService.CLEANUP_LEASE).orElseThrow();
+        assertEquals("node-b", lease.getLockedBy());
+    }
+
+    @Test
+    void dailyMaintenance_SkipsCleanupWhileOtherNodeHoldsAuditLease() {
+        // Arrange: el nodo B está en plena limpieza programada de AuditLogService
+        ClusterCoordinationService nodeB = contextB.getBean(ClusterCoordinationService.class);
+        assertTrue(nodeB.tryLock(AuditLogService.CLEANUP_LEASE, Duration.ofMinutes(5)));
+
+        AuditLogService auditLogService = mock(AuditLogService.class);
+        SystemMaintenanceService maintenanceA = new SystemMaintenanceService();
+        ReflectionTestUtils.setField(maintenanceA, "auditLogService", auditLogService);
+        ReflectionTestUtils.setField(maintenanceA, "clusterCoordinationService", contextA.getBean(ClusterCoordinationService.class));
+        ReflectionTestUtils.setField(maintenanceA, "maintenanceEnabled", true);
+        ReflectionTestUtils.setField(maintenanceA, "cacheCleanupEnabled", false);
+
+        // Act
+        maintenanceA.dailyMaintenance();
+
+        // Assert
+        verify(auditLogService, never()).performLogCleanup();
+    }
+
+    /**
+     * Nodo mínimo: JPA con los repositorios de coordinación y el ClusterCoordinationService real.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ImportAutoConfiguration({
+        DataSourceAutoConfiguration.class,
+        DataSourceTransactionManagerAutoConfiguration.class,
+        HibernateJpaAutoConfiguration.class,
+        TransactionAutoConfiguration.class,
+        JpaRepositoriesAutoConfiguration.class
+    })
+    @EntityScan(basePackageClasses = SchedulerLock.class)
+    @EnableJpaRepositories(basePackageClasses = SchedulerLockRepository.class,
+        includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE,
+            classes = {SchedulerLockRepository.class, ClusterNodeRepository.class}))
+    @Import(ClusterCoordinationService.class)
+    static class LeaseNode {
+    }
+}
@@ -0,0 +1,112 @@
+package com.tonilr.ToDoList.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Generación por lotes contra H2: cantidades exactas y mismos datos con la misma semilla.
+ */
+@DataJpaTest
+@ActiveProfiles("test-h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DataGeneratorServiceTest {
+
+    // Contenido de las tareas sin ids, que dependen del estado de la base de datos
+    private static final String TASK_FINGERPRINT =
+        "SELECT u.username, l.name, t.title, t.description, t.priority, t.completed, t.due_date, " +
+        "t.created_at, t.completed_at, t.list_rank FROM tasks t " +
+        "JOIN users u ON u.id = t.assigned_to_id JOIN task_lists l ON l.id = t.task_list_id " +
+        "ORDER BY u.username, l.name, t.list_rank";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private DataGeneratorService generator;
+
+    @BeforeEach
+    void setUp() {
+        generator = new DataGeneratorService();
+        ReflectionTestUtils.setField(generator, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(generator, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(generator, "passwordEncoder", new BCryptPasswordEncoder(4));
+        ReflectionTestUtils.setField(generator, "seed", 7L);
+        ReflectionTestUtils.setField(generator, "userCount", 25);
+        ReflectionTestUtils.setField(generator, "taskCount", 1_000L);
+        ReflectionTestUtils.setField(generator, "listsPerUser", 3);
+        ReflectionTestUtils.setField(generator, "auditPerUser", 5);
+        ReflectionTestUtils.setField(generator, "usernamePrefix", "perf");
+        ReflectionTestUtils.setField(generator, "password", "perf123");
+        ReflectionTestUtils.setField(generator, "referenceDate", "2025-03-01");
+        ReflectionTestUtils.setField(generator, "usersPerChunk", 10);
+        ReflectionTestUtils.setField(generator, "batchSize", 64);
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (String table : List.of("audit_logs", "tasks", "task_lists", "notification_preferences", "user_roles", "users")) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+    }
+
+    @Test
+    void generate_InsertsRequestedVolumes() {
+        // Act
+        Map<String, Long> totals = generator.generate();
+
+        // Assert
+        assertEquals(25L, totals.get("users"));
+        assertEquals(1_000L, totals.get("tasks"));
+        assertEquals(25, count("users"));
+        assertEquals(1_000, count("tasks"));
+        assertEquals(25, count("notification_preferences"));
+        assertEquals(totals.get("task_lists"), (long) count("task_lists"));
+        assertEquals(totals.get("audit_logs"), (long) count("audit_logs"));
+        assertEquals(0, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM tasks t JOIN task_lists l ON l.id = t.task_list_id WHERE l.owner_id <> t.assigned_to_id",
+            Integer.class));
+        // Prioridades sesgadas: la media es la más frecuente
+        List<Integer> byPriority = jdbcTemplate.queryForList(
+            "SELECT priority FROM tasks GROUP BY priority ORDER BY COUNT(*) DESC", Integer.class);
+        assertEquals(2, byPriority.get(0));
+        // Un segundo intento con el mismo prefijo no duplica datos
+        assertTrue(generator.generate().isEmpty());
+    }
+
+    @Test
+    void generate_SameSeedProducesSameData() {
+        // Arrange
+        generator.generate();
+        List<Map<String, Object>> first = jdbcTemplate.queryForList(TASK_FINGERPRINT);
+        tearDown();
+
+        // Act: lotes de otro tamaño
+        ReflectionTestUtils.setField(generator, "usersPerChunk", 7);
+        ReflectionTestUtils.setField(generator, "batchSize", 13);
+        generator.generate();
+
+        // Assert
+        assertEquals(first, jdbcTemplate.queryForList(TASK_FINGERPRINT));
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+}
@@ -0,0 +1,130 @@
+package com.tonilr.ToDoList.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Sondeos con un DataSource simulado: umbral de fallos, timeout y resultados caducados.
+ */
+class DependencyHealthServiceTest {
+
+    private DataSource dataSource;
+    private Connection connection;
+    private ApplicationEventPublisher eventPublisher;
+    private DependencyHealthService healthService;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = mock(DataSource.class);
+        connection = mock(Connection.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.isValid(anyInt())).thenReturn(true);
+
+        healthService = new DependencyHealthService();
+        ReflectionTestUtils.setField(healthService, "dataSource", dataSource);
+        ReflectionTestUtils.setField(healthService, "redisConnectionFactory", mock(ObjectProvider.class));
+        ReflectionTestUtils.setField(healthService, "mailSender", mock(ObjectProvider.class));
+        ReflectionTestUtils.setField(healthService, "eventPublisher", eventPublisher);
+        ReflectionTestUtils.setField(healthService, "probeIntervalMs", 10_000L);
+        ReflectionTestUtils.setField(healthService, "smtpIntervalMs", 300_000L);
+        ReflectionTestUtils.setField(healthService, "probeTimeoutMs", 200L);
+        ReflectionTestUtils.setField(healthService, "failureThreshold", 2);
+        ReflectionTestUtils.setField(healthService, "critical", Set.of("db"));
+        ReflectionTestUtils.setField(healthService, "smtpEnabled", false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        healthService.shutdown();
+    }
+
+    @Test
+    void notReady_UntilFirstProbe() {
+        assertFalse(healthService.isReady());
+
+        healthService.runProbes().join();
+
+        assertTrue(healthService.isReady());
+        assertEquals("UP", ((Map<?, ?>) healthService.getDependencies(false).get("db")).get("status"));
+    }
+
+    @Test
+    void readiness_FlipsAfterFailureThreshold() throws SQLException {
+        // Arrange
+        healthService.runProbes().join();
+        when(dataSource.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        // Act & Assert: un fallo aislado no saca al servicio de READY
+        healthService.runProbes().join();
+        assertTrue(healthService.isReady());
+        verify(eventPublisher, never()).publishEvent(any(AvailabilityChangeEvent.class));
+
+        healthService.runProbes().join();
+        assertFalse(healthService.isReady());
+        assertEquals(2, healthService.getResult("db").consecutiveFailures());
+        verify(eventPublisher).publishEvent(argThat((ApplicationEvent event) -> event instanceof AvailabilityChangeEvent<?> change
+            && change.getState() == ReadinessState.REFUSING_TRAFFIC));
+
+        // Se recupera con el primer sondeo correcto
+        reset(dataSource);
+        when(dataSource.getConnection()).thenReturn(connection);
+        healthService.runProbes().join();
+        assertTrue(healthService.isReady());
+    }
+
+    @Test
+    void hangingProbe_CountsAsTimeout() throws SQLException {
+        // Arrange: la conexión tarda más que probe-timeout-ms
+        when(connection.isValid(anyInt())).thenAnswer(invocation -> {
+            Thread.sleep(1_000);
+            return true;
+        });
+
+        // Act
+        long start = System.nanoTime();
+        healthService.runProbes().join();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert
+        assertTrue(elapsedMs < 900, "El sondeo debe cortarse en probe-timeout-ms");
+        DependencyHealthService.ProbeResult result = healthService.getResult("db");
+        assertEquals(DependencyHealthService.Status.DOWN, result.status());
+        assertTrue(result.error().startsWith("timeout"));
+    }
+
+    @Test
+    void staleResult_IsNotReady() throws Exception {
+        // Arrange: resultados válidos durante 3 intervalos + timeout = 35 ms
+        ReflectionTestUtils.setField(healthService, "probeIntervalMs", 5L);
+        ReflectionTestUtils.setField(healthService, "probeTimeoutMs", 20L);
+        healthService.runProbes().join();
+        assertTrue(healthService.isReady());
+
+        // Act
+        Thread.sleep(100);
+
+        // Assert
+        assertFalse(healthService.isReady());
+        assertEquals("STALE", ((Map<?, ?>) healthService.getDependencies(false).get("db")).get("status"));
+    }
+}
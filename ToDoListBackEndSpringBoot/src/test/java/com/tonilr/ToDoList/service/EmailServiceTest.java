@@ -0,0 +1,33 @@
+package com.tonilr.ToDoList.service;
+
+import com.tonilr.ToDoList.model.Task;
+import com.tonilr.ToDoList.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailServiceTest {
+
+    @Test
+    void buildEmailContent_EscapesUserSuppliedText() {
+        // Arrange: nombre de lista y título de tarea escritos por el usuario
+        Task task = new Task();
+        task.setId(1L);
+        task.setTitle("<img src=x onerror=alert(1)>");
+        task.setDescription("a & b");
+        task.setPriority(1);
+
+        // Act
+        String html = new EmailService().buildEmailContent(
+            Map.of("<script>alert('lista')</script>", List.of(task)), "Recordatorio", new User());
+
+        // Assert
+        assertFalse(html.contains("<script>"));
+        assertFalse(html.contains("<img"));
+        assertTrue(html.contains("&lt;script&gt;alert(&#39;lista&#39;)&lt;/script&gt;"));
+        assertTrue(html.contains("a &amp; b"));
+    }
+}
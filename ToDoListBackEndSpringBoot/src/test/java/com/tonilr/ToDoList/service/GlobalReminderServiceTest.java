@@ -0,0 +1,169 @@
+package com.tonilr.ToDoList.service;
+
+import com.tonilr.ToDoList.model.NotificationPreferences;
+import com.tonilr.ToDoList.model.Task;
+import com.tonilr.ToDoList.model.User;
+import com.tonilr.ToDoList.repository.NotificationPreferencesRepository;
+import com.tonilr.ToDoList.repository.TaskRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GlobalReminderServiceTest {
+
+    @Mock
+    private NotificationPreferencesRepository notificationPreferencesRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private NotificationDigestService notificationDigestService;
+
+    @Mock
+    private ClusterCoordinationService clusterCoordinationService;
+
+    @Mock
+    private ReminderLedgerService reminderLedgerService;
+
+    // Sin sharding ejecuta las consultas directamente
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter();
+
+    @InjectMocks
+    private GlobalReminderService globalReminderService;
+
+    private ExecutorService executor;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(globalReminderService, "reminderExecutor", executor);
+        ReflectionTestUtils.setField(globalReminderService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(globalReminderService, "dbConcurrency", 2);
+        globalReminderService.init();
+        when(clusterCoordinationService.currentShard()).thenReturn(ClusterCoordinationService.ShardAssignment.SINGLE);
+        lenient().when(reminderLedgerService.filterUnsent(anyString(), anyList())).thenAnswer(invocation -> invocation.getArgument(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private NotificationPreferences dueDatePreferences(long userId) {
+        User user = new User();
+        user.setId(userId);
+        user.setUsername("user" + userId);
+        user.setTimezone("UTC");
+
+        NotificationPreferences preferences = new NotificationPreferences();
+        preferences.setId(userId);
+        preferences.setUser(user);
+        preferences.setEmail("user" + userId + "@example.com");
+        preferences.setDueDateReminder(true);
+        preferences.setDueDateReminderTime("1d");
+        return preferences;
+    }
+
+    @Test
+    void checkAndSendReminders_ProcessesEveryUser() {
+        // Arrange
+        List<NotificationPreferences> preferences = new ArrayList<>();
+        for (long i = 1; i <= 10; i++) {
+            preferences.add(dueDatePreferences(i));
+        }
+        Task task = new Task();
+        task.setId(1L);
+        task.setTitle("Due");
+        task.setDueDate(LocalDateTime.now());
+        when(notificationPreferencesRepository.findByUserShard(0, 1)).thenReturn(preferences);
+        when(taskRepository.findByAssignedToAndDueDateBetweenAndCompletedFalse(any(User.class), any(), any()))
+            .thenReturn(List.of(task));
+        // El resumen se envía bien: el servicio de resúmenes ejecuta el callback de entrega
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(4).run();
+            return null;
+        }).when(notificationDigestService).enqueue(any(User.class), anyString(), anyString(), anyList(), any(Runnable.class));
+
+        // Act
+        globalReminderService.checkAndSendReminders();
+
+        // Assert
+        verify(notificationDigestService, times(10)).enqueue(any(User.class), anyString(), anyString(), anyList(), any(Runnable.class));
+        verify(reminderLedgerService, times(10)).recordSent(ReminderLedgerService.KIND_DUE_DATE, List.of(task));
+        // Una sola consulta de tareas por usuario bajo el semáforo
+        verify(taskRepository, never()).findByAssignedToAndCompletedFalse(any(User.class));
+        assertEquals(1, meterRegistry.get("reminders.run.duration").timer().count());
+        assertEquals(10.0, meterRegistry.get("reminders.run.users").gauge().value());
+    }
+
+    @Test
+    void checkAndSendReminders_LedgerWaitsForDelivery() {
+        // Arrange
+        NotificationPreferences preferences = dueDatePreferences(1L);
+        Task task = new Task();
+        task.setId(1L);
+        task.setTitle("Due");
+        task.setDueDate(LocalDateTime.now());
+        when(notificationPreferencesRepository.findByUserShard(0, 1)).thenReturn(List.of(preferences));
+        when(taskRepository.findByAssignedToAndDueDateBetweenAndCompletedFalse(any(User.class), any(), any()))
+            .thenReturn(List.of(task));
+
+        // Act: el recordatorio queda en el resumen pendiente, todavía sin enviar
+        globalReminderService.checkAndSendReminders();
+
+        // Assert
+        ArgumentCaptor<Runnable> onSent = ArgumentCaptor.forClass(Runnable.class);
+        verify(notificationDigestService).enqueue(any(User.class), anyString(), anyString(), eq(List.of(task)), onSent.capture());
+        verify(reminderLedgerService, never()).recordSent(anyString(), anyList());
+
+        onSent.getValue().run();
+        verify(reminderLedgerService).recordSent(ReminderLedgerService.KIND_DUE_DATE, List.of(task));
+    }
+
+    @Test
+    void checkAndSendReminders_SkipsTasksAlreadyInLedger() {
+        // Arrange
+        NotificationPreferences preferences = dueDatePreferences(1L);
+        Task task = new Task();
+        task.setId(1L);
+        task.setTitle("Due");
+        task.setDueDate(LocalDateTime.now());
+        when(notificationPreferencesRepository.findByUserShard(0, 1)).thenReturn(List.of(preferences));
+        when(taskRepository.findByAssignedToAndDueDateBetweenAndCompletedFalse(any(User.class), any(), any()))
+            .thenReturn(List.of(task));
+        when(reminderLedgerService.filterUnsent(ReminderLedgerService.KIND_DUE_DATE, List.of(task)))
+            .thenReturn(Collections.emptyList());
+
+        // Act
+        globalReminderService.checkAndSendReminders();
+
+        // Assert
+        verify(notificationDigestService, never()).enqueue(any(User.class), anyString(), anyString(), anyList(), any(Runnable.class));
+        verify(reminderLedgerService, never()).recordSent(anyString(), anyList());
+    }
+}
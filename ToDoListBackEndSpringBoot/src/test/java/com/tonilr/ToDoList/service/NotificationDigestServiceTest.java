@@ -0,0 +1,159 @@
+package com.tonilr.ToDoList.service;
+
+import com.tonilr.ToDoList.model.Task;
+import com.tonilr.ToDoList.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationDigestServiceTest {
+
+    @Mock
+    private EmailService emailService;
+
+    @InjectMocks
+    private NotificationDigestService notificationDigestService;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(notificationDigestService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(notificationDigestService, "windowSeconds", 120L);
+        ReflectionTestUtils.setField(notificationDigestService, "mailConcurrency", 1);
+        notificationDigestService.init();
+
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setUsername("testuser");
+        testUser.setEmail("test@example.com");
+    }
+
+    private Task task(long id) {
+        Task task = new Task();
+        task.setId(id);
+        task.setTitle("Task " + id);
+        task.setPriority(1);
+        return task;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flushAll_MergesNotificationsIntoOneEmail() {
+        // Arrange
+        notificationDigestService.enqueue(testUser, "test@example.com", "Nuevas tareas de alta prioridad", List.of(task(1)));
+        notificationDigestService.enqueue(testUser, "test@example.com", "Nuevas tareas de alta prioridad", List.of(task(2)));
+        notificationDigestService.enqueue(testUser, "test@example.com", "Recordatorio", List.of(task(1)));
+
+        // Act
+        notificationDigestService.flushAll();
+
+        // Assert
+        ArgumentCaptor<Map<String, List<Task>>> sections = ArgumentCaptor.forClass(Map.class);
+        verify(emailService, times(1)).sendDigestEmail(eq("test@example.com"), eq("Resumen de notificaciones"), sections.capture(), eq(testUser));
+        assertEquals(2, sections.getValue().get("Nuevas tareas de alta prioridad").size());
+        assertEquals(1, sections.getValue().get("Recordatorio").size());
+        assertEquals(0, notificationDigestService.getPendingCount());
+    }
+
+    @Test
+    void flushDue_KeepsDigestsInsideTheirWindow() {
+        // Arrange
+        notificationDigestService.enqueue(testUser, "test@example.com", "Recordatorio", List.of(task(1)));
+
+        // Act
+        notificationDigestService.flushDue();
+
+        // Assert
+        verify(emailService, never()).sendDigestEmail(anyString(), anyString(), anyMap(), any(User.class));
+        assertEquals(1, notificationDigestService.getPendingCount());
+    }
+
+    @Test
+    void enqueue_ZeroWindowSendsImmediately() {
+        // Arrange
+        ReflectionTestUtils.setField(notificationDigestService, "windowSeconds", 0L);
+
+        // Act
+        notificationDigestService.enqueue(testUser, "test@example.com", "Recordatorio", List.of(task(1)));
+
+        // Assert
+        verify(emailService).sendDigestEmail(eq("test@example.com"), eq("Recordatorio"), anyMap(), eq(testUser));
+        assertEquals(0, notificationDigestService.getPendingCount());
+    }
+
+    @Test
+    void onSent_RunsOnlyAfterSuccessfulSend() {
+        // Arrange
+        AtomicInteger delivered = new AtomicInteger();
+        notificationDigestService.enqueue(testUser, "test@example.com", "Recordatorio", List.of(task(1)), delivered::incrementAndGet);
+        doThrow(new RuntimeException("SMTP caído")).when(emailService)
+            .sendDigestEmail(anyString(), anyString(), anyMap(), any(User.class));
+
+        // Act: el envío falla, así que la entrega no se confirma
+        notificationDigestService.flushAll();
+        assertEquals(0, delivered.get());
+
+        // Un nuevo intento que sí sale confirma la entrega
+        doNothing().when(emailService).sendDigestEmail(anyString(), anyString(), anyMap(), any(User.class));
+        notificationDigestService.enqueue(testUser, "test@example.com", "Recordatorio", List.of(task(1)), delivered::incrementAndGet);
+        notificationDigestService.flushAll();
+
+        // Assert
+        assertEquals(1, delivered.get());
+    }
+
+    @Test
+    void send_RespectsMailConcurrencyLimit() throws Exception {
+        // Arrange: sin ventana cada enqueue envía desde el hilo que llama
+        ReflectionTestUtils.setField(notificationDigestService, "windowSeconds", 0L);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        doAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            inFlight.decrementAndGet();
+            return null;
+        }).when(emailService).sendDigestEmail(anyString(), anyString(), anyMap(), any(User.class));
+
+        // Act
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> sends = new ArrayList<>();
+            for (long i = 1; i <= 6; i++) {
+                User user = new User();
+                user.setId(i);
+                sends.add(pool.submit(() -> notificationDigestService.enqueue(user, "u@example.com", "Recordatorio", List.of(task(1)))));
+            }
+            for (Future<?> send : sends) {
+                send.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // Assert
+        assertEquals(1, maxInFlight.get());
+        verify(emailService, times(6)).sendDigestEmail(anyString(), anyString(), anyMap(), any(User.class));
+    }
+}
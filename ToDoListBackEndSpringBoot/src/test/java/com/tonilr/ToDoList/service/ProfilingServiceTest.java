@@ -0,0 +1,96 @@
+package com.tonilr.ToDoList.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Grabaciones JFR reales en un directorio temporal: ciclo de vida, rotación y resumen.
+ */
+class ProfilingServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private ProfilingService profilingService;
+
+    @BeforeEach
+    void setUp() {
+        profilingService = new ProfilingService();
+        ReflectionTestUtils.setField(profilingService, "directory", directory.toString());
+        ReflectionTestUtils.setField(profilingService, "maxRecordings", 2);
+        ReflectionTestUtils.setField(profilingService, "maxDurationSeconds", 600L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        profilingService.shutdown();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void recording_IsStoredAndSummarized() throws Exception {
+        // Arrange
+        Map<String, Object> started = profilingService.start("profile", 60);
+        String name = (String) started.get("name");
+        assertEquals("RUNNING", started.get("state"));
+
+        // Act: algo de trabajo para que haya muestras y asignaciones
+        List<String> garbage = new ArrayList<>();
+        long end = System.currentTimeMillis() + 1500;
+        while (System.currentTimeMillis() < end) {
+            garbage.add(String.valueOf(Math.random()));
+            if (garbage.size() > 10_000) {
+                garbage.clear();
+            }
+        }
+        profilingService.stop();
+        Map<String, Object> summary = profilingService.summarize(name);
+
+        // Assert
+        assertTrue(Files.size(directory.resolve(name)) > 0);
+        assertTrue((long) summary.get("events") > 0);
+        assertFalse(((List<Map<String, Object>>) summary.get("hotMethods")).isEmpty());
+        assertFalse(((List<Map<String, Object>>) summary.get("topAllocatedClasses")).isEmpty());
+        assertTrue(summary.containsKey("lockContention"));
+    }
+
+    @Test
+    void onlyOneRecordingAtATime() throws Exception {
+        profilingService.start("default", 60);
+
+        assertThrows(IllegalStateException.class, () -> profilingService.start("default", 60));
+        assertThrows(IllegalArgumentException.class, () -> profilingService.start("default", 601));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void oldRecordings_AreRotated() throws Exception {
+        // Act: tres grabaciones con max-recordings=2
+        for (int i = 0; i < 3; i++) {
+            profilingService.start("default", 60);
+            Thread.sleep(20);
+            profilingService.stop();
+        }
+
+        // Assert
+        List<Map<String, Object>> recordings = (List<Map<String, Object>>) profilingService.listRecordings().get("recordings");
+        assertEquals(2, recordings.size());
+    }
+
+    @Test
+    void recordingName_CannotEscapeDirectory() {
+        assertThrows(IllegalArgumentException.class, () -> profilingService.getRecordingFile("../application.jfr"));
+        assertThrows(IllegalArgumentException.class, () -> profilingService.getRecordingFile("missing.jfr"));
+    }
+}
@@ -0,0 +1,135 @@
+package com.tonilr.ToDoList.service;
+
+import com.tonilr.ToDoList.model.ReminderDelivery;
+import com.tonilr.ToDoList.model.Task;
+import com.tonilr.ToDoList.repository.ReminderDeliveryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReminderLedgerServiceTest {
+
+    @Mock
+    private ReminderDeliveryRepository deliveryRepository;
+
+    @Mock
+    private ClusterCoordinationService clusterCoordinationService;
+
+    @InjectMocks
+    private ReminderLedgerService reminderLedgerService;
+
+    private Task dueTask;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(reminderLedgerService, "cacheDays", 7);
+        ReflectionTestUtils.setField(reminderLedgerService, "retentionDays", 30);
+        ReflectionTestUtils.setField(reminderLedgerService, "cacheMaxIdsPerDay", 100);
+
+        dueTask = new Task();
+        dueTask.setId(5L);
+        dueTask.setTitle("Due");
+        dueTask.setDueDate(LocalDateTime.now());
+    }
+
+    @Test
+    void filterUnsent_NewTaskIsEligible() {
+        // Arrange
+        when(deliveryRepository.findSent(eq(ReminderLedgerService.KIND_DUE_DATE), anyCollection(), any()))
+            .thenReturn(Collections.emptyList());
+
+        // Act
+        List<Task> result = reminderLedgerService.filterUnsent(ReminderLedgerService.KIND_DUE_DATE, List.of(dueTask));
+
+        // Assert
+        assertEquals(List.of(dueTask), result);
+    }
+
+    @Test
+    void filterUnsent_TaskSentByAnotherNodeIsSkipped() {
+        // Arrange
+        List<Object[]> rows = Collections.singletonList(new Object[] {5L, dueTask.getDueDate().toLocalDate()});
+        when(deliveryRepository.findSent(eq(ReminderLedgerService.KIND_DUE_DATE), anyCollection(), any()))
+            .thenReturn(rows);
+
+        // Act
+        List<Task> result = reminderLedgerService.filterUnsent(ReminderLedgerService.KIND_DUE_DATE, List.of(dueTask));
+
+        // Assert
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void recordSent_LaterChecksAreAnsweredFromMemory() {
+        // Act
+        reminderLedgerService.recordSent(ReminderLedgerService.KIND_DUE_DATE, List.of(dueTask));
+        List<Task> result = reminderLedgerService.filterUnsent(ReminderLedgerService.KIND_DUE_DATE, List.of(dueTask));
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(deliveryRepository).save(any(ReminderDelivery.class));
+        verify(deliveryRepository, never()).findSent(anyString(), anyCollection(), any());
+    }
+
+    @Test
+    void filterUnsent_MovedDueDateIsEligibleAgain() {
+        // Arrange
+        reminderLedgerService.recordSent(ReminderLedgerService.KIND_DUE_DATE, List.of(dueTask));
+        dueTask.setDueDate(dueTask.getDueDate().plusDays(2));
+        when(deliveryRepository.findSent(eq(ReminderLedgerService.KIND_DUE_DATE), anyCollection(), any()))
+            .thenReturn(Collections.emptyList());
+
+        // Act
+        List<Task> result = reminderLedgerService.filterUnsent(ReminderLedgerService.KIND_DUE_DATE, List.of(dueTask));
+
+        // Assert
+        assertEquals(List.of(dueTask), result);
+    }
+
+    @Test
+    void recordSent_ShardedIdIsAnsweredFromMemory() {
+        // Arrange: id del bloque del shard 3
+        dueTask.setId((3L << 40) + 5);
+
+        // Act
+        reminderLedgerService.recordSent(ReminderLedgerService.KIND_DUE_DATE, List.of(dueTask));
+        List<Task> result = reminderLedgerService.filterUnsent(ReminderLedgerService.KIND_DUE_DATE, List.of(dueTask));
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(deliveryRepository, never()).findSent(anyString(), anyCollection(), any());
+    }
+
+    @Test
+    void recordSent_BeyondDailyCapFallsBackToTable() {
+        // Arrange: el día ya tiene el máximo de ids en memoria
+        ReflectionTestUtils.setField(reminderLedgerService, "cacheMaxIdsPerDay", 1);
+        Task other = new Task();
+        other.setId(6L);
+        other.setTitle("Other");
+        other.setDueDate(dueTask.getDueDate());
+        reminderLedgerService.recordSent(ReminderLedgerService.KIND_DUE_DATE, List.of(dueTask, other));
+        List<Object[]> rows = Collections.singletonList(new Object[] {6L, other.getDueDate().toLocalDate()});
+        when(deliveryRepository.findSent(eq(ReminderLedgerService.KIND_DUE_DATE), eq(List.of(6L)), any()))
+            .thenReturn(rows);
+
+        // Act
+        List<Task> result = reminderLedgerService.filterUnsent(ReminderLedgerService.KIND_DUE_DATE, List.of(dueTask, other));
+
+        // Assert: el primero sale de memoria y el segundo de la tabla
+        assertTrue(result.isEmpty());
+    }
+}
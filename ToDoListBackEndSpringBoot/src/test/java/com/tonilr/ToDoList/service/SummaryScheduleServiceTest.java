@@ -0,0 +1,142 @@
+package com.tonilr.ToDoList.service;
+
+import com.tonilr.ToDoList.model.NotificationPreferences;
+import com.tonilr.ToDoList.model.Task;
+import com.tonilr.ToDoList.model.User;
+import com.tonilr.ToDoList.repository.NotificationPreferencesRepository;
+import com.tonilr.ToDoList.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SummaryScheduleServiceTest {
+
+    @Mock
+    private NotificationPreferencesRepository notificationPreferencesRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private NotificationDigestService notificationDigestService;
+
+    @Mock
+    private ClusterCoordinationService clusterCoordinationService;
+
+    // Sin sharding ejecuta las consultas directamente
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter();
+
+    @InjectMocks
+    private SummaryScheduleService summaryScheduleService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(summaryScheduleService, "batchSize", 500);
+        when(clusterCoordinationService.currentShard()).thenReturn(ClusterCoordinationService.ShardAssignment.SINGLE);
+    }
+
+    private NotificationPreferences dailyAt(long userId, String timezone, String time) {
+        User user = new User();
+        user.setId(userId);
+        user.setUsername("user" + userId);
+        user.setTimezone(timezone);
+
+        NotificationPreferences preferences = new NotificationPreferences();
+        preferences.setId(userId);
+        preferences.setUser(user);
+        preferences.setEmail("user" + userId + "@example.com");
+        preferences.setDailySummary(true);
+        preferences.setDailySummaryTime(time);
+        return preferences;
+    }
+
+    private Task taskFor(User user) {
+        Task task = new Task();
+        task.setId(user.getId());
+        task.setTitle("Task " + user.getId());
+        task.setAssignedTo(user);
+        task.setDueDate(LocalDateTime.now());
+        return task;
+    }
+
+    @Test
+    void fireDueBuckets_SameZoneAndTimeShareOneQueryAndFireOnce() {
+        // Arrange
+        NotificationPreferences first = dailyAt(1L, "Europe/Madrid", "09:30");
+        NotificationPreferences second = dailyAt(2L, "Europe/Madrid", "09:30");
+        when(notificationPreferencesRepository.findSummarySubscribersByUserShard(0, 1)).thenReturn(List.of(first, second));
+        when(taskRepository.findByAssignedToIdInAndDueDateBetweenAndCompletedFalse(anyCollection(), any(), any()))
+            .thenReturn(List.of(taskFor(first.getUser()), taskFor(second.getUser())));
+
+        // 09:30 en Madrid (CET) son las 08:30 UTC
+        summaryScheduleService.rebuild(Instant.parse("2024-01-15T08:00:00Z"));
+
+        // Act
+        int beforeTime = summaryScheduleService.fireDueBuckets(Instant.parse("2024-01-15T08:29:00Z"));
+        int atTime = summaryScheduleService.fireDueBuckets(Instant.parse("2024-01-15T08:30:00Z"));
+        int sameMinuteAgain = summaryScheduleService.fireDueBuckets(Instant.parse("2024-01-15T08:30:30Z"));
+
+        // Assert
+        assertEquals(1, summaryScheduleService.getBucketCount());
+        assertEquals(0, beforeTime);
+        assertEquals(1, atTime);
+        assertEquals(0, sameMinuteAgain);
+        verify(taskRepository, times(1)).findByAssignedToIdInAndDueDateBetweenAndCompletedFalse(anyCollection(), any(), any());
+        verify(notificationDigestService, times(2)).enqueue(any(User.class), anyString(), eq("Resumen diario de tareas pendientes"), anyList());
+    }
+
+    @Test
+    void fireDueBuckets_DifferentZonesFireAtTheirOwnInstant() {
+        // Arrange
+        NotificationPreferences madrid = dailyAt(1L, "Europe/Madrid", "09:00");
+        NotificationPreferences newYork = dailyAt(2L, "America/New_York", "09:00");
+        when(notificationPreferencesRepository.findSummarySubscribersByUserShard(0, 1)).thenReturn(List.of(madrid, newYork));
+        when(taskRepository.findByAssignedToIdInAndDueDateBetweenAndCompletedFalse(anyCollection(), any(), any()))
+            .thenReturn(List.of());
+
+        summaryScheduleService.rebuild(Instant.parse("2024-01-15T00:00:00Z"));
+
+        // Act
+        int atMadrid = summaryScheduleService.fireDueBuckets(Instant.parse("2024-01-15T08:00:00Z"));
+        int atNewYork = summaryScheduleService.fireDueBuckets(Instant.parse("2024-01-15T14:00:00Z"));
+
+        // Assert
+        assertEquals(2, summaryScheduleService.getBucketCount());
+        assertEquals(1, atMadrid);
+        assertEquals(1, atNewYork);
+        verify(notificationDigestService, never()).enqueue(any(User.class), anyString(), anyString(), anyList());
+    }
+
+    @Test
+    void rebuild_KeepsNextFireOfExistingBuckets() {
+        // Arrange
+        NotificationPreferences preferences = dailyAt(1L, "UTC", "10:00");
+        when(notificationPreferencesRepository.findSummarySubscribersByUserShard(0, 1)).thenReturn(List.of(preferences));
+        when(taskRepository.findByAssignedToIdInAndDueDateBetweenAndCompletedFalse(anyCollection(), any(), any()))
+            .thenReturn(List.of());
+        summaryScheduleService.rebuild(Instant.parse("2024-01-15T09:00:00Z"));
+        summaryScheduleService.fireDueBuckets(Instant.parse("2024-01-15T10:00:00Z"));
+
+        // Act
+        summaryScheduleService.rebuild(Instant.parse("2024-01-15T10:00:10Z"));
+        int fired = summaryScheduleService.fireDueBuckets(Instant.parse("2024-01-15T10:00:20Z"));
+
+        // Assert
+        assertEquals(0, fired);
+    }
+}
@@ -0,0 +1,133 @@
+package com.tonilr.ToDoList.service;
+
+import com.tonilr.ToDoList.model.ArchivedTask;
+import com.tonilr.ToDoList.model.Task;
+import com.tonilr.ToDoList.model.TaskList;
+import com.tonilr.ToDoList.model.User;
+import com.tonilr.ToDoList.repository.ArchivedTaskRepository;
+import com.tonilr.ToDoList.repository.TaskListRepository;
+import com.tonilr.ToDoList.repository.TaskRepository;
+import com.tonilr.ToDoList.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Archivo por lotes contra H2; cada lote copia y borra en su propia transacción.
+ */
+@DataJpaTest
+@ActiveProfiles("test-h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TaskArchiveServiceTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskListRepository taskListRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ArchivedTaskRepository archivedTaskRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TaskArchiveService archiveService;
+    private User owner;
+    private TaskList list;
+
+    @BeforeEach
+    void setUp() {
+        archiveService = new TaskArchiveService();
+        ReflectionTestUtils.setField(archiveService, "taskRepository", taskRepository);
+        // Sin sharding: un único shard, sin movimientos
+        ReflectionTestUtils.setField(archiveService, "shardRouter", new ShardRouter());
+        ReflectionTestUtils.setField(archiveService, "archivedTaskRepository", archivedTaskRepository);
+        ReflectionTestUtils.setField(archiveService, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(archiveService, "batchSize", 2);
+        ReflectionTestUtils.setField(archiveService, "pauseMillis", 0L);
+
+        owner = new User();
+        owner.setUsername("archive-owner");
+        owner.setEmail("archive-owner@example.com");
+        owner.setPassword("secret");
+        owner = userRepository.save(owner);
+
+        list = new TaskList();
+        list.setName("Chores");
+        list.setOwner(owner);
+        list = taskListRepository.save(list);
+    }
+
+    @AfterEach
+    void tearDown() {
+        archivedTaskRepository.deleteAll();
+        taskRepository.deleteAll();
+        taskListRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private Task newTask(String title, LocalDateTime completedAt) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setTaskList(list);
+        task.setUser(owner);
+        task.setAssignedTo(owner);
+        task.setCompleted(completedAt != null);
+        task.setCompletedAt(completedAt);
+        return taskRepository.save(task);
+    }
+
+    @Test
+    void archiveCompletedBefore_MovesOnlyOldCompletedTasksKeepingIds() {
+        // Arrange
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(90);
+        Task old1 = newTask("Old 1", cutoff.minusDays(10));
+        Task old2 = newTask("Old 2", cutoff.minusDays(5));
+        Task old3 = newTask("Old 3", cutoff.minusDays(1));
+        Task recent = newTask("Recent", LocalDateTime.now().minusDays(1));
+        Task open = newTask("Open", null);
+
+        // Act
+        long archived = archiveService.archiveCompletedBefore(cutoff, Long.MAX_VALUE);
+
+        // Assert
+        assertEquals(3, archived);
+        assertEquals(List.of(recent.getId(), open.getId()),
+            taskRepository.findAll().stream().map(Task::getId).sorted().toList());
+        List<ArchivedTask> history = archivedTaskRepository.findByAssignedToAndTaskListId(owner, list.getId());
+        assertEquals(List.of(old3.getId(), old2.getId(), old1.getId()), history.stream().map(ArchivedTask::getId).toList());
+        assertEquals("Chores", history.get(0).getTaskList().getName());
+        assertNotNull(history.get(0).getArchivedAt());
+        assertEquals(0, archiveService.archiveCompletedBefore(cutoff, Long.MAX_VALUE));
+    }
+
+    @Test
+    void archiveCompletedBefore_StopsAtDeadline() {
+        // Arrange
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(90);
+        newTask("Old", cutoff.minusDays(1));
+
+        // Act
+        long archived = archiveService.archiveCompletedBefore(cutoff, 0L);
+
+        // Assert
+        assertEquals(0, archived);
+        assertEquals(1, taskRepository.count());
+    }
+}
@@ -0,0 +1,178 @@
+package com.tonilr.ToDoList.service;
+
+import com.tonilr.ToDoList.dto.TaskListDeletionDTO;
+import com.tonilr.ToDoList.model.Task;
+import com.tonilr.ToDoList.model.TaskList;
+import com.tonilr.ToDoList.model.User;
+import com.tonilr.ToDoList.repository.ArchivedTaskRepository;
+import com.tonilr.ToDoList.repository.TaskListRepository;
+import com.tonilr.ToDoList.repository.TaskRepository;
+import com.tonilr.ToDoList.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Purga por lotes contra H2; cada lote se confirma en su propia transacción.
+ */
+@DataJpaTest
+@ActiveProfiles("test-h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TaskListPurgeServiceTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskListRepository taskListRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ArchivedTaskRepository archivedTaskRepository;
+
+    private TaskListPurgeService purgeService;
+    private User owner;
+    private TaskList doomed;
+    private TaskList kept;
+
+    @BeforeEach
+    void setUp() {
+        purgeService = new TaskListPurgeService();
+        ReflectionTestUtils.setField(purgeService, "taskListRepository", taskListRepository);
+        ReflectionTestUtils.setField(purgeService, "taskRepository", taskRepository);
+        // Sin sharding: un único shard, sin movimientos
+        ReflectionTestUtils.setField(purgeService, "shardRouter", new ShardRouter());
+        ReflectionTestUtils.setField(purgeService, "archivedTaskRepository", archivedTaskRepository);
+        ReflectionTestUtils.setField(purgeService, "chunkSize", 3);
+        ReflectionTestUtils.setField(purgeService, "pauseMillis", 0L);
+
+        owner = new User();
+        owner.setUsername("purge-owner");
+        owner.setEmail("purge-owner@example.com");
+        owner.setPassword("secret");
+        owner = userRepository.save(owner);
+
+        doomed = newList("Doomed", 7);
+        kept = newList("Kept", 2);
+        doomed.setDeletedAt(LocalDateTime.now());
+        doomed = taskListRepository.save(doomed);
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAll();
+        taskListRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private TaskList newList(String name, int tasks) {
+        TaskList list = new TaskList();
+        list.setName(name);
+        list.setOwner(owner);
+        list = taskListRepository.save(list);
+        for (int i = 0; i < tasks; i++) {
+            Task task = new Task();
+            task.setTitle(name + " " + i);
+            task.setTaskList(list);
+            task.setUser(owner);
+            task.setAssignedTo(owner);
+            taskRepository.save(task);
+        }
+        return list;
+    }
+
+    @Test
+    void purgeList_RemovesTasksInChunksAndLeavesTombstone() {
+        // Act
+        boolean finished = purgeService.purgeList(doomed.getId(), Long.MAX_VALUE);
+
+        // Assert
+        assertTrue(finished);
+        assertNotNull(taskListRepository.findById(doomed.getId()).orElseThrow().getPurgedAt());
+        assertFalse(taskListRepository.findPendingDeletionIds().contains(doomed.getId()));
+        assertEquals(0, taskRepository.countByTaskListId(doomed.getId()));
+        assertEquals(2, taskRepository.countByTaskListId(kept.getId()));
+    }
+
+    @Test
+    void getDeletionStatus_ReportsProgressUntilDoneAcrossFullPurge() {
+        // Arrange: el propietario consulta el estado entre lote y lote
+        TaskListService taskListService = new TaskListService();
+        SecurityService securityService = mock(SecurityService.class);
+        when(securityService.isOwner(owner.getId())).thenReturn(true);
+        ReflectionTestUtils.setField(taskListService, "taskListRepository", taskListRepository);
+        ReflectionTestUtils.setField(taskListService, "taskRepository", taskRepository);
+        ReflectionTestUtils.setField(taskListService, "securityService", securityService);
+        List<String> statuses = new ArrayList<>();
+        statuses.add(taskListService.getDeletionStatus(doomed.getId()).getStatus());
+
+        // Act: un lote por ejecución hasta terminar
+        boolean finished = false;
+        while (!finished) {
+            finished = purgeService.purgeList(doomed.getId(), 0L);
+            statuses.add(taskListService.getDeletionStatus(doomed.getId()).getStatus());
+        }
+
+        // Assert
+        assertEquals(TaskListDeletionDTO.STATUS_PENDING, statuses.get(0));
+        assertEquals(TaskListDeletionDTO.STATUS_IN_PROGRESS, statuses.get(1));
+        assertEquals(TaskListDeletionDTO.STATUS_DONE, statuses.get(statuses.size() - 1));
+        TaskListDeletionDTO done = taskListService.getDeletionStatus(doomed.getId());
+        assertEquals(7L, done.getTotalTasks());
+        assertEquals(0L, done.getRemainingTasks());
+    }
+
+    @Test
+    void purgeTombstones_RemovesOnlyExpiredTombstones() {
+        // Arrange
+        ClusterCoordinationService clusterCoordinationService = mock(ClusterCoordinationService.class);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(3).run();
+            return true;
+        }).when(clusterCoordinationService).runExclusively(any(), any(), any(), any());
+        ReflectionTestUtils.setField(purgeService, "clusterCoordinationService", clusterCoordinationService);
+        ReflectionTestUtils.setField(purgeService, "tombstoneRetentionHours", 24L);
+        purgeService.purgeList(doomed.getId(), Long.MAX_VALUE);
+        TaskList old = newList("Old", 0);
+        old.setDeletedAt(LocalDateTime.now().minusDays(3));
+        old.setPurgedAt(LocalDateTime.now().minusDays(2));
+        old = taskListRepository.save(old);
+
+        // Act
+        purgeService.purgeTombstones();
+
+        // Assert
+        assertFalse(taskListRepository.findById(old.getId()).isPresent());
+        assertTrue(taskListRepository.findById(doomed.getId()).isPresent());
+        assertTrue(taskListRepository.findById(kept.getId()).isPresent());
+    }
+
+    @Test
+    void purgeList_StopsAtDeadlineAndReportsProgress() {
+        // Act
+        boolean finished = purgeService.purgeList(doomed.getId(), 0L);
+
+        // Assert
+        assertFalse(finished);
+        TaskList pending = taskListRepository.findById(doomed.getId()).orElseThrow();
+        assertEquals(7L, pending.getDeletionTotal());
+        assertEquals(4, taskRepository.countByTaskListId(doomed.getId()));
+        assertTrue(taskListRepository.findByOwner(owner).stream().noneMatch(list -> list.getId().equals(doomed.getId())));
+    }
+}
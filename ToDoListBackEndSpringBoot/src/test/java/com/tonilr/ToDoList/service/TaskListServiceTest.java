@@ -2,18 +2,25 @@ package com.tonilr.ToDoList.service;
 
 import com.tonilr.ToDoList.dto.DTOMapper;
 import com.tonilr.ToDoList.dto.TaskListDTO;
+import com.tonilr.ToDoList.dto.TaskListDeletionDTO;
+import com.tonilr.ToDoList.dto.TaskListSummaryDTO;
 import com.tonilr.ToDoList.exception.ResourceNotFoundException;
 import com.tonilr.ToDoList.exception.UnauthorizedException;
 import com.tonilr.ToDoList.model.TaskList;
 import com.tonilr.ToDoList.model.User;
 import com.tonilr.ToDoList.repository.TaskListRepository;
+import com.tonilr.ToDoList.repository.TaskRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -28,6 +35,9 @@ class TaskListServiceTest {
     @Mock
     private TaskListRepository taskListRepository;
     
+    @Mock
+    private TaskRepository taskRepository;
+
     @Mock
     private UserService userService;
     
@@ -43,6 +53,9 @@ class TaskListServiceTest {
     @Mock
     private AuditLogService auditLogService;
 
+    @Spy
+    private CacheManager cacheManager = new ConcurrentMapCacheManager();
+
     @InjectMocks
     private TaskListService taskListService;
 
@@ -141,14 +154,17 @@ class TaskListServiceTest {
         // Arrange
         when(taskListRepository.findById(1L)).thenReturn(Optional.of(testTaskList));
         when(securityService.isOwner(1L)).thenReturn(true);
-        doNothing().when(taskListRepository).delete(any(TaskList.class));
+        when(taskListRepository.save(any(TaskList.class))).thenReturn(testTaskList);
         doNothing().when(auditLogService).logAction(any(User.class), anyString(), anyString());
 
         // Act
-        taskListService.deleteTaskList(1L);
+        TaskListDeletionDTO result = taskListService.deleteTaskList(1L);
 
         // Assert
-        verify(taskListRepository).delete(any(TaskList.class));
+        assertEquals(TaskListDeletionDTO.STATUS_PENDING, result.getStatus());
+        assertNotNull(testTaskList.getDeletedAt());
+        verify(taskListRepository).save(testTaskList);
+        verify(taskListRepository, never()).delete(any(TaskList.class));
         verify(auditLogService).logAction(any(User.class), anyString(), anyString());
     }
 
@@ -162,4 +178,65 @@ class TaskListServiceTest {
             taskListService.deleteTaskList(1L);
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    void getUserTaskListSummaries_OverdueCountIsNotCached() {
+        // Arrange: la primera llamada cachea los contadores; entre llamadas vence una tarea
+        when(userService.findByUsername("testuser")).thenReturn(testUser);
+        when(taskListRepository.findSummariesByOwnerId(eq(1L), any(LocalDateTime.class)))
+            .thenReturn(List.of(new TaskListSummaryDTO(1L, "Test List", null, 3L, 1L, 0L)));
+        when(taskListRepository.countOverdueByOwnerId(eq(1L), any(LocalDateTime.class)))
+            .thenReturn(List.of())
+            .thenReturn(List.<Object[]>of(new Object[] {1L, 1L}));
+
+        // Act
+        List<TaskListSummaryDTO> first = taskListService.getUserTaskListSummaries("testuser");
+        List<TaskListSummaryDTO> second = taskListService.getUserTaskListSummaries("testuser");
+
+        // Assert
+        assertEquals(0, first.get(0).getOverdueCount());
+        assertEquals(1, second.get(0).getOverdueCount());
+        assertEquals(3, second.get(0).getTaskCount());
+        verify(taskListRepository, times(1)).findSummariesByOwnerId(eq(1L), any(LocalDateTime.class));
+    }
+
+    @Test
+    void getDeletionStatus_UnknownList_NotFound() {
+        // Arrange
+        when(taskListRepository.findById(99L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> taskListService.getDeletionStatus(99L));
+    }
+
+    @Test
+    void getDeletionStatus_OtherUsersList_Unauthorized() {
+        // Arrange
+        testTaskList.setDeletedAt(LocalDateTime.now());
+        when(taskListRepository.findById(1L)).thenReturn(Optional.of(testTaskList));
+        when(securityService.isOwner(1L)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(UnauthorizedException.class, () -> taskListService.getDeletionStatus(1L));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void getDeletionStatus_ReportsRemainingTasks() {
+        // Arrange
+        testTaskList.setDeletedAt(LocalDateTime.now());
+        testTaskList.setDeletionTotal(10L);
+        when(taskListRepository.findById(1L)).thenReturn(Optional.of(testTaskList));
+        when(securityService.isOwner(1L)).thenReturn(true);
+        when(taskRepository.countByTaskListId(1L)).thenReturn(4L, 0L);
+
+        // Act
+        TaskListDeletionDTO inProgress = taskListService.getDeletionStatus(1L);
+        TaskListDeletionDTO done = taskListService.getDeletionStatus(1L);
+
+        // Assert
+        assertEquals(TaskListDeletionDTO.STATUS_IN_PROGRESS, inProgress.getStatus());
+        assertEquals(4L, inProgress.getRemainingTasks());
+        assertEquals(TaskListDeletionDTO.STATUS_DONE, done.getStatus());
+    }
+}
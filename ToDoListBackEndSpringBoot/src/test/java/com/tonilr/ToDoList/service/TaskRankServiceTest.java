@@ -0,0 +1,181 @@
+package com.tonilr.ToDoList.service;
+
+import com.tonilr.ToDoList.dto.DTOMapper;
+import com.tonilr.ToDoList.dto.MoveTaskDTO;
+import com.tonilr.ToDoList.exception.BadRequestException;
+import com.tonilr.ToDoList.model.Task;
+import com.tonilr.ToDoList.model.TaskList;
+import com.tonilr.ToDoList.model.User;
+import com.tonilr.ToDoList.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskRankServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private SecurityService securityService;
+
+    @Mock
+    private DTOMapper dtoMapper;
+
+    @InjectMocks
+    private TaskRankService taskRankService;
+
+    private User owner;
+    private TaskList list;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(taskRankService, "maxRankLength", 24);
+        owner = new User();
+        owner.setId(1L);
+        list = new TaskList();
+        list.setId(10L);
+    }
+
+    private Task task(long id, String rank) {
+        Task task = new Task();
+        task.setId(id);
+        task.setTitle("Task " + id);
+        task.setRank(rank);
+        task.setTaskList(list);
+        task.setAssignedTo(owner);
+        return task;
+    }
+
+    @Test
+    void between_ReturnsRankStrictlyBetweenBounds() {
+        assertBetween(null, null);
+        assertBetween(null, "i");
+        assertBetween("i", null);
+        assertBetween("a", "b");
+        assertBetween("az", "b");
+        assertBetween(null, "01");
+        assertBetween("zz", null);
+    }
+
+    @Test
+    void between_RepeatedInsertionsStayOrderedAndGrowSlowly() {
+        // Arrange
+        String low = "a";
+        String high = "b";
+
+        // Act: insertar 100 veces justo delante de la última tarea insertada
+        for (int i = 0; i < 100; i++) {
+            high = TaskRankService.between(low, high);
+        }
+
+        // Assert
+        assertTrue(low.compareTo(high) < 0);
+        assertTrue(high.length() < 30);
+    }
+
+    @Test
+    void spread_ReturnsShortIncreasingRanks() {
+        // Act
+        List<String> ranks = TaskRankService.spread(20000);
+
+        // Assert
+        assertEquals(20000, ranks.size());
+        for (int i = 1; i < ranks.size(); i++) {
+            assertTrue(ranks.get(i - 1).compareTo(ranks.get(i)) < 0);
+        }
+        assertTrue(ranks.get(0).length() <= 5);
+    }
+
+    @Test
+    void moveTask_UpdatesOnlyTheMovedTask() {
+        // Arrange
+        Task moved = task(1L, "c");
+        Task previous = task(2L, "a");
+        Task next = task(3L, "b");
+        MoveTaskDTO move = new MoveTaskDTO();
+        move.setPreviousTaskId(2L);
+        move.setNextTaskId(3L);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(moved));
+        when(taskRepository.findById(2L)).thenReturn(Optional.of(previous));
+        when(taskRepository.findById(3L)).thenReturn(Optional.of(next));
+        when(securityService.isOwner(1L)).thenReturn(true);
+        when(taskRepository.save(moved)).thenReturn(moved);
+
+        // Act
+        taskRankService.moveTask(1L, move);
+
+        // Assert
+        assertTrue("a".compareTo(moved.getRank()) < 0 && moved.getRank().compareTo("b") < 0);
+        verify(taskRepository, times(1)).save(any(Task.class));
+        verify(taskRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void moveTask_UnrankedNeighboursTriggerOneRebalance() {
+        // Arrange
+        Task moved = task(1L, null);
+        Task previous = task(2L, null);
+        Task next = task(3L, null);
+        MoveTaskDTO move = new MoveTaskDTO();
+        move.setPreviousTaskId(2L);
+        move.setNextTaskId(3L);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(moved));
+        when(taskRepository.findById(2L)).thenReturn(Optional.of(previous));
+        when(taskRepository.findById(3L)).thenReturn(Optional.of(next));
+        when(taskRepository.findByTaskListId(10L)).thenReturn(new ArrayList<>(List.of(previous, next, moved)));
+        when(securityService.isOwner(1L)).thenReturn(true);
+        when(taskRepository.save(moved)).thenReturn(moved);
+
+        // Act
+        taskRankService.moveTask(1L, move);
+
+        // Assert
+        assertTrue(previous.getRank().compareTo(moved.getRank()) < 0);
+        assertTrue(moved.getRank().compareTo(next.getRank()) < 0);
+        verify(taskRepository).saveAll(anyList());
+    }
+
+    @Test
+    void moveTask_NeighbourFromAnotherListIsRejected() {
+        // Arrange
+        Task moved = task(1L, "c");
+        TaskList otherList = new TaskList();
+        otherList.setId(99L);
+        Task foreign = task(2L, "a");
+        foreign.setTaskList(otherList);
+        MoveTaskDTO move = new MoveTaskDTO();
+        move.setPreviousTaskId(2L);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(moved));
+        when(taskRepository.findById(2L)).thenReturn(Optional.of(foreign));
+        when(securityService.isOwner(1L)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> taskRankService.moveTask(1L, move));
+        verify(taskRepository, never()).save(any(Task.class));
+    }
+
+    private void assertBetween(String before, String after) {
+        String rank = TaskRankService.between(before, after);
+        if (before != null) {
+            assertTrue(before.compareTo(rank) < 0, before + " < " + rank);
+        }
+        if (after != null) {
+            assertTrue(rank.compareTo(after) < 0, rank + " < " + after);
+        }
+        assertNotEquals('0', rank.charAt(rank.length() - 1));
+    }
+}
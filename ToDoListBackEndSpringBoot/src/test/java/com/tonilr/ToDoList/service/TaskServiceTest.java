@@ -49,11 +49,14 @@ class TaskServiceTest {
     private CacheManager cacheManager;
     
     @Mock
-    private EmailService emailService;
+    private NotificationDigestService notificationDigestService;
     
     @Mock
     private AuditLogService auditLogService;
 
+    @Mock
+    private TaskRankService taskRankService;
+
     @InjectMocks
     private TaskService taskService;
 
@@ -102,7 +105,6 @@ class TaskServiceTest {
         when(taskListRepository.findById(1L)).thenReturn(Optional.of(testTaskList));
         when(taskRepository.save(any(Task.class))).thenReturn(testTask);
         when(dtoMapper.toTaskDTO(testTask)).thenReturn(testTaskDTO);
-        doNothing().when(emailService).sendSimpleEmail(anyString(), anyString(), anyString());
         doNothing().when(auditLogService).logAction(any(User.class), anyString(), anyString());
 
         // Act
@@ -113,7 +115,7 @@ class TaskServiceTest {
         assertEquals("Test Task", result.getTitle());
         verify(taskRepository).save(any(Task.class));
         verify(taskListRepository).findById(1L);
-        verify(emailService).sendSimpleEmail(anyString(), anyString(), anyString());
+        verify(notificationDigestService).enqueue(any(User.class), anyString(), anyString(), anyList());
         verify(auditLogService).logAction(any(User.class), anyString(), anyString());
     }
 
@@ -143,7 +145,6 @@ class TaskServiceTest {
         when(dtoMapper.toTask(taskDTOWithoutList)).thenReturn(taskWithoutList);
         when(taskRepository.save(any(Task.class))).thenReturn(taskWithoutList);
         when(dtoMapper.toTaskDTO(taskWithoutList)).thenReturn(taskDTOWithoutList);
-        doNothing().when(emailService).sendSimpleEmail(anyString(), anyString(), anyString());
         doNothing().when(auditLogService).logAction(any(User.class), anyString(), anyString());
 
         // Act
@@ -154,7 +155,7 @@ class TaskServiceTest {
         assertEquals("Test Task", result.getTitle());
         verify(taskRepository).save(any(Task.class));
         verify(taskListRepository, never()).findById(any());
-        verify(emailService).sendSimpleEmail(anyString(), anyString(), anyString());
+        verify(notificationDigestService).enqueue(any(User.class), anyString(), anyString(), anyList());
         verify(auditLogService).logAction(any(User.class), anyString(), anyString());
     }
 
@@ -166,7 +167,6 @@ class TaskServiceTest {
         when(taskListRepository.findById(1L)).thenReturn(Optional.of(testTaskList));
         when(taskRepository.save(any(Task.class))).thenReturn(testTask);
         when(dtoMapper.toTaskDTO(testTask)).thenReturn(testTaskDTO);
-        doNothing().when(emailService).sendSimpleEmail(anyString(), anyString(), anyString());
         doNothing().when(auditLogService).logAction(any(User.class), anyString(), anyString());
 
         // Act
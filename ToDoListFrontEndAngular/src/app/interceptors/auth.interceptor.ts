@@ -17,10 +17,13 @@ export const authInterceptor: HttpInterceptorFn = (req, next) => {
   // Retrieve the JWT token from localStorage
   const token = localStorage.getItem('token');
   
-  // If a token exists, clone the request and add the Authorization header
+  // If a token exists, clone the request and add the Authorization header.
+  // Credentials are sent so the backend's read-your-writes cookie (rw_until)
+  // reaches whichever node handles the next request.
   if (token) {
     const cloned = req.clone({
-      headers: req.headers.set('Authorization', `Bearer ${token}`)
+      headers: req.headers.set('Authorization', `Bearer ${token}`),
+      withCredentials: true
     });
     return next(cloned);
   }